@@ -1,13 +1,61 @@
 import abstractexpressions.expression.classes.Expression;
+import batch.BatchSimplifier;
+import batch.EquivalenceVerifier;
+import batch.ExpressionRecordReader;
+import batch.SimplificationCache;
+import batch.SimplificationResult;
+import batch.SimplificationServer;
+import batch.SimplificationWatchdog;
+import batch.StreamingSimplifier;
+import enums.TypeLanguage;
 import exceptions.EvaluationException;
 import exceptions.ExpressionException;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Simplify {
 
+    private static final String BATCH_OPTION = "-batch";
+    private static final String STREAM_OPTION = "-stream";
+    private static final String SERVER_OPTION = "-server";
+    private static final String VERIFY_OPTION = "-verify";
+    private static final String PORT_OPTION = "-port";
+    private static final String RUNS_OPTION = "-runs";
+    private static final String THREADS_OPTION = "-threads";
+    private static final String TIMEOUT_OPTION = "-timeout";
+    private static final String MAX_PASSES_OPTION = "-maxPasses";
+    private static final String CACHE_OPTION = "-cache";
+    private static final String CACHE_SIZE_OPTION = "-cacheSize";
+    private static final String POINTS_OPTION = "-points";
+    private static final String RANGE_OPTION = "-range";
+    private static final String SEED_OPTION = "-seed";
+    private static final String CSV_OPTION = "-csv";
+    private static final String MAX_COUNTEREXAMPLES_OPTION = "-maxCounterexamples";
+    private static final String TOLERANCE_OPTION = "-tolerance";
+    private static final long DEFAULT_CACHE_SIZE_MB = 64;
+    private static final long MAX_CACHE_SIZE_MB = 2047;
+
     public static void main(String[] args){
+        if(args.length > 0 && args[0].equals(BATCH_OPTION)){
+            simplifyBatch(args);
+            return;
+        }
+        if(args.length > 0 && args[0].equals(STREAM_OPTION)){
+            simplifyStream(args);
+            return;
+        }
+        if(args.length > 0 && args[0].equals(SERVER_OPTION)){
+            serve(args);
+            return;
+        }
+        if(args.length > 0 && args[0].equals(VERIFY_OPTION)){
+            verify(args);
+            return;
+        }
+
         String path = args[0];
         String simplifiedGPTreePath = path + "_simplifiedGP/";
         int run = Integer.parseInt(args[1]);
@@ -44,4 +92,318 @@ public class Simplify {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Usage: Simplify -batch [-runs FIRST-LAST] [-threads N] [-timeout MS] [-maxPasses N] [-cache FILE [-cacheSize MB]] DIR_OR_GLOB...
+     */
+    private static void simplifyBatch(String[] args){
+        int firstRun = 0;
+        int lastRun = 29;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeoutMillis = 0;
+        int maxPasses = 0;
+        String cachePath = null;
+        long cacheSizeMB = DEFAULT_CACHE_SIZE_MB;
+        List<String> directoriesOrGlobs = new ArrayList<>();
+
+        for(int i = 1; i < args.length; i++){
+            if(args[i].equals(RUNS_OPTION) && i + 1 < args.length){
+                try {
+                    int[] runRange = BatchSimplifier.parseRunRange(args[++i]);
+                    firstRun = runRange[0];
+                    lastRun = runRange[1];
+                } catch (IllegalArgumentException e){
+                    // invalid range, usage is printed below
+                    firstRun = -1;
+                }
+            } else if(args[i].equals(THREADS_OPTION) && i + 1 < args.length){
+                threads = Integer.parseInt(args[++i]);
+            } else if(args[i].equals(TIMEOUT_OPTION) && i + 1 < args.length){
+                timeoutMillis = Long.parseLong(args[++i]);
+            } else if(args[i].equals(MAX_PASSES_OPTION) && i + 1 < args.length){
+                maxPasses = Integer.parseInt(args[++i]);
+            } else if(args[i].equals(CACHE_OPTION) && i + 1 < args.length){
+                cachePath = args[++i];
+            } else if(args[i].equals(CACHE_SIZE_OPTION) && i + 1 < args.length){
+                cacheSizeMB = Long.parseLong(args[++i]);
+            } else {
+                directoriesOrGlobs.add(args[i]);
+            }
+        }
+
+        if(directoriesOrGlobs.isEmpty() || firstRun < 0 || lastRun < firstRun || threads < 1 || cacheSizeMB < 1 || cacheSizeMB > MAX_CACHE_SIZE_MB){
+            System.out.println("Usage: Simplify -batch [-runs FIRST-LAST] [-threads N] [-timeout MS] [-maxPasses N] [-cache FILE [-cacheSize MB]] DIR_OR_GLOB...");
+            return;
+        }
+
+        List<File> directories;
+        try {
+            directories = BatchSimplifier.resolveDirectories(directoriesOrGlobs);
+        } catch (IOException e){
+            e.printStackTrace();
+            return;
+        }
+
+        // so that error messages in the report are not empty
+        Expression.setLanguage(TypeLanguage.EN);
+
+        SimplificationCache cache = openCache(cachePath, cacheSizeMB);
+
+        BatchSimplifier batchSimplifier = new BatchSimplifier(threads, new SimplificationWatchdog(timeoutMillis, maxPasses));
+        batchSimplifier.setCache(cache);
+        long start = System.nanoTime();
+        List<SimplificationResult> results = batchSimplifier.simplifyRuns(directories, firstRun, lastRun);
+        long wallTime = System.nanoTime() - start;
+        batchSimplifier.shutdown();
+        closeCache(cache);
+
+        BatchSimplifier.printReport(results, wallTime, System.out);
+    }
+
+    /**
+     * Usage: Simplify -stream [-threads N] [-timeout MS] [-maxPasses N] [-cache FILE [-cacheSize MB]] INPUT OUTPUT
+     * (one expression per line in INPUT and OUTPUT)
+     */
+    private static void simplifyStream(String[] args){
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeoutMillis = 0;
+        int maxPasses = 0;
+        String cachePath = null;
+        long cacheSizeMB = DEFAULT_CACHE_SIZE_MB;
+        List<String> files = new ArrayList<>();
+
+        for(int i = 1; i < args.length; i++){
+            if(args[i].equals(THREADS_OPTION) && i + 1 < args.length){
+                threads = Integer.parseInt(args[++i]);
+            } else if(args[i].equals(TIMEOUT_OPTION) && i + 1 < args.length){
+                timeoutMillis = Long.parseLong(args[++i]);
+            } else if(args[i].equals(MAX_PASSES_OPTION) && i + 1 < args.length){
+                maxPasses = Integer.parseInt(args[++i]);
+            } else if(args[i].equals(CACHE_OPTION) && i + 1 < args.length){
+                cachePath = args[++i];
+            } else if(args[i].equals(CACHE_SIZE_OPTION) && i + 1 < args.length){
+                cacheSizeMB = Long.parseLong(args[++i]);
+            } else {
+                files.add(args[i]);
+            }
+        }
+
+        if(files.size() != 2 || threads < 1 || cacheSizeMB < 1 || cacheSizeMB > MAX_CACHE_SIZE_MB){
+            System.out.println("Usage: Simplify -stream [-threads N] [-timeout MS] [-maxPasses N] [-cache FILE [-cacheSize MB]] INPUT OUTPUT");
+            return;
+        }
+
+        Expression.setLanguage(TypeLanguage.EN);
+
+        SimplificationCache cache = openCache(cachePath, cacheSizeMB);
+
+        StreamingSimplifier streamingSimplifier = new StreamingSimplifier(threads, 4 * threads,
+                new SimplificationWatchdog(timeoutMillis, maxPasses));
+        streamingSimplifier.setCache(cache);
+        try {
+            StreamingSimplifier.Statistics statistics = streamingSimplifier.simplifyRecords(
+                    new File(files.get(0)), new File(files.get(1)), System.err);
+            System.out.println(statistics);
+        } catch (IOException e){
+            e.printStackTrace();
+        } finally {
+            streamingSimplifier.shutdown();
+            closeCache(cache);
+        }
+    }
+
+    /**
+     * Usage: Simplify -server [-port P] [-threads N] [-timeout MS] [-maxPasses N] [-cache FILE [-cacheSize MB]]
+     * (requests "ID EXPRESSION" per line on localhost:P, see SimplificationServer)
+     */
+    private static void serve(String[] args){
+        int port = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeoutMillis = 0;
+        int maxPasses = 0;
+        String cachePath = null;
+        long cacheSizeMB = DEFAULT_CACHE_SIZE_MB;
+        boolean validArguments = true;
+
+        for(int i = 1; i < args.length; i++){
+            if(args[i].equals(PORT_OPTION) && i + 1 < args.length){
+                port = Integer.parseInt(args[++i]);
+            } else if(args[i].equals(THREADS_OPTION) && i + 1 < args.length){
+                threads = Integer.parseInt(args[++i]);
+            } else if(args[i].equals(TIMEOUT_OPTION) && i + 1 < args.length){
+                timeoutMillis = Long.parseLong(args[++i]);
+            } else if(args[i].equals(MAX_PASSES_OPTION) && i + 1 < args.length){
+                maxPasses = Integer.parseInt(args[++i]);
+            } else if(args[i].equals(CACHE_OPTION) && i + 1 < args.length){
+                cachePath = args[++i];
+            } else if(args[i].equals(CACHE_SIZE_OPTION) && i + 1 < args.length){
+                cacheSizeMB = Long.parseLong(args[++i]);
+            } else {
+                validArguments = false;
+            }
+        }
+
+        if(!validArguments || port < 0 || port > 65535 || threads < 1 || cacheSizeMB < 1 || cacheSizeMB > MAX_CACHE_SIZE_MB){
+            System.out.println("Usage: Simplify -server [-port P] [-threads N] [-timeout MS] [-maxPasses N] [-cache FILE [-cacheSize MB]]");
+            return;
+        }
+
+        Expression.setLanguage(TypeLanguage.EN);
+
+        SimplificationCache cache = null;
+        SimplificationServer server = null;
+        try {
+            cache = openCache(cachePath, cacheSizeMB);
+            server = new SimplificationServer(port, threads, new SimplificationWatchdog(timeoutMillis, maxPasses));
+            server.setCache(cache);
+            System.out.println("Listening on localhost:" + server.getPort());
+            server.serve(System.err);
+        } catch (IOException e){
+            e.printStackTrace();
+        } finally {
+            if(server != null){
+                try {
+                    server.close();
+                } catch (IOException e){
+                    e.printStackTrace();
+                }
+            }
+            closeCache(cache);
+        }
+    }
+
+    /**
+     * Usage: Simplify -verify [-threads N] [-points N] [-range MIN:MAX] [-seed S] [-csv FILE] [-maxCounterexamples N] [-tolerance T] RAW SIMPLIFIED
+     * (one expression per line in RAW and SIMPLIFIED, e.g. INPUT and OUTPUT of -stream;
+     * with -csv the points are the rows of FILE, whose header names the variables)
+     */
+    private static void verify(String[] args){
+        int threads = Runtime.getRuntime().availableProcessors();
+        long points = 100000;
+        double min = -10;
+        double max = 10;
+        long seed = 0;
+        String csvPath = null;
+        int maxCounterexamples = 10;
+        double tolerance = 1e-9;
+        List<String> files = new ArrayList<>();
+
+        for(int i = 1; i < args.length; i++){
+            if(args[i].equals(THREADS_OPTION) && i + 1 < args.length){
+                threads = Integer.parseInt(args[++i]);
+            } else if(args[i].equals(POINTS_OPTION) && i + 1 < args.length){
+                points = Long.parseLong(args[++i]);
+            } else if(args[i].equals(RANGE_OPTION) && i + 1 < args.length){
+                String[] range = args[++i].split(":");
+                min = Double.parseDouble(range[0]);
+                max = Double.parseDouble(range[range.length - 1]);
+            } else if(args[i].equals(SEED_OPTION) && i + 1 < args.length){
+                seed = Long.parseLong(args[++i]);
+            } else if(args[i].equals(CSV_OPTION) && i + 1 < args.length){
+                csvPath = args[++i];
+            } else if(args[i].equals(MAX_COUNTEREXAMPLES_OPTION) && i + 1 < args.length){
+                maxCounterexamples = Integer.parseInt(args[++i]);
+            } else if(args[i].equals(TOLERANCE_OPTION) && i + 1 < args.length){
+                tolerance = Double.parseDouble(args[++i]);
+            } else {
+                files.add(args[i]);
+            }
+        }
+
+        if(files.size() != 2 || threads < 1 || points < 0 || !(min <= max) || maxCounterexamples < 0 || !(tolerance >= 0)){
+            System.out.println("Usage: Simplify -verify [-threads N] [-points N] [-range MIN:MAX] [-seed S] [-csv FILE] [-maxCounterexamples N] [-tolerance T] RAW SIMPLIFIED");
+            return;
+        }
+
+        Expression.setLanguage(TypeLanguage.EN);
+
+        EquivalenceVerifier.Dataset dataset = null;
+        if(csvPath != null){
+            try {
+                dataset = EquivalenceVerifier.Dataset.readCsv(new File(csvPath));
+            } catch (IOException e){
+                e.printStackTrace();
+                return;
+            }
+        }
+
+        EquivalenceVerifier verifier = new EquivalenceVerifier(threads);
+        verifier.setMaxCounterexamples(maxCounterexamples);
+        verifier.setTolerances(tolerance, tolerance);
+        int numberOfEquivalentPairs = 0;
+        int numberOfNonEquivalentPairs = 0;
+        int numberOfFailedPairs = 0;
+        try (ExpressionRecordReader rawReader = new ExpressionRecordReader(new File(files.get(0)));
+                ExpressionRecordReader simplifiedReader = new ExpressionRecordReader(new File(files.get(1)))){
+            String rawRecord;
+            String simplifiedRecord;
+            while((rawRecord = rawReader.readRecord()) != null & (simplifiedRecord = simplifiedReader.readRecord()) != null){
+                long line = rawReader.getNumberOfRecordsRead();
+                if(rawRecord.trim().isEmpty() && simplifiedRecord.trim().isEmpty()){
+                    continue;
+                }
+                try {
+                    Expression raw = Expression.build(rawRecord);
+                    Expression simplified = Expression.build(simplifiedRecord);
+                    EquivalenceVerifier.VerificationResult result = dataset == null
+                            ? verifier.verifyAtRandomPoints(raw, simplified, points, min, max, seed)
+                            : verifier.verifyAtPoints(raw, simplified, dataset);
+                    if(result.isEquivalent()){
+                        numberOfEquivalentPairs++;
+                    } else {
+                        numberOfNonEquivalentPairs++;
+                    }
+                    System.out.println("Line " + line + ": " + result);
+                } catch (ExpressionException | IllegalArgumentException e){
+                    numberOfFailedPairs++;
+                    System.out.println("Line " + line + ": ERROR " + e.getMessage());
+                }
+            }
+            if(rawRecord != null || simplifiedRecord != null){
+                System.out.println("Warning: " + files.get(0) + " and " + files.get(1) + " have different numbers of lines");
+            }
+        } catch (IOException e){
+            e.printStackTrace();
+        } finally {
+            verifier.shutdown();
+        }
+        System.out.println("Verified " + (numberOfEquivalentPairs + numberOfNonEquivalentPairs + numberOfFailedPairs) + " pairs: "
+                + numberOfEquivalentPairs + " equivalent, " + numberOfNonEquivalentPairs + " not equivalent, "
+                + numberOfFailedPairs + " failed");
+    }
+
+    /**
+     * Opens the cache (null if cachePath == null). A cache file that is in use
+     * by another run is opened read-only; if it cannot be opened at all, the
+     * run continues without cache.
+     */
+    private static SimplificationCache openCache(String cachePath, long cacheSizeMB){
+        if(cachePath == null){
+            return null;
+        }
+        SimplificationCache cache;
+        try {
+            cache = new SimplificationCache(new File(cachePath), cacheSizeMB << 20);
+        } catch (IOException e){
+            System.err.println("Warning: cache " + cachePath + " cannot be opened, running without cache (" + e.getMessage() + ")");
+            return null;
+        }
+        if(cache.isReadOnly()){
+            System.err.println("Warning: cache " + cachePath + " is in use by another run, new results are not stored");
+        }
+        return cache;
+    }
+
+    private static void closeCache(SimplificationCache cache){
+        if(cache == null){
+            return;
+        }
+        System.out.println("Cache: " + cache.getNumberOfEntries() + " entries, " + cache.getNumberOfHits()
+                + " hits, " + cache.getNumberOfMisses() + " misses");
+        try {
+            cache.close();
+        } catch (IOException e){
+            e.printStackTrace();
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package abstractexpressions.expression.basic;
+
+import abstractexpressions.expression.classes.Expression;
+import java.util.Arrays;
+
+/**
+ * Index über die Terme einer ExpressionCollection, gruppiert nach
+ * Expression.getEquivalenceHash(). Da äquivalente Terme denselben Hashwert
+ * besitzen, muss ein Term nur mit den Termen derselben Gruppe mittels
+ * equivalent() verglichen werden. Innerhalb einer Gruppe werden die Terme in
+ * ihrer ursprünglichen Reihenfolge durchlaufen, so dass stets (wie beim
+ * paarweisen Vergleich aller Terme) der erste passende Term gefunden wird.<br>
+ * Terme können aus dem Index entfernt werden (die zugrundeliegende
+ * ExpressionCollection bleibt dabei unverändert).
+ */
+public final class EquivalenceIndex {
+
+    private final Expression[] terms;
+    private final int[] hashes;
+    // next[k] = nächster Term mit demselben Tabellenplatz wie Term k (-1 = keiner).
+    private final int[] next;
+    // table[i] = erster Term mit Tabellenplatz i (-1 = keiner).
+    private final int[] table;
+    private final boolean[] removed;
+    private final int mask;
+
+    public EquivalenceIndex(ExpressionCollection terms) {
+        this.terms = terms.toArray();
+        int n = this.terms.length;
+        this.hashes = new int[n];
+        this.next = new int[n];
+        this.removed = new boolean[n];
+        int capacity = 2;
+        while (capacity < 2 * n) {
+            capacity <<= 1;
+        }
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(this.table, -1);
+        // Von hinten einfügen, damit die Verkettungen aufsteigend sortiert sind.
+        for (int k = n - 1; k >= 0; k--) {
+            this.hashes[k] = this.terms[k].getEquivalenceHash();
+            int slot = this.hashes[k] & this.mask;
+            this.next[k] = this.table[slot];
+            this.table[slot] = k;
+        }
+    }
+
+    /**
+     * Entfernt den ersten Term term des Index mit expr.equivalent(term) und gibt
+     * ihn zurück. Existiert kein solcher Term, so wird null zurückgegeben.
+     */
+    public Expression removeEquivalentTerm(Expression expr) {
+        int hash = expr.getEquivalenceHash();
+        for (int k = this.table[hash & this.mask]; k >= 0; k = this.next[k]) {
+            if (!this.removed[k] && this.hashes[k] == hash && expr.equivalent(this.terms[k])) {
+                this.removed[k] = true;
+                return this.terms[k];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Entfernt den ersten Term term des Index mit expr.equivalent(term) oder
+     * expr.antiEquivalent(term). Zurückgegeben wird 1, falls term zu expr
+     * äquivalent ist, -1, falls term zu expr antiäquivalent ist, und 0, falls
+     * kein solcher Term existiert.
+     */
+    public int removeEquivalentOrAntiEquivalentTerm(Expression expr) {
+        // Da getEquivalenceHash() nicht vom Vorzeichen abhängt, liegen auch antiäquivalente Terme in derselben Gruppe.
+        int hash = expr.getEquivalenceHash();
+        for (int k = this.table[hash & this.mask]; k >= 0; k = this.next[k]) {
+            if (this.removed[k] || this.hashes[k] != hash) {
+                continue;
+            }
+            if (expr.equivalent(this.terms[k])) {
+                this.removed[k] = true;
+                return 1;
+            }
+            if (expr.antiEquivalent(this.terms[k])) {
+                this.removed[k] = true;
+                return -1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gibt zurück, ob der Index einen Term term mit term.equivalent(expr)
+     * enthält.
+     */
+    public boolean containsTermEquivalentTo(Expression expr) {
+        int hash = expr.getEquivalenceHash();
+        for (int k = this.table[hash & this.mask]; k >= 0; k = this.next[k]) {
+            if (!this.removed[k] && this.hashes[k] == hash && this.terms[k].equivalent(expr)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
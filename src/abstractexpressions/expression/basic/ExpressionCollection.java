@@ -7,39 +7,57 @@ import abstractexpressions.expression.classes.Constant;
 import abstractexpressions.expression.classes.Expression;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
-
+import java.util.NoSuchElementException;
+
+/**
+ * Indizierte Sammlung von Ausdrücken (etwa Summanden oder Faktoren). Die Terme
+ * liegen in einem Array, so dass get() und put() in konstanter Zeit arbeiten.
+ * Ein leerer Eintrag (null) ist eine Lücke: Entfernte Terme hinterlassen eine
+ * Lücke, damit sich die Indizes der übrigen Terme nicht ändern (viele
+ * Algorithmen entfernen Terme, während sie über die Indizes laufen). Lücken am
+ * Ende werden sofort abgeschnitten (siehe getBound()), Lücken im Inneren
+ * dagegen nur auf ausdrücklichen Wunsch durch compact().
+ */
 public class ExpressionCollection implements Iterable<Expression> {
 
-    private final HashMap<Integer, Expression> terms;
+    private static final Expression[] EMPTY_TERMS = new Expression[0];
+    private static final int MIN_CAPACITY = 4;
+
+    // Die Einträge ab Index bound sind stets null.
+    private Expression[] terms;
     private int bound;
+    // Anzahl der Einträge != null.
+    private int size;
 
     public ExpressionCollection() {
-        this.terms = new HashMap<>();
+        this.terms = EMPTY_TERMS;
         this.bound = 0;
+        this.size = 0;
     }
 
     public ExpressionCollection(ExpressionCollection terms) {
-        this.terms = new HashMap<>();
+        this.terms = new Expression[terms.size];
         this.bound = 0;
-        for (int i = 0; i < terms.bound; i++) {
-            this.add(terms.get(i));
-        }
+        this.size = 0;
+        this.addAll(terms);
     }
 
     public ExpressionCollection(Expression[] terms) {
-        this.terms = new HashMap<>();
+        this.terms = new Expression[terms.length];
         this.bound = 0;
+        this.size = 0;
         for (Expression term : terms) {
             this.add(term);
         }
     }
 
     public ExpressionCollection(Object... terms) {
-        this.terms = new HashMap<>();
+        this.terms = new Expression[terms.length];
         this.bound = 0;
+        this.size = 0;
         for (Object term : terms) {
             if (term != null) {
                 if (term instanceof String) {
@@ -61,20 +79,46 @@ public class ExpressionCollection implements Iterable<Expression> {
         }
     }
 
+    /**
+     * Stellt sicher, dass Einträge bis zum Index capacity - 1 ohne erneutes
+     * Vergrößern des Arrays geschrieben werden können.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.terms.length) {
+            int newCapacity = Math.max(MIN_CAPACITY, this.terms.length + (this.terms.length >> 1));
+            this.terms = Arrays.copyOf(this.terms, Math.max(newCapacity, capacity));
+        }
+    }
+
+    /**
+     * Schneidet die Lücken am Ende ab.
+     */
+    private void trimBound() {
+        while (this.bound > 0 && this.terms[this.bound - 1] == null) {
+            this.bound--;
+        }
+    }
+
     public int getBound() {
         return this.bound;
     }
 
+    /**
+     * Gibt die Anzahl der Terme (ohne Lücken) zurück.
+     */
     public int getSize() {
-        return this.terms.size();
+        return this.size;
     }
 
     public boolean isEmpty() {
-        return this.terms.isEmpty();
+        return this.size == 0;
     }
 
     public Expression get(int i) {
-        return this.terms.get(i);
+        if (i < 0 || i >= this.bound) {
+            return null;
+        }
+        return this.terms[i];
     }
 
     public Expression getLast() {
@@ -88,7 +132,14 @@ public class ExpressionCollection implements Iterable<Expression> {
         if (i < 0) {
             return;
         }
-        this.terms.put(i, expr);
+        ensureCapacity(i + 1);
+        if (this.terms[i] != null) {
+            this.size--;
+        }
+        if (expr != null) {
+            this.size++;
+        }
+        this.terms[i] = expr;
         if (i >= this.bound - 1) {
             this.bound = i + 1;
         }
@@ -96,15 +147,23 @@ public class ExpressionCollection implements Iterable<Expression> {
 
     public void add(Expression expr) {
         if (expr != null) {
-            this.terms.put(this.bound, expr);
+            ensureCapacity(this.bound + 1);
+            this.terms[this.bound] = expr;
             this.bound++;
+            this.size++;
         }
     }
 
     public void addAll(ExpressionCollection newTerms) {
-        for (int i = 0; i < newTerms.getBound(); i++) {
-            if (newTerms.get(i) != null) {
-                this.add(newTerms.get(i));
+        ensureCapacity(this.bound + newTerms.size);
+        Expression[] source = newTerms.terms;
+        // newTerms.bound vorher merken, falls newTerms == this ist.
+        int sourceBound = newTerms.bound;
+        for (int i = 0; i < sourceBound; i++) {
+            if (source[i] != null) {
+                this.terms[this.bound] = source[i];
+                this.bound++;
+                this.size++;
             }
         }
     }
@@ -116,37 +175,67 @@ public class ExpressionCollection implements Iterable<Expression> {
         }
 
         if (expr != null) {
-            if (this.terms.get(i) == null) {
-                this.terms.put(i, expr);
-                this.bound = Math.max(this.bound, i + 1);
-            } else if (i >= this.bound) {
+            if (get(i) == null) {
                 put(i, expr);
             } else {
-                for (int j = this.bound; j > i; j--) {
-                    this.terms.put(j, this.terms.get(j - 1));
-                    this.terms.remove(j - 1);
-                }
-                put(i, expr);
+                // Dann ist i < bound, und die Terme ab Index i (samt Lücken) rücken um eins auf.
+                ensureCapacity(this.bound + 1);
+                System.arraycopy(this.terms, i, this.terms, i + 1, this.bound - i);
+                this.terms[i] = expr;
                 this.bound++;
+                this.size++;
             }
         }
 
     }
 
     public void remove(int i) {
-        this.terms.remove(i);
-        for (int j = this.bound - 1; j >= 0; j--) {
-            if (this.terms.get(j) != null) {
-                this.bound = j + 1;
-                return;
-            }
+        if (i >= 0 && i < this.bound && this.terms[i] != null) {
+            this.terms[i] = null;
+            this.size--;
         }
-        this.bound = 0;
+        trimBound();
     }
 
     public void clear() {
-        this.terms.clear();
+        this.terms = EMPTY_TERMS;
         this.bound = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Entfernt alle Lücken. Die Terme behalten dabei ihre Reihenfolge, erhalten
+     * aber i. A. neue Indizes. Ist das Array danach deutlich größer als nötig,
+     * so wird es verkleinert.
+     */
+    public void compact() {
+        int j = 0;
+        for (int i = 0; i < this.bound; i++) {
+            if (this.terms[i] != null) {
+                this.terms[j] = this.terms[i];
+                j++;
+            }
+        }
+        Arrays.fill(this.terms, j, this.bound, null);
+        this.bound = j;
+        if (this.terms.length > MIN_CAPACITY && this.bound < this.terms.length / 4) {
+            this.terms = Arrays.copyOf(this.terms, Math.max(MIN_CAPACITY, this.bound));
+        }
+    }
+
+    /**
+     * Gibt die Terme (ohne Lücken) in ihrer Reihenfolge als Array zurück.
+     */
+    public Expression[] toArray() {
+        Expression[] result = new Expression[this.size];
+        int j = 0;
+        for (int i = 0; i < this.bound; i++) {
+            if (this.terms[i] != null) {
+                result[j] = this.terms[i];
+                j++;
+            }
+        }
+        return result;
     }
 
     /**
@@ -159,11 +248,11 @@ public class ExpressionCollection implements Iterable<Expression> {
             return false;
         }
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) == null && exprCol.terms.get(i) != null
-                    || this.terms.get(i) != null && exprCol.terms.get(i) == null) {
+            if (this.terms[i] == null && exprCol.terms[i] != null
+                    || this.terms[i] != null && exprCol.terms[i] == null) {
                 return false;
             }
-            if (!this.terms.get(i).equals(exprCol.terms.get(i))) {
+            if (this.terms[i] != null && !this.terms[i].equals(exprCol.terms[i])) {
                 return false;
             }
         }
@@ -197,12 +286,7 @@ public class ExpressionCollection implements Iterable<Expression> {
      */
     public boolean containsExpression(Expression expr) {
         if (expr == null) {
-            for (int i = 0; i < this.bound; i++) {
-                if (this.terms.get(i) == null) {
-                    return true;
-                }
-            }
-            return false;
+            return this.size < this.bound;
         }
         for (Expression term : this) {
             if (expr.equals(term)) {
@@ -219,12 +303,7 @@ public class ExpressionCollection implements Iterable<Expression> {
      */
     public boolean containsExquivalent(Expression expr) {
         if (expr == null) {
-            for (int i = 0; i < this.bound; i++) {
-                if (this.terms.get(i) == null) {
-                    return true;
-                }
-            }
-            return false;
+            return this.size < this.bound;
         }
         for (Expression term : this) {
             if (expr.equivalent(term)) {
@@ -239,15 +318,18 @@ public class ExpressionCollection implements Iterable<Expression> {
         if (this.bound == 0) {
             return "[]";
         }
-        String result = "[";
+        StringBuilder result = new StringBuilder("[");
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) != null) {
-                result = result + this.terms.get(i).toString() + ", ";
+            if (i > 0) {
+                result.append(", ");
+            }
+            if (this.terms[i] != null) {
+                result.append(this.terms[i].toString());
             } else {
-                result = result + "-, ";
+                result.append("-");
             }
         }
-        return result.substring(0, result.length() - 2) + "]";
+        return result.append("]").toString();
     }
 
     /**
@@ -256,12 +338,14 @@ public class ExpressionCollection implements Iterable<Expression> {
     public ExpressionCollection copy() {
 
         ExpressionCollection result = new ExpressionCollection();
+        result.terms = new Expression[this.bound];
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) != null) {
-                result.put(i, this.terms.get(i).copy());
+            if (this.terms[i] != null) {
+                result.terms[i] = this.terms[i].copy();
             }
         }
         result.bound = this.bound;
+        result.size = this.size;
         return result;
 
     }
@@ -273,9 +357,9 @@ public class ExpressionCollection implements Iterable<Expression> {
      */
     public ExpressionCollection copy(int m, int n) {
         ExpressionCollection result = new ExpressionCollection();
-        for (int i = m; i < n; i++) {
-            if (this.terms.get(i) != null) {
-                result.add(this.terms.get(i).copy());
+        for (int i = Math.max(m, 0); i < Math.min(n, this.bound); i++) {
+            if (this.terms[i] != null) {
+                result.add(this.terms[i].copy());
             }
         }
         return result;
@@ -287,20 +371,20 @@ public class ExpressionCollection implements Iterable<Expression> {
     public void removeMultipleEquivalentTerms() {
 
         for (int i = 0; i < this.bound; i++) {
-            if (terms.get(i) == null) {
+            if (this.terms[i] == null) {
                 for (int j = i + 1; j < this.bound; j++) {
-                    if (terms.get(j) == null) {
+                    if (this.terms[j] == null) {
                         continue;
                     }
-                    terms.put(i, terms.get(j));
+                    put(i, this.terms[j]);
                     remove(j);
                 }
             }
             for (int j = i + 1; j < this.bound; j++) {
-                if (terms.get(j) == null) {
+                if (this.terms[j] == null) {
                     continue;
                 }
-                if (this.terms.get(j).equivalent(this.terms.get(i))) {
+                if (this.terms[j].equivalent(this.terms[i])) {
                     remove(j);
                 }
             }
@@ -310,49 +394,50 @@ public class ExpressionCollection implements Iterable<Expression> {
 
     public void addExpression(Expression expr) {
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) != null) {
-                this.terms.put(i, this.terms.get(i).add(expr));
+            if (this.terms[i] != null) {
+                this.terms[i] = this.terms[i].add(expr);
             }
         }
     }
 
     public void subtractExpression(Expression expr) {
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) != null) {
-                this.terms.put(i, this.terms.get(i).sub(expr));
+            if (this.terms[i] != null) {
+                this.terms[i] = this.terms[i].sub(expr);
             }
         }
     }
 
     public void multiplyWithExpression(Expression expr) {
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) != null) {
-                this.terms.put(i, this.terms.get(i).mult(expr));
+            if (this.terms[i] != null) {
+                this.terms[i] = this.terms[i].mult(expr);
             }
         }
     }
 
     public void divideByExpression(Expression expr) {
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) != null) {
-                this.terms.put(i, this.terms.get(i).div(expr));
+            if (this.terms[i] != null) {
+                this.terms[i] = this.terms[i].div(expr);
             }
         }
     }
 
     public void powExpression(Expression expr) {
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) != null) {
-                this.terms.put(i, this.terms.get(i).pow(expr));
+            if (this.terms[i] != null) {
+                this.terms[i] = this.terms[i].pow(expr);
             }
         }
     }
 
     public ExpressionCollection simplify() throws EvaluationException {
         ExpressionCollection result = new ExpressionCollection();
+        result.terms = new Expression[this.bound];
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) != null) {
-                result.put(i, terms.get(i).simplify());
+            if (this.terms[i] != null) {
+                result.put(i, this.terms[i].simplify());
             }
         }
         return result;
@@ -360,47 +445,54 @@ public class ExpressionCollection implements Iterable<Expression> {
 
     public ExpressionCollection simplify(HashSet<TypeSimplify> simplifyTypes) throws EvaluationException {
         ExpressionCollection result = new ExpressionCollection();
+        result.terms = new Expression[this.bound];
         for (int i = 0; i < this.bound; i++) {
-            if (this.terms.get(i) != null) {
-                result.put(i, terms.get(i).simplify(simplifyTypes));
+            if (this.terms[i] != null) {
+                result.put(i, this.terms[i].simplify(simplifyTypes));
             }
         }
         return result;
     }
 
+    /**
+     * Iterator über alle Terme (ohne Lücken). Er läuft direkt über das Array
+     * und merkt sich nur den Index des aktuellen Terms.
+     */
     @Override
     public Iterator<Expression> iterator() {
         return new Iterator<Expression>() {
 
             private int currentIndex = -1;
+            private int nextIndex = -1;
+
+            private int findNext(int from) {
+                for (int i = from; i < bound; i++) {
+                    if (terms[i] != null) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
 
             @Override
             public boolean hasNext() {
-                return this.currentIndex < getBound() - 1;
+                // Jedes Mal neu suchen, da die Sammlung während der Iteration verändert werden darf.
+                this.nextIndex = findNext(this.currentIndex + 1);
+                return this.nextIndex >= 0;
             }
 
             @Override
             public Expression next() {
-                for (int i = this.currentIndex + 1; i < getBound() - 1; i++) {
-                    if (get(i) != null) {
-                        this.currentIndex = i;
-                        return get(i);
-                    }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
                 }
-                this.currentIndex = getBound() - 1;
-                return get(getBound() - 1);
+                this.currentIndex = this.nextIndex;
+                return terms[this.currentIndex];
             }
 
             @Override
             public void remove() {
-                terms.remove(currentIndex);
-                for (int j = bound - 1; j >= 0; j--) {
-                    if (terms.get(j) != null) {
-                        bound = j + 1;
-                        return;
-                    }
-                }
-                bound = 0;
+                ExpressionCollection.this.remove(this.currentIndex);
             }
 
         };
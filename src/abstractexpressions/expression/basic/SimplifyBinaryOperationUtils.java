@@ -12,6 +12,8 @@ import static abstractexpressions.expression.classes.Expression.ONE;
 import static abstractexpressions.expression.classes.Expression.ZERO;
 import abstractexpressions.expression.classes.Function;
 import abstractexpressions.expression.classes.Operator;
+import abstractexpressions.expression.classes.Product;
+import abstractexpressions.expression.classes.Sum;
 import abstractexpressions.expression.classes.TypeBinary;
 import abstractexpressions.expression.classes.TypeFunction;
 import abstractexpressions.expression.classes.TypeOperator;
@@ -23,6 +25,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import lang.translator.Translator;
+import process.Canceller;
 
 /**
  * Viele kleine Einzelmethoden zur Vereinfachung von Ausdrücken der Klasse
@@ -213,6 +216,20 @@ public abstract class SimplifyBinaryOperationUtils {
                 && summandsLeft.get(0).isIntegerConstantOrRationalConstant()
                 && summandsRight.get(0).isIntegerConstantOrRationalConstant()) {
 
+            SmallRational left = SmallRational.of(summandsLeft.get(0));
+            SmallRational right = SmallRational.of(summandsRight.get(0));
+            if (left != null && right != null) {
+                try {
+                    SmallRational difference = left.sub(right);
+                    long gcd = SmallRational.gcd(difference.getNumerator(), difference.getDenominator());
+                    summandsLeft.put(0, SmallRational.valueOf(difference.getNumerator() / gcd, difference.getDenominator() / gcd).toExpression());
+                    summandsRight.remove(0);
+                    return;
+                } catch (ArithmeticException e) {
+                    // Überlauf: mit BigInteger weiterrechnen.
+                }
+            }
+
             BigInteger a, b, c, d;
             if (summandsLeft.get(0).isIntegerConstant()) {
                 a = ((Constant) summandsLeft.get(0)).getBigIntValue();
@@ -253,7 +270,7 @@ public abstract class SimplifyBinaryOperationUtils {
 
         if (expr.getRight().isConstant() && (expr.getType().equals(TypeBinary.DIV)) && expr.containsApproximates()) {
             if (expr.getRight().evaluate() == 0) {
-                throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyBinaryOperationMethods_DIVISION_BY_ZERO"));
+                throw new EvaluationException(Translator.deferredMessage("SM_SimplifyBinaryOperationMethods_DIVISION_BY_ZERO"));
             }
             return new BinaryOperation(new Constant(1 / expr.getRight().evaluate()), expr.getLeft(), TypeBinary.TIMES);
         }
@@ -303,6 +320,14 @@ public abstract class SimplifyBinaryOperationUtils {
      */
     public static Expression rationalConstantToQuotient(BinaryOperation expr) {
         if (expr.isRationalConstant() && !expr.containsApproximates()) {
+            SmallRational quotient = SmallRational.of(expr);
+            if (quotient != null) {
+                try {
+                    return quotient.reduce().toExpression();
+                } catch (ArithmeticException e) {
+                    // Überlauf: mit BigInteger weiterrechnen.
+                }
+            }
             return constantToQuotient(((Constant) expr.getLeft()).getValue(), ((Constant) expr.getRight()).getValue());
         }
         return expr;
@@ -378,7 +403,7 @@ public abstract class SimplifyBinaryOperationUtils {
 
                 // Negative Potenzen von 0 sind nicht definiert.
                 if (constantLeft.equals(ZERO) && constantRight.getValue().compareTo(BigDecimal.ZERO) < 0) {
-                    throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyBinaryOperationMethods_NEGATIVE_POWERS_OF_ZERO_NOT_DEFINED"));
+                    throw new EvaluationException(Translator.deferredMessage("SM_SimplifyBinaryOperationMethods_NEGATIVE_POWERS_OF_ZERO_NOT_DEFINED"));
                 }
                 /*
                  Potenzen von ganzen Zahlen sollen nur vereinfacht werden,
@@ -388,6 +413,13 @@ public abstract class SimplifyBinaryOperationUtils {
                  */
                 if (constantRight.getValue().compareTo(BigDecimal.ZERO) >= 0
                         && constantRight.getValue().compareTo(BigDecimal.valueOf(ComputationBounds.BOUND_ARITHMETIC_MAX_POWER_OF_RATIONALS)) <= 0) {
+                    if (constantLeft.isLongValue() && constantRight.isLongValue()) {
+                        try {
+                            return Constant.valueOf(SmallRational.pow(constantLeft.getLongValue(), (int) constantRight.getLongValue()));
+                        } catch (ArithmeticException e) {
+                            // Überlauf: mit BigDecimal weiterrechnen.
+                        }
+                    }
                     return new Constant(constantLeft.getValue().pow(constantRight.getValue().intValue()));
                 }
 
@@ -417,7 +449,7 @@ public abstract class SimplifyBinaryOperationUtils {
 
                 // Negative Potenzen von 0 sind nicht definiert.
                 if (numerator.equals(BigInteger.ZERO) && exponent.compareTo(BigInteger.ZERO) < 0) {
-                    throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyBinaryOperationMethods_NEGATIVE_POWERS_OF_ZERO_NOT_DEFINED"));
+                    throw new EvaluationException(Translator.deferredMessage("SM_SimplifyBinaryOperationMethods_NEGATIVE_POWERS_OF_ZERO_NOT_DEFINED"));
                 }
                 /*
                  Potenzen von ganzen Zahlen sollen nur vereinfacht werden,
@@ -427,6 +459,14 @@ public abstract class SimplifyBinaryOperationUtils {
                  */
                 if (exponent.compareTo(BigInteger.ZERO) >= 0
                         && exponent.compareTo(BigInteger.valueOf(ComputationBounds.BOUND_ARITHMETIC_MAX_POWER_OF_RATIONALS)) <= 0) {
+                    SmallRational base = SmallRational.of(expr.getLeft());
+                    if (base != null) {
+                        try {
+                            return base.pow(exponent.intValue()).toExpression();
+                        } catch (ArithmeticException e) {
+                            // Überlauf: mit BigInteger weiterrechnen.
+                        }
+                    }
                     return new Constant(numerator.pow(exponent.intValue())).div(denominator.pow(exponent.intValue()));
                 }
 
@@ -455,7 +495,7 @@ public abstract class SimplifyBinaryOperationUtils {
                     return expr;
                 } else if (expr.getLeft().isNonPositive() && ((BinaryOperation) expr.getRight()).getLeft().isIntegerConstant()
                         && ((BinaryOperation) expr.getRight()).getRight().isEvenIntegerConstant()) {
-                    throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyBinaryOperationMethods_ROOTS_OF_EVEN_ORDER_OF_NEGATIVE_NUMBERS_NOT_DEFINED"));
+                    throw new EvaluationException(Translator.deferredMessage("SM_SimplifyBinaryOperationMethods_ROOTS_OF_EVEN_ORDER_OF_NEGATIVE_NUMBERS_NOT_DEFINED"));
                 }
             }
 
@@ -469,7 +509,7 @@ public abstract class SimplifyBinaryOperationUtils {
 
             if (valueLeftIsDefined && valueLeft < 0 && ((BinaryOperation) expr.getRight()).getLeft().isOddIntegerConstant()
                     && ((BinaryOperation) expr.getRight()).getRight().isEvenIntegerConstant()) {
-                throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyBinaryOperationMethods_ROOTS_OF_EVEN_ORDER_OF_NEGATIVE_NUMBERS_NOT_DEFINED"));
+                throw new EvaluationException(Translator.deferredMessage("SM_SimplifyBinaryOperationMethods_ROOTS_OF_EVEN_ORDER_OF_NEGATIVE_NUMBERS_NOT_DEFINED"));
             }
 
         }
@@ -854,7 +894,7 @@ public abstract class SimplifyBinaryOperationUtils {
 
         // a/0 = FEHLER!
         if (expr.isQuotient() && expr.getRight().equals(ZERO)) {
-//            throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyBinaryOperationMethods_DIVISION_BY_ZERO"));
+//            throw new EvaluationException(Translator.deferredMessage("SM_SimplifyBinaryOperationMethods_DIVISION_BY_ZERO"));
             return ONE;
         }
 
@@ -883,7 +923,7 @@ public abstract class SimplifyBinaryOperationUtils {
         // 0^a = 0
         if (expr.isPower() && expr.getLeft().equals(ZERO)) {
             if (expr.getRight().isConstant() && expr.getRight().isNonPositive() && !expr.getRight().equals(Expression.ZERO)) {
-                throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyBinaryOperationMethods_NEGATIVE_POWERS_OF_ZERO_NOT_DEFINED"));
+                throw new EvaluationException(Translator.deferredMessage("SM_SimplifyBinaryOperationMethods_NEGATIVE_POWERS_OF_ZERO_NOT_DEFINED"));
             }
             return ZERO;
         }
@@ -1295,6 +1335,19 @@ public abstract class SimplifyBinaryOperationUtils {
         if (factorsNumerator.get(0) != null && factorsNumerator.get(0) instanceof Constant
                 && factorsDenominator.get(0) != null && factorsDenominator.get(0) instanceof Constant) {
 
+            Constant constantNumerator = (Constant) factorsNumerator.get(0);
+            Constant constantDenominator = (Constant) factorsDenominator.get(0);
+            if (constantNumerator.isLongValue() && constantDenominator.isLongValue()) {
+                try {
+                    SmallRational quotient = SmallRational.valueOf(constantNumerator.getLongValue(), constantDenominator.getLongValue()).reduce();
+                    factorsNumerator.put(0, Constant.valueOf(quotient.getNumerator()));
+                    factorsDenominator.put(0, Constant.valueOf(quotient.getDenominator()));
+                    return;
+                } catch (ArithmeticException e) {
+                    // Überlauf: mit BigInteger weiterrechnen.
+                }
+            }
+
             BigDecimal numerator = ((Constant) factorsNumerator.get(0)).getValue();
             BigDecimal denominator = ((Constant) factorsDenominator.get(0)).getValue();
             BigInteger[] reducedFraction = reduceFraction(numerator, denominator);
@@ -1417,7 +1470,24 @@ public abstract class SimplifyBinaryOperationUtils {
         if (summandsLeft.get(0) != null && summandsLeft.get(0).isIntegerConstantOrRationalConstant()
                 && summandsRight.get(0) != null && summandsRight.get(0).isIntegerConstantOrRationalConstant()) {
 
-            if (summandsLeft.get(0) instanceof Constant && summandsRight.get(0) instanceof Constant) {
+            if (summandsLeft.get(0) instanceof Constant && summandsRight.get(0) instanceof Constant
+                    && ((Constant) summandsLeft.get(0)).isLongValue() && ((Constant) summandsRight.get(0)).isLongValue()) {
+
+                long c_1 = ((Constant) summandsLeft.get(0)).getLongValue();
+                long c_2 = ((Constant) summandsRight.get(0)).getLongValue();
+                // Die Differenz zweier longs mit höchstens 18 Stellen läuft nicht über.
+                if (c_1 > c_2) {
+                    summandsLeft.put(0, Constant.valueOf(c_1 - c_2));
+                    summandsRight.remove(0);
+                } else if (c_1 < c_2) {
+                    summandsLeft.remove(0);
+                    summandsRight.put(0, Constant.valueOf(c_2 - c_1));
+                } else {
+                    summandsLeft.remove(0);
+                    summandsRight.remove(0);
+                }
+
+            } else if (summandsLeft.get(0) instanceof Constant && summandsRight.get(0) instanceof Constant) {
 
                 BigDecimal c_1 = ((Constant) summandsLeft.get(0)).getValue();
                 BigDecimal c_2 = ((Constant) summandsRight.get(0)).getValue();
@@ -4002,6 +4072,9 @@ public abstract class SimplifyBinaryOperationUtils {
      */
     public static Expression simplifySingleExpand(Expression f, TypeExpansion type) throws EvaluationException {
 
+        // Das Ausmultiplizieren kann sehr lange dauern und soll abbrechbar sein.
+        Canceller.interruptComputationIfNeeded();
+
         BinaryOperation expr;
 
         if (f.isSum() || f.isDifference()) {
@@ -4877,6 +4950,16 @@ public abstract class SimplifyBinaryOperationUtils {
             return exprLeft.add(exprRight);
         }
 
+        SmallRational left = SmallRational.of(exprLeft);
+        SmallRational right = SmallRational.of(exprRight);
+        if (left != null && right != null) {
+            try {
+                return left.add(right).toExpression();
+            } catch (ArithmeticException e) {
+                // Überlauf: mit BigInteger weiterrechnen.
+            }
+        }
+
         BigInteger numeratorLeft, numeratorRight, denominatorLeft, denominatorRight;
         if (exprLeft.isIntegerConstant()) {
             numeratorLeft = ((Constant) exprLeft).getBigIntValue();
@@ -4984,6 +5067,16 @@ public abstract class SimplifyBinaryOperationUtils {
             return exprLeft.mult(exprRight);
         }
 
+        SmallRational left = SmallRational.of(exprLeft);
+        SmallRational right = SmallRational.of(exprRight);
+        if (left != null && right != null) {
+            try {
+                return left.mult(right).toExpression();
+            } catch (ArithmeticException e) {
+                // Überlauf: mit BigInteger weiterrechnen.
+            }
+        }
+
         BigInteger numeratorLeft, numeratorRight, denominatorLeft, denominatorRight;
         if (exprLeft.isIntegerConstant()) {
             numeratorLeft = ((Constant) exprLeft).getBigIntValue();
@@ -5083,7 +5176,11 @@ public abstract class SimplifyBinaryOperationUtils {
             summandsLeft.add(expr);
             return;
         }
-        if (expr.isSum()) {
+        if (expr instanceof Sum) {
+            for (int i = 0; i < ((Sum) expr).getNumberOfSummands(); i++) {
+                orderDifference(((Sum) expr).getSummand(i), summandsLeft, summandsRight);
+            }
+        } else if (expr.isSum()) {
             orderDifference(((BinaryOperation) expr).getLeft(), summandsLeft, summandsRight);
             orderDifference(((BinaryOperation) expr).getRight(), summandsLeft, summandsRight);
         } else {
@@ -5101,7 +5198,11 @@ public abstract class SimplifyBinaryOperationUtils {
             factorsNumerator.add(expr);
             return;
         }
-        if (expr.isProduct()) {
+        if (expr instanceof Product) {
+            for (int i = 0; i < ((Product) expr).getNumberOfFactors(); i++) {
+                orderQuotient(((Product) expr).getFactor(i), factorsNumerator, factorsDenominator);
+            }
+        } else if (expr.isProduct()) {
             orderQuotient(((BinaryOperation) expr).getLeft(), factorsNumerator, factorsDenominator);
             orderQuotient(((BinaryOperation) expr).getRight(), factorsNumerator, factorsDenominator);
         } else {
@@ -262,7 +262,7 @@ public abstract class SimplifyMultiPolynomialUtils {
 
         BigInteger deg = getDegreeOfMultiPolynomial(f, vars);
         if (deg.compareTo(BigInteger.valueOf(computationbounds.ComputationBounds.BOUND_ALGEBRA_MAX_DEGREE_OF_POLYNOMIAL)) > 0) {
-            throw new EvaluationException(Translator.translateOutputMessage("SEM_PolynomialRootMethods_TOO_HIGH_DEGREE"));
+            throw new EvaluationException(Translator.deferredMessage("SEM_PolynomialRootMethods_TOO_HIGH_DEGREE"));
         }
 
         f = f.simplify(simplifyTypesExpandPolynomial);
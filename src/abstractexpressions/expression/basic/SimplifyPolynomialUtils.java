@@ -272,7 +272,7 @@ public abstract class SimplifyPolynomialUtils {
             return coefficients;
         }
         if (deg.compareTo(BigInteger.valueOf(ComputationBounds.BOUND_ALGEBRA_MAX_DEGREE_OF_POLYNOMIAL)) > 0) {
-            throw new EvaluationException(Translator.translateOutputMessage("SM_PolynomialAlgebraMethods_TOO_HIGH_DEGREE"));
+            throw new EvaluationException(Translator.deferredMessage("SM_PolynomialAlgebraMethods_TOO_HIGH_DEGREE"));
         }
 
         f = f.simplify(simplifyTypesExpandPolynomial);
@@ -1276,7 +1276,7 @@ public abstract class SimplifyPolynomialUtils {
          (und muss im Vorfeld geprüft werden).
          */
         if (coefficientsDenominator.isEmpty()) {
-            throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_DIVISION_BY_ZERO"));
+            throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_DIVISION_BY_ZERO"));
         }
 
         int degreeDenominator = coefficientsDenominator.getBound() - 1;
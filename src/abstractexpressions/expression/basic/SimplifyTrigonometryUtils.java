@@ -760,7 +760,7 @@ public abstract class SimplifyTrigonometryUtils {
                 }
                 //tan(pi/2) = FEHLER!
                 if (n.compareTo(BigInteger.valueOf(2)) == 0) {
-                    throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyTrigonometry_TAN_PI_DIVIDED_BY_TWO_NOT_DEFINED"));
+                    throw new EvaluationException(Translator.deferredMessage("SM_SimplifyTrigonometry_TAN_PI_DIVIDED_BY_TWO_NOT_DEFINED"));
                 }
                 // Schließlich: (Sinnvolle) Iteration der Halbwinkelformel für den Tangens: tan(x/2) = (1 - cos(x))/sin(x).
                 int exponentOfTwo = getMaxPowerOfTwoInPrimeDecomposition(n);
@@ -786,13 +786,13 @@ public abstract class SimplifyTrigonometryUtils {
 
         //cot(0) = FEHLER!
         if (f.equals(ZERO.cot()) || f.equals(PI.cot())) {
-            throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyTrigonometry_COT_NOT_DEFINED", f));
+            throw new EvaluationException(Translator.deferredMessage("SM_SimplifyTrigonometry_COT_NOT_DEFINED", f));
         }
 
         //cot(k*pi) = FEHLER!
         if (f.getType().equals(TypeFunction.cot) && f.getLeft().isProduct()
                 && ((BinaryOperation) f.getLeft()).getLeft().isIntegerConstant() && ((BinaryOperation) f.getLeft()).getRight().equals(PI)) {
-            throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyTrigonometry_COT_NOT_DEFINED", f));
+            throw new EvaluationException(Translator.deferredMessage("SM_SimplifyTrigonometry_COT_NOT_DEFINED", f));
         }
 
         //cot(m*pi/n) = (Kotangenstabelle)
@@ -891,13 +891,13 @@ public abstract class SimplifyTrigonometryUtils {
 
         // cosec(0) = FEHLER!, cosec(pi) = FEHLER!
         if (f.equals(ZERO.cosec()) || f.equals(PI.cosec())) {
-            throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyTrigonometry_COSEC_NOT_DEFINED", f));
+            throw new EvaluationException(Translator.deferredMessage("SM_SimplifyTrigonometry_COSEC_NOT_DEFINED", f));
         }
 
         // cosec(k*pi) = FEHLER!
         if (f.getType().equals(TypeFunction.cosec) && f.getLeft().isProduct()
                 && ((BinaryOperation) f.getLeft()).getLeft().isIntegerConstant() && ((BinaryOperation) f.getLeft()).getRight().equals(PI)) {
-            throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyTrigonometry_COSEC_NOT_DEFINED", f));
+            throw new EvaluationException(Translator.deferredMessage("SM_SimplifyTrigonometry_COSEC_NOT_DEFINED", f));
         }
 
         // cosec(m*pi/n) = (Kosecanstabelle)
@@ -1090,7 +1090,7 @@ public abstract class SimplifyTrigonometryUtils {
                 }
                 //sec(pi/2) = FEHLER!
                 if (n.compareTo(BigInteger.valueOf(2)) == 0) {
-                    throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyTrigonometry_SEC_PI_DIVIDED_BY_TWO_NOT_DEFINED"));
+                    throw new EvaluationException(Translator.deferredMessage("SM_SimplifyTrigonometry_SEC_PI_DIVIDED_BY_TWO_NOT_DEFINED"));
                 }
                 // Schließlich: (Sinnvolle) Iteration der Halbwinkelformel für den Secans.
                 int exponentOfTwo = getMaxPowerOfTwoInPrimeDecomposition(n);
@@ -1287,7 +1287,7 @@ public abstract class SimplifyTrigonometryUtils {
 
             // arccosec(0) = 0
             if (f.getLeft().equals(ZERO)) {
-                throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyTrigonometry_ARCCOSEC_ZERO_NOT_DEFINED"));
+                throw new EvaluationException(Translator.deferredMessage("SM_SimplifyTrigonometry_ARCCOSEC_ZERO_NOT_DEFINED"));
             }
             // arccosec(1) = pi/2
             if (f.getLeft().equals(ONE)) {
@@ -1320,7 +1320,7 @@ public abstract class SimplifyTrigonometryUtils {
 
             // arcsec(0) = FEHLER!
             if (f.getLeft().equals(ZERO)) {
-                throw new EvaluationException(Translator.translateOutputMessage("SM_SimplifyTrigonometry_ARCSEC_ZERO_NOT_DEFINED"));
+                throw new EvaluationException(Translator.deferredMessage("SM_SimplifyTrigonometry_ARCSEC_ZERO_NOT_DEFINED"));
             }
             // arcsec(1) = 0
             if (f.getLeft().equals(ONE)) {
@@ -3,7 +3,13 @@ package abstractexpressions.expression.basic;
 import abstractexpressions.expression.classes.BinaryOperation;
 import abstractexpressions.expression.classes.Constant;
 import abstractexpressions.expression.classes.Expression;
+import static abstractexpressions.expression.classes.Expression.MINUS_ONE;
+import abstractexpressions.expression.classes.Product;
+import abstractexpressions.expression.classes.Sum;
+import exceptions.EvaluationException;
 import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 
 public abstract class SimplifyUtilities {
 
@@ -36,17 +42,13 @@ public abstract class SimplifyUtilities {
      */
     public static ExpressionCollection intersection(ExpressionCollection termsLeft, ExpressionCollection termsRight) {
 
-        ExpressionCollection termsLeftCopy = termsLeft.copy();
-        ExpressionCollection termsRightCopy = termsRight.copy();
         ExpressionCollection result = new ExpressionCollection();
+        // Jeder Term aus termsLeft wird nur mit den Termen aus termsRight mit demselben Hashwert verglichen.
+        EquivalenceIndex indexOfTermsRight = new EquivalenceIndex(termsRight);
 
         for (int i = 0; i < termsLeft.getBound(); i++) {
-            for (int j = 0; j < termsRight.getBound(); j++) {
-                if (termsLeftCopy.get(i) != null && termsRightCopy.get(j) != null && termsLeftCopy.get(i).equivalent(termsRightCopy.get(j))) {
-                    result.add(termsLeftCopy.get(i));
-                    termsLeftCopy.remove(i);
-                    termsRightCopy.remove(j);
-                }
+            if (termsLeft.get(i) != null && indexOfTermsRight.removeEquivalentTerm(termsLeft.get(i)) != null) {
+                result.add(termsLeft.get(i).copy());
             }
         }
 
@@ -63,42 +65,17 @@ public abstract class SimplifyUtilities {
         ExpressionCollection result = new ExpressionCollection();
         /*
          termsLeft und termsRight werden in manchen Prozeduren noch
-         nachträglich gebraucht und sollten nicht verändert werden ->
-         termsLeft und termsRight kopieren.
+         nachträglich gebraucht und dürfen nicht verändert werden. Bereits
+         verwendete Terme aus termsRight werden daher nur aus dem Index
+         entfernt. Jeder Term aus termsLeft wird nur mit den Termen aus
+         termsRight mit demselben Hashwert verglichen.
          */
-        ExpressionCollection termsLeftCopy = termsLeft.copy();
-        ExpressionCollection termsRightCopy = termsRight.copy();
-
-        Expression termLeft, termRight;
-        boolean equivalentTermFound;
+        EquivalenceIndex indexOfTermsRight = new EquivalenceIndex(termsRight);
 
         for (int i = 0; i < termsLeft.getBound(); i++) {
-
-            if (termsLeftCopy.get(i) == null) {
-                continue;
+            if (termsLeft.get(i) != null && indexOfTermsRight.removeEquivalentTerm(termsLeft.get(i)) == null) {
+                result.add(termsLeft.get(i).copy());
             }
-
-            termLeft = termsLeftCopy.get(i);
-            equivalentTermFound = false;
-            for (int j = 0; j < termsRight.getBound(); j++) {
-
-                if (termsRightCopy.get(j) == null) {
-                    continue;
-                }
-
-                termRight = termsRightCopy.get(j);
-                if (termLeft.equivalent(termRight)) {
-                    equivalentTermFound = true;
-                    termsLeftCopy.remove(i);
-                    termsRightCopy.remove(j);
-                    break;
-                }
-
-            }
-            if (!equivalentTermFound) {
-                result.add(termLeft);
-            }
-
         }
 
         return result;
@@ -118,20 +95,11 @@ public abstract class SimplifyUtilities {
          termsLeft und termsRight kopieren.
          */
         ExpressionCollection termsLeftCopy = termsLeft.copy();
-        boolean termIsContainedInTermsLeft;
+        // Jeder Term aus termsRight wird nur mit den Termen aus termsLeft mit demselben Hashwert verglichen.
+        EquivalenceIndex indexOfTermsLeft = new EquivalenceIndex(termsLeft);
 
         for (int i = 0; i < termsRight.getBound(); i++) {
-            if (termsRight.get(i) == null){
-                continue;
-            }
-            termIsContainedInTermsLeft = false;
-            for (int j = 0; j < termsLeft.getBound(); j++) {
-                if (termsLeftCopy.get(j) != null && termsLeftCopy.get(j).equivalent(termsRight.get(i))) {
-                    termIsContainedInTermsLeft = true;
-                    break;
-                }
-            }
-            if (!termIsContainedInTermsLeft) {
+            if (termsRight.get(i) != null && !indexOfTermsLeft.containsTermEquivalentTo(termsRight.get(i))) {
                 termsLeftCopy.add(termsRight.get(i));
             }
         }
@@ -211,19 +179,30 @@ public abstract class SimplifyUtilities {
     /**
      * Fügt der ExpressionCollection summands alle Summanden von expr hinzu,
      * falls man expr als Summe auffasst. Die Keys sind 0, 1, 2, ..., size - 1.
+     * Der Ausdrucksbaum wird iterativ durchlaufen, damit auch sehr tief
+     * verschachtelte Summen nicht zu einem StackOverflowError führen.
      */
     private static void addSummands(Expression expr, ExpressionCollection summands) {
-        if (expr.isSum()) {
-            addSummands(((BinaryOperation) expr).getLeft(), summands);
-            addSummands(((BinaryOperation) expr).getRight(), summands);
-        } else if (!expr.equals(Expression.ZERO) || summands.isEmpty()) {
-            /*
-             Überflüssige Nullen sollen nicht mitaufgenommen werden, jedoch
-             mindestens eine Null, falls summands sonst drohen würde, leer zu
-             sein. Im approximativen Fall wird alles mitaufgenommen, da die
-             Konstante Expression.ZERO precise == true besitzt.
-             */
-            summands.add(expr);
+        ArrayDeque<Expression> stack = new ArrayDeque<>();
+        stack.push(expr);
+        while (!stack.isEmpty()) {
+            Expression summand = stack.pop();
+            if (summand instanceof Sum) {
+                for (int i = ((Sum) summand).getNumberOfSummands() - 1; i >= 0; i--) {
+                    stack.push(((Sum) summand).getSummand(i));
+                }
+            } else if (summand.isSum()) {
+                stack.push(((BinaryOperation) summand).getRight());
+                stack.push(((BinaryOperation) summand).getLeft());
+            } else if (!summand.equals(Expression.ZERO) || summands.isEmpty()) {
+                /*
+                 Überflüssige Nullen sollen nicht mitaufgenommen werden, jedoch
+                 mindestens eine Null, falls summands sonst drohen würde, leer zu
+                 sein. Im approximativen Fall wird alles mitaufgenommen, da die
+                 Konstante Expression.ZERO precise == true besitzt.
+                 */
+                summands.add(summand);
+            }
         }
     }
 
@@ -310,6 +289,43 @@ public abstract class SimplifyUtilities {
         return new ExpressionCollection();
     }
 
+    /**
+     * Normalform von expr = (...) - (...) für Vergleiche mittels equivalent()
+     * bzw. antiEquivalent(): Summanden des Minuenden bzw. Subtrahenden mit
+     * negativem Vorzeichen werden mit -1 multipliziert (und mittels
+     * orderSumsAndProducts() geordnet) auf die jeweils andere Seite gebracht.
+     * Die Summanden des Minuenden werden summandsLeft, die des Subtrahenden
+     * summandsRight hinzugefügt.<br>
+     * BEISPIEL: expr = a + (-2)*b - (c + (-3)*d) liefert summandsLeft = {a,
+     * 3*d} und summandsRight = {2*b, c}.
+     *
+     * @throws EvaluationException
+     */
+    public static void getSummandsWithPositiveSign(Expression expr, ExpressionCollection summandsLeft, ExpressionCollection summandsRight) throws EvaluationException {
+        for (Expression summand : getSummandsLeftInExpression(expr)) {
+            if (summand.hasPositiveSign()) {
+                summandsLeft.add(summand);
+            } else {
+                summandsRight.add(MINUS_ONE.mult(summand).orderSumsAndProducts());
+            }
+        }
+        for (Expression summand : getSummandsRightInExpression(expr)) {
+            if (summand.hasPositiveSign()) {
+                summandsRight.add(summand);
+            } else {
+                summandsLeft.add(MINUS_ONE.mult(summand).orderSumsAndProducts());
+            }
+        }
+    }
+
+    /**
+     * Liefert, ob terms und termsToCompare (mit Vielfachheiten gezählt) bis auf
+     * die Reihenfolge äquivalente Einträge besitzen.
+     */
+    public static boolean equivalentUpToOrder(ExpressionCollection terms, ExpressionCollection termsToCompare) {
+        return terms.getBound() == termsToCompare.getBound() && difference(terms, termsToCompare).isEmpty();
+    }
+
     /**
      * Liefert Summanden im Minuenden eines Ausdrucks, welche die Variable var
      * nicht enthalten. VORAUSSETZUNG: Der Ausdruck muss in folgender Form sein,
@@ -412,20 +428,31 @@ public abstract class SimplifyUtilities {
 
     /**
      * Fügt der ExpressionCollection factors alle Faktoren von expr hinzu, falls
-     * man expr als Produkt auffasst. Die Keys sind 0, 1, 2, ..., size - 1.
+     * man expr als Produkt auffasst. Die Keys sind 0, 1, 2, ..., size - 1. Der
+     * Ausdrucksbaum wird iterativ durchlaufen, damit auch sehr tief
+     * verschachtelte Produkte nicht zu einem StackOverflowError führen.
      */
     private static void addFactors(Expression expr, ExpressionCollection factors) {
-        if (expr.isProduct()) {
-            addFactors(((BinaryOperation) expr).getLeft(), factors);
-            addFactors(((BinaryOperation) expr).getRight(), factors);
-        } else if (!expr.equals(Expression.ONE) || factors.isEmpty()) {
-            /*
-             Überflüssige Einsen sollen nicht mitaufgenommen werden, jedoch
-             mindestens eine Eins, falls factors sonst drohen würde, leer zu
-             sein. Im approximativen Fall wird alles mitaufgenommen, da die
-             Konstante Expression.ONE precise == true besitzt.
-             */
-            factors.add(expr);
+        ArrayDeque<Expression> stack = new ArrayDeque<>();
+        stack.push(expr);
+        while (!stack.isEmpty()) {
+            Expression factor = stack.pop();
+            if (factor instanceof Product) {
+                for (int i = ((Product) factor).getNumberOfFactors() - 1; i >= 0; i--) {
+                    stack.push(((Product) factor).getFactor(i));
+                }
+            } else if (factor.isProduct()) {
+                stack.push(((BinaryOperation) factor).getRight());
+                stack.push(((BinaryOperation) factor).getLeft());
+            } else if (!factor.equals(Expression.ONE) || factors.isEmpty()) {
+                /*
+                 Überflüssige Einsen sollen nicht mitaufgenommen werden, jedoch
+                 mindestens eine Eins, falls factors sonst drohen würde, leer zu
+                 sein. Im approximativen Fall wird alles mitaufgenommen, da die
+                 Konstante Expression.ONE precise == true besitzt.
+                 */
+                factors.add(factor);
+            }
         }
     }
 
@@ -707,19 +734,24 @@ public abstract class SimplifyUtilities {
     }
 
     /**
-     * Bildet die Summe aus allen Termen von summands.
+     * Bildet die Summe aus allen Termen von summands. Bei mindestens zwei
+     * Summanden ist das Ergebnis eine Sum, deren binäre Darstellung rechts
+     * geklammert ist (a + (b + (c + ...))).
      */
     public static Expression produceSum(ExpressionCollection summands) {
-        if (summands.isEmpty()) {
-            return Expression.ZERO;
-        }
-        Expression result = Expression.ZERO;
-        for (int i = summands.getBound() - 1; i >= 0; i--) {
+        ArrayList<Expression> terms = new ArrayList<>();
+        for (int i = 0; i < summands.getBound(); i++) {
             if (summands.get(i) != null && !summands.get(i).equals(Expression.ZERO)) {
-                result = summands.get(i).add(result);
+                terms.add(summands.get(i));
             }
         }
-        return result;
+        if (terms.isEmpty()) {
+            return Expression.ZERO;
+        }
+        if (terms.size() == 1) {
+            return terms.get(0);
+        }
+        return new Sum(terms.toArray(new Expression[terms.size()]), false);
     }
 
     /**
@@ -731,19 +763,27 @@ public abstract class SimplifyUtilities {
     }
 
     /**
-     * Bildet das Produkt aus allen Termen von factors.
+     * Bildet das Produkt aus allen Termen von factors. Bei mindestens zwei
+     * Faktoren ist das Ergebnis ein Product, dessen binäre Darstellung rechts
+     * geklammert ist (a * (b * (c * ...))).
      */
     public static Expression produceProduct(ExpressionCollection factors) {
-        if (factors.isEmpty()) {
-            return Expression.ONE;
-        }
-        Expression result = Expression.ONE;
-        for (int i = factors.getBound() - 1; i >= 0; i--) {
+        ArrayList<Expression> terms = new ArrayList<>();
+        for (int i = 0; i < factors.getBound(); i++) {
             if (factors.get(i) != null && !factors.get(i).equals(Expression.ONE)) {
-                result = factors.get(i).mult(result);
+                if (factors.get(i).equals(Expression.ZERO)) {
+                    return Expression.ZERO;
+                }
+                terms.add(factors.get(i));
             }
         }
-        return result;
+        if (terms.isEmpty()) {
+            return Expression.ONE;
+        }
+        if (terms.size() == 1) {
+            return terms.get(0);
+        }
+        return new Product(terms.toArray(new Expression[terms.size()]), false);
     }
 
     /**
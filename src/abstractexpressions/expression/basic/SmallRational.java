@@ -0,0 +1,212 @@
+package abstractexpressions.expression.basic;
+
+import abstractexpressions.expression.classes.BinaryOperation;
+import abstractexpressions.expression.classes.Constant;
+import abstractexpressions.expression.classes.Expression;
+
+/**
+ * Rationale Zahl numerator/denominator, deren Zähler und Nenner in einen long
+ * passen. Die meisten in Ausdrücken vorkommenden rationalen Konstanten sind
+ * klein, so dass mit ihnen ohne BigDecimal/BigInteger gerechnet werden kann.
+ * Läuft eine Rechnung über, so wird eine ArithmeticException geworfen, und der
+ * Aufrufer rechnet wie bisher mit BigInteger weiter.<br>
+ * Zähler und Nenner werden (wie in den Ausdrücken selbst) nicht automatisch
+ * gekürzt, damit die erzeugten Ausdrücke mit denen der BigInteger-Rechnung
+ * übereinstimmen (siehe reduce()).
+ */
+public final class SmallRational {
+
+    private final long numerator;
+    private final long denominator;
+
+    private SmallRational(long numerator, long denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    /**
+     * Gibt den (ungekürzten) Bruch numerator/denominator zurück.
+     */
+    public static SmallRational valueOf(long numerator, long denominator) {
+        return new SmallRational(numerator, denominator);
+    }
+
+    public long getNumerator() {
+        return this.numerator;
+    }
+
+    public long getDenominator() {
+        return this.denominator;
+    }
+
+    /**
+     * Gibt expr als SmallRational zurück, falls expr eine ganzzahlige Konstante
+     * oder ein Quotient zweier ganzzahliger Konstanten ist, deren Werte als
+     * long vorliegen (siehe Constant.isLongValue()). Ansonsten wird null
+     * zurückgegeben.
+     */
+    public static SmallRational of(Expression expr) {
+        if (expr instanceof Constant) {
+            Constant c = (Constant) expr;
+            return c.isLongValue() ? new SmallRational(c.getLongValue(), 1) : null;
+        }
+        if (expr instanceof BinaryOperation && expr.isQuotient()) {
+            Expression left = ((BinaryOperation) expr).getLeft();
+            Expression right = ((BinaryOperation) expr).getRight();
+            if (left instanceof Constant && ((Constant) left).isLongValue()
+                    && right instanceof Constant && ((Constant) right).isLongValue()) {
+                return new SmallRational(((Constant) left).getLongValue(), ((Constant) right).getLongValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gibt (a*d + c*b)/(b*d) für this = a/b, r = c/d zurück.
+     *
+     * @throws ArithmeticException bei Überlauf.
+     */
+    public SmallRational add(SmallRational r) {
+        return new SmallRational(addExact(multiplyExact(this.numerator, r.denominator), multiplyExact(r.numerator, this.denominator)),
+                multiplyExact(this.denominator, r.denominator));
+    }
+
+    /**
+     * Gibt (a*d - c*b)/(b*d) für this = a/b, r = c/d zurück.
+     *
+     * @throws ArithmeticException bei Überlauf.
+     */
+    public SmallRational sub(SmallRational r) {
+        return new SmallRational(subtractExact(multiplyExact(this.numerator, r.denominator), multiplyExact(r.numerator, this.denominator)),
+                multiplyExact(this.denominator, r.denominator));
+    }
+
+    /**
+     * Gibt (a*c)/(b*d) für this = a/b, r = c/d zurück.
+     *
+     * @throws ArithmeticException bei Überlauf.
+     */
+    public SmallRational mult(SmallRational r) {
+        return new SmallRational(multiplyExact(this.numerator, r.numerator), multiplyExact(this.denominator, r.denominator));
+    }
+
+    /**
+     * Gibt (a^n)/(b^n) für this = a/b und n &#8805; 0 zurück.
+     *
+     * @throws ArithmeticException bei Überlauf.
+     */
+    public SmallRational pow(int n) {
+        return new SmallRational(pow(this.numerator, n), pow(this.denominator, n));
+    }
+
+    /**
+     * Gibt den gekürzten Bruch mit positivem Nenner zurück.
+     *
+     * @throws ArithmeticException bei Überlauf oder falls Zähler und Nenner
+     * beide 0 sind.
+     */
+    public SmallRational reduce() {
+        long a = this.numerator;
+        long b = this.denominator;
+        if (b < 0) {
+            a = negateExact(a);
+            b = negateExact(b);
+        }
+        long gcd = gcd(a, b);
+        return new SmallRational(a / gcd, b / gcd);
+    }
+
+    /**
+     * Gibt den Bruch als Ausdruck zurück, und zwar genau so, wie
+     * new Constant(numerator).div(denominator) (mit BigInteger-Argumenten) ihn
+     * erzeugen würde.
+     */
+    public Expression toExpression() {
+        if (this.numerator == 0 && this.denominator != 0) {
+            return Expression.ZERO;
+        }
+        if (this.denominator == 1) {
+            return Constant.valueOf(this.numerator);
+        }
+        return Constant.valueOf(this.numerator).div(Constant.valueOf(this.denominator));
+    }
+
+    /**
+     * Gibt den (nichtnegativen) ggT von a und b zurück.
+     *
+     * @throws ArithmeticException, falls der ggT nicht in einen long passt.
+     */
+    public static long gcd(long a, long b) {
+        a = absExact(a);
+        b = absExact(b);
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    /**
+     * Gibt a^n für n &#8805; 0 zurück.
+     *
+     * @throws ArithmeticException bei Überlauf.
+     */
+    public static long pow(long a, int n) {
+        long result = 1;
+        long base = a;
+        while (n > 0) {
+            if ((n & 1) != 0) {
+                result = multiplyExact(result, base);
+            }
+            n >>= 1;
+            if (n > 0) {
+                base = multiplyExact(base, base);
+            }
+        }
+        return result;
+    }
+
+    /*
+     Überlaufgeprüfte Grundrechenarten (wie Math.addExact() usw. ab Java 8).
+     */
+    public static long addExact(long a, long b) {
+        long r = a + b;
+        if (((a ^ r) & (b ^ r)) < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        return r;
+    }
+
+    public static long subtractExact(long a, long b) {
+        long r = a - b;
+        if (((a ^ b) & (a ^ r)) < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        return r;
+    }
+
+    public static long multiplyExact(long a, long b) {
+        long r = a * b;
+        long absA = Math.abs(a);
+        long absB = Math.abs(b);
+        if ((absA | absB) >>> 31 != 0) {
+            if ((b != 0 && r / b != a) || (a == Long.MIN_VALUE && b == -1)) {
+                throw new ArithmeticException("long overflow");
+            }
+        }
+        return r;
+    }
+
+    private static long negateExact(long a) {
+        if (a == Long.MIN_VALUE) {
+            throw new ArithmeticException("long overflow");
+        }
+        return -a;
+    }
+
+    private static long absExact(long a) {
+        return a < 0 ? negateExact(a) : a;
+    }
+
+}
@@ -5,6 +5,7 @@ import computationbounds.ComputationBounds;
 import enums.TypeExpansion;
 import enums.TypeSimplify;
 import exceptions.EvaluationException;
+import abstractexpressions.expression.basic.EquivalenceIndex;
 import abstractexpressions.expression.basic.ExpressionCollection;
 import abstractexpressions.expression.basic.SimplifyAlgebraicExpressionUtils;
 import abstractexpressions.expression.basic.SimplifyBinaryOperationUtils;
@@ -16,6 +17,7 @@ import abstractexpressions.expression.basic.SimplifyUtilities;
 import enums.TypeFractionSimplification;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.HashSet;
 import lang.translator.Translator;
 
@@ -23,6 +25,17 @@ public class BinaryOperation extends Expression {
 
     private final Expression left, right;
     private final TypeBinary type;
+    // Wird beim ersten Aufruf von getStructuralHash() berechnet (0 = noch nicht berechnet).
+    private int structuralHash;
+    // Wird beim ersten Aufruf von getEquivalenceHash() berechnet (0 = noch nicht berechnet).
+    private int equivalenceHash;
+    // Bei der Erzeugung berechnete Eigenschaften (siehe Expression.getStructuralFlags()).
+    private final long[] variableBits;
+    private final int structuralFlags;
+    private final int length;
+    private final int depth;
+    // Bei Produkten: Summe der Längen aller nichtkonstanten Faktoren (siehe getLength()).
+    private final int lengthOfFactors;
 
     private static final HashSet<TypeSimplify> simplifyTypesExpandAndCollectIfShorter = getSimplifyTypesExpandAndCollectIfShorter();
 
@@ -48,6 +61,70 @@ public class BinaryOperation extends Expression {
         this.left = left;
         this.right = right;
         this.type = type;
+
+        this.variableBits = VariableIndices.union(left.getVariableBits(), right.getVariableBits());
+        int flags = left.getStructuralFlags() | right.getStructuralFlags();
+        if (type == TypeBinary.POW && (right.getVariableBits().length > 0 || (right.getStructuralFlags() & FLAG_SPECIAL) != 0)) {
+            flags |= FLAG_VARIABLE_EXPONENT;
+        }
+        if (isAlgebraicRightOperand(right)) {
+            flags |= FLAG_ALGEBRAIC_OPERATION;
+        }
+        this.structuralFlags = flags;
+        this.lengthOfFactors = type == TypeBinary.TIMES ? getLengthAsFactor(left) + getLengthAsFactor(right) : 0;
+        this.length = computeLength();
+        this.depth = Math.max(left.getDepth(), right.getDepth()) + 1;
+    }
+
+    /**
+     * Konstruktor für NaryOperation: Die Operanden werden dort erst bei Bedarf
+     * gebildet (getLeft() und getRight() werden überschrieben), die bei der
+     * Erzeugung berechneten Eigenschaften werden direkt übergeben.
+     */
+    BinaryOperation(TypeBinary type, long[] variableBits, int structuralFlags, int length, int depth, int lengthOfFactors) {
+        this.left = null;
+        this.right = null;
+        this.type = type;
+        this.variableBits = variableBits;
+        this.structuralFlags = structuralFlags;
+        this.length = length;
+        this.depth = depth;
+        this.lengthOfFactors = lengthOfFactors;
+    }
+
+    /**
+     * Gibt zurück, ob ein rechter Operand right der Operation das Flag
+     * FLAG_ALGEBRAIC_OPERATION hinzufügt (rationale Konstante mit einem Nenner
+     * vom Betrag &#62; 1).
+     */
+    static boolean isAlgebraicRightOperand(Expression right) {
+        return right.isRationalConstant() && ((Constant) ((BinaryOperation) right).getRight()).getValue().abs().compareTo(BigDecimal.ONE) > 0;
+    }
+
+    /**
+     * Gibt die binäre Operation mit den Operanden left und right und dem Typ
+     * des gegebenen Ausdrucks zurück. Sind beide Operanden mit denen des
+     * gegebenen Ausdrucks identisch, so wird dieser selbst zurückgegeben.
+     */
+    private BinaryOperation withOperands(Expression left, Expression right) {
+        if (left == this.getLeft() && right == this.getRight()) {
+            return this;
+        }
+        return new BinaryOperation(left, right, this.type);
+    }
+
+    /**
+     * Gibt den Beitrag von factor zur Länge eines Produktes zurück, welches
+     * factor als Faktor besitzt (Produkte zählen mit allen ihren Faktoren).
+     */
+    static int getLengthAsFactor(Expression factor) {
+        if (factor.isProduct()) {
+            return ((BinaryOperation) factor).lengthOfFactors;
+        }
+        if (factor instanceof Constant) {
+            return 0;
+        }
+        return factor.getLength();
     }
 
     public TypeBinary getType() {
@@ -64,49 +141,49 @@ public class BinaryOperation extends Expression {
 
     @Override
     public Expression copy() {
-        return new BinaryOperation(this.left, this.right, this.type);
+        return new BinaryOperation(this.getLeft(), this.getRight(), this.type);
     }
 
     @Override
-    public double evaluate() throws EvaluationException {
+    public double evaluate(EvaluationContext context) throws EvaluationException {
 
-        double valueLeft = this.left.evaluate();
-        double valueRight = this.right.evaluate();
+        double valueLeft = this.getLeft().evaluate(context);
+        double valueRight = this.getRight().evaluate(context);
 
         if (Double.isNaN(valueLeft) || Double.isInfinite(valueLeft) || Double.isNaN(valueRight) || Double.isInfinite(valueRight)) {
-            throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_UNDEFINED_VALUE"));
+            throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_UNDEFINED_VALUE"), false);
         }
 
         switch (type) {
             case PLUS:
                 if (Double.isNaN(valueLeft + valueRight) || Double.isInfinite(valueLeft + valueRight)) {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_UNDEFINED_VALUE"), false);
                 }
                 return valueLeft + valueRight;
             case MINUS:
                 if (Double.isNaN(valueLeft - valueRight) || Double.isInfinite(valueLeft - valueRight)) {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_UNDEFINED_VALUE"), false);
                 }
                 return valueLeft - valueRight;
             case TIMES:
                 if (Double.isNaN(valueLeft * valueRight) || Double.isInfinite(valueLeft * valueRight)) {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_UNDEFINED_VALUE"), false);
                 }
                 return valueLeft * valueRight;
             case DIV:
                 if ((!Double.isNaN(valueLeft / valueRight)) && (!Double.isInfinite(valueLeft / valueRight))) {
                     if (Double.isNaN(valueLeft / valueRight) || Double.isInfinite(valueLeft / valueRight)) {
-                        throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_UNDEFINED_VALUE"));
+                        throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_UNDEFINED_VALUE"), false);
                     }
                     return valueLeft / valueRight;
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_DIVISION_BY_ZERO"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_DIVISION_BY_ZERO"), false);
                 }
             case POW:
                 // Abfangen von Wurzeln ungerader Ordnung aus negativen Zahlen.
-                if (valueLeft < 0 && this.right.isRationalConstant() && ((BinaryOperation) this.right).getRight().isOddIntegerConstant()) {
+                if (valueLeft < 0 && this.getRight().isRationalConstant() && ((BinaryOperation) this.getRight()).getRight().isOddIntegerConstant()) {
                     double result;
-                    if (((BinaryOperation) this.right).getLeft().isOddIntegerConstant()) {
+                    if (((BinaryOperation) this.getRight()).getLeft().isOddIntegerConstant()) {
                         result = -Math.pow(-valueLeft, valueRight);
                     } else {
                         result = Math.pow(-valueLeft, valueRight);
@@ -114,14 +191,14 @@ public class BinaryOperation extends Expression {
                     if (!Double.isNaN(result) && !Double.isInfinite(result)) {
                         return result;
                     } else {
-                        throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_UNDEFINED_VALUE"));
+                        throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_UNDEFINED_VALUE"), false);
                     }
                 }
                 // Dann ganz normal weiter.
                 if (!Double.isNaN(Math.pow(valueLeft, valueRight)) && !Double.isInfinite(Math.pow(valueLeft, valueRight))) {
                     return Math.pow(valueLeft, valueRight);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_UNDEFINED_VALUE"), false);
                 }
             default:
                 return 0;
@@ -129,91 +206,123 @@ public class BinaryOperation extends Expression {
 
     }
 
+    @Override
+    long[] getVariableBits() {
+        return this.variableBits;
+    }
+
+    @Override
+    int getStructuralFlags() {
+        return this.structuralFlags;
+    }
+
     @Override
     public void addContainedVars(HashSet<String> vars) {
-        this.left.addContainedVars(vars);
-        this.right.addContainedVars(vars);
+        VariableIndices.addNames(this.variableBits, vars);
     }
 
     @Override
     public void addContainedIndeterminates(HashSet<String> vars) {
-        this.left.addContainedIndeterminates(vars);
-        this.right.addContainedIndeterminates(vars);
+        if (this.variableBits.length == 0 && (this.structuralFlags & FLAG_SPECIAL) == 0) {
+            return;
+        }
+        this.getLeft().addContainedIndeterminates(vars);
+        this.getRight().addContainedIndeterminates(vars);
     }
 
     @Override
     public boolean contains(String var) {
-        return this.left.contains(var) || this.right.contains(var);
+        if ((this.structuralFlags & FLAG_SPECIAL) != 0) {
+            return this.getLeft().contains(var) || this.getRight().contains(var);
+        }
+        if (var.equals("pi")) {
+            return (this.structuralFlags & FLAG_PI) != 0;
+        }
+        return VariableIndices.contains(this.variableBits, var);
     }
 
     @Override
     public boolean containsApproximates() {
-        return (this.left.containsApproximates() || this.right.containsApproximates());
+        return (this.structuralFlags & FLAG_APPROXIMATES) != 0;
     }
 
     @Override
     public boolean containsFunction() {
-        if (this.type.equals(TypeBinary.POW) && !this.right.isConstant()) {
+        if ((this.structuralFlags & FLAG_FUNCTION) != 0) {
+            return true;
+        }
+        if ((this.structuralFlags & (FLAG_VARIABLE_EXPONENT | FLAG_SPECIAL)) == 0) {
+            return false;
+        }
+        if (this.type.equals(TypeBinary.POW) && !this.getRight().isConstant()) {
             // Im diesem Fall handelt es sich (eventuell) um Exponentialfunktionen.
             return true;
         }
-        return this.left.containsFunction() || this.right.containsFunction();
+        return this.getLeft().containsFunction() || this.getRight().containsFunction();
     }
 
     @Override
     public boolean containsExponentialFunction() {
-        if (this.type.equals(TypeBinary.POW) && !this.right.isConstant()) {
+        if ((this.structuralFlags & (FLAG_FUNCTION | FLAG_VARIABLE_EXPONENT | FLAG_SPECIAL)) == 0) {
+            return false;
+        }
+        if (this.type.equals(TypeBinary.POW) && !this.getRight().isConstant()) {
             // Im diesem Fall handelt es sich (eventuell) um Exponentialfunktionen.
             return true;
         }
-        return this.left.containsExponentialFunction() || this.right.containsExponentialFunction();
+        return this.getLeft().containsExponentialFunction() || this.getRight().containsExponentialFunction();
     }
 
     @Override
     public boolean containsTrigonometricalFunction() {
-        return this.left.containsTrigonometricalFunction() || this.right.containsTrigonometricalFunction();
+        if ((this.structuralFlags & (FLAG_FUNCTION | FLAG_SPECIAL)) == 0) {
+            return false;
+        }
+        return this.getLeft().containsTrigonometricalFunction() || this.getRight().containsTrigonometricalFunction();
     }
 
     @Override
     public boolean containsIndefiniteIntegral() {
-        return this.left.containsIndefiniteIntegral() || this.right.containsIndefiniteIntegral();
+        return (this.structuralFlags & FLAG_INDEFINITE_INTEGRAL) != 0;
     }
 
     @Override
     public boolean containsOperator() {
-        return this.left.containsOperator() || this.right.containsOperator();
+        return (this.structuralFlags & FLAG_OPERATOR) != 0;
     }
 
     @Override
     public boolean containsOperator(TypeOperator type) {
-        return this.left.containsOperator(type) || this.right.containsOperator(type);
+        if ((this.structuralFlags & FLAG_OPERATOR) == 0) {
+            return false;
+        }
+        return this.getLeft().containsOperator(type) || this.getRight().containsOperator(type);
     }
 
     @Override
     public boolean containsAlgebraicOperation() {
-        return this.left.containsAlgebraicOperation() || this.right.containsAlgebraicOperation()
-                || this.right.isRationalConstant() && ((Constant) ((BinaryOperation) this.right).right).getValue().abs().compareTo(BigDecimal.ONE) > 0;
+        return (this.structuralFlags & FLAG_ALGEBRAIC_OPERATION) != 0;
     }
 
     @Override
     public Expression turnToApproximate() {
-        return new BinaryOperation(this.left.turnToApproximate(), this.right.turnToApproximate(), this.type);
+        return new BinaryOperation(this.getLeft().turnToApproximate(), this.getRight().turnToApproximate(), this.type);
     }
 
     @Override
     public Expression turnToPrecise() {
-        return new BinaryOperation(this.left.turnToPrecise(), this.right.turnToPrecise(), this.type);
+        return new BinaryOperation(this.getLeft().turnToPrecise(), this.getRight().turnToPrecise(), this.type);
     }
 
     @Override
     public Expression replaceVariable(String var, Expression expr) {
-        return new BinaryOperation(this.left.replaceVariable(var, expr), this.right.replaceVariable(var, expr), this.type);
+        return new BinaryOperation(this.getLeft().replaceVariable(var, expr), this.getRight().replaceVariable(var, expr), this.type);
     }
 
     @Override
     public Expression replaceSelfDefinedFunctionsByPredefinedFunctions() {
-        return new BinaryOperation(this.left.replaceSelfDefinedFunctionsByPredefinedFunctions(),
-                this.right.replaceSelfDefinedFunctionsByPredefinedFunctions(), this.type);
+        return new BinaryOperation(this.getLeft().replaceSelfDefinedFunctionsByPredefinedFunctions(),
+                this.getRight().replaceSelfDefinedFunctionsByPredefinedFunctions(), this.type);
     }
 
     @Override
@@ -224,28 +333,28 @@ public class BinaryOperation extends Expression {
         }
 
         if (this.isSum()) {
-            return this.left.diff(var).add(this.right.diff(var));
+            return this.getLeft().diff(var).add(this.getRight().diff(var));
         } else if (this.isDifference()) {
-            return this.left.diff(var).sub(this.right.diff(var));
+            return this.getLeft().diff(var).sub(this.getRight().diff(var));
         } else if (this.isProduct()) {
-            return this.left.diff(var).mult(this.right).add(this.left.mult(this.right.diff(var)));
+            return this.getLeft().diff(var).mult(this.getRight()).add(this.getLeft().mult(this.getRight().diff(var)));
         } else if (this.isQuotient()) {
-            Expression enumerator = this.left.diff(var).mult(this.right).sub(this.left.mult(this.right.diff(var)));
-            Expression denominator = this.right.pow(2);
+            Expression enumerator = this.getLeft().diff(var).mult(this.getRight()).sub(this.getLeft().mult(this.getRight().diff(var)));
+            Expression denominator = this.getRight().pow(2);
             return enumerator.div(denominator);
-        } else if (!this.right.contains(var)) {
+        } else if (!this.getRight().contains(var)) {
             //Regel: (f^n)' = n*f^(n - 1)*f'
-            return this.right.mult(this.left.pow(this.right.sub(1))).mult(this.left.diff(var));
-        } else if (!this.left.contains(var)) {
+            return this.getRight().mult(this.getLeft().pow(this.getRight().sub(1))).mult(this.getLeft().diff(var));
+        } else if (!this.getLeft().contains(var)) {
             //Regel: (a^g)' = ln(a)*a^g*g')
             //Fehlerbehandlung: a muss > 0 sein!
-            if (this.left.isConstant() && this.left.isNonPositive()) {
-                throw new EvaluationException(Translator.translateOutputMessage("EB_BinaryOperation_FUNCTION_NOT_DIFFERENTIABLE"));
+            if (this.getLeft().isConstant() && this.getLeft().isNonPositive()) {
+                throw new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_FUNCTION_NOT_DIFFERENTIABLE"));
             }
-            return new Function(this.left, TypeFunction.ln).mult(this).mult(this.right.diff(var));
+            return new Function(this.getLeft(), TypeFunction.ln).mult(this).mult(this.getRight().diff(var));
         } else {
             //Regel: (f^g)' = f^g*(gf'/f + ln(f)*g')
-            Expression rightBracket = this.left.diff(var).mult(this.right).div(this.left).add(new Function(this.left, TypeFunction.ln).mult(this.right.diff(var)));
+            Expression rightBracket = this.getLeft().diff(var).mult(this.getRight()).div(this.getLeft()).add(new Function(this.getLeft(), TypeFunction.ln).mult(this.getRight().diff(var)));
             return this.mult(rightBracket);
         }
 
@@ -257,50 +366,50 @@ public class BinaryOperation extends Expression {
         String leftAsText, rightAsText;
 
         if (this.isSum()) {
-            if (this.right.doesExpressionStartWithAMinusSign()) {
-                return this.left.toString() + "+(" + this.right.toString() + ")";
+            if (this.getRight().doesExpressionStartWithAMinusSign()) {
+                return this.getLeft().toString() + "+(" + this.getRight().toString() + ")";
             } else {
-                return this.left.toString() + "+" + this.right.toString();
+                return this.getLeft().toString() + "+" + this.getRight().toString();
             }
         } else if (this.isDifference()) {
 
-            leftAsText = this.left.toString();
+            leftAsText = this.getLeft().toString();
 
             //0 - a soll als -a ausgegeben werden.
-            if (this.left.equals(Expression.ZERO)) {
+            if (this.getLeft().equals(Expression.ZERO)) {
                 leftAsText = "";
             }
 
-            if (this.right.doesExpressionStartWithAMinusSign() || this.right.isSum() || this.right.isDifference()) {
-                return leftAsText + "-(" + this.right.toString() + ")";
+            if (this.getRight().doesExpressionStartWithAMinusSign() || this.getRight().isSum() || this.getRight().isDifference()) {
+                return leftAsText + "-(" + this.getRight().toString() + ")";
             }
-            return leftAsText + "-" + this.right.toString();
+            return leftAsText + "-" + this.getRight().toString();
 
         } else if (this.isProduct()) {
 
-            if (this.left.isSum() || this.left.isDifference()) {
+            if (this.getLeft().isSum() || this.getLeft().isDifference()) {
 
-                leftAsText = "(" + this.left.toString() + ")";
-                if (this.right.doesExpressionStartWithAMinusSign() || this.right.isSum() || this.right.isDifference()) {
-                    rightAsText = "(" + this.right.toString() + ")";
+                leftAsText = "(" + this.getLeft().toString() + ")";
+                if (this.getRight().doesExpressionStartWithAMinusSign() || this.getRight().isSum() || this.getRight().isDifference()) {
+                    rightAsText = "(" + this.getRight().toString() + ")";
                 } else {
-                    rightAsText = this.right.toString();
+                    rightAsText = this.getRight().toString();
                 }
 
             } else {
 
-                leftAsText = this.left.toString();
-                if (this.left instanceof Constant
-                        && ((Constant) this.left).getValue().compareTo(BigDecimal.valueOf(-1)) == 0) {
+                leftAsText = this.getLeft().toString();
+                if (this.getLeft() instanceof Constant
+                        && ((Constant) this.getLeft()).getValue().compareTo(BigDecimal.valueOf(-1)) == 0) {
                     // Ausnahmefall: Der Ausdruck fängt mit einem - an.
-                    if (this.right.doesExpressionStartWithAMinusSign() || this.right.isSum() || this.right.isDifference()) {
-                        return "-(" + this.right.toString() + ")";
+                    if (this.getRight().doesExpressionStartWithAMinusSign() || this.getRight().isSum() || this.getRight().isDifference()) {
+                        return "-(" + this.getRight().toString() + ")";
                     }
-                    return "-" + this.right.toString();
-                } else if (this.right.doesExpressionStartWithAMinusSign() || this.right.isSum() || this.right.isDifference()) {
-                    rightAsText = "(" + this.right.toString() + ")";
+                    return "-" + this.getRight().toString();
+                } else if (this.getRight().doesExpressionStartWithAMinusSign() || this.getRight().isSum() || this.getRight().isDifference()) {
+                    rightAsText = "(" + this.getRight().toString() + ")";
                 } else {
-                    rightAsText = this.right.toString();
+                    rightAsText = this.getRight().toString();
                 }
 
             }
@@ -309,17 +418,17 @@ public class BinaryOperation extends Expression {
 
         } else if (this.isQuotient()) {
 
-            if (this.left.isSum() || this.left.isDifference() || this.left.isProduct()) {
-                leftAsText = "(" + this.left.toString() + ")";
+            if (this.getLeft().isSum() || this.getLeft().isDifference() || this.getLeft().isProduct()) {
+                leftAsText = "(" + this.getLeft().toString() + ")";
             } else {
-                leftAsText = this.left.toString();
+                leftAsText = this.getLeft().toString();
             }
 
-            if (this.right.doesExpressionStartWithAMinusSign()
-                    || (this.right instanceof BinaryOperation && !this.right.isPower())) {
-                rightAsText = "(" + this.right.toString() + ")";
+            if (this.getRight().doesExpressionStartWithAMinusSign()
+                    || (this.getRight() instanceof BinaryOperation && !this.getRight().isPower())) {
+                rightAsText = "(" + this.getRight().toString() + ")";
             } else {
-                rightAsText = this.right.toString();
+                rightAsText = this.getRight().toString();
             }
 
             return leftAsText + "/" + rightAsText;
@@ -327,18 +436,18 @@ public class BinaryOperation extends Expression {
         }
 
         // Hier handelt es sich um eine Potenz.
-        if (this.left instanceof BinaryOperation
-                || (this.left instanceof Constant && ((Constant) this.left).getValue().compareTo(BigDecimal.ZERO) < 0)) {
-            leftAsText = "(" + this.left.toString() + ")";
+        if (this.getLeft() instanceof BinaryOperation
+                || (this.getLeft() instanceof Constant && ((Constant) this.getLeft()).getValue().compareTo(BigDecimal.ZERO) < 0)) {
+            leftAsText = "(" + this.getLeft().toString() + ")";
         } else {
-            leftAsText = this.left.toString();
+            leftAsText = this.getLeft().toString();
         }
 
-        if (this.right instanceof BinaryOperation
-                || (this.right instanceof Constant && ((Constant) this.right).getValue().compareTo(BigDecimal.ZERO) < 0)) {
-            rightAsText = "(" + this.right.toString() + ")";
+        if (this.getRight() instanceof BinaryOperation
+                || (this.getRight() instanceof Constant && ((Constant) this.getRight()).getValue().compareTo(BigDecimal.ZERO) < 0)) {
+            rightAsText = "(" + this.getRight().toString() + ")";
         } else {
-            rightAsText = this.right.toString();
+            rightAsText = this.getRight().toString();
         }
 
         return leftAsText + "^" + rightAsText;
@@ -351,83 +460,83 @@ public class BinaryOperation extends Expression {
         String leftAsLatexCode, rightAsLatexCode;
 
         if (this.isSum()) {
-            return this.left.expressionToLatex() + "+" + this.right.expressionToLatex();
+            return this.getLeft().expressionToLatex() + "+" + this.getRight().expressionToLatex();
         } else if (this.isDifference()) {
 
-            leftAsLatexCode = this.left.toString();
+            leftAsLatexCode = this.getLeft().toString();
 
             //0 - a soll als -a ausgegeben werden.
-            if (this.left.equals(Expression.ZERO)) {
+            if (this.getLeft().equals(Expression.ZERO)) {
                 leftAsLatexCode = "";
             }
 
-            if (this.right.isSum() || this.right.isDifference()) {
-                return leftAsLatexCode + "-\\left(" + this.right.expressionToLatex() + "\\right)";
+            if (this.getRight().isSum() || this.getRight().isDifference()) {
+                return leftAsLatexCode + "-\\left(" + this.getRight().expressionToLatex() + "\\right)";
             }
-            return leftAsLatexCode + "-" + this.right.expressionToLatex();
+            return leftAsLatexCode + "-" + this.getRight().expressionToLatex();
 
         } else if (this.isProduct()) {
 
             //(-1)*a soll als -a ausgegeben werden.
-            if (this.left.equals(Expression.MINUS_ONE)) {
-                if (this.right.isSum() || this.right.isDifference()) {
+            if (this.getLeft().equals(Expression.MINUS_ONE)) {
+                if (this.getRight().isSum() || this.getRight().isDifference()) {
                     // Hier noch zusätzliche Klammern um den rechten Faktor.
-                    return "-(" + this.right.expressionToLatex() + ")";
+                    return "-(" + this.getRight().expressionToLatex() + ")";
                 }
-                return "-" + this.right.expressionToLatex();
+                return "-" + this.getRight().expressionToLatex();
             }
 
-            if (this.left.isSum() || this.left.isDifference()) {
-                leftAsLatexCode = "\\left(" + this.left.expressionToLatex() + "\\right)";
+            if (this.getLeft().isSum() || this.getLeft().isDifference()) {
+                leftAsLatexCode = "\\left(" + this.getLeft().expressionToLatex() + "\\right)";
             } else {
-                leftAsLatexCode = this.left.expressionToLatex();
+                leftAsLatexCode = this.getLeft().expressionToLatex();
             }
 
-            if (this.right.isSum() || this.right.isDifference()) {
-                rightAsLatexCode = "\\left(" + this.right.expressionToLatex() + "\\right)";
+            if (this.getRight().isSum() || this.getRight().isDifference()) {
+                rightAsLatexCode = "\\left(" + this.getRight().expressionToLatex() + "\\right)";
             } else {
-                rightAsLatexCode = this.right.expressionToLatex();
+                rightAsLatexCode = this.getRight().expressionToLatex();
             }
 
             return leftAsLatexCode + " \\cdot " + rightAsLatexCode;
 
         } else if (this.isQuotient()) {
 
-            return "\\frac{" + this.left.expressionToLatex() + "}{" + this.right.expressionToLatex() + "}";
+            return "\\frac{" + this.getLeft().expressionToLatex() + "}{" + this.getRight().expressionToLatex() + "}";
 
         } else {
 
-            if (this.left instanceof BinaryOperation) {
-                if (this.left.isDifference() && ((BinaryOperation) this.left).getLeft().equals(Expression.ZERO)) {
-                    leftAsLatexCode = this.left.expressionToLatex();
+            if (this.getLeft() instanceof BinaryOperation) {
+                if (this.getLeft().isDifference() && ((BinaryOperation) this.getLeft()).getLeft().equals(Expression.ZERO)) {
+                    leftAsLatexCode = this.getLeft().expressionToLatex();
                 } else {
-                    leftAsLatexCode = "\\left(" + this.left.expressionToLatex() + "\\right)";
+                    leftAsLatexCode = "\\left(" + this.getLeft().expressionToLatex() + "\\right)";
                 }
             } else {
-                leftAsLatexCode = this.left.expressionToLatex();
+                leftAsLatexCode = this.getLeft().expressionToLatex();
             }
 
-            if (this.left instanceof Variable) {
+            if (this.getLeft() instanceof Variable) {
 
-                if (this.right instanceof Variable && (this.right.toString().length() == 1)) {
-                    return leftAsLatexCode + "^" + this.right.expressionToLatex();
+                if (this.getRight() instanceof Variable && (this.getRight().toString().length() == 1)) {
+                    return leftAsLatexCode + "^" + this.getRight().expressionToLatex();
                 }
-                return leftAsLatexCode + "^{" + this.right.expressionToLatex() + "}";
+                return leftAsLatexCode + "^{" + this.getRight().expressionToLatex() + "}";
 
-            } else if (this.left instanceof Constant) {
+            } else if (this.getLeft() instanceof Constant) {
 
-                if (this.left.isNonNegative()) {
-                    if ((this.right instanceof Variable) && (this.right.toString().length() == 1)) {
-                        return leftAsLatexCode + "^" + this.right.expressionToLatex();
+                if (this.getLeft().isNonNegative()) {
+                    if ((this.getRight() instanceof Variable) && (this.getRight().toString().length() == 1)) {
+                        return leftAsLatexCode + "^" + this.getRight().expressionToLatex();
                     }
-                    return leftAsLatexCode + "^{" + this.right.expressionToLatex() + "}";
+                    return leftAsLatexCode + "^{" + this.getRight().expressionToLatex() + "}";
                 }
 
-            } else if ((this.right instanceof Variable) && (this.right.toString().length() == 1)) {
-                return "{" + leftAsLatexCode + "}^" + this.right.expressionToLatex();
+            } else if ((this.getRight() instanceof Variable) && (this.getRight().toString().length() == 1)) {
+                return "{" + leftAsLatexCode + "}^" + this.getRight().expressionToLatex();
             }
 
-            return "{" + leftAsLatexCode + "}^{" + this.right.expressionToLatex() + "}";
+            return "{" + leftAsLatexCode + "}^{" + this.getRight().expressionToLatex() + "}";
 
         }
 
@@ -435,7 +544,11 @@ public class BinaryOperation extends Expression {
 
     @Override
     public boolean isConstant() {
-        return this.left.isConstant() && this.right.isConstant();
+        if ((this.structuralFlags & FLAG_SPECIAL) != 0) {
+            return this.getLeft().isConstant() && this.getRight().isConstant();
+        }
+        // Ob eine Variable konstant ist, kann sich ändern (siehe Variable.isConstant()).
+        return VariableIndices.areConstant(this.variableBits);
     }
 
     @Override
@@ -451,27 +564,27 @@ public class BinaryOperation extends Expression {
         }
 
         if (this.type.equals(TypeBinary.PLUS)) {
-            return this.left.isNonNegative() && this.right.isNonNegative();
+            return this.getLeft().isNonNegative() && this.getRight().isNonNegative();
         } else if (this.type.equals(TypeBinary.MINUS)) {
-            return this.left.isNonNegative() && this.right.isNonPositive();
+            return this.getLeft().isNonNegative() && this.getRight().isNonPositive();
         } else if (this.type.equals(TypeBinary.TIMES) || this.type.equals(TypeBinary.DIV)) {
-            return this.left.isNonNegative() && this.right.isNonNegative()
-                    || this.left.isNonPositive() && this.right.isNonPositive();
+            return this.getLeft().isNonNegative() && this.getRight().isNonNegative()
+                    || this.getLeft().isNonPositive() && this.getRight().isNonPositive();
         } else {
 
             // Hier ist type == TypeBinary.POW
-            if (this.left.isNonNegative()) {
+            if (this.getLeft().isNonNegative()) {
                 return true;
             }
-            if (this.right.isEvenIntegerConstant()) {
+            if (this.getRight().isEvenIntegerConstant()) {
                 return true;
             }
-            if (this.right.isRationalConstant() && ((BinaryOperation) this.right).getLeft().isEvenIntegerConstant()) {
+            if (this.getRight().isRationalConstant() && ((BinaryOperation) this.getRight()).getLeft().isEvenIntegerConstant()) {
                 return true;
             }
-            if (this.right.isRationalConstant() && ((BinaryOperation) this.right).getLeft().isOddIntegerConstant()
-                    && ((BinaryOperation) this.right).getRight().isOddIntegerConstant()) {
-                return this.left.isNonNegative();
+            if (this.getRight().isRationalConstant() && ((BinaryOperation) this.getRight()).getLeft().isOddIntegerConstant()
+                    && ((BinaryOperation) this.getRight()).getRight().isOddIntegerConstant()) {
+                return this.getLeft().isNonNegative();
             }
             return false;
 
@@ -492,21 +605,21 @@ public class BinaryOperation extends Expression {
         }
 
         if (this.type.equals(TypeBinary.PLUS)) {
-            return this.left.isNonPositive() && this.right.isNonPositive();
+            return this.getLeft().isNonPositive() && this.getRight().isNonPositive();
         } else if (this.type.equals(TypeBinary.MINUS)) {
-            return this.left.isNonPositive() && this.right.isNonNegative();
+            return this.getLeft().isNonPositive() && this.getRight().isNonNegative();
         } else if (this.type.equals(TypeBinary.TIMES) || this.type.equals(TypeBinary.DIV)) {
-            return this.left.isNonNegative() && this.right.isNonPositive()
-                    || this.left.isNonPositive() && this.right.isNonNegative();
+            return this.getLeft().isNonNegative() && this.getRight().isNonPositive()
+                    || this.getLeft().isNonPositive() && this.getRight().isNonNegative();
         } else {
 
             // Hier ist type == TypeBinary.POW
-            if (this.left.isNonPositive() && this.right.isOddIntegerConstant()) {
+            if (this.getLeft().isNonPositive() && this.getRight().isOddIntegerConstant()) {
                 return true;
             }
-            if (this.left.isNonPositive() && this.right.isRationalConstant()
-                    && ((BinaryOperation) this.right).getLeft().isOddIntegerConstant()
-                    && ((BinaryOperation) this.right).getRight().isOddIntegerConstant()) {
+            if (this.getLeft().isNonPositive() && this.getRight().isRationalConstant()
+                    && ((BinaryOperation) this.getRight()).getLeft().isOddIntegerConstant()
+                    && ((BinaryOperation) this.getRight()).getRight().isOddIntegerConstant()) {
                 return true;
             }
             return false;
@@ -522,19 +635,19 @@ public class BinaryOperation extends Expression {
             return true;
         }
         if (this.isSum()) {
-            return this.left.isAlwaysNonNegative() && this.right.isAlwaysNonNegative();
+            return this.getLeft().isAlwaysNonNegative() && this.getRight().isAlwaysNonNegative();
         }
         if (this.isDifference()) {
-            return this.left.isAlwaysNonNegative() && this.right.isAlwaysNonPositive();
+            return this.getLeft().isAlwaysNonNegative() && this.getRight().isAlwaysNonPositive();
         }
         if (this.isProduct() || this.isQuotient()) {
-            return this.left.isAlwaysNonNegative() && this.right.isAlwaysNonNegative()
-                    || this.left.isAlwaysNonPositive() && this.right.isAlwaysNonPositive();
+            return this.getLeft().isAlwaysNonNegative() && this.getRight().isAlwaysNonNegative()
+                    || this.getLeft().isAlwaysNonPositive() && this.getRight().isAlwaysNonPositive();
         }
         if (this.isPower()) {
-            return this.left.isAlwaysNonNegative() || this.right.isEvenIntegerConstant()
-                    || this.right.isRationalConstant()
-                    && (((BinaryOperation) this.right).left.isEvenIntegerConstant() || ((BinaryOperation) this.right).right.isEvenIntegerConstant());
+            return this.getLeft().isAlwaysNonNegative() || this.getRight().isEvenIntegerConstant()
+                    || this.getRight().isRationalConstant()
+                    && (((BinaryOperation) this.getRight()).getLeft().isEvenIntegerConstant() || ((BinaryOperation) this.getRight()).getRight().isEvenIntegerConstant());
         }
         return false;
 
@@ -547,23 +660,23 @@ public class BinaryOperation extends Expression {
             return true;
         }
         if (this.isSum()) {
-            return this.left.isAlwaysPositive() && this.right.isAlwaysNonNegative()
-                    || this.left.isAlwaysNonNegative() && this.right.isAlwaysPositive();
+            return this.getLeft().isAlwaysPositive() && this.getRight().isAlwaysNonNegative()
+                    || this.getLeft().isAlwaysNonNegative() && this.getRight().isAlwaysPositive();
         }
         if (this.isDifference()) {
-            return this.left.isAlwaysPositive() && this.right.isAlwaysNonPositive()
-                    || this.left.isAlwaysNonNegative() && this.right.isAlwaysNegative();
+            return this.getLeft().isAlwaysPositive() && this.getRight().isAlwaysNonPositive()
+                    || this.getLeft().isAlwaysNonNegative() && this.getRight().isAlwaysNegative();
         }
         if (this.isProduct() || this.isQuotient()) {
-            return this.left.isAlwaysPositive() && this.right.isAlwaysPositive()
-                    || this.left.isAlwaysNegative() && this.right.isAlwaysNegative();
+            return this.getLeft().isAlwaysPositive() && this.getRight().isAlwaysPositive()
+                    || this.getLeft().isAlwaysNegative() && this.getRight().isAlwaysNegative();
         }
         if (this.isPower()) {
-            return this.left.isAlwaysPositive()
-                    || this.left.isAlwaysNegative() && (this.right.isEvenIntegerConstant()
-                    || this.right.isRationalConstant()
-                    && ((BinaryOperation) this.right).getLeft().isEvenIntegerConstant()
-                    && ((BinaryOperation) this.right).getRight().isOddIntegerConstant());
+            return this.getLeft().isAlwaysPositive()
+                    || this.getLeft().isAlwaysNegative() && (this.getRight().isEvenIntegerConstant()
+                    || this.getRight().isRationalConstant()
+                    && ((BinaryOperation) this.getRight()).getLeft().isEvenIntegerConstant()
+                    && ((BinaryOperation) this.getRight()).getRight().isOddIntegerConstant());
         }
         return false;
 
@@ -576,19 +689,19 @@ public class BinaryOperation extends Expression {
             return true;
         }
         if (this.isSum()) {
-            return this.left.isAlwaysNonPositive() && this.right.isAlwaysNonPositive();
+            return this.getLeft().isAlwaysNonPositive() && this.getRight().isAlwaysNonPositive();
         }
         if (this.isDifference()) {
-            return this.left.isAlwaysNonPositive() && this.right.isAlwaysNonNegative();
+            return this.getLeft().isAlwaysNonPositive() && this.getRight().isAlwaysNonNegative();
         }
         if (this.isProduct() || this.isQuotient()) {
-            return this.left.isAlwaysNonNegative() && this.right.isAlwaysNonPositive()
-                    || this.left.isAlwaysNonPositive() && this.right.isAlwaysNonNegative();
+            return this.getLeft().isAlwaysNonNegative() && this.getRight().isAlwaysNonPositive()
+                    || this.getLeft().isAlwaysNonPositive() && this.getRight().isAlwaysNonNegative();
         }
         if (this.isPower()) {
-            return this.left.isAlwaysNonPositive() && (this.right.isOddIntegerConstant()
-                    || this.right.isRationalConstant()
-                    && (((BinaryOperation) this.right).left.isOddIntegerConstant() || ((BinaryOperation) this.right).right.isOddIntegerConstant()));
+            return this.getLeft().isAlwaysNonPositive() && (this.getRight().isOddIntegerConstant()
+                    || this.getRight().isRationalConstant()
+                    && (((BinaryOperation) this.getRight()).getLeft().isOddIntegerConstant() || ((BinaryOperation) this.getRight()).getRight().isOddIntegerConstant()));
         }
         return false;
 
@@ -601,22 +714,22 @@ public class BinaryOperation extends Expression {
             return true;
         }
         if (this.isSum()) {
-            return this.left.isAlwaysNegative() && this.right.isAlwaysNonPositive()
-                    || this.left.isAlwaysNonPositive() && this.right.isAlwaysNegative();
+            return this.getLeft().isAlwaysNegative() && this.getRight().isAlwaysNonPositive()
+                    || this.getLeft().isAlwaysNonPositive() && this.getRight().isAlwaysNegative();
         }
         if (this.isDifference()) {
-            return this.left.isAlwaysNegative() && this.right.isAlwaysNonNegative()
-                    || this.left.isAlwaysNonPositive() && this.right.isAlwaysPositive();
+            return this.getLeft().isAlwaysNegative() && this.getRight().isAlwaysNonNegative()
+                    || this.getLeft().isAlwaysNonPositive() && this.getRight().isAlwaysPositive();
         }
         if (this.isProduct() || this.isQuotient()) {
-            return this.left.isAlwaysNegative() && this.right.isAlwaysPositive()
-                    || this.left.isAlwaysPositive() && this.right.isAlwaysNegative();
+            return this.getLeft().isAlwaysNegative() && this.getRight().isAlwaysPositive()
+                    || this.getLeft().isAlwaysPositive() && this.getRight().isAlwaysNegative();
         }
         if (this.isPower()) {
-            return this.left.isAlwaysNegative() && (this.right.isOddIntegerConstant()
-                    || this.right.isRationalConstant()
-                    && ((BinaryOperation) this.right).getLeft().isOddIntegerConstant()
-                    && ((BinaryOperation) this.right).getRight().isOddIntegerConstant());
+            return this.getLeft().isAlwaysNegative() && (this.getRight().isOddIntegerConstant()
+                    || this.getRight().isRationalConstant()
+                    && ((BinaryOperation) this.getRight()).getLeft().isOddIntegerConstant()
+                    && ((BinaryOperation) this.getRight()).getRight().isOddIntegerConstant());
         }
         return false;
 
@@ -624,17 +737,185 @@ public class BinaryOperation extends Expression {
 
     @Override
     public boolean equals(Expression expr) {
+        if (this == expr) {
+            return true;
+        }
+        if (isDistinctInternedExpression(expr)) {
+            return false;
+        }
+        if (expr instanceof NaryOperation) {
+            // Vergleicht die Operanden von expr ohne deren binäre Darstellung zu bilden.
+            return expr.equals(this);
+        }
         return expr instanceof BinaryOperation
                 && this.type.equals(((BinaryOperation) expr).type)
-                && this.left.equals(((BinaryOperation) expr).left)
-                && this.right.equals(((BinaryOperation) expr).right);
+                && this.getLeft().equals(((BinaryOperation) expr).getLeft())
+                && this.getRight().equals(((BinaryOperation) expr).getRight());
+    }
+
+    @Override
+    public int getStructuralHash() {
+        int hash = this.structuralHash;
+        if (hash == 0) {
+            hash = 31 * (31 * this.type.ordinal() + this.getLeft().getStructuralHash()) + this.getRight().getStructuralHash();
+            this.structuralHash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public int getEquivalenceHash() {
+        int hash = this.equivalenceHash;
+        if (hash == 0) {
+            hash = computeEquivalenceHash();
+            this.equivalenceHash = hash;
+        }
+        return hash;
+    }
+
+    private int computeEquivalenceHash() {
+
+        if (this.isSum() || this.isDifference()) {
+            /*
+             Summanden beider Seiten einer Differenz werden gleich behandelt,
+             konstante Summanden werden ignoriert. Ein einzelner nichtkonstanter
+             Summand liefert seinen eigenen Hashwert (wie etwa bei x + 0).
+             */
+            int[] hashesOfSummands = new int[3];
+            addEquivalenceHashesOfSummands(this, hashesOfSummands);
+            if (hashesOfSummands[1] == 0) {
+                return EQUIVALENCE_HASH_OF_CONSTANTS;
+            }
+            if (hashesOfSummands[1] == 1) {
+                return hashesOfSummands[2];
+            }
+            return mixEquivalenceHash(hashesOfSummands[0] + TypeBinary.PLUS.ordinal());
+        }
+        if (this.isProduct()) {
+            /*
+             Die Hashwerte der nichtkonstanten Faktoren werden addiert. Dadurch
+             liefern geschachtelte Produkte und Produkte mit nur einem
+             nichtkonstanten Faktor (wie etwa (-1)*x) denselben Wert wie das
+             ausmultiplizierte Produkt bzw. wie der Faktor selbst.
+             */
+            int[] hashesOfFactors = new int[2];
+            addEquivalenceHashesOfFactors(this, hashesOfFactors);
+            if (hashesOfFactors[1] <= 0) {
+                return EQUIVALENCE_HASH_OF_CONSTANTS;
+            }
+            return hashesOfFactors[0];
+        }
+
+        int hashLeft = this.getLeft().getEquivalenceHash();
+        int hashRight = this.getRight().getEquivalenceHash();
+        if (hashLeft == EQUIVALENCE_HASH_OF_CONSTANTS && hashRight == EQUIVALENCE_HASH_OF_CONSTANTS) {
+            return EQUIVALENCE_HASH_OF_CONSTANTS;
+        }
+        if (this.isPower()) {
+            // Sonst hätten etwa alle Potenzen x^n denselben Hashwert.
+            if (hashLeft == EQUIVALENCE_HASH_OF_CONSTANTS) {
+                hashLeft = getEquivalenceHashOfConstantOperand(this.getLeft());
+            }
+            if (hashRight == EQUIVALENCE_HASH_OF_CONSTANTS) {
+                hashRight = getEquivalenceHashOfConstantOperand(this.getRight());
+            }
+        }
+        return mixEquivalenceHash(31 * (31 * this.type.ordinal() + hashLeft) + hashRight);
+
+    }
+
+    /**
+     * Hilfsmethode für computeEquivalenceHash(). Liefert für eine Konstante
+     * oder einen Quotienten zweier Konstanten einen Hashwert, der nur von den
+     * Beträgen abhängt (equivalent() lässt bei Quotienten Zähler und Nenner
+     * mit umgekehrtem Vorzeichen zu), und für alle anderen Ausdrücke
+     * EQUIVALENCE_HASH_OF_CONSTANTS.
+     */
+    private static int getEquivalenceHashOfConstantOperand(Expression expr) {
+        if (expr instanceof Constant) {
+            return mixEquivalenceHash(((Constant) expr).getValue().abs().hashCode());
+        }
+        if (expr.isQuotient() && ((BinaryOperation) expr).getLeft() instanceof Constant && ((BinaryOperation) expr).getRight() instanceof Constant) {
+            return mixEquivalenceHash(31 * ((Constant) ((BinaryOperation) expr).getLeft()).getValue().abs().hashCode()
+                    + ((Constant) ((BinaryOperation) expr).getRight()).getValue().abs().hashCode());
+        }
+        return EQUIVALENCE_HASH_OF_CONSTANTS;
+    }
+
+    /**
+     * Hilfsmethode für computeEquivalenceHash(). hashes[0] enthält die Summe
+     * der gemischten Hashwerte, hashes[1] die Anzahl und hashes[2] den
+     * Hashwert des zuletzt gefundenen nichtkonstanten Summanden.
+     */
+    private static void addEquivalenceHashesOfSummands(Expression expr, int[] hashes) {
+        // Iterativ, damit auch sehr tief verschachtelte Summen keinen StackOverflowError verursachen.
+        ArrayDeque<Expression> stack = new ArrayDeque<>();
+        stack.push(expr);
+        while (!stack.isEmpty()) {
+            Expression summand = stack.pop();
+            if (summand instanceof NaryOperation && summand.isSum()) {
+                ((NaryOperation) summand).pushOperands(stack);
+                continue;
+            }
+            if (summand.isSum() || summand.isDifference()) {
+                stack.push(((BinaryOperation) summand).getRight());
+                stack.push(((BinaryOperation) summand).getLeft());
+                continue;
+            }
+            int hash = summand.getEquivalenceHash();
+            if (hash != EQUIVALENCE_HASH_OF_CONSTANTS) {
+                hashes[0] += mixEquivalenceHash(hash);
+                hashes[1]++;
+                hashes[2] = hash;
+            }
+        }
+    }
+
+    /**
+     * Hilfsmethode für computeEquivalenceHash(). hashes[0] enthält die Summe
+     * der Hashwerte, hashes[1] die Anzahl der nichtkonstanten Faktoren. Besitzt
+     * das Produkt den Faktor 0, so wird die Anzahl auf -1 gesetzt, da das
+     * Produkt beim Zusammenfassen der Konstanten dann zu 0 wird.
+     */
+    private static void addEquivalenceHashesOfFactors(Expression expr, int[] hashes) {
+        // Iterativ, damit auch sehr tief verschachtelte Produkte keinen StackOverflowError verursachen.
+        ArrayDeque<Expression> stack = new ArrayDeque<>();
+        stack.push(expr);
+        while (!stack.isEmpty() && hashes[1] >= 0) {
+            Expression factor = stack.pop();
+            if (factor instanceof NaryOperation && factor.isProduct()) {
+                ((NaryOperation) factor).pushOperands(stack);
+                continue;
+            }
+            if (factor.isProduct()) {
+                stack.push(((BinaryOperation) factor).getRight());
+                stack.push(((BinaryOperation) factor).getLeft());
+                continue;
+            }
+            if (factor.equals(ZERO)) {
+                hashes[1] = -1;
+                return;
+            }
+            int hash = factor.getEquivalenceHash();
+            if (hash != EQUIVALENCE_HASH_OF_CONSTANTS) {
+                hashes[0] += hash;
+                hashes[1]++;
+            }
+        }
     }
 
     @Override
     public boolean equivalent(Expression expr) {
 
+        if (this == expr) {
+            return true;
+        }
         if (expr instanceof BinaryOperation) {
             if (this.type.equals(((BinaryOperation) expr).type)) {
+                // Äquivalente Ausdrücke besitzen denselben Hashwert (siehe getEquivalenceHash()).
+                if (this.getEquivalenceHash() != expr.getEquivalenceHash()) {
+                    return false;
+                }
                 if (this.isSum()) {
 
                     ExpressionCollection summandsOfThis = SimplifyUtilities.getSummands(this);
@@ -645,49 +926,16 @@ public class BinaryOperation extends Expression {
                 }
                 if (this.isDifference()) {
 
-                    ExpressionCollection summandsLeftOfThis = SimplifyUtilities.getSummandsLeftInExpression(this);
-                    ExpressionCollection summandsRightOfThis = SimplifyUtilities.getSummandsRightInExpression(this);
-                    ExpressionCollection summandsLeftOfExpr = SimplifyUtilities.getSummandsLeftInExpression(expr);
-                    ExpressionCollection summandsRightOfExpr = SimplifyUtilities.getSummandsRightInExpression(expr);
-
                     ExpressionCollection summandsLeftOfThisWithSign = new ExpressionCollection();
                     ExpressionCollection summandsRightOfThisWithSign = new ExpressionCollection();
                     ExpressionCollection summandsLeftOfExprWithSign = new ExpressionCollection();
                     ExpressionCollection summandsRightOfExprWithSign = new ExpressionCollection();
 
                     try {
-                        for (int i = 0; i < summandsLeftOfThis.getBound(); i++) {
-                            if (summandsLeftOfThis.get(i).hasPositiveSign()) {
-                                summandsLeftOfThisWithSign.add(summandsLeftOfThis.get(i));
-                            } else {
-                                summandsRightOfThisWithSign.add(MINUS_ONE.mult(summandsLeftOfThis.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsRightOfThis.getBound(); i++) {
-                            if (summandsRightOfThis.get(i).hasPositiveSign()) {
-                                summandsRightOfThisWithSign.add(summandsRightOfThis.get(i));
-                            } else {
-                                summandsLeftOfThisWithSign.add(MINUS_ONE.mult(summandsRightOfThis.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsLeftOfExpr.getBound(); i++) {
-                            if (summandsLeftOfExpr.get(i).hasPositiveSign()) {
-                                summandsLeftOfExprWithSign.add(summandsLeftOfExpr.get(i));
-                            } else {
-                                summandsRightOfExprWithSign.add(MINUS_ONE.mult(summandsLeftOfExpr.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsRightOfExpr.getBound(); i++) {
-                            if (summandsRightOfExpr.get(i).hasPositiveSign()) {
-                                summandsRightOfExprWithSign.add(summandsRightOfExpr.get(i));
-                            } else {
-                                summandsLeftOfExprWithSign.add(MINUS_ONE.mult(summandsRightOfExpr.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        return summandsLeftOfThisWithSign.getBound() == summandsLeftOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsLeftOfThisWithSign, summandsLeftOfExprWithSign).isEmpty()
-                                && summandsRightOfThisWithSign.getBound() == summandsRightOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsRightOfThisWithSign, summandsRightOfExprWithSign).isEmpty();
+                        SimplifyUtilities.getSummandsWithPositiveSign(this, summandsLeftOfThisWithSign, summandsRightOfThisWithSign);
+                        SimplifyUtilities.getSummandsWithPositiveSign(expr, summandsLeftOfExprWithSign, summandsRightOfExprWithSign);
+                        return SimplifyUtilities.equivalentUpToOrder(summandsLeftOfThisWithSign, summandsLeftOfExprWithSign)
+                                && SimplifyUtilities.equivalentUpToOrder(summandsRightOfThisWithSign, summandsRightOfExprWithSign);
                     } catch (EvaluationException e) {
                     }
 
@@ -700,98 +948,56 @@ public class BinaryOperation extends Expression {
                         return false;
                     }
 
-                    int numberOfFactors = factorsThis.getBound();
-                    int numberOfEquivalentFactors = 0;
+                    // Jeder Faktor von this wird nur mit den Faktoren von expr mit demselben Hashwert verglichen.
+                    EquivalenceIndex indexOfFactorsExpr = new EquivalenceIndex(factorsExpr);
                     int numberOfAntiEquivalentFactors = 0;
                     for (int i = 0; i < factorsThis.getBound(); i++) {
-                        for (int j = 0; j < factorsExpr.getBound(); j++) {
-                            if (factorsThis.get(i).equivalent(factorsExpr.get(j))) {
-                                factorsThis.remove(i);
-                                factorsExpr.remove(j);
-                                numberOfEquivalentFactors++;
-                                break;
-                            } else if (factorsThis.get(i).antiEquivalent(factorsExpr.get(j))) {
-                                factorsThis.remove(i);
-                                factorsExpr.remove(j);
-                                numberOfAntiEquivalentFactors++;
-                                break;
-                            }
-
+                        int match = indexOfFactorsExpr.removeEquivalentOrAntiEquivalentTerm(factorsThis.get(i));
+                        if (match == 0) {
+                            return false;
+                        }
+                        if (match < 0) {
+                            numberOfAntiEquivalentFactors++;
                         }
                     }
-                    return numberOfEquivalentFactors + numberOfAntiEquivalentFactors == numberOfFactors && numberOfAntiEquivalentFactors % 2 == 0;
+                    return numberOfAntiEquivalentFactors % 2 == 0;
 
                 }
                 if (this.isQuotient()) {
 
-                    return this.left.equivalent(((BinaryOperation) expr).left)
-                            && this.right.equivalent(((BinaryOperation) expr).right)
-                            || this.left.antiEquivalent(((BinaryOperation) expr).left)
-                            && this.right.antiEquivalent(((BinaryOperation) expr).right);
+                    return this.getLeft().equivalent(((BinaryOperation) expr).getLeft())
+                            && this.getRight().equivalent(((BinaryOperation) expr).getRight())
+                            || this.getLeft().antiEquivalent(((BinaryOperation) expr).getLeft())
+                            && this.getRight().antiEquivalent(((BinaryOperation) expr).getRight());
 
                 }
-                if (this.isPower() && expr.isPower() && this.right.equivalent(((BinaryOperation) expr).right)
-                        && (((BinaryOperation) expr).right.isEvenIntegerConstant() || ((BinaryOperation) expr).right.isRationalConstant()
-                        && ((BinaryOperation) ((BinaryOperation) expr).right).left.isEvenIntegerConstant()
-                        && ((BinaryOperation) ((BinaryOperation) expr).right).right.isOddIntegerConstant())) {
+                if (this.isPower() && expr.isPower() && this.getRight().equivalent(((BinaryOperation) expr).getRight())
+                        && (((BinaryOperation) expr).getRight().isEvenIntegerConstant() || ((BinaryOperation) expr).getRight().isRationalConstant()
+                        && ((BinaryOperation) ((BinaryOperation) expr).getRight()).getLeft().isEvenIntegerConstant()
+                        && ((BinaryOperation) ((BinaryOperation) expr).getRight()).getRight().isOddIntegerConstant())) {
 
                     /* 
                      Bei geraden Potenzen oder bei rationalen Potenzen mit geradem Zählen und ungeradem Nenner sollen 
                      die Ausdrücke äquivalent sein, wenn sich die Basen sogar um ein Vorzeichen unterscheiden.
                      */
-                    ExpressionCollection summandsLeftOfThis = SimplifyUtilities.getSummandsLeftInExpression(this.left);
-                    ExpressionCollection summandsRightOfThis = SimplifyUtilities.getSummandsRightInExpression(this.left);
-                    ExpressionCollection summandsLeftOfExpr = SimplifyUtilities.getSummandsLeftInExpression(((BinaryOperation) expr).left);
-                    ExpressionCollection summandsRightOfExpr = SimplifyUtilities.getSummandsRightInExpression(((BinaryOperation) expr).left);
-
                     ExpressionCollection summandsLeftOfThisWithSign = new ExpressionCollection();
                     ExpressionCollection summandsRightOfThisWithSign = new ExpressionCollection();
                     ExpressionCollection summandsLeftOfExprWithSign = new ExpressionCollection();
                     ExpressionCollection summandsRightOfExprWithSign = new ExpressionCollection();
 
                     try {
-                        for (int i = 0; i < summandsLeftOfThis.getBound(); i++) {
-                            if (summandsLeftOfThis.get(i).hasPositiveSign()) {
-                                summandsLeftOfThisWithSign.add(summandsLeftOfThis.get(i));
-                            } else {
-                                summandsRightOfThisWithSign.add(MINUS_ONE.mult(summandsLeftOfThis.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsRightOfThis.getBound(); i++) {
-                            if (summandsRightOfThis.get(i).hasPositiveSign()) {
-                                summandsRightOfThisWithSign.add(summandsRightOfThis.get(i));
-                            } else {
-                                summandsLeftOfThisWithSign.add(MINUS_ONE.mult(summandsRightOfThis.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsLeftOfExpr.getBound(); i++) {
-                            if (summandsLeftOfExpr.get(i).hasPositiveSign()) {
-                                summandsLeftOfExprWithSign.add(summandsLeftOfExpr.get(i));
-                            } else {
-                                summandsRightOfExprWithSign.add(MINUS_ONE.mult(summandsLeftOfExpr.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsRightOfExpr.getBound(); i++) {
-                            if (summandsRightOfExpr.get(i).hasPositiveSign()) {
-                                summandsRightOfExprWithSign.add(summandsRightOfExpr.get(i));
-                            } else {
-                                summandsLeftOfExprWithSign.add(MINUS_ONE.mult(summandsRightOfExpr.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        return summandsLeftOfThisWithSign.getBound() == summandsLeftOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsLeftOfThisWithSign, summandsLeftOfExprWithSign).isEmpty()
-                                && summandsRightOfThisWithSign.getBound() == summandsRightOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsRightOfThisWithSign, summandsRightOfExprWithSign).isEmpty()
-                                || summandsLeftOfThisWithSign.getBound() == summandsRightOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsLeftOfThisWithSign, summandsRightOfExprWithSign).isEmpty()
-                                && summandsRightOfThisWithSign.getBound() == summandsLeftOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsRightOfThisWithSign, summandsLeftOfExprWithSign).isEmpty();
+                        SimplifyUtilities.getSummandsWithPositiveSign(this.getLeft(), summandsLeftOfThisWithSign, summandsRightOfThisWithSign);
+                        SimplifyUtilities.getSummandsWithPositiveSign(((BinaryOperation) expr).getLeft(), summandsLeftOfExprWithSign, summandsRightOfExprWithSign);
+                        return SimplifyUtilities.equivalentUpToOrder(summandsLeftOfThisWithSign, summandsLeftOfExprWithSign)
+                                && SimplifyUtilities.equivalentUpToOrder(summandsRightOfThisWithSign, summandsRightOfExprWithSign)
+                                || SimplifyUtilities.equivalentUpToOrder(summandsLeftOfThisWithSign, summandsRightOfExprWithSign)
+                                && SimplifyUtilities.equivalentUpToOrder(summandsRightOfThisWithSign, summandsLeftOfExprWithSign);
                     } catch (EvaluationException e) {
                     }
 
                 }
-                return this.left.equivalent(((BinaryOperation) expr).left)
-                        && this.right.equivalent(((BinaryOperation) expr).right);
+                return this.getLeft().equivalent(((BinaryOperation) expr).getLeft())
+                        && this.getRight().equivalent(((BinaryOperation) expr).getRight());
             }
             return false;
         }
@@ -804,51 +1010,22 @@ public class BinaryOperation extends Expression {
 
         if (expr instanceof BinaryOperation) {
             if (this.type.equals(((BinaryOperation) expr).type)) {
+                // Antiäquivalente Ausdrücke besitzen denselben Hashwert (siehe getEquivalenceHash()).
+                if (this.getEquivalenceHash() != expr.getEquivalenceHash()) {
+                    return false;
+                }
                 if (this.isSum() || this.isDifference()) {
 
-                    ExpressionCollection summandsLeftOfThis = SimplifyUtilities.getSummandsLeftInExpression(this);
-                    ExpressionCollection summandsRightOfThis = SimplifyUtilities.getSummandsRightInExpression(this);
-                    ExpressionCollection summandsLeftOfExpr = SimplifyUtilities.getSummandsLeftInExpression(expr);
-                    ExpressionCollection summandsRightOfExpr = SimplifyUtilities.getSummandsRightInExpression(expr);
-
                     ExpressionCollection summandsLeftOfThisWithSign = new ExpressionCollection();
                     ExpressionCollection summandsRightOfThisWithSign = new ExpressionCollection();
                     ExpressionCollection summandsLeftOfExprWithSign = new ExpressionCollection();
                     ExpressionCollection summandsRightOfExprWithSign = new ExpressionCollection();
 
                     try {
-                        for (int i = 0; i < summandsLeftOfThis.getBound(); i++) {
-                            if (summandsLeftOfThis.get(i).hasPositiveSign()) {
-                                summandsLeftOfThisWithSign.add(summandsLeftOfThis.get(i));
-                            } else {
-                                summandsRightOfThisWithSign.add(MINUS_ONE.mult(summandsLeftOfThis.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsRightOfThis.getBound(); i++) {
-                            if (summandsRightOfThis.get(i).hasPositiveSign()) {
-                                summandsRightOfThisWithSign.add(summandsRightOfThis.get(i));
-                            } else {
-                                summandsLeftOfThisWithSign.add(MINUS_ONE.mult(summandsRightOfThis.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsLeftOfExpr.getBound(); i++) {
-                            if (summandsLeftOfExpr.get(i).hasPositiveSign()) {
-                                summandsLeftOfExprWithSign.add(summandsLeftOfExpr.get(i));
-                            } else {
-                                summandsRightOfExprWithSign.add(MINUS_ONE.mult(summandsLeftOfExpr.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsRightOfExpr.getBound(); i++) {
-                            if (summandsRightOfExpr.get(i).hasPositiveSign()) {
-                                summandsRightOfExprWithSign.add(summandsRightOfExpr.get(i));
-                            } else {
-                                summandsLeftOfExprWithSign.add(MINUS_ONE.mult(summandsRightOfExpr.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        return summandsLeftOfThisWithSign.getBound() == summandsRightOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsLeftOfThisWithSign, summandsRightOfExprWithSign).isEmpty()
-                                && summandsRightOfThisWithSign.getBound() == summandsLeftOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsRightOfThisWithSign, summandsLeftOfExprWithSign).isEmpty();
+                        SimplifyUtilities.getSummandsWithPositiveSign(this, summandsLeftOfThisWithSign, summandsRightOfThisWithSign);
+                        SimplifyUtilities.getSummandsWithPositiveSign(expr, summandsLeftOfExprWithSign, summandsRightOfExprWithSign);
+                        return SimplifyUtilities.equivalentUpToOrder(summandsLeftOfThisWithSign, summandsRightOfExprWithSign)
+                                && SimplifyUtilities.equivalentUpToOrder(summandsRightOfThisWithSign, summandsLeftOfExprWithSign);
                     } catch (EvaluationException e) {
                     }
 
@@ -861,85 +1038,45 @@ public class BinaryOperation extends Expression {
                         return false;
                     }
 
-                    int numberOfFactors = factorsThis.getBound();
-                    int numberOfEquivalentFactors = 0;
+                    // Jeder Faktor von this wird nur mit den Faktoren von expr mit demselben Hashwert verglichen.
+                    EquivalenceIndex indexOfFactorsExpr = new EquivalenceIndex(factorsExpr);
                     int numberOfAntiEquivalentFactors = 0;
                     for (int i = 0; i < factorsThis.getBound(); i++) {
-                        for (int j = 0; j < factorsExpr.getBound(); j++) {
-                            if (factorsThis.get(i).equivalent(factorsExpr.get(j))) {
-                                factorsThis.remove(i);
-                                factorsExpr.remove(j);
-                                numberOfEquivalentFactors++;
-                                break;
-                            } else if (factorsThis.get(i).antiEquivalent(factorsExpr.get(j))) {
-                                factorsThis.remove(i);
-                                factorsExpr.remove(j);
-                                numberOfAntiEquivalentFactors++;
-                                break;
-                            }
-
+                        int match = indexOfFactorsExpr.removeEquivalentOrAntiEquivalentTerm(factorsThis.get(i));
+                        if (match == 0) {
+                            return false;
+                        }
+                        if (match < 0) {
+                            numberOfAntiEquivalentFactors++;
                         }
                     }
-                    return numberOfEquivalentFactors + numberOfAntiEquivalentFactors == numberOfFactors && numberOfAntiEquivalentFactors % 2 == 1;
+                    return numberOfAntiEquivalentFactors % 2 == 1;
 
                 }
                 if (this.isQuotient()) {
-                    return this.left.equivalent(((BinaryOperation) expr).left) && this.right.antiEquivalent(((BinaryOperation) expr).right)
-                            || this.left.antiEquivalent(((BinaryOperation) expr).left) && this.right.equivalent(((BinaryOperation) expr).right);
+                    return this.getLeft().equivalent(((BinaryOperation) expr).getLeft()) && this.getRight().antiEquivalent(((BinaryOperation) expr).getRight())
+                            || this.getLeft().antiEquivalent(((BinaryOperation) expr).getLeft()) && this.getRight().equivalent(((BinaryOperation) expr).getRight());
 
                 }
-                if (this.isPower() && expr.isPower() && this.right.equivalent(((BinaryOperation) expr).right)
-                        && (((BinaryOperation) expr).right.isOddIntegerConstant() || ((BinaryOperation) expr).right.isRationalConstant()
-                        && ((BinaryOperation) ((BinaryOperation) expr).right).left.isOddIntegerConstant()
-                        && ((BinaryOperation) ((BinaryOperation) expr).right).right.isOddIntegerConstant())) {
+                if (this.isPower() && expr.isPower() && this.getRight().equivalent(((BinaryOperation) expr).getRight())
+                        && (((BinaryOperation) expr).getRight().isOddIntegerConstant() || ((BinaryOperation) expr).getRight().isRationalConstant()
+                        && ((BinaryOperation) ((BinaryOperation) expr).getRight()).getLeft().isOddIntegerConstant()
+                        && ((BinaryOperation) ((BinaryOperation) expr).getRight()).getRight().isOddIntegerConstant())) {
 
                     /* 
                      Bei ungeraden Potenzen oder bei rationalen Potenzen mit ungeradem Zählen und ungeradem Nenner sollen 
                      die Ausdrücke antiäquivalent sein, wenn sich die Basen sogar um ein Vorzeichen unterscheiden.
                      */
-                    ExpressionCollection summandsLeftOfThis = SimplifyUtilities.getSummandsLeftInExpression(this.left);
-                    ExpressionCollection summandsRightOfThis = SimplifyUtilities.getSummandsRightInExpression(this.left);
-                    ExpressionCollection summandsLeftOfExpr = SimplifyUtilities.getSummandsLeftInExpression(((BinaryOperation) expr).left);
-                    ExpressionCollection summandsRightOfExpr = SimplifyUtilities.getSummandsRightInExpression(((BinaryOperation) expr).left);
-
                     ExpressionCollection summandsLeftOfThisWithSign = new ExpressionCollection();
                     ExpressionCollection summandsRightOfThisWithSign = new ExpressionCollection();
                     ExpressionCollection summandsLeftOfExprWithSign = new ExpressionCollection();
                     ExpressionCollection summandsRightOfExprWithSign = new ExpressionCollection();
 
                     try {
-                        for (int i = 0; i < summandsLeftOfThis.getBound(); i++) {
-                            if (summandsLeftOfThis.get(i).hasPositiveSign()) {
-                                summandsLeftOfThisWithSign.add(summandsLeftOfThis.get(i));
-                            } else {
-                                summandsRightOfThisWithSign.add(MINUS_ONE.mult(summandsLeftOfThis.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsRightOfThis.getBound(); i++) {
-                            if (summandsRightOfThis.get(i).hasPositiveSign()) {
-                                summandsRightOfThisWithSign.add(summandsRightOfThis.get(i));
-                            } else {
-                                summandsLeftOfThisWithSign.add(MINUS_ONE.mult(summandsRightOfThis.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsLeftOfExpr.getBound(); i++) {
-                            if (summandsLeftOfExpr.get(i).hasPositiveSign()) {
-                                summandsLeftOfExprWithSign.add(summandsLeftOfExpr.get(i));
-                            } else {
-                                summandsRightOfExprWithSign.add(MINUS_ONE.mult(summandsLeftOfExpr.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        for (int i = 0; i < summandsRightOfExpr.getBound(); i++) {
-                            if (summandsRightOfExpr.get(i).hasPositiveSign()) {
-                                summandsRightOfExprWithSign.add(summandsRightOfExpr.get(i));
-                            } else {
-                                summandsLeftOfExprWithSign.add(MINUS_ONE.mult(summandsRightOfExpr.get(i)).orderSumsAndProducts());
-                            }
-                        }
-                        return summandsLeftOfThisWithSign.getBound() == summandsRightOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsLeftOfThisWithSign, summandsRightOfExprWithSign).isEmpty()
-                                && summandsRightOfThisWithSign.getBound() == summandsLeftOfExprWithSign.getBound()
-                                && SimplifyUtilities.difference(summandsRightOfThisWithSign, summandsLeftOfExprWithSign).isEmpty();
+                        SimplifyUtilities.getSummandsWithPositiveSign(this.getLeft(), summandsLeftOfThisWithSign, summandsRightOfThisWithSign);
+                        SimplifyUtilities.getSummandsWithPositiveSign(((BinaryOperation) expr).getLeft(), summandsLeftOfExprWithSign, summandsRightOfExprWithSign);
+                        return SimplifyUtilities.equivalentUpToOrder(summandsLeftOfThisWithSign, summandsRightOfExprWithSign)
+                                && SimplifyUtilities.equivalentUpToOrder(summandsRightOfThisWithSign, summandsLeftOfExprWithSign);
                     } catch (EvaluationException e) {
                     }
 
@@ -956,24 +1093,26 @@ public class BinaryOperation extends Expression {
         if (this.type != TypeBinary.TIMES && this.type != TypeBinary.DIV) {
             return true;
         }
-        return (this.left.hasPositiveSign() && this.right.hasPositiveSign()) || (!this.left.hasPositiveSign() && !this.right.hasPositiveSign());
+        return (this.getLeft().hasPositiveSign() && this.getRight().hasPositiveSign()) || (!this.getLeft().hasPositiveSign() && !this.getRight().hasPositiveSign());
     }
 
     @Override
     public int getLength() {
+        return this.length;
+    }
+
+    @Override
+    public int getDepth() {
+        return this.depth;
+    }
+
+    private int computeLength() {
         if (this.isProduct()) {
-            ExpressionCollection factors = SimplifyUtilities.getFactors(this);
-            int length = 0;
-            for (int i = 0; i < factors.getBound(); i++) {
-                if (!(factors.get(i) instanceof Constant)) {
-                    length += factors.get(i).getLength();
-                }
-            }
             /* 
              Konstante Koeffizienten sollen nicht in die Länge miteinfließen, außer, 
              der Ausdruck ist an sich konstant.
              */
-            return Math.max(length, 1);
+            return Math.max(this.lengthOfFactors, 1);
         }
         if (this.isPower()) {
             if (this.left instanceof Constant) {
@@ -1023,15 +1162,15 @@ public class BinaryOperation extends Expression {
         }
         if (this.isQuotient()) {
 
-            return this.left.getMaximalNumberOfSummandsInExpansion();
+            return this.getLeft().getMaximalNumberOfSummandsInExpansion();
 
         }
 
         // Ab hier ist this eine Potenz;
-        if (this.right.isPositiveIntegerConstant()
-                && ((Constant) this.right).getBigIntValue().compareTo(BigInteger.valueOf(ComputationBounds.BOUND_ALGEBRA_MAX_POWER_OF_BINOMIAL)) <= 0) {
-            int exponent = ((Constant) this.right).getBigIntValue().intValue();
-            int numberOfSummandsInBase = this.left.getMaximalNumberOfSummandsInExpansion();
+        if (this.getRight().isPositiveIntegerConstant()
+                && ((Constant) this.getRight()).getBigIntValue().compareTo(BigInteger.valueOf(ComputationBounds.BOUND_ALGEBRA_MAX_POWER_OF_BINOMIAL)) <= 0) {
+            int exponent = ((Constant) this.getRight()).getBigIntValue().intValue();
+            int numberOfSummandsInBase = this.getLeft().getMaximalNumberOfSummandsInExpansion();
             BigInteger numberOfSummandsInResult = ArithmeticUtils.factorial(numberOfSummandsInBase - 1 + exponent).divide(ArithmeticUtils.factorial(numberOfSummandsInBase - 1).multiply(ArithmeticUtils.factorial(exponent)));
 
             if (numberOfSummandsInResult.compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) > 0) {
@@ -1072,11 +1211,11 @@ public class BinaryOperation extends Expression {
                 SimplifyBinaryOperationUtils.computeSumIfApprox(summandsLeft, summandsRight);
             }
 
-            return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         } else if (this.isDifference()) {
 
-            exprLeftAndRightSimplified = this.left.simplifyBasic().sub(this.right.simplifyBasic());
+            exprLeftAndRightSimplified = thisIfEqual(this.getLeft().simplifyBasic().sub(this.getRight().simplifyBasic()));
             if (!(exprLeftAndRightSimplified instanceof BinaryOperation)) {
                 return exprLeftAndRightSimplified;
             }
@@ -1102,7 +1241,7 @@ public class BinaryOperation extends Expression {
                 return SimplifyBinaryOperationUtils.computeDifferenceIfApprox(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
             }
 
-            return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         } else if (this.isProduct()) {
 
@@ -1133,11 +1272,11 @@ public class BinaryOperation extends Expression {
                 SimplifyBinaryOperationUtils.computeProductIfApprox(factors);
             }
 
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         } else if (this.isQuotient()) {
 
-            exprLeftAndRightSimplified = this.left.simplifyBasic().div(this.right.simplifyBasic());
+            exprLeftAndRightSimplified = thisIfEqual(this.getLeft().simplifyBasic().div(this.getRight().simplifyBasic()));
             if (!(exprLeftAndRightSimplified instanceof BinaryOperation)) {
                 return exprLeftAndRightSimplified;
             }
@@ -1187,7 +1326,7 @@ public class BinaryOperation extends Expression {
             ExpressionCollection factorsEnumerator = SimplifyUtilities.getFactorsOfNumeratorInExpression(expr);
             ExpressionCollection factorsDenominator = SimplifyUtilities.getFactorsOfDenominatorInExpression(expr);
             SimplifyBinaryOperationUtils.pullMinusSignFromProductOrQuotientsWithCompleteNegativeSums(factorsEnumerator, factorsDenominator);
-            return SimplifyUtilities.produceQuotient(factorsEnumerator, factorsDenominator);
+            return thisIfEqual(SimplifyUtilities.produceQuotient(factorsEnumerator, factorsDenominator));
 
         }
 
@@ -1204,7 +1343,7 @@ public class BinaryOperation extends Expression {
             return exprSimplified;
         }
 
-        exprLeftAndRightSimplified = this.left.simplifyBasic().pow(this.right.simplifyBasic());
+        exprLeftAndRightSimplified = thisIfEqual(this.getLeft().simplifyBasic().pow(this.getRight().simplifyBasic()));
         if (!(exprLeftAndRightSimplified instanceof BinaryOperation)) {
             return exprLeftAndRightSimplified;
         }
@@ -1315,7 +1454,7 @@ public class BinaryOperation extends Expression {
 
     @Override
     public Expression simplifyByInsertingDefinedVars() throws EvaluationException {
-        return new BinaryOperation(this.left.simplifyByInsertingDefinedVars(), this.right.simplifyByInsertingDefinedVars(), this.type);
+        return this.withOperands(this.getLeft().simplifyByInsertingDefinedVars(), this.getRight().simplifyByInsertingDefinedVars());
     }
 
     @Override
@@ -1327,9 +1466,9 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summands.getBound(); i++) {
                 summands.put(i, summands.get(i).simplifyExpandRationalFactors());
             }
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
         } else if (this.isDifference() || this.isPower()) {
-            return new BinaryOperation(this.left.simplifyExpandRationalFactors(), this.right.simplifyExpandRationalFactors(), this.type);
+            return this.withOperands(this.getLeft().simplifyExpandRationalFactors(), this.getRight().simplifyExpandRationalFactors());
         }
 
         BinaryOperation expr;
@@ -1339,18 +1478,18 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < factors.getBound(); i++) {
                 factors.put(i, factors.get(i).simplifyExpandRationalFactors());
             }
-            Expression productOfSimplifiedFactors = SimplifyUtilities.produceProduct(factors);
+            Expression productOfSimplifiedFactors = thisIfEqual(SimplifyUtilities.produceProduct(factors));
             if (!(productOfSimplifiedFactors instanceof BinaryOperation)) {
                 return productOfSimplifiedFactors;
             }
             expr = (BinaryOperation) productOfSimplifiedFactors;
         } else {
             Expression simplifiedQuotient;
-            simplifiedQuotient = this.left.simplifyExpandRationalFactors().div(this.right.simplifyExpandRationalFactors());
+            simplifiedQuotient = thisIfEqual(this.getLeft().simplifyExpandRationalFactors().div(this.getRight().simplifyExpandRationalFactors()));
             if (!(simplifiedQuotient instanceof BinaryOperation)) {
                 return simplifiedQuotient;
             }
-            expr = (BinaryOperation) this.left.simplifyExpandRationalFactors().div(this.right.simplifyExpandRationalFactors());
+            expr = (BinaryOperation) simplifiedQuotient;
         }
 
         if (expr.isProduct() && expr.getLeft() instanceof Constant) {
@@ -1364,7 +1503,7 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summandsRight.getBound(); i++) {
                 summandsRight.put(i, expr.getLeft().mult(summandsRight.get(i)));
             }
-            return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         } else if (expr.isQuotient() && expr.getRight() instanceof Constant) {
 
@@ -1377,7 +1516,7 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summandsRight.getBound(); i++) {
                 summandsRight.put(i, summandsRight.get(i).div(expr.getRight()));
             }
-            return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         }
 
@@ -1391,8 +1530,8 @@ public class BinaryOperation extends Expression {
         Expression expr = this, exprExpanded = SimplifyBinaryOperationUtils.simplifySingleExpand(this, type);
 
         // Es wird solange ausmultipliziert, bis keine weitere Ausmultiplikation mehr möglich ist.
-        while (!expr.equals(exprExpanded)) {
-            expr = exprExpanded.copy();
+        while (expr != exprExpanded && !expr.equals(exprExpanded)) {
+            expr = exprExpanded;
             exprExpanded = SimplifyBinaryOperationUtils.simplifySingleExpand(expr, type);
         }
 
@@ -1416,7 +1555,7 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summandsRight.getBound(); i++) {
                 summandsRight.put(i, summandsRight.get(i).simplifyBringExpressionToCommonDenominator(type));
             }
-            expr = SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            expr = thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
         } else if (this.isProduct() || this.isQuotient()) {
             ExpressionCollection factorsNumerator = SimplifyUtilities.getFactorsOfNumeratorInExpression(this);
             ExpressionCollection factorsDenominator = SimplifyUtilities.getFactorsOfDenominatorInExpression(this);
@@ -1427,9 +1566,9 @@ public class BinaryOperation extends Expression {
                 factorsDenominator.put(i, factorsDenominator.get(i).simplifyBringExpressionToCommonDenominator(type));
             }
             // Bis hierhin ist das Ergebnis von der Form (A_1/B_1)* ... *(A_m/B_m) / (C_1/D_1)* ... *(C_n/D_n). Den Rest erledigt das Ordnen.
-            expr = SimplifyUtilities.produceQuotient(factorsNumerator, factorsDenominator).orderDifferencesAndQuotients();
+            expr = thisIfEqual(SimplifyUtilities.produceQuotient(factorsNumerator, factorsDenominator).orderDifferencesAndQuotients());
         } else if (this.isPower()) {
-            expr = this.left.simplifyBringExpressionToCommonDenominator(type).pow(this.right.simplifyBringExpressionToCommonDenominator(type));
+            expr = thisIfEqual(this.getLeft().simplifyBringExpressionToCommonDenominator(type).pow(this.getRight().simplifyBringExpressionToCommonDenominator(type)));
         }
 
         // Nur bei Mehrfachbrüchen alles auf einen Nenner bringen.
@@ -1440,8 +1579,8 @@ public class BinaryOperation extends Expression {
         Expression exprSimplified = SimplifyBinaryOperationUtils.bringExpressionToCommonDenominator(expr);
 
         // Es wird solange auf einen Nenner gebracht, bis dies nicht mehr möglich ist.
-        while (!expr.equals(exprSimplified)) {
-            expr = exprSimplified.copy();
+        while (expr != exprSimplified && !expr.equals(exprSimplified)) {
+            expr = exprSimplified;
             exprSimplified = SimplifyBinaryOperationUtils.bringExpressionToCommonDenominator(expr);
         }
 
@@ -1465,6 +1604,14 @@ public class BinaryOperation extends Expression {
      */
     private static boolean containsRepeatedFraction(Expression expr, boolean nestedFractionAllowed) {
 
+        if (expr instanceof NaryOperation) {
+            for (int i = 0; i < ((NaryOperation) expr).getNumberOfOperands(); i++) {
+                if (containsRepeatedFraction(((NaryOperation) expr).getOperand(i), nestedFractionAllowed)) {
+                    return true;
+                }
+            }
+            return false;
+        }
         if (expr instanceof BinaryOperation) {
             if (expr.isSum() || expr.isDifference() || expr.isProduct()) {
                 return containsRepeatedFraction(((BinaryOperation) expr).getLeft(), nestedFractionAllowed) || containsRepeatedFraction(((BinaryOperation) expr).getRight(), nestedFractionAllowed);
@@ -1492,7 +1639,7 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summands.getBound(); i++) {
                 summands.put(i, summands.get(i).simplifyReduceDifferencesAndQuotientsAdvanced());
             }
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
         } else if (this.isProduct()) {
             // In jedem Faktor einzeln kürzen.
             ExpressionCollection factors = SimplifyUtilities.getFactors(this);
@@ -1506,9 +1653,9 @@ public class BinaryOperation extends Expression {
              */
             SimplifyBinaryOperationUtils.pullGCDOfCoefficientsInProducts(factors);
 
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
         } else if (this.isPower()) {
-            return this.left.simplifyReduceDifferencesAndQuotientsAdvanced().pow(this.right.simplifyReduceDifferencesAndQuotientsAdvanced());
+            return thisIfEqual(this.getLeft().simplifyReduceDifferencesAndQuotientsAdvanced().pow(this.getRight().simplifyReduceDifferencesAndQuotientsAdvanced()));
         }
 
         // Nun kann es dich nur noch um Differenzen oder Quotienten handeln.
@@ -1537,7 +1684,7 @@ public class BinaryOperation extends Expression {
             SimplifyBinaryOperationUtils.reduceLeadingCoefficientsInDifference(termsLeft, termsRight);
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceDifference(termsLeft, termsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(termsLeft, termsRight));
 
         } else {
 
@@ -1587,7 +1734,7 @@ public class BinaryOperation extends Expression {
              */
             SimplifyBinaryOperationUtils.reduceFactorialsInQuotients(termsLeft, termsRight);
 
-            return SimplifyUtilities.produceQuotient(termsLeft, termsRight);
+            return thisIfEqual(SimplifyUtilities.produceQuotient(termsLeft, termsRight));
 
         }
 
@@ -1597,52 +1744,38 @@ public class BinaryOperation extends Expression {
     public Expression orderSumsAndProducts() throws EvaluationException {
 
         if (this.isNotSum() && this.isNotProduct()) {
-            return new BinaryOperation(this.left.orderSumsAndProducts(), this.right.orderSumsAndProducts(), this.type);
+            return this.withOperands(this.getLeft().orderSumsAndProducts(), this.getRight().orderSumsAndProducts());
         }
 
         // Fall type = +.
         if (this.isSum()) {
 
-            Expression result = ZERO;
             ExpressionCollection summands = SimplifyUtilities.getSummands(this);
             // Sammelt Konstanten im ersten Summanden. Beispiel: 2+x+3+y+sin(1) wird zu 5+sin(1)+x+y
             summands = SimplifyBinaryOperationUtils.collectConstantsAndConstantExpressionsInSum(summands);
 
-            for (int i = summands.getBound() - 1; i >= 0; i--) {
-                if (summands.get(i) == null) {
-                    continue;
-                }
-                summands.put(i, summands.get(i).orderSumsAndProducts());
-                if (result.equals(ZERO)) {
-                    result = summands.get(i).orderSumsAndProducts();
-                } else {
-                    result = summands.get(i).orderSumsAndProducts().add(result);
+            for (int i = 0; i < summands.getBound(); i++) {
+                if (summands.get(i) != null) {
+                    summands.put(i, summands.get(i).orderSumsAndProducts());
                 }
             }
 
-            return result;
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else {
 
             // Fall type = *.
-            Expression result = ONE;
             ExpressionCollection factors = SimplifyUtilities.getFactors(this);
             // Sammelt Konstanten im ersten Summanden. Beispiel: 2*x*3*y*sin(1) wird zu 6*sin(1)*x*y
             factors = SimplifyBinaryOperationUtils.collectConstantsAndConstantExpressionsInProduct(factors);
 
-            for (int i = factors.getBound() - 1; i >= 0; i--) {
-                if (factors.get(i) == null) {
-                    continue;
-                }
-                factors.put(i, factors.get(i).orderSumsAndProducts());
-                if (result.equals(ONE)) {
-                    result = factors.get(i).orderSumsAndProducts();
-                } else {
-                    result = factors.get(i).orderSumsAndProducts().mult(result);
+            for (int i = 0; i < factors.getBound(); i++) {
+                if (factors.get(i) != null) {
+                    factors.put(i, factors.get(i).orderSumsAndProducts());
                 }
             }
 
-            return result;
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         }
 
@@ -1680,10 +1813,10 @@ public class BinaryOperation extends Expression {
 
         } else {
             // Hier ist expr.getType() == TypeBinary.POW.
-            result = this.left.orderDifferencesAndQuotients().pow(this.right.orderDifferencesAndQuotients());
+            result = this.getLeft().orderDifferencesAndQuotients().pow(this.getRight().orderDifferencesAndQuotients());
         }
 
-        return result;
+        return thisIfEqual(result);
 
     }
 
@@ -1696,10 +1829,10 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summands.getBound(); i++) {
                 summands.put(i, summands.get(i).simplifyCollectProducts());
             }
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
         } else if (this.isNotProduct()) {
             // Im linken und rechten Teil einzeln Faktoren sammeln.
-            return new BinaryOperation(this.left.simplifyCollectProducts(), this.right.simplifyCollectProducts(), this.type);
+            return this.withOperands(this.getLeft().simplifyCollectProducts(), this.getRight().simplifyCollectProducts());
         }
 
         ExpressionCollection factors = SimplifyUtilities.getFactors(this);
@@ -1711,7 +1844,7 @@ public class BinaryOperation extends Expression {
         }
 
         SimplifyBinaryOperationUtils.collectFactorsInProduct(factors);
-        return SimplifyUtilities.produceProduct(factors);
+        return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
     }
 
@@ -1728,17 +1861,17 @@ public class BinaryOperation extends Expression {
             // Eigentliche Faktorisierung.
             SimplifyBinaryOperationUtils.simplifyFactorizeAntiEquivalentExpressionsInSums(summands);
             SimplifyBinaryOperationUtils.simplifyFactorizeInSums(summands);
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (this.isDifference()) {
 
-            Expression expr = this.left.simplifyFactorize().sub(this.right.simplifyFactorize());
+            Expression expr = this.getLeft().simplifyFactorize().sub(this.getRight().simplifyFactorize());
             ExpressionCollection summandsLeft = SimplifyUtilities.getSummandsLeftInExpression(expr);
             ExpressionCollection summandsRight = SimplifyUtilities.getSummandsRightInExpression(expr);
             // Eigentliche Faktorisierung.
             SimplifyBinaryOperationUtils.simplifyFactorizeAntiEquivalentExpressionsInDifferences(summandsLeft, summandsRight);
             SimplifyBinaryOperationUtils.simplifyFactorizeInDifferences(summandsLeft, summandsRight);
-            return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         } else if (this.isProduct()) {
 
@@ -1747,12 +1880,12 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < factors.getBound(); i++) {
                 factors.put(i, factors.get(i).simplifyFactorize());
             }
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         }
 
         // Hier ist type == DIV oder type == POW.
-        return new BinaryOperation(this.left.simplifyFactorize(), this.right.simplifyFactorize(), this.type);
+        return this.withOperands(this.getLeft().simplifyFactorize(), this.getRight().simplifyFactorize());
 
     }
 
@@ -1765,10 +1898,10 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < factors.getBound(); i++) {
                 factors.put(i, factors.get(i).simplifyFactorizeAllButRationalsInSums());
             }
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
         }
         if (this.isNotSum()) {
-            return new BinaryOperation(this.left.simplifyFactorizeAllButRationalsInSums(), this.right.simplifyFactorizeAllButRationalsInSums(), this.type);
+            return this.withOperands(this.getLeft().simplifyFactorizeAllButRationalsInSums(), this.getRight().simplifyFactorizeAllButRationalsInSums());
         }
 
         // Ab hier muss this als type + besitzen.
@@ -1781,7 +1914,7 @@ public class BinaryOperation extends Expression {
         // Eigentliche Faktorisierung.
         SimplifyBinaryOperationUtils.simplifyFactorizeAllButRationalsInSums(summands);
         // Ergebnis bilden.
-        return SimplifyUtilities.produceSum(summands);
+        return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
     }
 
@@ -1794,16 +1927,16 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summands.getBound(); i++) {
                 summands.put(i, summands.get(i).simplifyFactorizeAllButRationalsInDifferences());
             }
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
         } else if (this.isProduct()) {
             // In jedem Faktor einzeln kürzen.
             ExpressionCollection factors = SimplifyUtilities.getFactors(this);
             for (int i = 0; i < factors.getBound(); i++) {
                 factors.put(i, factors.get(i).simplifyFactorizeAllButRationalsInDifferences());
             }
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
         } else if (this.isQuotient() || this.isPower()) {
-            return new BinaryOperation(this.left.simplifyFactorizeAllButRationalsInDifferences(), this.right.simplifyFactorizeAllButRationalsInDifferences(), this.type);
+            return this.withOperands(this.getLeft().simplifyFactorizeAllButRationalsInDifferences(), this.getRight().simplifyFactorizeAllButRationalsInDifferences());
         }
 
         ExpressionCollection summandsLeft = SimplifyUtilities.getSummandsLeftInExpression(this);
@@ -1819,7 +1952,7 @@ public class BinaryOperation extends Expression {
         // Eigentliche Faktorisierung.
         SimplifyBinaryOperationUtils.simplifyFactorizeAllButRationalsInDifferences(summandsLeft, summandsRight);
         // Ergebnis bilden.
-        return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+        return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
     }
 
@@ -1836,18 +1969,18 @@ public class BinaryOperation extends Expression {
             // Eigentliche Faktorisierung.
             SimplifyBinaryOperationUtils.simplifyFactorizeAllButRationalsInSums(summands);
             SimplifyBinaryOperationUtils.simplifyFactorizeAllButRationalsForAntiEquivalentExpressionsInSums(summands);
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (this.isDifference()) {
 
-            Expression expr = this.left.simplifyFactorizeAllButRationals().sub(this.right.simplifyFactorizeAllButRationals());
+            Expression expr = this.getLeft().simplifyFactorizeAllButRationals().sub(this.getRight().simplifyFactorizeAllButRationals());
 
             ExpressionCollection summandsLeft = SimplifyUtilities.getSummandsLeftInExpression(expr);
             ExpressionCollection summandsRight = SimplifyUtilities.getSummandsRightInExpression(expr);
             // Eigentliche Faktorisierung.
             SimplifyBinaryOperationUtils.simplifyFactorizeAllButRationalsInDifferences(summandsLeft, summandsRight);
             SimplifyBinaryOperationUtils.simplifyFactorizeAllButRationalsForAntiEquivalentExpressionsInDifferences(summandsLeft, summandsRight);
-            return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         } else if (this.isProduct()) {
             // In jedem Faktor einzeln faktorisieren.
@@ -1855,11 +1988,11 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < factors.getBound(); i++) {
                 factors.put(i, factors.get(i).simplifyFactorizeAllButRationals());
             }
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
         }
 
         // Hier ist type == DIV oder type == POW.
-        return new BinaryOperation(this.left.simplifyFactorizeAllButRationals(), this.right.simplifyFactorizeAllButRationals(), this.type);
+        return this.withOperands(this.getLeft().simplifyFactorizeAllButRationals(), this.getRight().simplifyFactorizeAllButRationals());
 
     }
 
@@ -1872,16 +2005,16 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summands.getBound(); i++) {
                 summands.put(i, summands.get(i).simplifyReduceQuotients());
             }
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
         } else if (this.isProduct()) {
             // In jedem Faktor einzeln kürzen.
             ExpressionCollection factors = SimplifyUtilities.getFactors(this);
             for (int i = 0; i < factors.getBound(); i++) {
                 factors.put(i, factors.get(i).simplifyReduceQuotients());
             }
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
         } else if (this.isDifference() || this.isPower()) {
-            return new BinaryOperation(this.left.simplifyReduceQuotients(), this.right.simplifyReduceQuotients(), this.type);
+            return this.withOperands(this.getLeft().simplifyReduceQuotients(), this.getRight().simplifyReduceQuotients());
         }
 
         ExpressionCollection factorsEnumerator = SimplifyUtilities.getFactorsOfNumeratorInExpression(this);
@@ -1898,7 +2031,7 @@ public class BinaryOperation extends Expression {
         // Eigentliches Kürzen.
         SimplifyBinaryOperationUtils.simplifyReduceFactorsInQuotients(factorsEnumerator, factorsDenominator);
         // Ergebnis bilden.
-        return SimplifyUtilities.produceQuotient(factorsEnumerator, factorsDenominator);
+        return thisIfEqual(SimplifyUtilities.produceQuotient(factorsEnumerator, factorsDenominator));
 
     }
 
@@ -1914,7 +2047,7 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         }
 
@@ -1927,16 +2060,16 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         }
 
         if (this.isDifference() || this.isQuotient()) {
-            return new BinaryOperation(this.left.simplifyPullApartPowers(), this.right.simplifyPullApartPowers(), this.type);
+            return this.withOperands(this.getLeft().simplifyPullApartPowers(), this.getRight().simplifyPullApartPowers());
         }
 
         // Ab hier ist type == TypeBinary.POW
-        Expression expr = this.left.simplifyPullApartPowers().pow(this.right.simplifyPullApartPowers());
+        Expression expr = thisIfEqual(this.getLeft().simplifyPullApartPowers().pow(this.getRight().simplifyPullApartPowers()));
         Expression exprSimplified;
 
         exprSimplified = SimplifyExpLogUtils.splitPowersInProduct(expr);
@@ -1965,7 +2098,7 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (this.isProduct()) {
 
@@ -1976,18 +2109,18 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         } else if (this.isDifference() || this.isQuotient()) {
 
-            return new BinaryOperation(this.left.simplifyMultiplyExponents(), this.right.simplifyMultiplyExponents(), this.type);
+            return this.withOperands(this.getLeft().simplifyMultiplyExponents(), this.getRight().simplifyMultiplyExponents());
 
         }
 
         // Hier ist this.type == TypeBinary.POW
-        Expression leftSimplified = this.left.simplifyMultiplyExponents();
+        Expression leftSimplified = this.getLeft().simplifyMultiplyExponents();
         if (leftSimplified.isPower()) {
-            return ((BinaryOperation) leftSimplified).getLeft().pow(((BinaryOperation) leftSimplified).getRight().mult(this.right));
+            return ((BinaryOperation) leftSimplified).getLeft().pow(((BinaryOperation) leftSimplified).getRight().mult(this.getRight()));
         }
         return this;
 
@@ -2021,14 +2154,14 @@ public class BinaryOperation extends Expression {
             SimplifyFunctionalRelationsUtils.reduceOnePlusFunctionSquareToFunctionSquare(summands, TypeFunction.cosech, TypeFunction.coth);
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         }
 
         if (this.isDifference()) {
 
             // Im Minuenden und Subtrahenden einzeln Funktionalgleichungen anwenden.
-            Expression simplifiedDifference = this.left.simplifyFunctionalRelations().sub(this.right.simplifyFunctionalRelations());
+            Expression simplifiedDifference = thisIfEqual(this.getLeft().simplifyFunctionalRelations().sub(this.getRight().simplifyFunctionalRelations()));
             if (!(simplifiedDifference instanceof BinaryOperation)) {
                 return simplifiedDifference;
             }
@@ -2059,7 +2192,7 @@ public class BinaryOperation extends Expression {
             SimplifyFunctionalRelationsUtils.reduceFunctionSquareMinusOneToFunctionSquare(summandsLeft, summandsRight, TypeFunction.cosec, TypeFunction.cot);
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         }
 
@@ -2127,14 +2260,14 @@ public class BinaryOperation extends Expression {
             SimplifyFunctionalRelationsUtils.collectFactorialsInProductByReflectionFormula(factors);
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         }
 
         if (this.isQuotient()) {
 
             // Im Dividenden und Divisor einzeln Funktionalgleichungen anwenden.
-            Expression simplifiedQuotient = this.left.simplifyFunctionalRelations().div(this.right.simplifyFunctionalRelations());
+            Expression simplifiedQuotient = thisIfEqual(this.getLeft().simplifyFunctionalRelations().div(this.getRight().simplifyFunctionalRelations()));
             if (!(simplifiedQuotient instanceof BinaryOperation)) {
                 return simplifiedQuotient;
             }
@@ -2215,14 +2348,14 @@ public class BinaryOperation extends Expression {
             SimplifyFunctionalRelationsUtils.reciprocalOfFunction(factorsEnumerator, factorsDenominator, TypeFunction.cosech, TypeFunction.sinh);
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceQuotient(factorsEnumerator, factorsDenominator);
+            return thisIfEqual(SimplifyUtilities.produceQuotient(factorsEnumerator, factorsDenominator));
 
         }
 
         if (this.isPower()) {
 
             // In Basis und Exponenten einzeln Funktionalgleichungen anwenden.
-            Expression simplifiedPower = this.left.simplifyFunctionalRelations().pow(this.right.simplifyFunctionalRelations());
+            Expression simplifiedPower = thisIfEqual(this.getLeft().simplifyFunctionalRelations().pow(this.getRight().simplifyFunctionalRelations()));
             if (!(simplifiedPower instanceof BinaryOperation)) {
                 return simplifiedPower;
             }
@@ -2339,7 +2472,7 @@ public class BinaryOperation extends Expression {
                 }
             }
 
-            expr = SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            expr = thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         } else if (this.isProduct()) {
 
@@ -2351,7 +2484,7 @@ public class BinaryOperation extends Expression {
                     factors.put(i, factorSimplified);
                 }
             }
-            expr = SimplifyUtilities.produceProduct(factors);
+            expr = thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         }
 
@@ -2418,7 +2551,7 @@ public class BinaryOperation extends Expression {
         // Faktoren vor Logarithmusfunktionen zur Basis e in die Logarithmen hineinziehen.
         SimplifyExpLogUtils.pullFactorsIntoLogarithms(summandsLeft, TypeFunction.ln);
         SimplifyExpLogUtils.pullFactorsIntoLogarithms(summandsRight, TypeFunction.ln);
-        Expression expr = SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+        Expression expr = thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         if (expr.isSum()) {
 
@@ -2434,7 +2567,7 @@ public class BinaryOperation extends Expression {
             SimplifyExpLogUtils.collectLogarithmsInSum(summands, TypeFunction.ln);
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (expr.isDifference()) {
 
@@ -2450,7 +2583,7 @@ public class BinaryOperation extends Expression {
             SimplifyExpLogUtils.collectLogarithmsInDifference(summandsLeft, summandsRight, TypeFunction.ln);
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         } else if (expr.isProduct()) {
 
@@ -2461,12 +2594,11 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         } else if (expr instanceof BinaryOperation) {
-            return new BinaryOperation(((BinaryOperation) expr).getLeft().simplifyCollectLogarithms(),
-                    ((BinaryOperation) expr).getRight().simplifyCollectLogarithms(),
-                    ((BinaryOperation) expr).getType());
+            return ((BinaryOperation) expr).withOperands(((BinaryOperation) expr).getLeft().simplifyCollectLogarithms(),
+                    ((BinaryOperation) expr).getRight().simplifyCollectLogarithms());
         }
 
         return expr;
@@ -2487,7 +2619,7 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summandsRight.getBound(); i++) {
                 summandsRight.put(i, summandsRight.get(i).simplifyExpandLogarithms());
             }
-            return SimplifyUtilities.produceDifference(summandsLeft, summandsRight);
+            return thisIfEqual(SimplifyUtilities.produceDifference(summandsLeft, summandsRight));
 
         } else if (this.isProduct() || this.isQuotient()) {
 
@@ -2500,12 +2632,12 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < factorsDenominator.getBound(); i++) {
                 factorsDenominator.put(i, factorsDenominator.get(i).simplifyExpandLogarithms());
             }
-            return SimplifyUtilities.produceQuotient(factorsEnumerator, factorsDenominator);
+            return thisIfEqual(SimplifyUtilities.produceQuotient(factorsEnumerator, factorsDenominator));
 
         }
 
         // Dann ist this eine Potenz.
-        return this.left.simplifyExpandLogarithms().pow(this.right.simplifyExpandLogarithms());
+        return thisIfEqual(this.getLeft().simplifyExpandLogarithms().pow(this.getRight().simplifyExpandLogarithms()));
 
     }
 
@@ -2521,7 +2653,7 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (this.isProduct()) {
 
@@ -2532,16 +2664,15 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
-        } else if (this.isPower() && this.left.isConstant()) {
+        } else if (this.isPower() && this.getLeft().isConstant()) {
             // Nur dann ersetzen, wenn die Basis konstant ist.
-            return this.left.ln().mult(this.right).exp();
+            return this.getLeft().ln().mult(this.getRight()).exp();
         }
 
-        return new BinaryOperation(this.left.simplifyReplaceExponentialFunctionsByDefinitions(),
-                this.right.simplifyReplaceExponentialFunctionsByDefinitions(),
-                this.type);
+        return this.withOperands(this.getLeft().simplifyReplaceExponentialFunctionsByDefinitions(),
+                this.getRight().simplifyReplaceExponentialFunctionsByDefinitions());
 
     }
 
@@ -2557,7 +2688,7 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (this.isProduct()) {
 
@@ -2568,16 +2699,15 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
-        } else if (this.isPower() && !this.left.contains(var)) {
+        } else if (this.isPower() && !this.getLeft().contains(var)) {
             // Nur dann ersetzen, wenn die Basis bzgl. var konstant ist.
-            return this.left.ln().mult(this.right).exp();
+            return this.getLeft().ln().mult(this.getRight()).exp();
         }
 
-        return new BinaryOperation(this.left.simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(var),
-                this.right.simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(var),
-                this.type);
+        return this.withOperands(this.getLeft().simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(var),
+                this.getRight().simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(var));
 
     }
 
@@ -2593,7 +2723,7 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (this.isProduct()) {
 
@@ -2604,13 +2734,12 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         }
 
-        return new BinaryOperation(this.left.simplifyReplaceTrigonometricalFunctionsByDefinitions(),
-                this.right.simplifyReplaceTrigonometricalFunctionsByDefinitions(),
-                this.type);
+        return this.withOperands(this.getLeft().simplifyReplaceTrigonometricalFunctionsByDefinitions(),
+                this.getRight().simplifyReplaceTrigonometricalFunctionsByDefinitions());
 
     }
 
@@ -2626,7 +2755,7 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (this.isProduct()) {
 
@@ -2637,13 +2766,12 @@ public class BinaryOperation extends Expression {
             }
 
             // Ergebnis bilden.
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         }
 
-        return new BinaryOperation(this.left.simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(var),
-                this.right.simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(var),
-                this.type);
+        return this.withOperands(this.getLeft().simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(var),
+                this.getRight().simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(var));
 
     }
 
@@ -2816,7 +2944,7 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summands.getBound(); i++) {
                 summands.put(i, summands.get(i).simplifyExpandProductsOfComplexExponentialFunctions(var));
             }
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (this.isProduct()) {
 
@@ -2826,7 +2954,7 @@ public class BinaryOperation extends Expression {
                 factors.put(i, factors.get(i).simplifyExpandProductsOfComplexExponentialFunctions(var));
             }
 
-            Expression expr = SimplifyUtilities.produceProduct(factors);
+            Expression expr = thisIfEqual(SimplifyUtilities.produceProduct(factors));
             BigInteger numberOfSummands = getUpperBoundForSummands(expr, var);
 
             // Im Folgenden Fall nicht weiter ausmultiplizieren.
@@ -2871,23 +2999,23 @@ public class BinaryOperation extends Expression {
                 }
             }
 
-            return SimplifyUtilities.produceProduct(factors);
+            return thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
         } else if (this.isPower()) {
 
-            Expression expr = this.left.simplifyExpandProductsOfComplexExponentialFunctions(var).pow(this.right.simplifyExpandProductsOfComplexExponentialFunctions(var));
+            Expression expr = thisIfEqual(this.getLeft().simplifyExpandProductsOfComplexExponentialFunctions(var).pow(this.getRight().simplifyExpandProductsOfComplexExponentialFunctions(var)));
 
-            if (expr.isPower() && ((BinaryOperation) expr).right.isIntegerConstant()
-                    && ((BinaryOperation) expr).right.isPositive()
-                    && ((Constant) ((BinaryOperation) expr).right).getValue().compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) <= 0
-                    && isPolynomialInVariousExponentialAndTrigonometricalFunctions(((BinaryOperation) expr).left, var)) {
+            if (expr.isPower() && ((BinaryOperation) expr).getRight().isIntegerConstant()
+                    && ((BinaryOperation) expr).getRight().isPositive()
+                    && ((Constant) ((BinaryOperation) expr).getRight()).getValue().compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) <= 0
+                    && isPolynomialInVariousExponentialAndTrigonometricalFunctions(((BinaryOperation) expr).getLeft(), var)) {
 
                 BigInteger numberOfSummands = getUpperBoundForSummands(this, var);
                 if (numberOfSummands.compareTo(BigInteger.ZERO) > 0
                         && numberOfSummands.compareTo(BigInteger.valueOf(ComputationBounds.BOUND_OPERATOR_MAX_NUMBER_OF_INTEGRABLE_SUMMANDS)) <= 0) {
 
-                    Expression base = ((BinaryOperation) expr).left;
-                    int exponent = ((Constant) ((BinaryOperation) expr).right).getValue().intValue();
+                    Expression base = ((BinaryOperation) expr).getLeft();
+                    int exponent = ((Constant) ((BinaryOperation) expr).getRight()).getValue().intValue();
 
                     /* 
                      Falls base eine echte Summe / Differenz ist, dann expand() anwenden.
@@ -2910,9 +3038,8 @@ public class BinaryOperation extends Expression {
 
         }
 
-        return new BinaryOperation(this.left.simplifyExpandProductsOfComplexExponentialFunctions(var),
-                this.right.simplifyExpandProductsOfComplexExponentialFunctions(var),
-                this.type);
+        return this.withOperands(this.getLeft().simplifyExpandProductsOfComplexExponentialFunctions(var),
+                this.getRight().simplifyExpandProductsOfComplexExponentialFunctions(var));
 
     }
 
@@ -2928,7 +3055,7 @@ public class BinaryOperation extends Expression {
             for (int i = 0; i < summands.getBound(); i++) {
                 summands.put(i, summands.get(i).simplifyAlgebraicExpressions());
             }
-            return SimplifyUtilities.produceSum(summands);
+            return thisIfEqual(SimplifyUtilities.produceSum(summands));
 
         } else if (this.isProduct()) {
 
@@ -2938,7 +3065,7 @@ public class BinaryOperation extends Expression {
                 factors.put(i, factors.get(i).simplifyAlgebraicExpressions());
             }
 
-            Expression productOfAlgebraicallySimplifiedFactors = SimplifyUtilities.produceProduct(factors);
+            Expression productOfAlgebraicallySimplifiedFactors = thisIfEqual(SimplifyUtilities.produceProduct(factors));
 
             if (!(productOfAlgebraicallySimplifiedFactors instanceof BinaryOperation)) {
                 /*
@@ -2957,7 +3084,7 @@ public class BinaryOperation extends Expression {
 
         } else {
 
-            expr = new BinaryOperation(this.left.simplifyAlgebraicExpressions(), this.right.simplifyAlgebraicExpressions(), this.type);
+            expr = this.withOperands(this.getLeft().simplifyAlgebraicExpressions(), this.getRight().simplifyAlgebraicExpressions());
             if (!expr.equals(this)) {
                 return expr;
             }
@@ -19,32 +19,66 @@ public class Constant extends Expression {
     private double approxValue;
     private BigDecimal value;
     private boolean precise;
+    /*
+     Ist value eine ganze Zahl mit Skala 0 und höchstens 18 Stellen, so steht
+     sie zusätzlich in longValue (siehe isLongValue()). Damit können
+     Ganzzahligkeitstests und die Arithmetik kleiner rationaler Zahlen ohne
+     BigDecimal auskommen (siehe SmallRational).
+     */
+    private long longValue;
+    private boolean isLongValue;
+
+    /*
+     Gemeinsam benutzte Konstanten für häufige kleine ganze Zahlen (siehe
+     valueOf()).
+     */
+    private static final int MIN_CACHED_VALUE = -128;
+    private static final int MAX_CACHED_VALUE = 1024;
+    private static final Constant[] CACHED_CONSTANTS = new Constant[MAX_CACHED_VALUE - MIN_CACHED_VALUE + 1];
+
+    static {
+        for (int i = 0; i < CACHED_CONSTANTS.length; i++) {
+            CACHED_CONSTANTS[i] = new Constant(MIN_CACHED_VALUE + i);
+        }
+    }
 
     public Constant(double approxValue) throws EvaluationException {
         if (Double.isNaN(approxValue) || Double.isInfinite(approxValue)) {
-            throw new EvaluationException(Translator.translateOutputMessage("EB_Constant_CONSTANT_CANNOT_BE_EVALUATED"));
+            throw new EvaluationException(Translator.deferredMessage("EB_Constant_CONSTANT_CANNOT_BE_EVALUATED"));
         }
         this.approxValue = approxValue;
         this.value = BigDecimal.valueOf(this.approxValue);
         this.precise = false;
+        this.computeLongValue();
     }
 
     public Constant(int value) {
         this.approxValue = (double) value;
         this.value = BigDecimal.valueOf(value);
         this.precise = true;
+        this.longValue = value;
+        this.isLongValue = true;
+    }
+
+    public Constant(long value) {
+        this.approxValue = (double) value;
+        this.value = BigDecimal.valueOf(value);
+        this.precise = true;
+        this.computeLongValue();
     }
 
     public Constant(BigDecimal value) {
         this.approxValue = value.doubleValue();
         this.value = value;
         this.precise = true;
+        this.computeLongValue();
     }
 
     public Constant(BigInteger value) {
         this.approxValue = new BigDecimal(value).doubleValue();
         this.value = new BigDecimal(value);
         this.precise = true;
+        this.computeLongValue();
     }
 
     public Constant(String value) {
@@ -55,17 +89,38 @@ public class Constant extends Expression {
             this.approxValue = 0;
             this.value = BigDecimal.ZERO;
             this.precise = true;
+            this.isLongValue = true;
             return;
         }
         this.approxValue = valueAsBigdecimal.doubleValue();
         this.value = valueAsBigdecimal;
         this.precise = true;
+        this.computeLongValue();
     }
 
     public Constant(BigDecimal value, boolean precise) {
         this.approxValue = value.doubleValue();
         this.value = value;
         this.precise = precise;
+        this.computeLongValue();
+    }
+
+    /**
+     * Gibt die (präzise) Konstante mit dem Wert value zurück. Für häufige
+     * kleine Werte werden dabei gemeinsam benutzte Instanzen zurückgegeben;
+     * diese dürfen daher nicht mittels set...() verändert werden.
+     */
+    public static Constant valueOf(long value) {
+        if (value >= MIN_CACHED_VALUE && value <= MAX_CACHED_VALUE) {
+            return CACHED_CONSTANTS[(int) value - MIN_CACHED_VALUE];
+        }
+        return new Constant(value);
+    }
+
+    private void computeLongValue() {
+        // Zahlen mit höchstens 18 Stellen passen stets in einen long.
+        this.isLongValue = this.value.scale() == 0 && this.value.precision() <= 18;
+        this.longValue = this.isLongValue ? this.value.longValue() : 0;
     }
 
     public double getApproxValue() {
@@ -87,12 +142,26 @@ public class Constant extends Expression {
         return this.precise;
     }
 
+    /**
+     * Gibt zurück, ob value eine ganze Zahl mit Skala 0 und höchstens 18
+     * Stellen ist. In diesem Fall liefert getLongValue() ihren Wert, und
+     * Summen und Differenzen zweier solcher Werte laufen nicht über.
+     */
+    public boolean isLongValue() {
+        return this.isLongValue;
+    }
+
+    public long getLongValue() {
+        return this.longValue;
+    }
+
     public void setValue(double value) {
         this.approxValue = value;
     }
 
     public void setPreciseValue(BigDecimal preciseValue) {
         this.value = preciseValue;
+        this.computeLongValue();
     }
 
     public void setPrecise(boolean precise) {
@@ -105,9 +174,9 @@ public class Constant extends Expression {
     }
 
     @Override
-    public double evaluate() throws EvaluationException {
+    public double evaluate(EvaluationContext context) throws EvaluationException {
         if (Double.isNaN(this.approxValue) || Double.isInfinite(this.approxValue)) {
-            throw new EvaluationException(Translator.translateOutputMessage("EB_Constant_CONSTANT_CANNOT_BE_EVALUATED"));
+            throw new EvaluationException(Translator.deferredMessage("EB_Constant_CONSTANT_CANNOT_BE_EVALUATED"));
         }
         return this.approxValue;
     }
@@ -130,6 +199,16 @@ public class Constant extends Expression {
         return !this.precise;
     }
 
+    @Override
+    long[] getVariableBits() {
+        return VariableIndices.EMPTY;
+    }
+
+    @Override
+    int getStructuralFlags() {
+        return this.precise ? 0 : FLAG_APPROXIMATES;
+    }
+
     @Override
     public boolean containsFunction() {
         return false;
@@ -254,12 +333,28 @@ public class Constant extends Expression {
 
     @Override
     public boolean equals(Expression expr) {
+        if (this.isLongValue && expr instanceof Constant && ((Constant) expr).isLongValue) {
+            return this.precise == ((Constant) expr).precise && this.longValue == ((Constant) expr).longValue;
+        }
         return expr instanceof Constant && this.precise == ((Constant) expr).getPrecise()
                 && this.value.equals(((Constant) expr).getValue());
     }
 
+    @Override
+    public int getStructuralHash() {
+        return 31 * this.value.hashCode() + (this.precise ? 1 : 0);
+    }
+
+    @Override
+    public int getEquivalenceHash() {
+        return EQUIVALENCE_HASH_OF_CONSTANTS;
+    }
+
     @Override
     public boolean equivalent(Expression expr) {
+        if (this.isLongValue && expr instanceof Constant && ((Constant) expr).isLongValue) {
+            return this.precise == ((Constant) expr).precise && this.longValue == ((Constant) expr).longValue;
+        }
         return expr instanceof Constant && this.precise == ((Constant) expr).getPrecise()
                 && this.value.equals(((Constant) expr).getValue());
     }
@@ -288,10 +383,13 @@ public class Constant extends Expression {
     @Override
     public Expression simplifyBasic() throws EvaluationException {
         if (this.precise) {
-            return SimplifyBinaryOperationUtils.constantToQuotient(this.value, BigDecimal.ONE);
+            if (this.isLongValue) {
+                return this;
+            }
+            return thisIfEqual(SimplifyBinaryOperationUtils.constantToQuotient(this.value, BigDecimal.ONE));
         }
         if (Double.isNaN(this.approxValue) || Double.isInfinite(this.approxValue)) {
-            throw new EvaluationException(Translator.translateOutputMessage("EB_Constant_CONSTANT_CANNOT_BE_EVALUATED"));
+            throw new EvaluationException(Translator.deferredMessage("EB_Constant_CONSTANT_CANNOT_BE_EVALUATED"));
         }
         return this;
     }
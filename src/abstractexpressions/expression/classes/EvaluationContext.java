@@ -0,0 +1,101 @@
+package abstractexpressions.expression.classes;
+
+import java.util.Arrays;
+
+/**
+ * Belegung von Variablen mit Werten für die Auswertung von Ausdrücken (siehe
+ * Expression.evaluate(EvaluationContext)). Im Gegensatz zu den Werten in der
+ * globalen Variablentabelle (siehe Variable.setValue()) gehört ein Kontext
+ * nur demjenigen, der ihn erzeugt hat. Daher können mehrere Threads denselben
+ * Ausdruck gleichzeitig mit verschiedenen Belegungen auswerten. Ein einzelner
+ * Kontext darf dagegen nicht von mehreren Threads gleichzeitig verändert
+ * werden.<br>
+ * Variablen, die im Kontext nicht belegt sind, werden wie bisher mit ihrem
+ * Wert aus der globalen Variablentabelle ausgewertet.
+ */
+public final class EvaluationContext {
+
+    /*
+     Kontext ohne Belegungen, mit welchem Expression.evaluate() auswertet. Er
+     ist nur innerhalb des Pakets sichtbar, damit er nicht verändert wird.
+     */
+    static final EvaluationContext NO_BINDINGS = new EvaluationContext();
+
+    // values[i] ist der Wert der Variablen mit Index i (siehe VariableIndices).
+    private double[] values;
+    // Bitmenge der belegten Variablen.
+    private long[] bound;
+
+    public EvaluationContext() {
+        this.values = new double[0];
+        this.bound = VariableIndices.EMPTY;
+    }
+
+    private EvaluationContext(double[] values, long[] bound) {
+        this.values = values;
+        this.bound = bound;
+    }
+
+    /**
+     * Gibt den Index der Variablen var zurück, unter welchem sie mit
+     * set(int, double) belegt werden kann. Der Index ist für alle Kontexte
+     * derselbe und kann daher einmal berechnet und wiederverwendet werden.
+     */
+    public static int indexOf(String var) {
+        return VariableIndices.indexOf(var);
+    }
+
+    /**
+     * Belegt die Variable var mit dem Wert value und gibt diesen Kontext
+     * zurück.
+     */
+    public EvaluationContext set(String var, double value) {
+        return set(VariableIndices.indexOf(var), value);
+    }
+
+    /**
+     * Belegt die Variable mit dem Index index (siehe indexOf()) mit dem Wert
+     * value und gibt diesen Kontext zurück. Ist die Variable bereits belegt,
+     * so wird nur ihr Wert überschrieben; dabei wird nichts allokiert.
+     */
+    public EvaluationContext set(int index, double value) {
+        int word = index >>> 6;
+        if (word >= this.bound.length || (this.bound[word] & (1L << index)) == 0) {
+            if (index >= this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.max(index + 1, 2 * this.values.length));
+            }
+            long[] singleton = new long[word + 1];
+            singleton[word] = 1L << index;
+            this.bound = VariableIndices.union(this.bound, singleton);
+        }
+        this.values[index] = value;
+        return this;
+    }
+
+    /**
+     * Gibt zurück, ob die Variable var in diesem Kontext belegt ist.
+     */
+    public boolean isBound(String var) {
+        return this.bound.length > 0 && VariableIndices.contains(this.bound, var);
+    }
+
+    /**
+     * Gibt den Wert der Variablen var in diesem Kontext zurück bzw. NaN, falls
+     * var nicht belegt ist.
+     */
+    public double get(String var) {
+        if (!isBound(var)) {
+            return Double.NaN;
+        }
+        return this.values[VariableIndices.indexOf(var)];
+    }
+
+    /**
+     * Gibt eine Kopie dieses Kontextes zurück, deren Belegungen unabhängig von
+     * diesem Kontext verändert werden können.
+     */
+    public EvaluationContext copy() {
+        return new EvaluationContext(this.values.clone(), this.bound);
+    }
+
+}
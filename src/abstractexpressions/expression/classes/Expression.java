@@ -17,6 +17,8 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import lang.translator.Translator;
 import process.Canceller;
+import process.CasSession;
+import process.SimplificationBudget;
 
 public abstract class Expression implements AbstractExpression {
 
@@ -33,9 +35,6 @@ public abstract class Expression implements AbstractExpression {
     private static final String EB_Expression_FORMULA_CANNOT_BE_INTERPRETED = "EB_Expression_FORMULA_CANNOT_BE_INTERPRETED";
     private static final String EB_Expression_STACK_OVERFLOW = "EB_Expression_STACK_OVERFLOW";
 
-    // Sprache für Fehlermeldungen.
-    private static TypeLanguage language;
-
     public final static Variable PI = Variable.create("pi");
     public final static Constant ZERO = new Constant(0);
     public final static Constant ONE = new Constant(1);
@@ -46,13 +45,48 @@ public abstract class Expression implements AbstractExpression {
     public final static Constant MINUS_ONE = new Constant(-1);
 
     public final static IdentifierValidator VALIDATOR = new IdentifierValidatorImpl();
+
+    /*
+     Wird von ExpressionInterner gesetzt, sobald der Ausdruck der kanonische
+     Vertreter aller zu ihm gleichen Ausdrücke ist. Zwei internierte Ausdrücke
+     sind also genau dann gleich (im Sinne von equals()), wenn sie identisch
+     sind.
+     */
+    boolean interned = false;
+
+    /*
+     Strukturelle Eigenschaften, die BinaryOperation und Function bei ihrer
+     Erzeugung aus denen ihrer Teilausdrücke berechnen und speichern, damit
+     Abfragen wie containsFunction() oder getContainedVars() nicht jedesmal
+     den ganzen Baum durchlaufen müssen (siehe getStructuralFlags()).
+     */
+    static final int FLAG_APPROXIMATES = 1;
+    static final int FLAG_OPERATOR = 1 << 1;
+    static final int FLAG_INDEFINITE_INTEGRAL = 1 << 2;
+    static final int FLAG_ALGEBRAIC_OPERATION = 1 << 3;
+    // Enthält eine Instanz von Function.
+    static final int FLAG_FUNCTION = 1 << 4;
+    // Enthält eine Potenz, deren Exponent Variablen enthält (und daher eventuell nicht konstant ist).
+    static final int FLAG_VARIABLE_EXPONENT = 1 << 5;
+    // Enthält die Variable pi (welche nicht zu getContainedVars() zählt).
+    static final int FLAG_PI = 1 << 6;
+    /*
+     Enthält einen Operator, eine selbstdefinierte Funktion oder eine Variable
+     mit Indizes. Abfragen, die sich dann nicht allein aus den gespeicherten
+     Eigenschaften beantworten lassen, werden rekursiv beantwortet.
+     */
+    static final int FLAG_SPECIAL = 1 << 7;
     
+    /**
+     * Gibt die Sprache für Fehlermeldungen in der Sitzung des aktuellen
+     * Threads zurück (siehe CasSession).
+     */
     public static TypeLanguage getLanguage() {
-        return language;
+        return CasSession.getCurrent().getLanguage();
     }
 
     public static void setLanguage(TypeLanguage typeLanguage) {
-        language = typeLanguage;
+        CasSession.getCurrent().setLanguage(typeLanguage);
     }
 
     /**
@@ -271,6 +305,25 @@ public abstract class Expression implements AbstractExpression {
      * @throws ExpressionException
      */
     public static Expression build(String formula, HashSet<String> vars, IdentifierValidator validator) throws ExpressionException {
+        /*
+         Zunächst wird versucht, die Formel in linearer Zeit mittels
+         ExpressionParser zu lesen. Gelingt dies nicht (bei Betragsstrichen
+         oder fehlerhaften Formeln), so wird sie wie bisher rekursiv gelesen.
+         */
+        Expression expr = ExpressionParser.parse(formula, vars);
+        if (expr != null) {
+            return expr;
+        }
+        return buildRecursively(formula, vars);
+    }
+
+    /**
+     * Liest formula rekursiv ein, indem formula am rechtesten Operator
+     * niedrigster Priorität aufgeteilt wird.
+     *
+     * @throws ExpressionException
+     */
+    static Expression buildRecursively(String formula, HashSet<String> vars) throws ExpressionException {
 
         // Leerzeichen beseitigen und alles zu Kleinbuchstaben machen
         formula = formula.replaceAll(" ", "").toLowerCase();
@@ -405,17 +458,7 @@ public abstract class Expression implements AbstractExpression {
             }
             //Falls der Ausdruck die Form "-abc..." besitzt -> daraus "(-1)*abc..." machen
             if (formulaLeft.isEmpty() && priority == 1) {
-                Expression right = build(formulaRight, vars);
-                /* 
-                 Konstanten und Verhältnisse von Konstanten bilden Ausnahmen: Dann wird das 
-                 Minuszeichen direkt in den Zähler gezogen.
-                 */
-                if (right instanceof Constant && ((Constant) right).getValue().compareTo(BigDecimal.ZERO) >= 0) {
-                    return new Constant(((Constant) right).getValue().negate());
-                } else if (right.isRationalConstant() && ((BinaryOperation) right).getLeft().isNonNegative()) {
-                    return new Constant(((Constant) ((BinaryOperation) right).getLeft()).getValue().negate()).div(((BinaryOperation) right).getRight());
-                }
-                return MINUS_ONE.mult(build(formulaRight, vars));
+                return negateBuiltExpression(build(formulaRight, vars));
             }
             switch (priority) {
                 case 0:
@@ -532,6 +575,21 @@ public abstract class Expression implements AbstractExpression {
 
     }
 
+    /**
+     * Gibt den Ausdruck zur Formel "-abc..." zurück, wobei right der Ausdruck
+     * zu "abc..." ist. Dies ist (-1)*right. Konstanten und Verhältnisse von
+     * Konstanten bilden Ausnahmen: Dann wird das Minuszeichen direkt in den
+     * Zähler gezogen.
+     */
+    static Expression negateBuiltExpression(Expression right) {
+        if (right instanceof Constant && ((Constant) right).getValue().compareTo(BigDecimal.ZERO) >= 0) {
+            return new Constant(((Constant) right).getValue().negate());
+        } else if (right.isRationalConstant() && ((BinaryOperation) right).getLeft().isNonNegative()) {
+            return new Constant(((Constant) ((BinaryOperation) right).getLeft()).getValue().negate()).div(((BinaryOperation) right).getRight());
+        }
+        return MINUS_ONE.mult(right);
+    }
+
     /**
      * Gibt ein HashSet mit den Namen der Variablen zurück, die formal von der
      * Variablen mit dem Namen varName abhängen und die im gegebenen Ausdruck
@@ -559,11 +617,23 @@ public abstract class Expression implements AbstractExpression {
 
     /**
      * Liefert den Wert des gegebenen Ausdrucks unter Einsetzung aller
-     * Variablenwerte.
+     * Variablenwerte aus der globalen Variablentabelle.
+     *
+     * @throws EvaluationException
+     */
+    public double evaluate() throws EvaluationException {
+        return evaluate(EvaluationContext.NO_BINDINGS);
+    }
+
+    /**
+     * Liefert den Wert des gegebenen Ausdrucks unter Einsetzung der in context
+     * belegten Variablenwerte. Alle übrigen Variablen werden mit ihren Werten
+     * aus der globalen Variablentabelle ausgewertet. Weder der Ausdruck noch
+     * die Variablentabelle werden dabei verändert.
      *
      * @throws EvaluationException
      */
-    public abstract double evaluate() throws EvaluationException;
+    public abstract double evaluate(EvaluationContext context) throws EvaluationException;
 
     /**
      * Fügt alle Variablen, die in dem gegebenen Ausdruck vorkommen, zum HashSet
@@ -663,6 +733,40 @@ public abstract class Expression implements AbstractExpression {
      */
     public abstract boolean containsAlgebraicOperation();
 
+    /**
+     * Gibt die Variablen aus getContainedVars() als Bitmenge über
+     * VariableIndices zurück.
+     */
+    long[] getVariableBits() {
+        return VariableIndices.of(getContainedVars());
+    }
+
+    /**
+     * Gibt die strukturellen Eigenschaften (FLAG_...) des gegebenen Ausdrucks
+     * zurück. Diese Standardimplementierung (für Operatoren und
+     * selbstdefinierte Funktionen) ermittelt sie durch Traversieren und setzt
+     * FLAG_SPECIAL.
+     */
+    int getStructuralFlags() {
+        int flags = FLAG_SPECIAL;
+        if (containsApproximates()) {
+            flags |= FLAG_APPROXIMATES;
+        }
+        if (containsOperator()) {
+            flags |= FLAG_OPERATOR;
+        }
+        if (containsIndefiniteIntegral()) {
+            flags |= FLAG_INDEFINITE_INTEGRAL;
+        }
+        if (containsAlgebraicOperation()) {
+            flags |= FLAG_ALGEBRAIC_OPERATION;
+        }
+        if (contains("pi")) {
+            flags |= FLAG_PI;
+        }
+        return flags;
+    }
+
     /**
      * Setzt alle im gegebenen Ausdruck vorkommenden Konstanten auf
      * 'approximativ' (precise = false).
@@ -792,6 +896,9 @@ public abstract class Expression implements AbstractExpression {
      * Gibt zurück, ob der gegebene Ausdruck eine ganzzahlige Konstante ist.
      */
     public boolean isIntegerConstant() {
+        if (this instanceof Constant && ((Constant) this).isLongValue()) {
+            return true;
+        }
         return this instanceof Constant && ((Constant) this).getValue().compareTo(((Constant) this).getValue().setScale(0, BigDecimal.ROUND_HALF_UP)) == 0;
     }
 
@@ -926,6 +1033,58 @@ public abstract class Expression implements AbstractExpression {
      */
     public abstract boolean equals(Expression expr);
 
+    /**
+     * Gibt einen mit equals() verträglichen Hashwert zurück: Aus
+     * expr.equals(otherExpr) folgt expr.getStructuralHash() ==
+     * otherExpr.getStructuralHash().
+     */
+    public abstract int getStructuralHash();
+
+    /**
+     * Gibt einen mit equivalent() verträglichen Hashwert zurück: Aus
+     * expr.equivalent(otherExpr) folgt expr.getEquivalenceHash() ==
+     * otherExpr.getEquivalenceHash().<br>
+     * Da equivalent() Summanden und Faktoren umordnet, Summanden mit negativem
+     * Vorzeichen auf die andere Seite einer Differenz bringt und dabei
+     * Konstanten zusammenfasst, hängt der Wert weder von der Reihenfolge der
+     * Summanden und Faktoren noch von Vorzeichen oder konstanten Summanden und
+     * Faktoren ab. Konstanten sowie Ausdrücke, die nur aus Konstanten aufgebaut
+     * sind, besitzen den Hashwert EQUIVALENCE_HASH_OF_CONSTANTS.
+     */
+    public abstract int getEquivalenceHash();
+
+    static final int EQUIVALENCE_HASH_OF_CONSTANTS = 1;
+
+    /**
+     * Verteilt die Bits von hash gleichmäßig (Finalisierer von MurmurHash3).
+     * Wird für getEquivalenceHash() verwendet, da dort Hashwerte von Summanden
+     * und Faktoren addiert werden.
+     */
+    static int mixEquivalenceHash(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Gibt zurück, ob der gegebene Ausdruck mittels ExpressionInterner
+     * interniert wurde.
+     */
+    public boolean isInterned() {
+        return this.interned;
+    }
+
+    /**
+     * Gibt true zurück, falls der gegebene Ausdruck und expr zwei verschiedene
+     * internierte Ausdrücke sind. Dann sind sie auch nicht gleich und equals()
+     * muss die Bäume nicht mehr vergleichen.
+     */
+    final boolean isDistinctInternedExpression(Expression expr) {
+        return this != expr && this.interned && expr != null && expr.interned;
+    }
+
     /**
      * Gibt zurück, ob der gegebene Ausdruck äquivalent zu dem von expr ist.
      */
@@ -953,6 +1112,28 @@ public abstract class Expression implements AbstractExpression {
      */
     public abstract int getLength();
 
+    /**
+     * Gibt this zurück, falls expr zum gegebenen Ausdruck gleich ist, und
+     * sonst expr. Vereinfachungsmethoden geben damit für unveränderte
+     * Ausdrücke dieselbe Instanz zurück (siehe simplify()). Da die
+     * Teilausdrücke von expr dann in der Regel ebenfalls mit denen von this
+     * identisch sind, ist der Vergleich meist sehr schnell.
+     */
+    final Expression thisIfEqual(Expression expr) {
+        if (expr == this || expr.equals(this)) {
+            return this;
+        }
+        return expr;
+    }
+
+    /**
+     * Gibt die Tiefe des gegebenen Ausdrucks (als Baum) zurück. Konstanten und
+     * Variablen besitzen die Tiefe 1.
+     */
+    public int getDepth() {
+        return 1;
+    }
+
     /**
      * Ermittelt die maximale Anzahl von Summanden, die im gegebenen Ausdruck
      * vorkommen, wenn man simplifyExpand() anwendet und BEVOR man wieder
@@ -1663,7 +1844,9 @@ public abstract class Expression implements AbstractExpression {
 
     /**
      * Führt triviale Vereinfachungen am gegebenen Ausdruck durch und gibt den
-     * vereinfachten Ausdruck zurück.
+     * vereinfachten Ausdruck zurück. Wie alle simplify...()- und
+     * order...()-Methoden gibt sie den gegebenen Ausdruck selbst zurück, falls
+     * sie nichts an ihm verändert.
      *
      * @throws EvaluationException
      */
@@ -1975,53 +2158,81 @@ public abstract class Expression implements AbstractExpression {
      */
     public Expression simplify() throws EvaluationException {
 
+        SimplificationBudget.enterSimplify();
         try {
             Expression expr, exprSimplified = this;
             do {
-                expr = exprSimplified.copy();
+                expr = exprSimplified;
+                SimplificationBudget.beginPass(TypeSimplify.order_difference_and_division);
                 exprSimplified = exprSimplified.orderDifferencesAndQuotients();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.order_sums_and_products);
                 exprSimplified = exprSimplified.orderSumsAndProducts();
 //                System.out.println(exprSimplified.writeExpression());
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.simplify_basic);
                 exprSimplified = exprSimplified.simplifyBasic();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.simplify_by_inserting_defined_vars);
                 exprSimplified = exprSimplified.simplifyByInsertingDefinedVars();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.simplify_pull_apart_powers);
                 exprSimplified = exprSimplified.simplifyPullApartPowers();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.simplify_collect_products);
                 exprSimplified = exprSimplified.simplifyCollectProducts();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.simplify_expand_rational_factors);
                 exprSimplified = exprSimplified.simplifyExpandRationalFactors();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.simplify_factorize);
                 exprSimplified = exprSimplified.simplifyFactorize();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.simplify_bring_expression_to_common_denominator);
                 exprSimplified = exprSimplified.simplifyBringExpressionToCommonDenominator(TypeFractionSimplification.IF_MULTIPLE_FRACTION_OCCURS);
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.simplify_reduce_quotients);
                 exprSimplified = exprSimplified.simplifyReduceQuotients();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
+                SimplificationBudget.beginPass(TypeSimplify.simplify_reduce_differences_and_quotients_advanced);
                 exprSimplified = exprSimplified.simplifyReduceDifferencesAndQuotientsAdvanced();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
                 if (exprSimplified.containsAlgebraicOperation()) {
+                    SimplificationBudget.beginPass(TypeSimplify.simplify_algebraic_expressions);
                     exprSimplified = exprSimplified.simplifyAlgebraicExpressions();
-                    Canceller.interruptComputationIfNeeded();
+                    SimplificationBudget.endPass(exprSimplified);
                 }
+                SimplificationBudget.beginPass(TypeSimplify.simplify_expand_and_collect_equivalents_if_shorter);
                 exprSimplified = exprSimplified.simplifyExpandAndCollectEquivalentsIfShorter();
-                Canceller.interruptComputationIfNeeded();
+                SimplificationBudget.endPass(exprSimplified);
                 if (exprSimplified.containsFunction() || exprSimplified.containsOperator(TypeOperator.fac)) {
+                    SimplificationBudget.beginPass(TypeSimplify.simplify_functional_relations);
                     exprSimplified = exprSimplified.simplifyFunctionalRelations();
-                    Canceller.interruptComputationIfNeeded();
+                    SimplificationBudget.endPass(exprSimplified);
+                    SimplificationBudget.beginPass(TypeSimplify.simplify_collect_logarithms);
                     exprSimplified = exprSimplified.simplifyCollectLogarithms();
-                    Canceller.interruptComputationIfNeeded();
+                    SimplificationBudget.endPass(exprSimplified);
                 }
-            } while (!expr.equals(exprSimplified));
+            } while (!isFixpoint(expr, exprSimplified));
             return exprSimplified;
         } catch (java.lang.StackOverflowError e) {
-            throw new EvaluationException(Translator.translateOutputMessage(EB_Expression_STACK_OVERFLOW));
+            throw new EvaluationException(Translator.deferredMessage(EB_Expression_STACK_OVERFLOW));
+        } finally {
+            SimplificationBudget.exitSimplify();
         }
 
     }
 
+    /**
+     * Gibt zurück, ob eine Runde der Vereinfachung, welche expr in
+     * exprSimplified überführt hat, nichts mehr verändert hat. Da die
+     * Vereinfachungsmethoden für unveränderte Ausdrücke dieselbe Instanz
+     * zurückgeben, genügt im Regelfall ein Referenzvergleich.
+     */
+    private static boolean isFixpoint(Expression expr, Expression exprSimplified) {
+        return expr == exprSimplified || expr.equals(exprSimplified);
+    }
+
     /**
      * Gibt den Ausdruck zurück, welcher durch die mittels simplifyTypes
      * definierten Vereinfachung des gegebenen Ausdrucks entsteht.
@@ -2034,7 +2245,7 @@ public abstract class Expression implements AbstractExpression {
             Expression expr, exprSimplified = this;
             do {
 
-                expr = exprSimplified.copy();
+                expr = exprSimplified;
                 for (TypeSimplify simplifyType : simplifyTypes) {
                     if (simplifyType.equals(TypeSimplify.order_difference_and_division)) {
                         exprSimplified = exprSimplified.orderDifferencesAndQuotients();
@@ -2112,10 +2323,10 @@ public abstract class Expression implements AbstractExpression {
                     }
                 }
 
-            } while (!expr.equals(exprSimplified));
+            } while (!isFixpoint(expr, exprSimplified));
             return exprSimplified;
         } catch (java.lang.StackOverflowError e) {
-            throw new EvaluationException(Translator.translateOutputMessage(EB_Expression_STACK_OVERFLOW));
+            throw new EvaluationException(Translator.deferredMessage(EB_Expression_STACK_OVERFLOW));
         }
 
     }
@@ -2136,7 +2347,7 @@ public abstract class Expression implements AbstractExpression {
         try {
             Expression expr, exprSimplified = this;
             do {
-                expr = exprSimplified.copy();
+                expr = exprSimplified;
                 if (simplifyTypes.contains(TypeSimplify.order_difference_and_division)) {
                     exprSimplified = exprSimplified.orderDifferencesAndQuotients();
                     Canceller.interruptComputationIfNeeded();
@@ -2245,10 +2456,10 @@ public abstract class Expression implements AbstractExpression {
                         Canceller.interruptComputationIfNeeded();
                     }
                 }
-            } while (!expr.equals(exprSimplified));
+            } while (!isFixpoint(expr, exprSimplified));
             return exprSimplified;
         } catch (java.lang.StackOverflowError e) {
-            throw new EvaluationException(Translator.translateOutputMessage(EB_Expression_STACK_OVERFLOW));
+            throw new EvaluationException(Translator.deferredMessage(EB_Expression_STACK_OVERFLOW));
         }
 
     }
@@ -2264,7 +2475,7 @@ public abstract class Expression implements AbstractExpression {
         try {
             Expression expr, exprSimplified = this;
             do {
-                expr = exprSimplified.copy();
+                expr = exprSimplified;
                 if (simplifyTypes.contains(TypeSimplify.order_difference_and_division)) {
                     exprSimplified = exprSimplified.orderDifferencesAndQuotients();
                     Canceller.interruptComputationIfNeeded();
@@ -2361,10 +2572,10 @@ public abstract class Expression implements AbstractExpression {
                         Canceller.interruptComputationIfNeeded();
                     }
                 }
-            } while (!expr.equals(exprSimplified));
+            } while (!isFixpoint(expr, exprSimplified));
             return exprSimplified;
         } catch (java.lang.StackOverflowError e) {
-            throw new EvaluationException(Translator.translateOutputMessage(EB_Expression_STACK_OVERFLOW));
+            throw new EvaluationException(Translator.deferredMessage(EB_Expression_STACK_OVERFLOW));
         }
 
     }
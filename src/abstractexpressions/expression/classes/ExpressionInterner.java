@@ -0,0 +1,203 @@
+package abstractexpressions.expression.classes;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash-Consing für Ausdrücke. intern() gibt zu einem Ausdruck den kanonischen
+ * Vertreter aller zu ihm gleichen Ausdrücke (im Sinne von equals()) zurück.
+ * Internierte Ausdrücke sind genau dann gleich, wenn sie identisch sind;
+ * equals() zweier internierter Ausdrücke benötigt daher nur einen
+ * Referenzvergleich. Gleiche Teilbäume (etwa in einer GP-Population) werden
+ * nur einmal gespeichert.
+ * <br>
+ * Die Tabelle hält ihre Einträge nur schwach: Ein internierter Ausdruck, der
+ * nirgends mehr verwendet wird, wird vom Garbage Collector entfernt. Die
+ * Tabelle darf von mehreren Threads gleichzeitig benutzt werden.
+ * <br>
+ * Internierte Ausdrücke werden gemeinsam benutzt und dürfen nicht verändert
+ * werden (etwa mittels Constant.setValue() oder Operator.setParams()).
+ */
+public final class ExpressionInterner {
+
+    private static final ConcurrentHashMap<Key, Key> TABLE = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Expression> STALE_KEYS = new ReferenceQueue<>();
+
+    private ExpressionInterner() {
+    }
+
+    /**
+     * Schlüssel der Tabelle. Zwei Schlüssel sind gleich, wenn die Ausdrücke,
+     * auf welche sie verweisen, gleich sind. Ein Schlüssel, dessen Ausdruck
+     * bereits entfernt wurde, ist nur zu sich selbst gleich.
+     */
+    private static final class Key extends WeakReference<Expression> {
+
+        private final int hash;
+
+        Key(Expression expr) {
+            super(expr, STALE_KEYS);
+            this.hash = expr.getStructuralHash();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key) || ((Key) obj).hash != this.hash) {
+                return false;
+            }
+            Expression expr = get();
+            Expression otherExpr = ((Key) obj).get();
+            return expr != null && otherExpr != null && expr.equals(otherExpr);
+        }
+
+    }
+
+    /**
+     * Gibt den kanonischen Vertreter von expr zurück. Alle Teilausdrücke
+     * werden ebenfalls interniert. Für BinaryOperation und Function wird expr
+     * selbst zum Vertreter, sofern es noch keinen gibt und die Teilausdrücke
+     * bereits kanonisch sind; Konstanten und Operatoren werden, da sie
+     * veränderbar sind, stets kopiert. Variablen mit Indizes werden
+     * unverändert und nicht interniert zurückgegeben.
+     */
+    public static Expression intern(Expression expr) {
+
+        if (expr.interned) {
+            return expr;
+        }
+
+        if (expr instanceof BinaryOperation) {
+            BinaryOperation binary = (BinaryOperation) expr;
+            Expression left = intern(binary.getLeft());
+            Expression right = intern(binary.getRight());
+            if (left == binary.getLeft() && right == binary.getRight()) {
+                return canonicalize(expr);
+            }
+            return canonicalize(new BinaryOperation(left, right, binary.getType()));
+        }
+        if (expr instanceof Function) {
+            Function function = (Function) expr;
+            Expression left = intern(function.getLeft());
+            if (left == function.getLeft()) {
+                return canonicalize(expr);
+            }
+            return canonicalize(new Function(left, function.getType()));
+        }
+        if (expr instanceof Operator) {
+            Operator operator = (Operator) expr;
+            Object[] params = operator.getParams().clone();
+            for (int i = 0; i < params.length; i++) {
+                if (params[i] instanceof Expression) {
+                    params[i] = intern((Expression) params[i]);
+                }
+            }
+            return canonicalize(new Operator(operator.getType(), params, operator.getPrecise()));
+        }
+        if (expr instanceof Constant) {
+            return canonicalize(expr.copy());
+        }
+        if (expr instanceof MultiIndexVariable) {
+            return expr;
+        }
+        // Variablen und selbstdefinierte Funktionen.
+        return canonicalize(expr);
+
+    }
+
+    /**
+     * Gibt die internierte Konstante mit dem Wert value zurück.
+     */
+    public static Constant constant(BigDecimal value) {
+        return (Constant) intern(new Constant(value));
+    }
+
+    /**
+     * Gibt die internierte Konstante mit dem Wert value zurück.
+     */
+    public static Constant constant(int value) {
+        return (Constant) intern(new Constant(value));
+    }
+
+    /**
+     * Gibt die internierte Variable mit dem Namen name zurück.
+     */
+    public static Variable variable(String name) {
+        return (Variable) intern(Variable.create(name));
+    }
+
+    /**
+     * Gibt die internierte binäre Operation left type right zurück.
+     */
+    public static Expression binaryOperation(Expression left, Expression right, TypeBinary type) {
+        return intern(new BinaryOperation(intern(left), intern(right), type));
+    }
+
+    /**
+     * Gibt die internierte Funktion type(left) zurück.
+     */
+    public static Expression function(Expression left, TypeFunction type) {
+        return intern(new Function(intern(left), type));
+    }
+
+    /**
+     * Gibt den internierten Operator type(params) zurück.
+     */
+    public static Expression operator(TypeOperator type, Object[] params) {
+        return intern(new Operator(type, params));
+    }
+
+    /**
+     * Gibt die Anzahl der derzeit internierten Ausdrücke zurück.
+     */
+    public static int getNumberOfInternedExpressions() {
+        expungeStaleKeys();
+        return TABLE.size();
+    }
+
+    /**
+     * Trägt expr (dessen Teilausdrücke bereits interniert sind) in die Tabelle
+     * ein, falls dort noch kein zu expr gleicher Ausdruck steht, und gibt den
+     * eingetragenen Ausdruck zurück.
+     */
+    private static Expression canonicalize(Expression expr) {
+        expungeStaleKeys();
+        Key key = new Key(expr);
+        while (true) {
+            Key existingKey = TABLE.putIfAbsent(key, key);
+            if (existingKey == null) {
+                /*
+                 Erst nach dem Eintragen markieren: Ein markierter Ausdruck muss
+                 der einzige Vertreter seiner Struktur sein.
+                 */
+                expr.interned = true;
+                return expr;
+            }
+            Expression existingExpr = existingKey.get();
+            if (existingExpr != null) {
+                key.clear();
+                return existingExpr;
+            }
+            // Der Ausdruck des vorhandenen Schlüssels wurde gerade entfernt.
+            TABLE.remove(existingKey, existingKey);
+        }
+    }
+
+    private static void expungeStaleKeys() {
+        Reference<? extends Expression> staleKey;
+        while ((staleKey = STALE_KEYS.poll()) != null) {
+            TABLE.remove((Key) staleKey, staleKey);
+        }
+    }
+
+}
@@ -0,0 +1,367 @@
+package abstractexpressions.expression.classes;
+
+import exceptions.ExpressionException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Liest eine Formel in linearer Zeit ein: Ein Lexer zerlegt die Formel in
+ * einem Durchgang in Tokens, anschließend baut ein Parser nach Prioritäten
+ * (precedence climbing) den Ausdrucksbaum auf. Es entstehen dieselben
+ * Ausdrücke wie beim rekursiven Einlesen in Expression.build(), d.h. der
+ * Parser übernimmt auch dessen Eigenheiten:<br>
+ * (1) Eine Formel wird am rechtesten Operator niedrigster Priorität
+ * aufgeteilt, wobei die Prioritäten + &lt; - &lt; * &lt; / &lt; ^ sind. Alle
+ * Operatoren sind daher linksassoziativ, und beispielsweise wird a+b-c zu
+ * a+(b-c) und a*b/c zu a*(b/c).<br>
+ * (2) Ein führendes Minuszeichen bezieht sich auf alles bis zum nächsten + bzw.
+ * -.<br>
+ * Formeln mit Betragsstrichen sowie fehlerhafte Formeln liest der Parser
+ * nicht (parse() liefert dann null). Sie werden wie bisher rekursiv gelesen,
+ * so dass sich auch die Fehlermeldungen nicht ändern. Operatoren und
+ * selbstdefinierte Funktionen werden ebenfalls rekursiv gelesen.
+ */
+final class ExpressionParser {
+
+    private static final int PLUS = 0;
+    private static final int MINUS = 1;
+    private static final int TIMES = 2;
+    private static final int DIV = 3;
+    private static final int POW = 4;
+    private static final int OPEN = 5;
+    private static final int CLOSE = 6;
+    private static final int FACTORIAL = 7;
+    private static final int NUMBER = 8;
+    private static final int IDENTIFIER = 9;
+    private static final int OTHER = 10;
+    private static final int END = 11;
+
+    private static final HashMap<String, TypeFunction> FUNCTIONS = new HashMap<>();
+
+    static {
+        for (TypeFunction type : TypeFunction.values()) {
+            FUNCTIONS.put(type.toString(), type);
+        }
+    }
+
+    /**
+     * Wird geworfen, sobald die Formel nicht gelesen werden kann. Die Instanz
+     * wird wiederverwendet und besitzt daher keinen Stacktrace.
+     */
+    private static final class NotParseableException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private NotParseableException() {
+            super(null, null, false, false);
+        }
+
+    }
+
+    private static final NotParseableException NOT_PARSEABLE = new NotParseableException();
+
+    private final String formula;
+    private final HashSet<String> vars;
+
+    private int[] types;
+    private int[] starts;
+    private int[] ends;
+    // matches[k] = Index der zur öffnenden Klammer k gehörenden schließenden Klammer.
+    private int[] matches;
+    private int numberOfTokens;
+    private int position;
+
+    private ExpressionParser(String formula, HashSet<String> vars) {
+        this.formula = formula;
+        this.vars = vars;
+    }
+
+    /**
+     * Liefert den Ausdruck zur Formel formula, und zwar genau den, den das
+     * rekursive Einlesen in Expression.build() liefern würde. Kann formula
+     * nicht gelesen werden, so wird null zurückgegeben. Die Namen der
+     * vorkommenden Variablen werden vars hinzugefügt (nur bei Erfolg und nur,
+     * falls vars != null).
+     */
+    static Expression parse(String formula, HashSet<String> vars) {
+
+        // Leerzeichen beseitigen und alles zu Kleinbuchstaben machen.
+        StringBuilder formulaWithoutSpaces = new StringBuilder(formula.length());
+        for (int i = 0; i < formula.length(); i++) {
+            char c = formula.charAt(i);
+            if (c == '|') {
+                // Betragsstriche werden weiterhin rekursiv gelesen.
+                return null;
+            }
+            if (c != ' ') {
+                formulaWithoutSpaces.append(c);
+            }
+        }
+        if (formulaWithoutSpaces.length() == 0) {
+            return null;
+        }
+
+        HashSet<String> varsInFormula = new HashSet<>();
+        ExpressionParser parser = new ExpressionParser(formulaWithoutSpaces.toString().toLowerCase(), varsInFormula);
+        try {
+            parser.tokenize();
+            Expression expr = parser.parseSum();
+            if (parser.types[parser.position] != END) {
+                return null;
+            }
+            if (vars != null) {
+                vars.addAll(varsInFormula);
+            }
+            return expr;
+        } catch (NotParseableException | ExpressionException e) {
+            return null;
+        }
+
+    }
+
+    /**
+     * Zerlegt die Formel in Tokens und ordnet den Klammern ihre Gegenstücke
+     * zu.
+     */
+    private void tokenize() {
+
+        int length = this.formula.length();
+        this.types = new int[length + 1];
+        this.starts = new int[length + 1];
+        this.ends = new int[length + 1];
+        this.matches = new int[length + 1];
+        int[] openBrackets = new int[length];
+        int numberOfOpenBrackets = 0;
+
+        int i = 0;
+        while (i < length) {
+            char c = this.formula.charAt(i);
+            int start = i;
+            int type;
+            if (c >= '0' && c <= '9' || c == '.') {
+                type = NUMBER;
+                while (i < length && (this.formula.charAt(i) >= '0' && this.formula.charAt(i) <= '9' || this.formula.charAt(i) == '.')) {
+                    i++;
+                }
+            } else if (c >= 'a' && c <= 'z') {
+                type = IDENTIFIER;
+                while (i < length && isIdentifierChar(this.formula.charAt(i))) {
+                    i++;
+                }
+            } else {
+                switch (c) {
+                    case '+':
+                        type = PLUS;
+                        break;
+                    case '-':
+                        type = MINUS;
+                        break;
+                    case '*':
+                        type = TIMES;
+                        break;
+                    case '/':
+                        type = DIV;
+                        break;
+                    case '^':
+                        type = POW;
+                        break;
+                    case '(':
+                        type = OPEN;
+                        openBrackets[numberOfOpenBrackets++] = this.numberOfTokens;
+                        break;
+                    case ')':
+                        type = CLOSE;
+                        if (numberOfOpenBrackets == 0) {
+                            throw NOT_PARSEABLE;
+                        }
+                        this.matches[openBrackets[--numberOfOpenBrackets]] = this.numberOfTokens;
+                        break;
+                    case '!':
+                        type = FACTORIAL;
+                        break;
+                    default:
+                        type = OTHER;
+                }
+                i++;
+            }
+            this.types[this.numberOfTokens] = type;
+            this.starts[this.numberOfTokens] = start;
+            this.ends[this.numberOfTokens] = i;
+            this.numberOfTokens++;
+        }
+
+        if (numberOfOpenBrackets > 0) {
+            throw NOT_PARSEABLE;
+        }
+        this.types[this.numberOfTokens] = END;
+        this.starts[this.numberOfTokens] = length;
+        this.ends[this.numberOfTokens] = length;
+
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '_' || c == '\'';
+    }
+
+    private boolean accept(int type) {
+        if (this.types[this.position] == type) {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+
+    private String currentText() {
+        return this.formula.substring(this.starts[this.position], this.ends[this.position]);
+    }
+
+    /**
+     * Summe (Priorität 0), eventuell mit führendem Pluszeichen.
+     */
+    private Expression parseSum() throws ExpressionException {
+        boolean leadingPlus = accept(PLUS);
+        // Zwei Operatoren hintereinander (etwa +-) sind nicht erlaubt.
+        Expression summand = parseDifference(!leadingPlus);
+        if (this.types[this.position] != PLUS) {
+            return summand;
+        }
+        // Mehrere Summanden ergeben eine (links geklammerte) Sum.
+        ArrayList<Expression> summands = new ArrayList<>();
+        summands.add(summand);
+        while (accept(PLUS)) {
+            summands.add(parseDifference(false));
+        }
+        return new Sum(summands.toArray(new Expression[summands.size()]), true);
+    }
+
+    /**
+     * Differenz (Priorität 1), eventuell mit führendem Minuszeichen.
+     */
+    private Expression parseDifference(boolean leadingMinusAllowed) throws ExpressionException {
+        Expression result;
+        if (this.types[this.position] == MINUS) {
+            if (!leadingMinusAllowed) {
+                throw NOT_PARSEABLE;
+            }
+            this.position++;
+            result = Expression.negateBuiltExpression(parseProduct());
+        } else {
+            result = parseProduct();
+        }
+        while (accept(MINUS)) {
+            result = new BinaryOperation(result, parseProduct(), TypeBinary.MINUS);
+        }
+        return result;
+    }
+
+    /**
+     * Produkt (Priorität 2).
+     */
+    private Expression parseProduct() throws ExpressionException {
+        Expression factor = parseQuotient();
+        if (this.types[this.position] != TIMES) {
+            return factor;
+        }
+        // Mehrere Faktoren ergeben ein (links geklammertes) Product.
+        ArrayList<Expression> factors = new ArrayList<>();
+        factors.add(factor);
+        while (accept(TIMES)) {
+            factors.add(parseQuotient());
+        }
+        return new Product(factors.toArray(new Expression[factors.size()]), true);
+    }
+
+    /**
+     * Quotient (Priorität 3).
+     */
+    private Expression parseQuotient() throws ExpressionException {
+        Expression result = parsePower();
+        while (accept(DIV)) {
+            result = new BinaryOperation(result, parsePower(), TypeBinary.DIV);
+        }
+        return result;
+    }
+
+    /**
+     * Potenz (Priorität 4).
+     */
+    private Expression parsePower() throws ExpressionException {
+        Expression result = parseFactorial();
+        while (accept(POW)) {
+            result = new BinaryOperation(result, parseFactorial(), TypeBinary.POW);
+        }
+        return result;
+    }
+
+    /**
+     * Ausdruck ohne binäre Operation, eventuell gefolgt von Fakultäten.
+     */
+    private Expression parseFactorial() throws ExpressionException {
+        Expression result = parseAtom();
+        while (accept(FACTORIAL)) {
+            result = new Operator(TypeOperator.fac, new Expression[]{result});
+        }
+        return result;
+    }
+
+    /**
+     * Zahl, Variable, Funktion, Operator, selbstdefinierte Funktion oder
+     * geklammerter Ausdruck.
+     */
+    private Expression parseAtom() throws ExpressionException {
+
+        switch (this.types[this.position]) {
+            case NUMBER:
+                try {
+                    Expression number = new Constant(new BigDecimal(currentText()));
+                    this.position++;
+                    return number;
+                } catch (NumberFormatException e) {
+                    throw NOT_PARSEABLE;
+                }
+            case OPEN:
+                this.position++;
+                Expression exprInBrackets = parseSum();
+                if (!accept(CLOSE)) {
+                    throw NOT_PARSEABLE;
+                }
+                return exprInBrackets;
+            case IDENTIFIER:
+                String name = currentText();
+                this.position++;
+                if (this.types[this.position] != OPEN) {
+                    if (Expression.VALIDATOR.isValidIdentifier(name)) {
+                        this.vars.add(name);
+                        return Variable.create(name);
+                    }
+                    if (Expression.isPI(name)) {
+                        return Variable.create(name, Math.PI);
+                    }
+                    throw NOT_PARSEABLE;
+                }
+                TypeFunction type = FUNCTIONS.get(name);
+                if (type != null) {
+                    this.position++;
+                    Expression argument = parseSum();
+                    if (!accept(CLOSE)) {
+                        throw NOT_PARSEABLE;
+                    }
+                    if (type.equals(TypeFunction.sqrt)) {
+                        // Die Wurzel wird intern sofort als (...)^(1/2) aufgefasst.
+                        return argument.pow(Expression.ONE.div(Expression.TWO));
+                    }
+                    return new Function(argument, type);
+                }
+                // Operatoren und selbstdefinierte Funktionen werden rekursiv gelesen.
+                int start = this.starts[this.position - 1];
+                this.position = this.matches[this.position] + 1;
+                return Expression.buildRecursively(this.formula.substring(start, this.ends[this.position - 1]), this.vars);
+            default:
+                throw NOT_PARSEABLE;
+        }
+
+    }
+
+}
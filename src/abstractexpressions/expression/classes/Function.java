@@ -18,6 +18,14 @@ public class Function extends Expression {
 
     private final Expression left;
     private final TypeFunction type;
+    // Wird beim ersten Aufruf von getStructuralHash() berechnet (0 = noch nicht berechnet).
+    private int structuralHash;
+    // Wird beim ersten Aufruf von getEquivalenceHash() berechnet (0 = noch nicht berechnet).
+    private int equivalenceHash;
+    // Bei der Erzeugung berechnete Eigenschaften (siehe Expression.getStructuralFlags()).
+    private final int structuralFlags;
+    private final int length;
+    private final int depth;
 
     private static final HashSet<TypeSimplify> simplifyTypesExpandAndCollectIfShorter = getSimplifyTypesExpandAndCollectIfShorter();
 
@@ -43,6 +51,21 @@ public class Function extends Expression {
     public Function(Expression left, TypeFunction type) {
         this.left = left;
         this.type = type;
+        this.structuralFlags = left.getStructuralFlags() | FLAG_FUNCTION;
+        this.length = left.getLength() == 1 ? 1 : left.getLength() + 1;
+        this.depth = left.getDepth() + 1;
+    }
+
+    /**
+     * Gibt die Funktion mit dem Argument argument und dem Typ der gegebenen
+     * Funktion zurück. Ist argument mit dem Argument der gegebenen Funktion
+     * identisch, so wird diese selbst zurückgegeben.
+     */
+    private Function withArgument(Expression argument) {
+        if (argument == this.left) {
+            return this;
+        }
+        return new Function(argument, this.type);
     }
 
     public TypeFunction getType() {
@@ -63,20 +86,20 @@ public class Function extends Expression {
     }
 
     @Override
-    public double evaluate() throws EvaluationException {
-        double argumentValue = left.evaluate();
+    public double evaluate(EvaluationContext context) throws EvaluationException {
+        double argumentValue = left.evaluate(context);
         switch (type) {
             case id:
                 if (!Double.isNaN(argumentValue) && !Double.isInfinite(argumentValue)) {
                     return argumentValue;
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case abs:
                 if (!Double.isNaN(argumentValue) && !Double.isInfinite(argumentValue)) {
                     return Math.abs(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case sgn:
                 if (!Double.isNaN(argumentValue) && !Double.isInfinite(argumentValue)) {
@@ -88,181 +111,191 @@ public class Function extends Expression {
                     }
                     return -1;
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case exp:
                 if (!Double.isNaN(Math.exp(argumentValue)) && !Double.isInfinite(Math.exp(argumentValue))) {
                     return Math.exp(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case lg:
                 if (!Double.isNaN(Math.log10(argumentValue)) && !Double.isInfinite(Math.log10(argumentValue))) {
                     return Math.log10(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case ln:
                 if (!Double.isNaN(Math.log(argumentValue)) && !Double.isInfinite(Math.log(argumentValue))) {
                     return Math.log(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case sin:
                 if (!Double.isNaN(Math.sin(argumentValue)) && !Double.isInfinite(Math.sin(argumentValue))) {
                     return Math.sin(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case cos:
                 if (!Double.isNaN(Math.cos(argumentValue)) && !Double.isInfinite(Math.cos(argumentValue))) {
                     return Math.cos(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case tan:
                 if (!Double.isNaN(Math.tan(argumentValue)) && !Double.isInfinite(Math.tan(argumentValue))) {
                     return Math.tan(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case cot:
                 if (!Double.isNaN(1 / Math.tan(argumentValue)) && !Double.isInfinite(1 / Math.tan(argumentValue))) {
                     return 1 / Math.tan(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case sec:
                 if (!Double.isNaN(1 / Math.cos(argumentValue)) && !Double.isInfinite(1 / Math.cos(argumentValue))) {
                     return 1 / Math.cos(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case cosec:
                 if (!Double.isNaN(1 / Math.sin(argumentValue)) && !Double.isInfinite(1 / Math.sin(argumentValue))) {
                     return 1 / Math.sin(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case sinh:
                 if (!Double.isNaN(Math.sinh(argumentValue)) && !Double.isInfinite(Math.sinh(argumentValue))) {
                     return Math.sinh(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case cosh:
                 if (!Double.isNaN(Math.cosh(argumentValue)) && !Double.isInfinite(Math.cosh(argumentValue))) {
                     return Math.cosh(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case tanh:
                 if (!Double.isNaN(Math.tanh(argumentValue)) && !Double.isInfinite(Math.tanh(argumentValue))) {
                     return Math.tanh(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case coth:
                 if (!Double.isNaN(1 / Math.tanh(argumentValue)) && !Double.isInfinite(1 / Math.tanh(argumentValue))) {
                     return 1 / Math.tanh(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case sech:
                 if (!Double.isNaN(1 / Math.cosh(argumentValue)) && !Double.isInfinite(1 / Math.cosh(argumentValue))) {
                     return 1 / Math.cosh(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case cosech:
                 if (!Double.isNaN(1 / Math.sinh(argumentValue)) && !Double.isInfinite(1 / Math.sinh(argumentValue))) {
                     return 1 / Math.sinh(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arcsin:
                 if (!Double.isNaN(Math.asin(argumentValue)) && !Double.isInfinite(Math.asin(argumentValue))) {
                     return Math.asin(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arccos:
                 if (!Double.isNaN(Math.acos(argumentValue)) && !Double.isInfinite(Math.acos(argumentValue))) {
                     return Math.acos(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arctan:
                 if (!Double.isNaN(Math.atan(argumentValue)) && !Double.isInfinite(Math.atan(argumentValue))) {
                     return Math.atan(argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arccot:
                 if (!Double.isNaN(Math.atan(1 / argumentValue)) && !Double.isInfinite(Math.atan(1 / argumentValue))) {
                     return Math.atan(1 / argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arcsec:
                 if (!Double.isNaN(Math.acos(1 / argumentValue)) && !Double.isInfinite(Math.acos(1 / argumentValue))) {
                     return Math.acos(1 / argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arccosec:
                 if (!Double.isNaN(Math.asin(1 / argumentValue)) && !Double.isInfinite(Math.asin(1 / argumentValue))) {
                     return Math.asin(1 / argumentValue);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arsinh:
                 if (!Double.isNaN(Math.log(argumentValue + Math.sqrt(Math.pow(argumentValue, 2) + 1))) && !Double.isInfinite(Math.log(argumentValue + Math.sqrt(Math.pow(argumentValue, 2) + 1)))) {
                     return Math.log(argumentValue + Math.sqrt(Math.pow(argumentValue, 2) + 1));
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arcosh:
                 if (!Double.isNaN(Math.log(argumentValue + Math.sqrt(Math.pow(argumentValue, 2) - 1))) && !Double.isInfinite(Math.log(argumentValue + Math.sqrt(Math.pow(argumentValue, 2) - 1)))) {
                     return Math.log(argumentValue + Math.sqrt(Math.pow(argumentValue, 2) - 1));
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case artanh:
                 if (!Double.isNaN(Math.log((1 + argumentValue) / (1 - argumentValue)) / 2) && !Double.isInfinite(Math.log((1 + argumentValue) / (1 - argumentValue)) / 2)) {
                     return Math.log((1 + argumentValue) / (1 - argumentValue)) / 2;
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arcoth:
                 if (!Double.isNaN(Math.log((1 + argumentValue) / (argumentValue - 1)) / 2) && !Double.isInfinite(Math.log((1 + argumentValue) / (argumentValue - 1)) / 2)) {
                     return Math.log((1 + argumentValue) / (argumentValue - 1)) / 2;
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arsech:
                 if (!Double.isNaN(Math.log(1 / argumentValue + Math.sqrt(Math.pow(1 / argumentValue, 2) - 1))) && !Double.isInfinite(Math.log(1 / argumentValue + Math.sqrt(Math.pow(1 / argumentValue, 2) - 1)))) {
                     return Math.log(1 / argumentValue + Math.sqrt(Math.pow(1 / argumentValue, 2) - 1));
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case arcosech:
                 if (!Double.isNaN(Math.log(1 / argumentValue + Math.sqrt(Math.pow(1 / argumentValue, 2) + 1))) && !Double.isInfinite(Math.log(1 / argumentValue + Math.sqrt(Math.pow(1 / argumentValue, 2) + 1)))) {
                     return Math.log(1 / argumentValue + Math.sqrt(Math.pow(1 / argumentValue, 2) + 1));
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             case sqrt:
                 if (!Double.isNaN(Math.pow(argumentValue, 0.5)) && !Double.isInfinite(Math.pow(argumentValue, 0.5))) {
                     return Math.pow(argumentValue, 0.5);
                 } else {
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Function_UNDEFINED_VALUE"));
+                    throw new EvaluationException(Translator.deferredMessage("EB_Function_UNDEFINED_VALUE"), false);
                 }
             default:
                 return 0;
         }
     }
 
+    @Override
+    long[] getVariableBits() {
+        return this.left.getVariableBits();
+    }
+
+    @Override
+    int getStructuralFlags() {
+        return this.structuralFlags;
+    }
+
     @Override
     public void addContainedVars(HashSet<String> vars) {
         this.left.addContainedVars(vars);
@@ -280,7 +313,7 @@ public class Function extends Expression {
 
     @Override
     public boolean containsApproximates() {
-        return this.left.containsApproximates();
+        return (this.structuralFlags & FLAG_APPROXIMATES) != 0;
     }
 
     @Override
@@ -310,12 +343,12 @@ public class Function extends Expression {
 
     @Override
     public boolean containsIndefiniteIntegral() {
-        return this.left.containsIndefiniteIntegral();
+        return (this.structuralFlags & FLAG_INDEFINITE_INTEGRAL) != 0;
     }
 
     @Override
     public boolean containsOperator() {
-        return this.left.containsOperator();
+        return (this.structuralFlags & FLAG_OPERATOR) != 0;
     }
 
     @Override
@@ -326,12 +359,12 @@ public class Function extends Expression {
          Sinn dahinter: algebraische Umformungen müssen erst vorgenommen werden, sobald
          der Ausdruck auf dieser Form gebracht wird, nicht vorher.
          */
-        return this.left.containsAlgebraicOperation();
+        return (this.structuralFlags & FLAG_ALGEBRAIC_OPERATION) != 0;
     }
 
     @Override
     public boolean containsOperator(TypeOperator type) {
-        return this.left.containsOperator(type);
+        return (this.structuralFlags & FLAG_OPERATOR) != 0 && this.left.containsOperator(type);
     }
 
     @Override
@@ -660,63 +693,67 @@ public class Function extends Expression {
 
     @Override
     public boolean equals(Expression expr) {
+        if (this == expr) {
+            return true;
+        }
+        if (isDistinctInternedExpression(expr)) {
+            return false;
+        }
         return expr instanceof Function && this.type.equals(((Function) expr).getType())
                 && this.getLeft().equals(((Function) expr).getLeft());
     }
 
+    @Override
+    public int getStructuralHash() {
+        int hash = this.structuralHash;
+        if (hash == 0) {
+            hash = 31 * (this.type.ordinal() + 1) + this.left.getStructuralHash();
+            this.structuralHash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public int getEquivalenceHash() {
+        int hash = this.equivalenceHash;
+        if (hash == 0) {
+            // Der Hashwert des Arguments hängt nicht von dessen Vorzeichen ab (wichtig für gerade und ungerade Funktionen).
+            int hashOfArgument = this.left.getEquivalenceHash();
+            if (hashOfArgument == EQUIVALENCE_HASH_OF_CONSTANTS) {
+                hash = EQUIVALENCE_HASH_OF_CONSTANTS;
+            } else {
+                hash = mixEquivalenceHash(31 * (this.type.ordinal() + 1) + hashOfArgument);
+            }
+            this.equivalenceHash = hash;
+        }
+        return hash;
+    }
+
     @Override
     public boolean equivalent(Expression expr) {
 
+        if (this == expr) {
+            return true;
+        }
+        // Äquivalente Ausdrücke besitzen denselben Hashwert (siehe getEquivalenceHash()).
+        if (!(expr instanceof Function) || this.getEquivalenceHash() != expr.getEquivalenceHash()) {
+            return false;
+        }
         // Sonderfall: Bei geraden Funktionen sind die Ausdrücke äquivalent, wenn sich die Argumente um ein Vorzeichen unterscheiden.
         if (expr instanceof Function && this.type.equals(((Function) expr).getType()) && this.type.isEvenFunction()) {
 
-            ExpressionCollection summandsLeftoFThis = SimplifyUtilities.getSummandsLeftInExpression(this.left);
-            ExpressionCollection summandsRightOfThis = SimplifyUtilities.getSummandsRightInExpression(this.left);
-            ExpressionCollection summandsLeftOfExpr = SimplifyUtilities.getSummandsLeftInExpression(((Function) expr).getLeft());
-            ExpressionCollection summandsRightOfExpr = SimplifyUtilities.getSummandsRightInExpression(((Function) expr).getLeft());
-
             ExpressionCollection summandsLeftOfThisWithSign = new ExpressionCollection();
             ExpressionCollection summandsRightOfThisWithSign = new ExpressionCollection();
             ExpressionCollection summandsLeftOfExprWithSign = new ExpressionCollection();
             ExpressionCollection summandsRightOfExprWithSign = new ExpressionCollection();
 
             try {
-                for (int i = 0; i < summandsLeftoFThis.getBound(); i++) {
-                    if (summandsLeftoFThis.get(i).hasPositiveSign()) {
-                        summandsLeftOfThisWithSign.add(summandsLeftoFThis.get(i));
-                    } else {
-                        summandsRightOfThisWithSign.add(MINUS_ONE.mult(summandsLeftoFThis.get(i)).orderSumsAndProducts());
-                    }
-                }
-                for (int i = 0; i < summandsRightOfThis.getBound(); i++) {
-                    if (summandsRightOfThis.get(i).hasPositiveSign()) {
-                        summandsRightOfThisWithSign.add(summandsRightOfThis.get(i));
-                    } else {
-                        summandsLeftOfThisWithSign.add(MINUS_ONE.mult(summandsRightOfThis.get(i)).orderSumsAndProducts());
-                    }
-                }
-                for (int i = 0; i < summandsLeftOfExpr.getBound(); i++) {
-                    if (summandsLeftOfExpr.get(i).hasPositiveSign()) {
-                        summandsLeftOfExprWithSign.add(summandsLeftOfExpr.get(i));
-                    } else {
-                        summandsRightOfExprWithSign.add(MINUS_ONE.mult(summandsLeftOfExpr.get(i)).orderSumsAndProducts());
-                    }
-                }
-                for (int i = 0; i < summandsRightOfExpr.getBound(); i++) {
-                    if (summandsRightOfExpr.get(i).hasPositiveSign()) {
-                        summandsRightOfExprWithSign.add(summandsRightOfExpr.get(i));
-                    } else {
-                        summandsLeftOfExprWithSign.add(MINUS_ONE.mult(summandsRightOfExpr.get(i)).orderSumsAndProducts());
-                    }
-                }
-                return summandsLeftOfThisWithSign.getBound() == summandsLeftOfExprWithSign.getBound()
-                        && SimplifyUtilities.difference(summandsLeftOfThisWithSign, summandsLeftOfExprWithSign).isEmpty()
-                        && summandsRightOfThisWithSign.getBound() == summandsRightOfExprWithSign.getBound()
-                        && SimplifyUtilities.difference(summandsRightOfThisWithSign, summandsRightOfExprWithSign).isEmpty()
-                        || summandsLeftOfThisWithSign.getBound() == summandsRightOfExprWithSign.getBound()
-                        && SimplifyUtilities.difference(summandsLeftOfThisWithSign, summandsRightOfExprWithSign).isEmpty()
-                        && summandsRightOfThisWithSign.getBound() == summandsLeftOfExprWithSign.getBound()
-                        && SimplifyUtilities.difference(summandsRightOfThisWithSign, summandsLeftOfExprWithSign).isEmpty();
+                SimplifyUtilities.getSummandsWithPositiveSign(this.left, summandsLeftOfThisWithSign, summandsRightOfThisWithSign);
+                SimplifyUtilities.getSummandsWithPositiveSign(((Function) expr).getLeft(), summandsLeftOfExprWithSign, summandsRightOfExprWithSign);
+                return SimplifyUtilities.equivalentUpToOrder(summandsLeftOfThisWithSign, summandsLeftOfExprWithSign)
+                        && SimplifyUtilities.equivalentUpToOrder(summandsRightOfThisWithSign, summandsRightOfExprWithSign)
+                        || SimplifyUtilities.equivalentUpToOrder(summandsLeftOfThisWithSign, summandsRightOfExprWithSign)
+                        && SimplifyUtilities.equivalentUpToOrder(summandsRightOfThisWithSign, summandsLeftOfExprWithSign);
             } catch (EvaluationException e) {
             }
 
@@ -730,7 +767,8 @@ public class Function extends Expression {
     @Override
     public boolean antiEquivalent(Expression expr) {
         return expr instanceof Function && ((Function) expr).type.equals(this.type)
-                && this.type.isOddFunction() && this.left.antiEquivalent(((Function) expr).left);
+                && this.type.isOddFunction() && this.getEquivalenceHash() == expr.getEquivalenceHash()
+                && this.left.antiEquivalent(((Function) expr).left);
     }
 
     @Override
@@ -740,10 +778,12 @@ public class Function extends Expression {
 
     @Override
     public int getLength() {
-        if (((Function) this).getLeft().getLength() == 1) {
-            return 1;
-        }
-        return ((Function) this).getLeft().getLength() + 1;
+        return this.length;
+    }
+
+    @Override
+    public int getDepth() {
+        return this.depth;
     }
 
     @Override
@@ -756,7 +796,7 @@ public class Function extends Expression {
 
         //Zunächst linken Teil (Argument in der Funktion) vereinfachen.
         Expression argumentSimplified = this.getLeft().simplifyBasic();
-        Function function = new Function(argumentSimplified, this.type);
+        Function function = this.withArgument(argumentSimplified);
 
         Expression functionSimplified;
 
@@ -1020,77 +1060,77 @@ public class Function extends Expression {
 
     @Override
     public Expression simplifyByInsertingDefinedVars() throws EvaluationException {
-        return new Function(this.left.simplifyByInsertingDefinedVars(), this.type);
+        return this.withArgument(this.left.simplifyByInsertingDefinedVars());
     }
 
     @Override
     public Expression simplifyExpandRationalFactors() throws EvaluationException {
-        return new Function(this.left.simplifyExpandRationalFactors(), this.type);
+        return this.withArgument(this.left.simplifyExpandRationalFactors());
     }
 
     @Override
     public Expression simplifyExpand(TypeExpansion type) throws EvaluationException {
-        return new Function(this.left.simplifyExpand(type), this.type);
+        return this.withArgument(this.left.simplifyExpand(type));
     }
 
     @Override
     public Expression simplifyBringExpressionToCommonDenominator(TypeFractionSimplification type) throws EvaluationException {
-        return new Function(this.left.simplifyBringExpressionToCommonDenominator(type), this.type);
+        return this.withArgument(this.left.simplifyBringExpressionToCommonDenominator(type));
     }
 
     @Override
     public Expression simplifyReduceDifferencesAndQuotientsAdvanced() throws EvaluationException {
-        return new Function(this.left.simplifyReduceDifferencesAndQuotientsAdvanced(), this.type);
+        return this.withArgument(this.left.simplifyReduceDifferencesAndQuotientsAdvanced());
     }
 
     @Override
     public Expression orderSumsAndProducts() throws EvaluationException {
-        return new Function(this.left.orderSumsAndProducts(), this.type);
+        return this.withArgument(this.left.orderSumsAndProducts());
     }
 
     @Override
     public Expression orderDifferencesAndQuotients() throws EvaluationException {
-        return new Function(this.getLeft().orderDifferencesAndQuotients(), this.getType());
+        return this.withArgument(this.left.orderDifferencesAndQuotients());
     }
 
     @Override
     public Expression simplifyCollectProducts() throws EvaluationException {
-        return new Function(this.getLeft().simplifyCollectProducts(), this.getType());
+        return this.withArgument(this.left.simplifyCollectProducts());
     }
 
     @Override
     public Expression simplifyFactorize() throws EvaluationException {
-        return new Function(this.getLeft().simplifyFactorize(), this.getType());
+        return this.withArgument(this.left.simplifyFactorize());
     }
 
     @Override
     public Expression simplifyFactorizeAllButRationalsInSums() throws EvaluationException {
-        return new Function(this.getLeft().simplifyFactorizeAllButRationalsInSums(), this.getType());
+        return this.withArgument(this.left.simplifyFactorizeAllButRationalsInSums());
     }
 
     @Override
     public Expression simplifyFactorizeAllButRationalsInDifferences() throws EvaluationException {
-        return new Function(this.getLeft().simplifyFactorizeAllButRationalsInDifferences(), this.getType());
+        return this.withArgument(this.left.simplifyFactorizeAllButRationalsInDifferences());
     }
 
     @Override
     public Expression simplifyFactorizeAllButRationals() throws EvaluationException {
-        return new Function(this.getLeft().simplifyFactorizeAllButRationals(), this.getType());
+        return this.withArgument(this.left.simplifyFactorizeAllButRationals());
     }
 
     @Override
     public Expression simplifyReduceQuotients() throws EvaluationException {
-        return new Function(this.getLeft().simplifyReduceQuotients(), this.getType());
+        return this.withArgument(this.left.simplifyReduceQuotients());
     }
 
     @Override
     public Expression simplifyFunctionalRelations() throws EvaluationException {
-        Function functionSimplified = new Function(this.left.simplifyFunctionalRelations(), this.type);
+        Function functionSimplified = this.withArgument(this.left.simplifyFunctionalRelations());
         if (functionSimplified.type.equals(TypeFunction.abs)) {
-            return SimplifyFunctionalRelationsUtils.reduceAbsOfQuotientIfNumeratorHasFixedSign(functionSimplified);
+            return thisIfEqual(SimplifyFunctionalRelationsUtils.reduceAbsOfQuotientIfNumeratorHasFixedSign(functionSimplified));
         }
         if (functionSimplified.type.equals(TypeFunction.sgn)) {
-            return SimplifyFunctionalRelationsUtils.reduceSgnOfQuotientIfNumeratorHasFixedSign(functionSimplified);
+            return thisIfEqual(SimplifyFunctionalRelationsUtils.reduceSgnOfQuotientIfNumeratorHasFixedSign(functionSimplified));
         }
         return functionSimplified;
     }
@@ -1102,20 +1142,20 @@ public class Function extends Expression {
 
         }
 
-        return new Function(this.left.simplifyExpandAndCollectEquivalentsIfShorter(), this.type);
+        return this.withArgument(this.left.simplifyExpandAndCollectEquivalentsIfShorter());
 
     }
 
     @Override
     public Expression simplifyCollectLogarithms() throws EvaluationException {
-        return new Function(this.left.simplifyCollectLogarithms(), this.type);
+        return this.withArgument(this.left.simplifyCollectLogarithms());
     }
 
     @Override
     public Expression simplifyExpandLogarithms() throws EvaluationException {
 
         // Zunächst linken Teil (Argument in der Funktion) vereinfachen.
-        Function function = new Function(this.left.simplifyExpandLogarithms(), this.type);
+        Function function = this.withArgument(this.left.simplifyExpandLogarithms());
 
         // Vereinfacht lg(x^y) zu y*lg(x) und lg(x*/y) = lg(x) +- lg(y), analog mit ln.
         if (this.type.equals(TypeFunction.lg) || this.type.equals(TypeFunction.ln)) {
@@ -1144,18 +1184,18 @@ public class Function extends Expression {
 
     @Override
     public Expression simplifyPullApartPowers() throws EvaluationException {
-        return new Function(this.left.simplifyPullApartPowers(), this.type);
+        return this.withArgument(this.left.simplifyPullApartPowers());
     }
 
     @Override
     public Expression simplifyMultiplyExponents() throws EvaluationException {
-        return new Function(this.left.simplifyMultiplyExponents(), this.type);
+        return this.withArgument(this.left.simplifyMultiplyExponents());
     }
 
     @Override
     public Expression simplifyReplaceExponentialFunctionsByDefinitions() throws EvaluationException {
 
-        Function function = new Function(this.left.simplifyReplaceExponentialFunctionsByDefinitions(), this.type);
+        Function function = this.withArgument(this.left.simplifyReplaceExponentialFunctionsByDefinitions());
 
         // Dekadischer Logarithmus.
         if (function.getType().equals(TypeFunction.lg)) {
@@ -1194,7 +1234,7 @@ public class Function extends Expression {
     @Override
     public Expression simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(String var) throws EvaluationException {
 
-        Function function = new Function(this.left.simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(var), this.type);
+        Function function = this.withArgument(this.left.simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(var));
 
         // Nur ersetzen, wenn das Argument der Funktion function von var abhängt.
         if (!function.contains(var)) {
@@ -1238,7 +1278,7 @@ public class Function extends Expression {
     @Override
     public Expression simplifyReplaceTrigonometricalFunctionsByDefinitions() throws EvaluationException {
 
-        Function function = new Function(this.left.simplifyReplaceTrigonometricalFunctionsByDefinitions(), this.type);
+        Function function = this.withArgument(this.left.simplifyReplaceTrigonometricalFunctionsByDefinitions());
 
         if (function.getType().equals(TypeFunction.tan)) {
             return function.getLeft().sin().div(function.getLeft().cos());
@@ -1263,7 +1303,7 @@ public class Function extends Expression {
     @Override
     public Expression simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(String var) throws EvaluationException {
 
-        Function function = new Function(this.left.simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(var), this.type);
+        Function function = this.withArgument(this.left.simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(var));
 
         // Nur ersetzen, wenn das Argument der Funktion function von var abhängt.
         if (!function.contains(var)) {
@@ -1292,12 +1332,12 @@ public class Function extends Expression {
 
     @Override
     public Expression simplifyExpandProductsOfComplexExponentialFunctions(String var) throws EvaluationException {
-        return new Function(this.left.simplifyExpandProductsOfComplexExponentialFunctions(var), this.type);
+        return this.withArgument(this.left.simplifyExpandProductsOfComplexExponentialFunctions(var));
     }
 
     @Override
     public Expression simplifyAlgebraicExpressions() throws EvaluationException {
-        return new Function(this.left.simplifyAlgebraicExpressions(), this.type);
+        return this.withArgument(this.left.simplifyAlgebraicExpressions());
     }
 
 }
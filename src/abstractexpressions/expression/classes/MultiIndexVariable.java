@@ -52,6 +52,12 @@ public class MultiIndexVariable extends Variable {
         this.name = name;
     }
 
+    @Override
+    int getStructuralFlags() {
+        // isConstant() hängt hier nicht von der Variablentabelle ab.
+        return super.getStructuralFlags() | FLAG_SPECIAL;
+    }
+
     public ArrayList<BigInteger> getIndices() {
         return indices;
     }
@@ -0,0 +1,609 @@
+package abstractexpressions.expression.classes;
+
+import exceptions.EvaluationException;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import lang.translator.Translator;
+
+/**
+ * Gemeinsame Grundlage von Sum und Product: Eine Kette von Summen bzw.
+ * Produkten wird als Feld ihrer Operanden gespeichert, so dass auch Ketten mit
+ * sehr vielen Operanden flach bleiben.<br>
+ * Nach außen verhält sich die Kette wie die entsprechende Kette binärer
+ * Operationen. Die Kette ist dabei entweder links geklammert (((a_0 + a_1) +
+ * a_2) + ..., so wie sie der Parser erzeugt) oder rechts geklammert (a_0 + (a_1
+ * + (a_2 + ...)), so wie sie SimplifyUtilities.produceSum() erzeugt).
+ * getLeft() und getRight() bilden diese binäre Darstellung erst beim ersten
+ * Aufruf, deren Teilketten sind wiederum Objekte dieser Klasse.
+ */
+abstract class NaryOperation extends BinaryOperation {
+
+    // Wird nach der Erzeugung nicht mehr verändert und von allen Teilketten geteilt.
+    private final Expression[] operands;
+    private final int from, to;
+    private final boolean leftNested;
+    // Tiefe ohne die inneren Knoten der Kette (siehe getDepth()).
+    private final int depth;
+    // Binäre Darstellung, bei Bedarf gebildet (siehe getLeft() und getRight()).
+    private volatile Expression binaryLeft, binaryRight;
+    // Wird beim ersten Aufruf von getStructuralHash() berechnet (0 = noch nicht berechnet).
+    private int structuralHash;
+
+    /**
+     * Kette aus den Operanden operands[from], ..., operands[to - 1] (mindestens
+     * zwei). Das Feld operands wird übernommen und darf danach nicht mehr
+     * verändert werden.
+     */
+    NaryOperation(TypeBinary type, Expression[] operands, int from, int to, boolean leftNested) {
+        super(type, getVariableBits(operands, from, to), getStructuralFlags(operands, from, to, leftNested),
+                getLength(type, operands, from, to), getDepth(operands, from, to),
+                type == TypeBinary.TIMES ? getLengthOfFactors(operands, from, to) : 0);
+        this.operands = operands;
+        this.from = from;
+        this.to = to;
+        this.leftNested = leftNested;
+        this.depth = getDepth(operands, from, to);
+    }
+
+    /**
+     * Teilkette der binären Darstellung einer Kette mit bereits gebildeten
+     * Operanden left und right.
+     */
+    NaryOperation(TypeBinary type, Expression[] operands, int from, int to, boolean leftNested, Expression left, Expression right) {
+        super(left, right, type);
+        this.operands = operands;
+        this.from = from;
+        this.to = to;
+        this.leftNested = leftNested;
+        this.binaryLeft = left;
+        this.binaryRight = right;
+        // Die Teilkette unter den Operanden besitzt bereits die flache Tiefe.
+        int depthLeft = leftNested && to - from > 2 ? left.getDepth() : left.getDepth() + 1;
+        int depthRight = !leftNested && to - from > 2 ? right.getDepth() : right.getDepth() + 1;
+        this.depth = Math.max(depthLeft, depthRight);
+    }
+
+    private static long[] getVariableBits(Expression[] operands, int from, int to) {
+        long[] variableBits = VariableIndices.EMPTY;
+        for (int i = from; i < to; i++) {
+            variableBits = VariableIndices.union(variableBits, operands[i].getVariableBits());
+        }
+        return variableBits;
+    }
+
+    private static int getStructuralFlags(Expression[] operands, int from, int to, boolean leftNested) {
+        int flags = 0;
+        for (int i = from; i < to; i++) {
+            flags |= operands[i].getStructuralFlags();
+        }
+        // Wie im binären Fall: Rechte Operanden, die rationale Konstanten sind.
+        if (leftNested) {
+            for (int i = from + 1; i < to; i++) {
+                if (isAlgebraicRightOperand(operands[i])) {
+                    flags |= FLAG_ALGEBRAIC_OPERATION;
+                }
+            }
+        } else if (isAlgebraicRightOperand(operands[to - 1])) {
+            flags |= FLAG_ALGEBRAIC_OPERATION;
+        }
+        return flags;
+    }
+
+    private static int getLengthOfFactors(Expression[] operands, int from, int to) {
+        int lengthOfFactors = 0;
+        for (int i = from; i < to; i++) {
+            lengthOfFactors += getLengthAsFactor(operands[i]);
+        }
+        return lengthOfFactors;
+    }
+
+    private static int getLength(TypeBinary type, Expression[] operands, int from, int to) {
+        if (type == TypeBinary.TIMES) {
+            return Math.max(getLengthOfFactors(operands, from, to), 1);
+        }
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            length += operands[i].getLength();
+        }
+        return length;
+    }
+
+    private static int getDepth(Expression[] operands, int from, int to) {
+        int depth = 0;
+        for (int i = from; i < to; i++) {
+            depth = Math.max(depth, operands[i].getDepth());
+        }
+        return depth + 1;
+    }
+
+    /**
+     * Erzeugt eine Kette derselben Art und Klammerung aus den Operanden
+     * operands[from], ..., operands[to - 1].
+     */
+    abstract NaryOperation create(Expression[] operands, int from, int to);
+
+    /**
+     * Erzeugt eine Teilkette der binären Darstellung (siehe zweiter
+     * Konstruktor).
+     */
+    abstract NaryOperation createPart(int from, int to, Expression left, Expression right);
+
+    /**
+     * Verknüpft die Werte zweier Operanden. Die Prüfungen auf undefinierte
+     * Werte sind dieselben wie in BinaryOperation.evaluate().
+     */
+    abstract double evaluate(double valueLeft, double valueRight) throws EvaluationException;
+
+    static EvaluationException undefinedValue() {
+        return new EvaluationException(Translator.deferredMessage("EB_BinaryOperation_UNDEFINED_VALUE"), false);
+    }
+
+    Expression[] getOperands() {
+        return this.operands;
+    }
+
+    int getNumberOfOperands() {
+        return this.to - this.from;
+    }
+
+    Expression getOperand(int i) {
+        return this.operands[this.from + i];
+    }
+
+    boolean isLeftNested() {
+        return this.leftNested;
+    }
+
+    /**
+     * Legt alle Operanden so auf stack, dass der erste Operand oben liegt.
+     */
+    void pushOperands(ArrayDeque<Expression> stack) {
+        for (int i = this.to - 1; i >= this.from; i--) {
+            stack.push(this.operands[i]);
+        }
+    }
+
+    /**
+     * Gibt den Operanden zurück, der auf der Ebene level (1 = innerste
+     * Verknüpfung, getNumberOfOperands() - 1 = diese Verknüpfung) zur bisher
+     * verknüpften Teilkette hinzukommt. Ebene 0 liefert den innersten
+     * Operanden.
+     */
+    Expression getOperandOfLevel(int level) {
+        return this.leftNested ? this.operands[this.from + level] : this.operands[this.to - 1 - level];
+    }
+
+    @Override
+    public Expression getLeft() {
+        Expression left = this.binaryLeft;
+        if (left == null) {
+            createBinaryForm();
+            left = this.binaryLeft;
+        }
+        return left;
+    }
+
+    @Override
+    public Expression getRight() {
+        Expression right = this.binaryRight;
+        if (right == null) {
+            createBinaryForm();
+            right = this.binaryRight;
+        }
+        return right;
+    }
+
+    private synchronized void createBinaryForm() {
+        if (this.binaryLeft != null) {
+            return;
+        }
+        Expression left, right;
+        if (this.leftNested) {
+            left = this.operands[this.from];
+            for (int i = this.from + 1; i < this.to - 1; i++) {
+                left = createPart(this.from, i + 1, left, this.operands[i]);
+            }
+            right = this.operands[this.to - 1];
+        } else {
+            right = this.operands[this.to - 1];
+            for (int i = this.to - 2; i > this.from; i--) {
+                right = createPart(i, this.to, this.operands[i], right);
+            }
+            left = this.operands[this.from];
+        }
+        this.binaryRight = right;
+        this.binaryLeft = left;
+    }
+
+    /**
+     * Gibt die Teilketten der binären Darstellung zurück: Eintrag level ist
+     * die Teilkette der Ebenen 1, ..., level (Eintrag 0 ist der innerste
+     * Operand, der letzte Eintrag diese Kette selbst).
+     */
+    Expression[] getPartsByLevel() {
+        Expression[] parts = new Expression[getNumberOfOperands()];
+        Expression part = this;
+        for (int level = parts.length - 1; level > 0; level--) {
+            parts[level] = part;
+            part = this.leftNested ? ((BinaryOperation) part).getLeft() : ((BinaryOperation) part).getRight();
+        }
+        parts[0] = part;
+        return parts;
+    }
+
+    @Override
+    public int getDepth() {
+        return this.depth;
+    }
+
+    @Override
+    public Expression copy() {
+        return create(this.operands, this.from, this.to);
+    }
+
+    /**
+     * Gibt this zurück, falls newOperands dieselben Operanden wie this enthält,
+     * sonst die Kette aus newOperands.
+     */
+    Expression withOperands(Expression[] newOperands) {
+        for (int i = 0; i < newOperands.length; i++) {
+            if (newOperands[i] != this.operands[this.from + i]) {
+                return create(newOperands, 0, newOperands.length);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public double evaluate(EvaluationContext context) throws EvaluationException {
+        if (this.leftNested) {
+            double value = this.operands[this.from].evaluate(context);
+            for (int i = this.from + 1; i < this.to; i++) {
+                value = evaluate(value, this.operands[i].evaluate(context));
+            }
+            return value;
+        }
+        // Rechts geklammert: Erst alle Operanden, dann von innen nach außen verknüpfen.
+        double[] values = new double[getNumberOfOperands()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.operands[this.from + i].evaluate(context);
+        }
+        double value = values[values.length - 1];
+        for (int i = values.length - 2; i >= 0; i--) {
+            value = evaluate(values[i], value);
+        }
+        return value;
+    }
+
+    @Override
+    public void addContainedIndeterminates(HashSet<String> vars) {
+        if (getVariableBits().length == 0 && (getStructuralFlags() & FLAG_SPECIAL) == 0) {
+            return;
+        }
+        for (int i = this.from; i < this.to; i++) {
+            this.operands[i].addContainedIndeterminates(vars);
+        }
+    }
+
+    @Override
+    public boolean contains(String var) {
+        if ((getStructuralFlags() & FLAG_SPECIAL) != 0) {
+            for (int i = this.from; i < this.to; i++) {
+                if (this.operands[i].contains(var)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return super.contains(var);
+    }
+
+    @Override
+    public boolean containsFunction() {
+        if ((getStructuralFlags() & FLAG_FUNCTION) != 0) {
+            return true;
+        }
+        if ((getStructuralFlags() & (FLAG_VARIABLE_EXPONENT | FLAG_SPECIAL)) == 0) {
+            return false;
+        }
+        for (int i = this.from; i < this.to; i++) {
+            if (this.operands[i].containsFunction()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsExponentialFunction() {
+        if ((getStructuralFlags() & (FLAG_FUNCTION | FLAG_VARIABLE_EXPONENT | FLAG_SPECIAL)) == 0) {
+            return false;
+        }
+        for (int i = this.from; i < this.to; i++) {
+            if (this.operands[i].containsExponentialFunction()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsTrigonometricalFunction() {
+        if ((getStructuralFlags() & (FLAG_FUNCTION | FLAG_SPECIAL)) == 0) {
+            return false;
+        }
+        for (int i = this.from; i < this.to; i++) {
+            if (this.operands[i].containsTrigonometricalFunction()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsOperator(TypeOperator type) {
+        if ((getStructuralFlags() & FLAG_OPERATOR) == 0) {
+            return false;
+        }
+        for (int i = this.from; i < this.to; i++) {
+            if (this.operands[i].containsOperator(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isConstant() {
+        if ((getStructuralFlags() & FLAG_SPECIAL) != 0) {
+            for (int i = this.from; i < this.to; i++) {
+                if (!this.operands[i].isConstant()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return super.isConstant();
+    }
+
+    @Override
+    public Expression turnToApproximate() {
+        Expression[] newOperands = new Expression[getNumberOfOperands()];
+        for (int i = 0; i < newOperands.length; i++) {
+            newOperands[i] = this.operands[this.from + i].turnToApproximate();
+        }
+        return create(newOperands, 0, newOperands.length);
+    }
+
+    @Override
+    public Expression turnToPrecise() {
+        Expression[] newOperands = new Expression[getNumberOfOperands()];
+        for (int i = 0; i < newOperands.length; i++) {
+            newOperands[i] = this.operands[this.from + i].turnToPrecise();
+        }
+        return create(newOperands, 0, newOperands.length);
+    }
+
+    @Override
+    public Expression replaceVariable(String var, Expression expr) {
+        Expression[] newOperands = new Expression[getNumberOfOperands()];
+        for (int i = 0; i < newOperands.length; i++) {
+            newOperands[i] = this.operands[this.from + i].replaceVariable(var, expr);
+        }
+        return create(newOperands, 0, newOperands.length);
+    }
+
+    @Override
+    public Expression replaceSelfDefinedFunctionsByPredefinedFunctions() {
+        Expression[] newOperands = new Expression[getNumberOfOperands()];
+        for (int i = 0; i < newOperands.length; i++) {
+            newOperands[i] = this.operands[this.from + i].replaceSelfDefinedFunctionsByPredefinedFunctions();
+        }
+        return create(newOperands, 0, newOperands.length);
+    }
+
+    @Override
+    public Expression simplifyByInsertingDefinedVars() throws EvaluationException {
+        Expression[] newOperands = new Expression[getNumberOfOperands()];
+        for (int i = 0; i < newOperands.length; i++) {
+            newOperands[i] = this.operands[this.from + i].simplifyByInsertingDefinedVars();
+        }
+        return withOperands(newOperands);
+    }
+
+    /**
+     * Gibt zurück, ob die Ableitung von expr nach var gleich 0 ist, ohne sie
+     * zu bilden (wie zu Beginn von BinaryOperation.diff()).
+     */
+    static boolean isIndependentOf(Expression expr, String var) {
+        return !expr.contains(var) && !expr.containsAtLeastOne(expr.getContainedVariablesDependingOnGivenVariable(var));
+    }
+
+    /**
+     * Gibt die Ableitungen aller Operanden nach var in der Reihenfolge der
+     * Operanden zurück.
+     */
+    Expression[] diffOperands(String var) throws EvaluationException {
+        Expression[] derivatives = new Expression[getNumberOfOperands()];
+        for (int i = 0; i < derivatives.length; i++) {
+            Expression operand = this.operands[this.from + i];
+            derivatives[i] = isIndependentOf(operand, var) ? ZERO : operand.diff(var);
+        }
+        return derivatives;
+    }
+
+    /**
+     * Wertet die Vorzeichen der Kette Ebene für Ebene so aus, wie es die
+     * rekursiven Methoden isNonNegative(), isNonPositive() und isAlways...()
+     * von BinaryOperation auf der binären Darstellung tun würden. Ist
+     * withAlwaysSigns == false, so werden nur isNonNegative() und
+     * isNonPositive() ausgewertet.
+     */
+    private Signs getSigns(boolean withAlwaysSigns) {
+        Signs signs = new Signs(getOperandOfLevel(0), withAlwaysSigns);
+        for (int level = 1; level < getNumberOfOperands(); level++) {
+            Signs signsOfOperand = new Signs(getOperandOfLevel(level), withAlwaysSigns);
+            if (this.leftNested) {
+                signs = combineSigns(signs, signsOfOperand, withAlwaysSigns);
+            } else {
+                signs = combineSigns(signsOfOperand, signs, withAlwaysSigns);
+            }
+        }
+        return signs;
+    }
+
+    /**
+     * Vorzeichen der Verknüpfung zweier Operanden mit den Vorzeichen left und
+     * right.
+     */
+    abstract Signs combineSigns(Signs left, Signs right, boolean withAlwaysSigns);
+
+    /**
+     * Ergebnis von isConstant(), evaluate(), isNonNegative() usw. für einen
+     * Operanden bzw. eine Teilkette.
+     */
+    static final class Signs {
+
+        boolean constant, defined;
+        double value;
+        boolean nonNegative, nonPositive;
+        boolean alwaysNonNegative, alwaysPositive, alwaysNonPositive, alwaysNegative;
+
+        Signs() {
+        }
+
+        Signs(Expression operand, boolean withAlwaysSigns) {
+            this.constant = operand.isConstant();
+            if (this.constant) {
+                try {
+                    this.value = operand.evaluate();
+                    this.defined = true;
+                } catch (EvaluationException e) {
+                }
+            }
+            this.nonNegative = operand.isNonNegative();
+            this.nonPositive = operand.isNonPositive();
+            if (withAlwaysSigns) {
+                this.alwaysNonNegative = operand.isAlwaysNonNegative();
+                this.alwaysPositive = operand.isAlwaysPositive();
+                this.alwaysNonPositive = operand.isAlwaysNonPositive();
+                this.alwaysNegative = operand.isAlwaysNegative();
+            }
+        }
+
+        /**
+         * Setzt constant, defined und value für die Verknüpfung von left und
+         * right.
+         */
+        void setValue(NaryOperation chain, Signs left, Signs right) {
+            this.constant = left.constant && right.constant;
+            if (this.constant && left.defined && right.defined) {
+                try {
+                    this.value = chain.evaluate(left.value, right.value);
+                    this.defined = true;
+                } catch (EvaluationException e) {
+                }
+            }
+        }
+
+    }
+
+    @Override
+    public boolean isNonNegative() {
+        if (!this.isConstant()) {
+            return false;
+        }
+        return getSigns(false).nonNegative;
+    }
+
+    @Override
+    public boolean isNonPositive() {
+        if (!this.isConstant()) {
+            return false;
+        }
+        return getSigns(false).nonPositive;
+    }
+
+    @Override
+    public boolean isAlwaysNonNegative() {
+        return getSigns(true).alwaysNonNegative;
+    }
+
+    @Override
+    public boolean isAlwaysPositive() {
+        return getSigns(true).alwaysPositive;
+    }
+
+    @Override
+    public boolean isAlwaysNonPositive() {
+        return getSigns(true).alwaysNonPositive;
+    }
+
+    @Override
+    public boolean isAlwaysNegative() {
+        return getSigns(true).alwaysNegative;
+    }
+
+    @Override
+    public boolean equals(Expression expr) {
+        if (this == expr) {
+            return true;
+        }
+        if (isDistinctInternedExpression(expr)) {
+            return false;
+        }
+        if (!(expr instanceof BinaryOperation) || !getType().equals(((BinaryOperation) expr).getType())) {
+            return false;
+        }
+        if (expr instanceof NaryOperation) {
+            NaryOperation chain = (NaryOperation) expr;
+            if (chain.leftNested == this.leftNested && chain.getNumberOfOperands() == getNumberOfOperands()) {
+                for (int i = 0; i < getNumberOfOperands(); i++) {
+                    if (!this.operands[this.from + i].equals(chain.operands[chain.from + i])) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        // Sonst die binäre Darstellung von expr Ebene für Ebene vergleichen.
+        for (int level = getNumberOfOperands() - 1; level > 0; level--) {
+            if (!(expr instanceof BinaryOperation) || !getType().equals(((BinaryOperation) expr).getType())) {
+                return false;
+            }
+            BinaryOperation part = (BinaryOperation) expr;
+            if (this.leftNested) {
+                if (!getOperandOfLevel(level).equals(part.getRight())) {
+                    return false;
+                }
+                expr = part.getLeft();
+            } else {
+                if (!getOperandOfLevel(level).equals(part.getLeft())) {
+                    return false;
+                }
+                expr = part.getRight();
+            }
+        }
+        return getOperandOfLevel(0).equals(expr);
+    }
+
+    @Override
+    public int getStructuralHash() {
+        int hash = this.structuralHash;
+        if (hash == 0) {
+            // Derselbe Wert wie für die binäre Darstellung.
+            int typeHash = 31 * getType().ordinal();
+            hash = getOperandOfLevel(0).getStructuralHash();
+            for (int level = 1; level < getNumberOfOperands(); level++) {
+                if (this.leftNested) {
+                    hash = 31 * (typeHash + hash) + getOperandOfLevel(level).getStructuralHash();
+                } else {
+                    hash = 31 * (typeHash + getOperandOfLevel(level).getStructuralHash()) + hash;
+                }
+            }
+            this.structuralHash = hash;
+        }
+        return hash;
+    }
+
+}
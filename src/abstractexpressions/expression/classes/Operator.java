@@ -14,13 +14,15 @@ import abstractexpressions.expression.basic.ExpressionCollection;
 import abstractexpressions.expression.basic.SimplifyUtilities;
 import enums.TypeFractionSimplification;
 import exceptions.CancellationException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import operationparser.OperationParser;
@@ -54,6 +56,28 @@ public class Operator extends Expression {
     public static final String PATTERN_TAYLOR = "taylor(expr,indet(!2),expr,integer(0,2147483647))";
     public static final String PATTERN_VAR = "var(expr+)";
 
+    /*
+     Ausführmethoden für die einzelnen Operatoren (mit @SimplifyOperator
+     annotiert). Sie werden einmal beim Laden der Klasse ermittelt, damit in
+     simplifyBasic() nicht jedes Mal per Reflection gesucht werden muss.
+     */
+    private static final EnumMap<TypeOperator, MethodHandle> SIMPLIFY_METHODS = new EnumMap<>(TypeOperator.class);
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        SimplifyOperator annotation;
+        for (Method method : Operator.class.getDeclaredMethods()) {
+            annotation = method.getAnnotation(SimplifyOperator.class);
+            if (annotation != null && !SIMPLIFY_METHODS.containsKey(annotation.type())) {
+                try {
+                    SIMPLIFY_METHODS.put(annotation.type(), lookup.unreflect(method));
+                } catch (IllegalAccessException e) {
+                    // Kann nicht eintreten, da lookup auf alle Methoden von Operator zugreifen darf.
+                }
+            }
+        }
+    }
+
     public Operator(TypeOperator type, Object[] params) {
         this.type = type;
         this.params = params;
@@ -74,6 +98,23 @@ public class Operator extends Expression {
         return this.params;
     }
 
+    /**
+     * Gibt den Operator mit den Parametern params und dem Typ und der
+     * Genauigkeit des gegebenen Operators zurück. Sind alle Parameter mit denen
+     * des gegebenen Operators identisch, so wird dieser selbst zurückgegeben.
+     */
+    private Operator withParams(Object[] params) {
+        if (params.length != this.params.length) {
+            return new Operator(this.type, params, this.precise);
+        }
+        for (int i = 0; i < params.length; i++) {
+            if (params[i] != this.params[i]) {
+                return new Operator(this.type, params, this.precise);
+            }
+        }
+        return this;
+    }
+
     public boolean getPrecise() {
         return this.precise;
     }
@@ -165,7 +206,7 @@ public class Operator extends Expression {
     }
 
     @Override
-    public double evaluate() throws EvaluationException {
+    public double evaluate(EvaluationContext context) throws EvaluationException {
 
         /*
          Bei der Auswertung von Operatoren wird zunächst versucht, den
@@ -175,26 +216,26 @@ public class Operator extends Expression {
         Expression operatorSimplified = this.simplifyBasic();
         if (operatorSimplified.containsOperator()) {
             // Falls immer noch Operatoren auftreten -> keine explizite Auswertung möglich.
-            throw new EvaluationException(Translator.translateOutputMessage("EB_Operator_OPERATOR_CANNOT_BE_EVALUATED"));
+            throw new EvaluationException(Translator.deferredMessage("EB_Operator_OPERATOR_CANNOT_BE_EVALUATED"));
         }
 
         if (this.getType().equals(TypeOperator.diff)) {
-            return simplifyBasicDiff().evaluate();
+            return simplifyBasicDiff().evaluate(context);
         }
         if (this.getType().equals(TypeOperator.div)) {
-            return simplifyBasicDiv().evaluate();
+            return simplifyBasicDiv().evaluate(context);
         }
         if (this.getType().equals(TypeOperator.fac)) {
 
             Expression expr = this.simplifyBasicFac();
             if (expr instanceof Operator && ((Operator) expr).getType().equals(TypeOperator.fac)) {
-                return AnalysisUtils.Gamma(((Expression) this.params[0]).evaluate() + 1);
+                return AnalysisUtils.Gamma(((Expression) this.params[0]).evaluate(context) + 1);
             }
-            return expr.evaluate();
+            return expr.evaluate(context);
 
         }
         if (this.getType().equals(TypeOperator.gcd)) {
-            return simplifyBasicGCD().evaluate();
+            return simplifyBasicGCD().evaluate(context);
         }
         if (this.getType().equals(TypeOperator.integral)) {
 
@@ -213,38 +254,38 @@ public class Operator extends Expression {
                      welche mittels numerischer Verfahren behandelt werden
                      kann.
                      */
-                    double a = ((Expression) this.params[2]).evaluate();
-                    double b = ((Expression) this.params[3]).evaluate();
-                    double result = NumericalUtils.integrateBySimpson((Expression) ((Operator) expr).getParams()[0], (String) this.params[1], a, b, 1000);
-                    double betterResult = NumericalUtils.integrateBySimpson((Expression) ((Operator) expr).getParams()[0], (String) this.params[1], a, b, 2000);
+                    double a = ((Expression) this.params[2]).evaluate(context);
+                    double b = ((Expression) this.params[3]).evaluate(context);
+                    double result = NumericalUtils.integrateBySimpson((Expression) ((Operator) expr).getParams()[0], (String) this.params[1], a, b, 1000, context);
+                    double betterResult = NumericalUtils.integrateBySimpson((Expression) ((Operator) expr).getParams()[0], (String) this.params[1], a, b, 2000, context);
                     double almostPreciseResult = 16 / ((double) 15) * betterResult - 1 / ((double) 15) * result;
                     return almostPreciseResult;
                 }
 
             }
-            return expr.evaluate();
+            return expr.evaluate(context);
 
         }
         if (this.getType().equals(TypeOperator.laplace)) {
-            return simplifyBasicLaplace().evaluate();
+            return simplifyBasicLaplace().evaluate(context);
         }
         if (this.getType().equals(TypeOperator.lcm)) {
-            return simplifyBasicLCM().evaluate();
+            return simplifyBasicLCM().evaluate(context);
         }
         if (this.getType().equals(TypeOperator.mod)) {
-            return simplifyBasicMod().evaluate();
+            return simplifyBasicMod().evaluate(context);
         }
         if (this.getType().equals(TypeOperator.modpow)) {
-            return simplifyBasicModPow().evaluate();
+            return simplifyBasicModPow().evaluate(context);
         }
         if (this.getType().equals(TypeOperator.prod)) {
-            return simplifyBasicProd().evaluate();
+            return simplifyBasicProd().evaluate(context);
         }
         if (this.getType().equals(TypeOperator.sum)) {
-            return simplifyBasicSum().evaluate();
+            return simplifyBasicSum().evaluate(context);
         }
         if (this.getType().equals(TypeOperator.taylor)) {
-            return simplifyBasicTaylor().evaluate();
+            return simplifyBasicTaylor().evaluate(context);
         }
         return 0;
 
@@ -610,7 +651,7 @@ public class Operator extends Expression {
         }
 
         // Falls man die Ableitung nicht exakt angeben kann (etwa (x!)' etc.)
-        throw new EvaluationException(Translator.translateOutputMessage("EB_Operator_EXPRESSION_IS_NOT_DIFFERENTIABLE", this, var));
+        throw new EvaluationException(Translator.deferredMessage("EB_Operator_EXPRESSION_IS_NOT_DIFFERENTIABLE", this, var));
 
     }
 
@@ -960,6 +1001,12 @@ public class Operator extends Expression {
     @Override
     public boolean equals(Expression expr) {
 
+        if (this == expr) {
+            return true;
+        }
+        if (isDistinctInternedExpression(expr)) {
+            return false;
+        }
         if (expr instanceof Operator) {
 
             Operator operator = (Operator) expr;
@@ -983,9 +1030,28 @@ public class Operator extends Expression {
 
     }
 
+    @Override
+    public int getStructuralHash() {
+        // Nicht zwischengespeichert, da Typ und Parameter veränderbar sind.
+        int hash = this.type.ordinal();
+        for (Object param : this.params) {
+            hash = 31 * hash + (param instanceof Expression ? ((Expression) param).getStructuralHash() : param == null ? 0 : param.hashCode());
+        }
+        return hash;
+    }
+
+    @Override
+    public int getEquivalenceHash() {
+        // Nur der Typ geht ein. Operatoren kommen kaum in großen Summen oder Produkten vor.
+        return mixEquivalenceHash(31 * this.type.ordinal() + 17);
+    }
+
     @Override
     public boolean equivalent(Expression expr) {
 
+        if (this == expr) {
+            return true;
+        }
         if (expr instanceof Operator) {
 
             Operator operator = (Operator) expr;
@@ -1066,6 +1132,17 @@ public class Operator extends Expression {
         return length;
     }
 
+    @Override
+    public int getDepth() {
+        int depth = 0;
+        for (Object param : this.params) {
+            if (param instanceof Expression) {
+                depth = Math.max(depth, ((Expression) param).getDepth());
+            }
+        }
+        return depth + 1;
+    }
+
     @Override
     public int getMaximalNumberOfSummandsInExpansion() {
         return 1;
@@ -1081,7 +1158,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1094,7 +1171,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1107,7 +1184,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1120,7 +1197,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1133,7 +1210,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1146,7 +1223,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1159,7 +1236,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1172,7 +1249,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1185,7 +1262,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1198,7 +1275,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1211,7 +1288,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1224,7 +1301,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1239,25 +1316,18 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        Operator operator = new Operator(this.type, resultParams, this.precise);
+        Operator operator = this.withParams(resultParams);
 
-        // Mittels Reflection die passende Ausführmethode ermittln (durch Vergleich der Annotation).
-        Method[] methods = Operator.class.getDeclaredMethods();
-        SimplifyOperator annotation;
-        for (Method method : methods) {
-            annotation = method.getAnnotation(SimplifyOperator.class);
-            if (annotation != null && annotation.type().equals(this.type)) {
-                try {
-                    return (Expression) method.invoke(operator);
-                } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                    if (e.getCause() instanceof EvaluationException) {
-                        throw (EvaluationException) e.getCause();
-                    }
-                    if (e.getCause() instanceof CancellationException) {
-                        throw (CancellationException) e.getCause();
-                    }
-                    throw new EvaluationException(Translator.translateOutputMessage("EB_Operator_INVALID_OPERATOR"));
-                }
+        // Die passende Ausführmethode aus der beim Laden der Klasse erstellten Tabelle holen.
+        MethodHandle simplifyMethod = SIMPLIFY_METHODS.get(this.type);
+        if (simplifyMethod != null) {
+            try {
+                return thisIfEqual((Expression) simplifyMethod.invokeExact(operator));
+            } catch (EvaluationException | CancellationException e) {
+                throw e;
+            } catch (Throwable e) {
+                // Wie bisher bei Method.invoke() führen alle anderen Fehler zu einer EvaluationException.
+                throw new EvaluationException(Translator.deferredMessage("EB_Operator_INVALID_OPERATOR"));
             }
         }
 
@@ -1293,7 +1363,7 @@ public class Operator extends Expression {
             }
             // Den Wert der lokalen Variable wiederherstellen.
             Variable.setPreciseExpression(localVar, valueOfLocalVar);
-            return new Operator(this.type, paramsEvaluated, this.precise);
+            return this.withParams(paramsEvaluated);
 
         }
 
@@ -1305,7 +1375,7 @@ public class Operator extends Expression {
                 paramsEvaluated[i] = this.params[i];
             }
         }
-        return new Operator(this.type, paramsEvaluated, this.precise);
+        return this.withParams(paramsEvaluated);
     }
 
     /**
@@ -1402,7 +1472,7 @@ public class Operator extends Expression {
             argumentRoundedDown = ((Constant) argument).getBigIntValue();
             // Nur Fakultäten mit Argument <= einer bestimmten Schranke werden explizit ausgeben.
             if (argumentRoundedDown.compareTo(BigInteger.ZERO) < 0) {
-                throw new EvaluationException(Translator.translateOutputMessage("EB_Operator_FACULTIES_OF_NEGATIVE_INTEGERS_UNDEFINED"));
+                throw new EvaluationException(Translator.deferredMessage("EB_Operator_FACULTIES_OF_NEGATIVE_INTEGERS_UNDEFINED"));
             }
             if (argumentRoundedDown.compareTo(BigInteger.valueOf(ComputationBounds.BOUND_ARITHMETIC_MAX_INTEGER_FACTORIAL)) <= 0) {
                 Constant result = new Constant(ArithmeticUtils.factorial(argumentRoundedDown.intValue()));
@@ -1452,7 +1522,7 @@ public class Operator extends Expression {
             if (arguments[i].isIntegerConstant()) {
                 integerArguments.add(((Constant) arguments[i]).getBigIntValue());
             } else if (arguments[i].isConstant() && !isIntegerValuedArithmeticExpression(arguments[i])) {
-                throw new EvaluationException(Translator.translateOutputMessage("EB_Operator_GENERAL_PARAMETER_IN_GCD_IS_NOT_INTEGER", i + 1));
+                throw new EvaluationException(Translator.deferredMessage("EB_Operator_GENERAL_PARAMETER_IN_GCD_IS_NOT_INTEGER", i + 1));
             }
         }
 
@@ -1559,7 +1629,7 @@ public class Operator extends Expression {
             if (arguments[i].isIntegerConstant()) {
                 integerArguments.add(((Constant) arguments[i]).getBigIntValue());
             } else if (arguments[i].isConstant() && !isIntegerValuedArithmeticExpression(arguments[i])) {
-                throw new EvaluationException(Translator.translateOutputMessage("EB_Operator_GENERAL_PARAMETER_IN_LCM_IS_NOT_INTEGER", i + 1));
+                throw new EvaluationException(Translator.deferredMessage("EB_Operator_GENERAL_PARAMETER_IN_LCM_IS_NOT_INTEGER", i + 1));
             }
         }
 
@@ -1655,7 +1725,7 @@ public class Operator extends Expression {
             if (arguments[i].isIntegerConstant()) {
                 integerArguments.add(((Constant) arguments[i]).getBigIntValue());
             } else if (arguments[i].isConstant() && !isIntegerValuedArithmeticExpression(arguments[i])) {
-                throw new EvaluationException(Translator.translateOutputMessage("EB_Operator_GENERAL_PARAMETER_IN_MOD_IS_NOT_INTEGER", i + 1));
+                throw new EvaluationException(Translator.deferredMessage("EB_Operator_GENERAL_PARAMETER_IN_MOD_IS_NOT_INTEGER", i + 1));
             }
         }
 
@@ -1668,7 +1738,7 @@ public class Operator extends Expression {
             return ZERO;
         }
         if (isIntegerValuedArithmeticExpression(arguments[1]) && arguments[1].isAlwaysNegative()) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_ArithmeticMethods_SECOND_PARAMETER_IN_MOD_IS_NON_POSITIVE"));
+            throw new EvaluationException(Translator.deferredMessage("CC_ArithmeticMethods_SECOND_PARAMETER_IN_MOD_IS_NON_POSITIVE"));
         }
 
         return new Operator(this.type, arguments);
@@ -1689,7 +1759,7 @@ public class Operator extends Expression {
             if (arguments[i].isIntegerConstant()) {
                 integerArguments.add(((Constant) arguments[i]).getBigIntValue());
             } else if (arguments[i].isConstant() && !isIntegerValuedArithmeticExpression(arguments[i])) {
-                throw new EvaluationException(Translator.translateOutputMessage("EB_Operator_GENERAL_PARAMETER_IN_MODPOW_IS_NOT_INTEGER", i + 1));
+                throw new EvaluationException(Translator.deferredMessage("EB_Operator_GENERAL_PARAMETER_IN_MODPOW_IS_NOT_INTEGER", i + 1));
             }
         }
 
@@ -1705,7 +1775,7 @@ public class Operator extends Expression {
         Expression exponent = arguments[1];
 
         if (!isIntegerValuedArithmeticExpression(base.pow(exponent))) {
-            throw new EvaluationException(Translator.translateOutputMessage("EB_Operator_FIRST_EXPRESSION_IN_MODPOW_IS_NOT_INTEGER",
+            throw new EvaluationException(Translator.deferredMessage("EB_Operator_FIRST_EXPRESSION_IN_MODPOW_IS_NOT_INTEGER",
                     base.pow(exponent)));
         }
 
@@ -1969,7 +2039,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1982,7 +2052,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -1995,7 +2065,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -2008,7 +2078,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -2021,7 +2091,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -2034,7 +2104,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -2047,7 +2117,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -2060,7 +2130,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -2073,7 +2143,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -2086,7 +2156,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -2099,7 +2169,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
     @Override
@@ -2112,7 +2182,7 @@ public class Operator extends Expression {
                 resultParams[i] = this.params[i];
             }
         }
-        return new Operator(this.type, resultParams, this.precise);
+        return this.withParams(resultParams);
     }
 
 }
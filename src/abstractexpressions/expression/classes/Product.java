@@ -0,0 +1,229 @@
+package abstractexpressions.expression.classes;
+
+import exceptions.EvaluationException;
+import java.math.BigDecimal;
+
+/**
+ * Produkt aus beliebig vielen Faktoren (siehe NaryOperation). Nach außen
+ * verhält sich ein Product wie die entsprechende Kette von BinaryOperations
+ * vom Typ TypeBinary.TIMES.
+ */
+public class Product extends NaryOperation {
+
+    /**
+     * Produkt der gegebenen (mindestens zwei) Faktoren. Ist leftNested == true,
+     * so entspricht es ((a_0 * a_1) * a_2) * ..., sonst a_0 * (a_1 * (a_2 *
+     * ...)).
+     */
+    public Product(Expression[] factors, boolean leftNested) {
+        this(Sum.checkOperands(factors), 0, factors.length, leftNested);
+    }
+
+    Product(Expression[] factors, int from, int to, boolean leftNested) {
+        super(TypeBinary.TIMES, factors, from, to, leftNested);
+    }
+
+    private Product(Expression[] factors, int from, int to, boolean leftNested, Expression left, Expression right) {
+        super(TypeBinary.TIMES, factors, from, to, leftNested, left, right);
+    }
+
+    @Override
+    NaryOperation create(Expression[] factors, int from, int to) {
+        return new Product(factors, from, to, isLeftNested());
+    }
+
+    @Override
+    NaryOperation createPart(int from, int to, Expression left, Expression right) {
+        return new Product(getOperands(), from, to, isLeftNested(), left, right);
+    }
+
+    public int getNumberOfFactors() {
+        return getNumberOfOperands();
+    }
+
+    public Expression getFactor(int i) {
+        return getOperand(i);
+    }
+
+    @Override
+    double evaluate(double valueLeft, double valueRight) throws EvaluationException {
+        if (Double.isNaN(valueLeft) || Double.isInfinite(valueLeft) || Double.isNaN(valueRight) || Double.isInfinite(valueRight)) {
+            throw undefinedValue();
+        }
+        if (Double.isNaN(valueLeft * valueRight) || Double.isInfinite(valueLeft * valueRight)) {
+            throw undefinedValue();
+        }
+        return valueLeft * valueRight;
+    }
+
+    @Override
+    public Expression diff(String var) throws EvaluationException {
+
+        if (isIndependentOf(this, var)) {
+            return Expression.ZERO;
+        }
+
+        /*
+         Produktregel Ebene für Ebene wie für die binäre Darstellung:
+         (f*g)' = f'*g + f*g'. Die Faktoren werden in ihrer Reihenfolge
+         abgeleitet.
+         */
+        Expression[] derivatives = diffOperands(var);
+        Expression[] parts = getPartsByLevel();
+        int lastLevel = getNumberOfOperands() - 1;
+        Expression derivative = derivatives[isLeftNested() ? 0 : lastLevel];
+        for (int level = 1; level <= lastLevel; level++) {
+            Expression factor = getOperandOfLevel(level);
+            Expression derivativeOfFactor = derivatives[isLeftNested() ? level : lastLevel - level];
+            if (isIndependentOf(parts[level], var)) {
+                derivative = Expression.ZERO;
+            } else if (isLeftNested()) {
+                derivative = derivative.mult(factor).add(parts[level - 1].mult(derivativeOfFactor));
+            } else {
+                derivative = derivativeOfFactor.mult(parts[level - 1]).add(factor.mult(derivative));
+            }
+        }
+        return derivative;
+
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder text = new StringBuilder();
+        int last = getNumberOfOperands() - 1;
+        if (isLeftNested()) {
+            appendFactorAsLeftOperand(text, getOperand(0));
+            appendFactorAsRightOperand(text, getOperand(1));
+            for (int i = 2; i <= last; i++) {
+                text.append("*");
+                appendFactorAsRightOperand(text, getOperand(i));
+            }
+            return text.toString();
+        }
+
+        /*
+         Rechts geklammert: Die Teilketten sind Produkte, die genau dann mit
+         einem Minuszeichen beginnen (und dann geklammert werden), wenn ihr
+         erster Faktor dies tut.
+         */
+        int numberOfOpenBrackets = 0;
+        for (int i = 0; i < last; i++) {
+            appendFactorAsLeftOperand(text, getOperand(i));
+            if (i < last - 1 && getOperand(i + 1).doesExpressionStartWithAMinusSign()) {
+                text.append("(");
+                numberOfOpenBrackets++;
+            }
+        }
+        appendFactorAsRightOperand(text, getOperand(last));
+        for (int i = 0; i < numberOfOpenBrackets; i++) {
+            text.append(")");
+        }
+        return text.toString();
+
+    }
+
+    private static void appendFactorAsLeftOperand(StringBuilder text, Expression factor) {
+        if (factor.isSum() || factor.isDifference()) {
+            text.append("(").append(factor.toString()).append(")*");
+        } else if (factor instanceof Constant
+                && ((Constant) factor).getValue().compareTo(BigDecimal.valueOf(-1)) == 0) {
+            // Ausnahmefall: Der Ausdruck fängt mit einem - an.
+            text.append("-");
+        } else {
+            text.append(factor.toString()).append("*");
+        }
+    }
+
+    private static void appendFactorAsRightOperand(StringBuilder text, Expression factor) {
+        if (factor.doesExpressionStartWithAMinusSign() || factor.isSum() || factor.isDifference()) {
+            text.append("(").append(factor.toString()).append(")");
+        } else {
+            text.append(factor.toString());
+        }
+    }
+
+    @Override
+    public String expressionToLatex() {
+
+        StringBuilder latex = new StringBuilder();
+        int last = getNumberOfOperands() - 1;
+        if (isLeftNested()) {
+            appendLatexOfLeftOperand(latex, getOperand(0));
+            appendLatexOfRightOperand(latex, getOperand(1), getOperand(0).equals(Expression.MINUS_ONE));
+            for (int i = 2; i <= last; i++) {
+                latex.append(" \\cdot ");
+                appendLatexOfRightOperand(latex, getOperand(i), false);
+            }
+        } else {
+            // Rechts geklammert: Die Teilketten sind weder Summen noch Differenzen.
+            for (int i = 0; i < last; i++) {
+                appendLatexOfLeftOperand(latex, getOperand(i));
+            }
+            appendLatexOfRightOperand(latex, getOperand(last), getOperand(last - 1).equals(Expression.MINUS_ONE));
+        }
+        return latex.toString();
+
+    }
+
+    private static void appendLatexOfLeftOperand(StringBuilder latex, Expression factor) {
+        if (factor.equals(Expression.MINUS_ONE)) {
+            //(-1)*a soll als -a ausgegeben werden.
+            latex.append("-");
+        } else if (factor.isSum() || factor.isDifference()) {
+            latex.append("\\left(").append(factor.expressionToLatex()).append("\\right) \\cdot ");
+        } else {
+            latex.append(factor.expressionToLatex()).append(" \\cdot ");
+        }
+    }
+
+    private static void appendLatexOfRightOperand(StringBuilder latex, Expression factor, boolean afterMinusSign) {
+        if (afterMinusSign && (factor.isSum() || factor.isDifference())) {
+            // Hier noch zusätzliche Klammern um den rechten Faktor.
+            latex.append("(").append(factor.expressionToLatex()).append(")");
+        } else if (!afterMinusSign && (factor.isSum() || factor.isDifference())) {
+            latex.append("\\left(").append(factor.expressionToLatex()).append("\\right)");
+        } else {
+            latex.append(factor.expressionToLatex());
+        }
+    }
+
+    @Override
+    public boolean doesExpressionStartWithAMinusSign() {
+        return getOperand(0).doesExpressionStartWithAMinusSign();
+    }
+
+    @Override
+    public boolean hasPositiveSign() {
+        boolean positiveSign = getOperand(0).hasPositiveSign();
+        for (int i = 1; i < getNumberOfOperands(); i++) {
+            positiveSign = positiveSign == getOperand(i).hasPositiveSign();
+        }
+        return positiveSign;
+    }
+
+    @Override
+    Signs combineSigns(Signs left, Signs right, boolean withAlwaysSigns) {
+        Signs signs = new Signs();
+        signs.setValue(this, left, right);
+        if (signs.constant) {
+            signs.nonNegative = signs.defined ? signs.value >= 0
+                    : left.nonNegative && right.nonNegative || left.nonPositive && right.nonPositive;
+            signs.nonPositive = signs.defined ? signs.value <= 0
+                    : left.nonNegative && right.nonPositive || left.nonPositive && right.nonNegative;
+        }
+        if (withAlwaysSigns) {
+            // Eine Teilkette ist nie gleich 0, also ist isPositive() gleich isNonNegative().
+            signs.alwaysNonNegative = signs.nonNegative || left.alwaysNonNegative && right.alwaysNonNegative
+                    || left.alwaysNonPositive && right.alwaysNonPositive;
+            signs.alwaysPositive = signs.nonNegative || left.alwaysPositive && right.alwaysPositive
+                    || left.alwaysNegative && right.alwaysNegative;
+            signs.alwaysNonPositive = signs.nonPositive || left.alwaysNonNegative && right.alwaysNonPositive
+                    || left.alwaysNonPositive && right.alwaysNonNegative;
+            signs.alwaysNegative = signs.nonPositive || left.alwaysNegative && right.alwaysPositive
+                    || left.alwaysPositive && right.alwaysNegative;
+        }
+        return signs;
+    }
+
+}
@@ -0,0 +1,409 @@
+package abstractexpressions.expression.classes;
+
+import exceptions.ExpressionException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import lang.translator.Translator;
+
+/**
+ * Erzeugt Ausdrücke direkt aus Bäumen in Präfixnotation, etwa aus
+ * S-Ausdrücken wie (+ (* a b) (/ c d)) oder aus Tokenfolgen wie + * a b / c d,
+ * sowie aus Tokenfolgen in Postfixnotation wie a b * c d / +. Solche Bäume
+ * müssen somit nicht erst in Infixnotation umgewandelt und mittels
+ * Expression.build() gelesen werden.<br>
+ * Alle Methoden arbeiten iterativ, so dass die Tiefe der Bäume nicht durch die
+ * Größe des Stacks beschränkt ist.<br>
+ * Welche Symbole welchen Knoten entsprechen, kann mittels
+ * mapBinaryOperation(), mapFunction(), mapNegation(), mapTerminal() und (für
+ * beliebige Teilbäume) mapNode() festgelegt werden. Voreingestellt sind +, -,
+ * *, /, ^ (sowie add, sub, mul, div, pow), die Namen aller Funktionen aus
+ * TypeFunction (sowie log = ln und pexp = exp) und neg. Von den geschützten
+ * Operationen der genetischen Programmierung sind plog(x) = ln(|x|) und
+ * psqrt(x) = sqrt(|x|) voreingestellt. Für %, pdiv und ppow gibt es keine
+ * Voreinstellung, da sich deren geschützte Werte (etwa x % 0 = 1) nicht mit
+ * den vorhandenen Knoten darstellen lassen. Wer sie etwa als gewöhnliche
+ * Division auffassen möchte, muss dies daher ausdrücklich festlegen. Zahlen
+ * werden exakt (als BigDecimal) übernommen. Alle übrigen Symbole müssen
+ * zulässige Variablennamen (siehe Expression.VALIDATOR) oder pi sein.<br>
+ * Ein SExpressionBuilder darf nicht von mehreren Threads gleichzeitig
+ * verändert werden.
+ */
+public final class SExpressionBuilder {
+
+    private static final String EB_SExpressionBuilder_EXPRESSION_EMPTY_OR_INCOMPLETE = "EB_SExpressionBuilder_EXPRESSION_EMPTY_OR_INCOMPLETE";
+    private static final String EB_SExpressionBuilder_WRONG_BRACKETS = "EB_SExpressionBuilder_WRONG_BRACKETS";
+    private static final String EB_SExpressionBuilder_TOO_MANY_EXPRESSIONS = "EB_SExpressionBuilder_TOO_MANY_EXPRESSIONS";
+    private static final String EB_SExpressionBuilder_UNKNOWN_SYMBOL = "EB_SExpressionBuilder_UNKNOWN_SYMBOL";
+    private static final String EB_SExpressionBuilder_WRONG_NUMBER_OF_ARGUMENTS = "EB_SExpressionBuilder_WRONG_NUMBER_OF_ARGUMENTS";
+
+    /**
+     * Erzeugt den Knoten zu einem mittels mapNode() zugeordneten Symbol aus
+     * dessen Argumenten.
+     */
+    public interface NodeFactory {
+
+        Expression build(Expression[] arguments) throws ExpressionException;
+
+    }
+
+    private static final class MappedNode {
+
+        private final int arity;
+        private final NodeFactory factory;
+
+        private MappedNode(int arity, NodeFactory factory) {
+            this.arity = arity;
+            this.factory = factory;
+        }
+
+    }
+
+    private final HashMap<String, TypeBinary> binaryOperations = new HashMap<>();
+    private final HashMap<String, TypeFunction> functions = new HashMap<>();
+    private final HashSet<String> negations = new HashSet<>();
+    private final HashMap<String, Expression> terminals = new HashMap<>();
+    private final HashMap<String, MappedNode> nodes = new HashMap<>();
+
+    public SExpressionBuilder() {
+        mapBinaryOperation("+", TypeBinary.PLUS).mapBinaryOperation("add", TypeBinary.PLUS);
+        mapBinaryOperation("-", TypeBinary.MINUS).mapBinaryOperation("sub", TypeBinary.MINUS);
+        mapBinaryOperation("*", TypeBinary.TIMES).mapBinaryOperation("mul", TypeBinary.TIMES);
+        mapBinaryOperation("/", TypeBinary.DIV).mapBinaryOperation("div", TypeBinary.DIV);
+        mapBinaryOperation("^", TypeBinary.POW).mapBinaryOperation("pow", TypeBinary.POW);
+        for (TypeFunction type : TypeFunction.values()) {
+            mapFunction(type.toString(), type);
+        }
+        mapFunction("log", TypeFunction.ln).mapFunction("pexp", TypeFunction.exp);
+        mapNegation("neg");
+        mapNode("plog", 1, new NodeFactory() {
+
+            @Override
+            public Expression build(Expression[] arguments) {
+                return new Function(new Function(arguments[0], TypeFunction.abs), TypeFunction.ln);
+            }
+
+        });
+        mapNode("psqrt", 1, new NodeFactory() {
+
+            @Override
+            public Expression build(Expression[] arguments) {
+                return new Function(arguments[0], TypeFunction.abs).pow(Expression.ONE.div(Expression.TWO));
+            }
+
+        });
+    }
+
+    /**
+     * Ordnet dem Symbol symbol die Binäroperation vom Typ type zu. Mit mehr
+     * als zwei Argumenten wird von links nach rechts zusammengefasst, d.h. (-
+     * a b c) = (a - b) - c. Mit einem Argument ist (+ a) = a und (- a) = -a.
+     */
+    public SExpressionBuilder mapBinaryOperation(String symbol, TypeBinary type) {
+        removeMapping(symbol);
+        this.binaryOperations.put(symbol, type);
+        return this;
+    }
+
+    /**
+     * Ordnet dem Symbol symbol die Funktion vom Typ type zu. Die Wurzel wird
+     * (wie in Expression.build()) als (...)^(1/2) aufgefasst.
+     */
+    public SExpressionBuilder mapFunction(String symbol, TypeFunction type) {
+        removeMapping(symbol);
+        this.functions.put(symbol, type);
+        return this;
+    }
+
+    /**
+     * Legt fest, dass das Symbol symbol für das Negieren seines (einzigen)
+     * Arguments steht.
+     */
+    public SExpressionBuilder mapNegation(String symbol) {
+        removeMapping(symbol);
+        this.negations.add(symbol);
+        return this;
+    }
+
+    /**
+     * Ordnet dem Symbol symbol den Ausdruck expr als Blatt zu, etwa x0 der
+     * Variablen x_0.
+     */
+    public SExpressionBuilder mapTerminal(String symbol, Expression expr) {
+        removeMapping(symbol);
+        this.terminals.put(symbol, expr);
+        return this;
+    }
+
+    /**
+     * Ordnet dem Symbol symbol einen Knoten mit genau arity Argumenten zu,
+     * welcher von factory erzeugt wird. Damit lassen sich Symbole auf ganze
+     * Teilbäume abbilden, etwa (plog x) auf ln(|x|).
+     */
+    public SExpressionBuilder mapNode(String symbol, int arity, NodeFactory factory) {
+        removeMapping(symbol);
+        this.nodes.put(symbol, new MappedNode(arity, factory));
+        return this;
+    }
+
+    private void removeMapping(String symbol) {
+        this.binaryOperations.remove(symbol);
+        this.functions.remove(symbol);
+        this.negations.remove(symbol);
+        this.terminals.remove(symbol);
+        this.nodes.remove(symbol);
+    }
+
+    /**
+     * Erzeugt den Ausdruck zum S-Ausdruck sExpression, etwa zu (+ (* a b) (/ c
+     * d)). Ein S-Ausdruck ist entweder ein Blatt oder eine Liste (symbol
+     * arg_1 ... arg_n), deren Argumente wieder S-Ausdrücke sind.
+     *
+     * @throws ExpressionException
+     */
+    public Expression buildFromSExpression(String sExpression) throws ExpressionException {
+
+        // Jede offene Liste enthält ihr Symbol (als String) und die bereits gelesenen Argumente.
+        ArrayDeque<ArrayList<Object>> openLists = new ArrayDeque<>();
+        Expression result = null;
+        int length = sExpression.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = sExpression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            Expression completedExpr;
+            if (c == '(') {
+                if (!openLists.isEmpty() && openLists.peek().isEmpty()) {
+                    // Das Symbol einer Liste muss ein Blatt sein.
+                    throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_WRONG_BRACKETS));
+                }
+                openLists.push(new ArrayList<>());
+                i++;
+                continue;
+            } else if (c == ')') {
+                if (openLists.isEmpty() || openLists.peek().isEmpty()) {
+                    throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_WRONG_BRACKETS));
+                }
+                ArrayList<Object> list = openLists.pop();
+                ArrayList<Expression> arguments = new ArrayList<>(list.size() - 1);
+                for (int k = 1; k < list.size(); k++) {
+                    arguments.add((Expression) list.get(k));
+                }
+                completedExpr = buildNode((String) list.get(0), arguments);
+                i++;
+            } else {
+                int start = i;
+                while (i < length && sExpression.charAt(i) != '(' && sExpression.charAt(i) != ')'
+                        && !Character.isWhitespace(sExpression.charAt(i))) {
+                    i++;
+                }
+                String symbol = sExpression.substring(start, i);
+                if (!openLists.isEmpty() && openLists.peek().isEmpty()) {
+                    openLists.peek().add(symbol);
+                    continue;
+                }
+                completedExpr = buildTerminal(symbol);
+            }
+            if (!openLists.isEmpty()) {
+                openLists.peek().add(completedExpr);
+            } else if (result == null) {
+                result = completedExpr;
+            } else {
+                throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_TOO_MANY_EXPRESSIONS));
+            }
+        }
+
+        if (!openLists.isEmpty()) {
+            throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_WRONG_BRACKETS));
+        }
+        if (result == null) {
+            throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_EXPRESSION_EMPTY_OR_INCOMPLETE));
+        }
+        return result;
+
+    }
+
+    /**
+     * Erzeugt den Ausdruck zur Tokenfolge tokens in Präfixnotation, etwa zu +
+     * * a b / c d. Binäroperationen besitzen hier stets zwei Argumente,
+     * Funktionen und Negationen eines.
+     *
+     * @throws ExpressionException
+     */
+    public Expression buildFromPrefix(String[] tokens) throws ExpressionException {
+        // Von hinten gelesen ist die Präfixnotation eine Postfixnotation mit vertauschten Argumenten.
+        ArrayDeque<Expression> operands = new ArrayDeque<>();
+        for (int i = tokens.length - 1; i >= 0; i--) {
+            int arity = getArity(tokens[i]);
+            if (arity == 0) {
+                operands.push(buildTerminal(tokens[i]));
+                continue;
+            }
+            ArrayList<Expression> arguments = new ArrayList<>(arity);
+            for (int k = 0; k < arity; k++) {
+                arguments.add(popOperand(operands));
+            }
+            operands.push(buildNode(tokens[i], arguments));
+        }
+        return getSingleOperand(operands);
+    }
+
+    /**
+     * Erzeugt den Ausdruck zur Tokenfolge tokens in Postfixnotation, etwa zu a
+     * b * c d / +. Binäroperationen besitzen hier stets zwei Argumente,
+     * Funktionen und Negationen eines.
+     *
+     * @throws ExpressionException
+     */
+    public Expression buildFromPostfix(String[] tokens) throws ExpressionException {
+        ArrayDeque<Expression> operands = new ArrayDeque<>();
+        for (String token : tokens) {
+            int arity = getArity(token);
+            if (arity == 0) {
+                operands.push(buildTerminal(token));
+                continue;
+            }
+            Expression[] arguments = new Expression[arity];
+            for (int k = arity - 1; k >= 0; k--) {
+                arguments[k] = popOperand(operands);
+            }
+            ArrayList<Expression> argumentList = new ArrayList<>(arity);
+            for (Expression argument : arguments) {
+                argumentList.add(argument);
+            }
+            operands.push(buildNode(token, argumentList));
+        }
+        return getSingleOperand(operands);
+    }
+
+    private int getArity(String symbol) {
+        if (this.binaryOperations.containsKey(symbol)) {
+            return 2;
+        }
+        if (this.functions.containsKey(symbol) || this.negations.contains(symbol)) {
+            return 1;
+        }
+        MappedNode node = this.nodes.get(symbol);
+        if (node != null) {
+            return node.arity;
+        }
+        return 0;
+    }
+
+    private static Expression popOperand(ArrayDeque<Expression> operands) throws ExpressionException {
+        if (operands.isEmpty()) {
+            throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_EXPRESSION_EMPTY_OR_INCOMPLETE));
+        }
+        return operands.pop();
+    }
+
+    private static Expression getSingleOperand(ArrayDeque<Expression> operands) throws ExpressionException {
+        if (operands.isEmpty()) {
+            throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_EXPRESSION_EMPTY_OR_INCOMPLETE));
+        }
+        if (operands.size() > 1) {
+            throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_TOO_MANY_EXPRESSIONS));
+        }
+        return operands.pop();
+    }
+
+    /**
+     * Erzeugt den Knoten zum Symbol symbol mit den Argumenten arguments.
+     *
+     * @throws ExpressionException
+     */
+    private Expression buildNode(String symbol, ArrayList<Expression> arguments) throws ExpressionException {
+
+        TypeBinary typeBinary = this.binaryOperations.get(symbol);
+        if (typeBinary != null) {
+            if (arguments.size() == 1 && typeBinary.equals(TypeBinary.PLUS)) {
+                return arguments.get(0);
+            }
+            if (arguments.size() == 1 && typeBinary.equals(TypeBinary.MINUS)) {
+                return Expression.negateBuiltExpression(arguments.get(0));
+            }
+            if (arguments.size() < 2) {
+                throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_WRONG_NUMBER_OF_ARGUMENTS, symbol, 2));
+            }
+            // Wie im Parser werden Summen und Produkte als (links geklammerte) Sum bzw. Product gebildet.
+            if (typeBinary.equals(TypeBinary.PLUS)) {
+                return new Sum(arguments.toArray(new Expression[arguments.size()]), true);
+            }
+            if (typeBinary.equals(TypeBinary.TIMES)) {
+                return new Product(arguments.toArray(new Expression[arguments.size()]), true);
+            }
+            Expression result = arguments.get(0);
+            for (int i = 1; i < arguments.size(); i++) {
+                result = new BinaryOperation(result, arguments.get(i), typeBinary);
+            }
+            return result;
+        }
+
+        TypeFunction typeFunction = this.functions.get(symbol);
+        if (typeFunction != null || this.negations.contains(symbol)) {
+            if (arguments.size() != 1) {
+                throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_WRONG_NUMBER_OF_ARGUMENTS, symbol, 1));
+            }
+            if (typeFunction == null) {
+                return Expression.negateBuiltExpression(arguments.get(0));
+            }
+            if (typeFunction.equals(TypeFunction.sqrt)) {
+                // Die Wurzel wird intern sofort als (...)^(1/2) aufgefasst.
+                return arguments.get(0).pow(Expression.ONE.div(Expression.TWO));
+            }
+            return new Function(arguments.get(0), typeFunction);
+        }
+
+        MappedNode node = this.nodes.get(symbol);
+        if (node != null) {
+            if (arguments.size() != node.arity) {
+                throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_WRONG_NUMBER_OF_ARGUMENTS, symbol, node.arity));
+            }
+            return node.factory.build(arguments.toArray(new Expression[arguments.size()]));
+        }
+
+        // Ein geklammertes Blatt wie (x) ist das Blatt selbst.
+        if (arguments.isEmpty()) {
+            return buildTerminal(symbol);
+        }
+        throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_UNKNOWN_SYMBOL, symbol));
+
+    }
+
+    /**
+     * Erzeugt das Blatt zum Symbol symbol.
+     *
+     * @throws ExpressionException
+     */
+    private Expression buildTerminal(String symbol) throws ExpressionException {
+        Expression terminal = this.terminals.get(symbol);
+        if (terminal != null) {
+            return terminal;
+        }
+        MappedNode node = this.nodes.get(symbol);
+        if (node != null && node.arity == 0) {
+            return node.factory.build(new Expression[0]);
+        }
+        if (!symbol.isEmpty() && (symbol.charAt(0) >= '0' && symbol.charAt(0) <= '9'
+                || symbol.charAt(0) == '.' || symbol.charAt(0) == '-' || symbol.charAt(0) == '+')) {
+            try {
+                return new Constant(new BigDecimal(symbol));
+            } catch (NumberFormatException e) {
+            }
+        }
+        if (Expression.VALIDATOR.isValidIdentifier(symbol)) {
+            return Variable.create(symbol);
+        }
+        if (Expression.isPI(symbol)) {
+            return Variable.create(symbol, Math.PI);
+        }
+        throw new ExpressionException(Translator.translateOutputMessage(EB_SExpressionBuilder_UNKNOWN_SYMBOL, symbol));
+    }
+
+}
@@ -6,15 +6,16 @@ import exceptions.EvaluationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import lang.translator.Translator;
+import process.CasSession;
 
 public class SelfDefinedFunction extends Expression {
 
-    // Tabelle für Funktionsname <-> abstrakte Funktionsterme für Funktionen
-    private static HashMap<String, Expression> abstractExpressionsForSelfDefinedFunctions = new HashMap<>();
-    // Tabelle für Funktionsname <-> Funktionsterme für abstrakte Variablen
-    private static HashMap<String, Expression[]> innerExpressionsForSelfDefinedFunctions = new HashMap<>();
-    // Tabelle für Funktionsname <-> Funktionsargumente
-    private static HashMap<String, String[]> argumentsForSelfDefinedFunctions = new HashMap<>();
+    /*
+     Die Tabellen Funktionsname <-> abstrakte Funktionsterme für Funktionen,
+     Funktionsname <-> Funktionsterme für abstrakte Variablen und
+     Funktionsname <-> Funktionsargumente gehören zur Sitzung des aktuellen
+     Threads (siehe CasSession).
+     */
     /*
      Beispiel: Die Funktionen f(x, y) = x + y und g(x, y, z) = x^2*y-z liefern
      folgende Tabellen: abstractExpressionsForSelfDefinedFunctions {f ->
@@ -90,16 +91,33 @@ public class SelfDefinedFunction extends Expression {
         this.left = left;
     }
 
+    /**
+     * Gibt die selbstdefinierte Funktion mit dem abstrakten Ausdruck
+     * abstractExpression und den Argumenten left zurück. Sind diese mit denen
+     * der gegebenen Funktion identisch, so wird diese selbst zurückgegeben.
+     */
+    private SelfDefinedFunction withAbstractExpressionAndLeft(Expression abstractExpression, Expression[] left) {
+        if (abstractExpression != this.abstractExpression || left.length != this.left.length) {
+            return new SelfDefinedFunction(this.name, this.arguments, abstractExpression, left);
+        }
+        for (int i = 0; i < left.length; i++) {
+            if (left[i] != this.left[i]) {
+                return new SelfDefinedFunction(this.name, this.arguments, abstractExpression, left);
+            }
+        }
+        return this;
+    }
+
     public static HashMap<String, Expression> getAbstractExpressionsForSelfDefinedFunctions() {
-        return abstractExpressionsForSelfDefinedFunctions;
+        return CasSession.getCurrent().getAbstractExpressionsForSelfDefinedFunctions();
     }
 
     public static HashMap<String, Expression[]> getInnerExpressionsForSelfDefinedFunctions() {
-        return innerExpressionsForSelfDefinedFunctions;
+        return CasSession.getCurrent().getInnerExpressionsForSelfDefinedFunctions();
     }
 
     public static HashMap<String, String[]> getArgumentsForSelfDefinedFunctions() {
-        return argumentsForSelfDefinedFunctions;
+        return CasSession.getCurrent().getArgumentsForSelfDefinedFunctions();
     }
 
     public static void createSelfDefinedFunction(SelfDefinedFunction f) {
@@ -107,9 +125,10 @@ public class SelfDefinedFunction extends Expression {
          Falls eine Funktion mit demselben Namen bereits vorhanden ist, wird diese 
          überschrieben!
          */
-        abstractExpressionsForSelfDefinedFunctions.put(f.getName(), f.getAbstractExpression());
-        argumentsForSelfDefinedFunctions.put(f.getName(), f.getArguments());
-        innerExpressionsForSelfDefinedFunctions.put(f.getName(), f.getLeft());
+        CasSession session = CasSession.getCurrent();
+        session.getAbstractExpressionsForSelfDefinedFunctions().put(f.getName(), f.getAbstractExpression());
+        session.getArgumentsForSelfDefinedFunctions().put(f.getName(), f.getArguments());
+        session.getInnerExpressionsForSelfDefinedFunctions().put(f.getName(), f.getLeft());
     }
 
     /**
@@ -117,9 +136,10 @@ public class SelfDefinedFunction extends Expression {
      * vorhanden.
      */
     public static void removeSelfDefinedFunction(String f) {
-        abstractExpressionsForSelfDefinedFunctions.remove(f);
-        argumentsForSelfDefinedFunctions.remove(f);
-        innerExpressionsForSelfDefinedFunctions.remove(f);
+        CasSession session = CasSession.getCurrent();
+        session.getAbstractExpressionsForSelfDefinedFunctions().remove(f);
+        session.getArgumentsForSelfDefinedFunctions().remove(f);
+        session.getInnerExpressionsForSelfDefinedFunctions().remove(f);
     }
 
     @Override
@@ -128,8 +148,8 @@ public class SelfDefinedFunction extends Expression {
     }
 
     @Override
-    public double evaluate() throws EvaluationException {
-        return this.replaceSelfDefinedFunctionsByPredefinedFunctions().evaluate();
+    public double evaluate(EvaluationContext context) throws EvaluationException {
+        return this.replaceSelfDefinedFunctionsByPredefinedFunctions().evaluate(context);
     }
 
     @Override
@@ -276,7 +296,7 @@ public class SelfDefinedFunction extends Expression {
      */
     public Expression replaceAllVariables(Expression[] exprs) throws EvaluationException {
         if (this.arguments.length != exprs.length) {
-            throw new EvaluationException(Translator.translateOutputMessage("EB_SelfDefinedFunction_INCORRECT_NUMBER_OF_INSERTED_FUNCTIONS"));
+            throw new EvaluationException(Translator.deferredMessage("EB_SelfDefinedFunction_INCORRECT_NUMBER_OF_INSERTED_FUNCTIONS"));
         }
         Expression result = this.abstractExpression;
         for (int i = 0; i < exprs.length; i++) {
@@ -405,6 +425,20 @@ public class SelfDefinedFunction extends Expression {
 
     }
 
+    @Override
+    public int getStructuralHash() {
+        int hash = this.name.hashCode();
+        for (Expression argument : this.left) {
+            hash = 31 * hash + argument.getStructuralHash();
+        }
+        return hash;
+    }
+
+    @Override
+    public int getEquivalenceHash() {
+        return mixEquivalenceHash(this.name.hashCode());
+    }
+
     @Override
     public boolean equivalent(Expression expr) {
 
@@ -448,6 +482,15 @@ public class SelfDefinedFunction extends Expression {
         return length;
     }
 
+    @Override
+    public int getDepth() {
+        int depth = 0;
+        for (Expression argument : this.left) {
+            depth = Math.max(depth, argument.getDepth());
+        }
+        return depth + 1;
+    }
+
     @Override
     public int getMaximalNumberOfSummandsInExpansion() {
         return 1;
@@ -455,11 +498,12 @@ public class SelfDefinedFunction extends Expression {
 
     @Override
     public Expression simplifyBasic() throws EvaluationException {
+        // Der gegebene Ausdruck darf hierbei nicht verändert werden (siehe Expression.simplify()).
+        Expression[] resultLeft = new Expression[this.left.length];
         for (int i = 0; i < this.left.length; i++) {
-            this.left[i] = this.left[i].simplifyBasic();
+            resultLeft[i] = this.left[i].simplifyBasic();
         }
-        this.abstractExpression = this.abstractExpression.simplifyBasic();
-        return this.replaceAllVariables(left);
+        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyBasic(), resultLeft).replaceAllVariables(resultLeft);
     }
 
     @Override
@@ -473,7 +517,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyExpandRationalFactors();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyExpandRationalFactors(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyExpandRationalFactors(), resultLeft);
     }
 
     @Override
@@ -482,7 +526,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyExpand(type);
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyExpand(type), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyExpand(type), resultLeft);
     }
 
     @Override
@@ -491,7 +535,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyBringExpressionToCommonDenominator(type);
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyBringExpressionToCommonDenominator(type), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyBringExpressionToCommonDenominator(type), resultLeft);
     }
 
     @Override
@@ -500,7 +544,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyReduceDifferencesAndQuotientsAdvanced();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyReduceDifferencesAndQuotientsAdvanced(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyReduceDifferencesAndQuotientsAdvanced(), resultLeft);
     }
 
     @Override
@@ -509,7 +553,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).orderSumsAndProducts();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.orderSumsAndProducts(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.orderSumsAndProducts(), resultLeft);
     }
 
     @Override
@@ -518,7 +562,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).orderDifferencesAndQuotients();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.orderDifferencesAndQuotients(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.orderDifferencesAndQuotients(), resultLeft);
     }
 
     @Override
@@ -527,7 +571,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyCollectProducts();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyCollectProducts(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyCollectProducts(), resultLeft);
     }
 
     @Override
@@ -536,7 +580,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyFactorize();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyFactorize(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyFactorize(), resultLeft);
     }
 
     @Override
@@ -545,7 +589,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyFactorizeAllButRationalsInSums();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyFactorizeAllButRationalsInSums(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyFactorizeAllButRationalsInSums(), resultLeft);
     }
 
     @Override
@@ -554,7 +598,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyFactorizeAllButRationalsInDifferences();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyFactorizeAllButRationalsInDifferences(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyFactorizeAllButRationalsInDifferences(), resultLeft);
     }
 
     @Override
@@ -563,7 +607,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyFactorizeAllButRationals();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyFactorizeAllButRationals(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyFactorizeAllButRationals(), resultLeft);
     }
 
     @Override
@@ -572,7 +616,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyReduceQuotients();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyReduceQuotients(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyReduceQuotients(), resultLeft);
     }
 
     @Override
@@ -581,7 +625,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyFunctionalRelations();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyFunctionalRelations(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyFunctionalRelations(), resultLeft);
     }
 
     @Override
@@ -590,7 +634,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyExpandAndCollectEquivalentsIfShorter();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyExpandAndCollectEquivalentsIfShorter(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyExpandAndCollectEquivalentsIfShorter(), resultLeft);
     }
 
     @Override
@@ -599,7 +643,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyCollectLogarithms();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyCollectLogarithms(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyCollectLogarithms(), resultLeft);
     }
 
     @Override
@@ -608,7 +652,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyExpandLogarithms();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyExpandLogarithms(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyExpandLogarithms(), resultLeft);
     }
 
     @Override
@@ -617,7 +661,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyPullApartPowers();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyPullApartPowers(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyPullApartPowers(), resultLeft);
     }
 
     @Override
@@ -626,7 +670,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyMultiplyExponents();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyMultiplyExponents(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyMultiplyExponents(), resultLeft);
     }
 
     @Override
@@ -635,7 +679,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyReplaceExponentialFunctionsByDefinitions();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyReplaceExponentialFunctionsByDefinitions(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyReplaceExponentialFunctionsByDefinitions(), resultLeft);
     }
 
     @Override
@@ -644,7 +688,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(var);
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(var), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyReplaceExponentialFunctionsWithRespectToVariableByDefinitions(var), resultLeft);
     }
 
     @Override
@@ -653,7 +697,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyReplaceTrigonometricalFunctionsByDefinitions();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyReplaceTrigonometricalFunctionsByDefinitions(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyReplaceTrigonometricalFunctionsByDefinitions(), resultLeft);
     }
 
     @Override
@@ -662,7 +706,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(var);
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(var), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyReplaceTrigonometricalFunctionsWithRespectToVariableByDefinitions(var), resultLeft);
     }
 
     @Override
@@ -671,7 +715,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyExpandProductsOfComplexExponentialFunctions(var);
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyExpandProductsOfComplexExponentialFunctions(var), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyExpandProductsOfComplexExponentialFunctions(var), resultLeft);
     }
 
     @Override
@@ -680,7 +724,7 @@ public class SelfDefinedFunction extends Expression {
         for (int i = 0; i < this.left.length; i++) {
             resultLeft[i] = ((Expression) this.left[i]).simplifyAlgebraicExpressions();
         }
-        return new SelfDefinedFunction(this.name, this.arguments, this.abstractExpression.simplifyAlgebraicExpressions(), resultLeft);
+        return this.withAbstractExpressionAndLeft(this.abstractExpression.simplifyAlgebraicExpressions(), resultLeft);
     }
 
 }
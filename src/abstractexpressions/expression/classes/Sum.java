@@ -0,0 +1,133 @@
+package abstractexpressions.expression.classes;
+
+import exceptions.EvaluationException;
+
+/**
+ * Summe aus beliebig vielen Summanden (siehe NaryOperation). Nach außen
+ * verhält sich eine Sum wie die entsprechende Kette von BinaryOperations vom
+ * Typ TypeBinary.PLUS.
+ */
+public class Sum extends NaryOperation {
+
+    /**
+     * Summe der gegebenen (mindestens zwei) Summanden. Ist leftNested == true,
+     * so entspricht sie ((a_0 + a_1) + a_2) + ..., sonst a_0 + (a_1 + (a_2 +
+     * ...)).
+     */
+    public Sum(Expression[] summands, boolean leftNested) {
+        this(checkOperands(summands), 0, summands.length, leftNested);
+    }
+
+    Sum(Expression[] summands, int from, int to, boolean leftNested) {
+        super(TypeBinary.PLUS, summands, from, to, leftNested);
+    }
+
+    private Sum(Expression[] summands, int from, int to, boolean leftNested, Expression left, Expression right) {
+        super(TypeBinary.PLUS, summands, from, to, leftNested, left, right);
+    }
+
+    static Expression[] checkOperands(Expression[] operands) {
+        if (operands.length < 2) {
+            throw new IllegalArgumentException("At least two operands are required.");
+        }
+        return operands.clone();
+    }
+
+    @Override
+    NaryOperation create(Expression[] summands, int from, int to) {
+        return new Sum(summands, from, to, isLeftNested());
+    }
+
+    @Override
+    NaryOperation createPart(int from, int to, Expression left, Expression right) {
+        return new Sum(getOperands(), from, to, isLeftNested(), left, right);
+    }
+
+    public int getNumberOfSummands() {
+        return getNumberOfOperands();
+    }
+
+    public Expression getSummand(int i) {
+        return getOperand(i);
+    }
+
+    @Override
+    double evaluate(double valueLeft, double valueRight) throws EvaluationException {
+        if (Double.isNaN(valueLeft) || Double.isInfinite(valueLeft) || Double.isNaN(valueRight) || Double.isInfinite(valueRight)) {
+            throw undefinedValue();
+        }
+        if (Double.isNaN(valueLeft + valueRight) || Double.isInfinite(valueLeft + valueRight)) {
+            throw undefinedValue();
+        }
+        return valueLeft + valueRight;
+    }
+
+    @Override
+    public Expression diff(String var) throws EvaluationException {
+
+        if (isIndependentOf(this, var)) {
+            return Expression.ZERO;
+        }
+
+        // Wie die Ableitung der binären Darstellung: Summanden mit Ableitung 0 entfallen.
+        Expression[] derivatives = diffOperands(var);
+        int numberOfDerivatives = 0;
+        for (Expression derivative : derivatives) {
+            if (!derivative.equals(Expression.ZERO)) {
+                derivatives[numberOfDerivatives++] = derivative;
+            }
+        }
+        if (numberOfDerivatives == 0) {
+            return Expression.ZERO;
+        }
+        if (numberOfDerivatives == 1) {
+            return derivatives[0];
+        }
+        return create(derivatives, 0, numberOfDerivatives);
+
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(getOperand(0).toString());
+        for (int i = 1; i < getNumberOfOperands(); i++) {
+            // In der binären Darstellung ist nur der letzte Summand ein rechter Operand.
+            if (getOperand(i).doesExpressionStartWithAMinusSign() && (isLeftNested() || i == getNumberOfOperands() - 1)) {
+                text.append("+(").append(getOperand(i).toString()).append(")");
+            } else {
+                text.append("+").append(getOperand(i).toString());
+            }
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String expressionToLatex() {
+        StringBuilder latex = new StringBuilder(getOperand(0).expressionToLatex());
+        for (int i = 1; i < getNumberOfOperands(); i++) {
+            latex.append("+").append(getOperand(i).expressionToLatex());
+        }
+        return latex.toString();
+    }
+
+    @Override
+    Signs combineSigns(Signs left, Signs right, boolean withAlwaysSigns) {
+        Signs signs = new Signs();
+        signs.setValue(this, left, right);
+        if (signs.constant) {
+            signs.nonNegative = signs.defined ? signs.value >= 0 : left.nonNegative && right.nonNegative;
+            signs.nonPositive = signs.defined ? signs.value <= 0 : left.nonPositive && right.nonPositive;
+        }
+        if (withAlwaysSigns) {
+            // Eine Teilkette ist nie gleich 0, also ist isPositive() gleich isNonNegative().
+            signs.alwaysNonNegative = signs.nonNegative || left.alwaysNonNegative && right.alwaysNonNegative;
+            signs.alwaysPositive = signs.nonNegative || left.alwaysPositive && right.alwaysNonNegative
+                    || left.alwaysNonNegative && right.alwaysPositive;
+            signs.alwaysNonPositive = signs.nonPositive || left.alwaysNonPositive && right.alwaysNonPositive;
+            signs.alwaysNegative = signs.nonPositive || left.alwaysNegative && right.alwaysNonPositive
+                    || left.alwaysNonPositive && right.alwaysNegative;
+        }
+        return signs;
+    }
+
+}
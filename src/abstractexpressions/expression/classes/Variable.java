@@ -3,13 +3,17 @@ package abstractexpressions.expression.classes;
 import enums.TypeExpansion;
 import enums.TypeFractionSimplification;
 import exceptions.EvaluationException;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 import lang.translator.Translator;
 
 public class Variable extends Expression {
 
-    protected static HashMap<String, Variable> variables = new HashMap<>();
+    /*
+     Die Tabelle wird von mehreren Threads gleichzeitig benutzt, wenn mehrere
+     Ausdrücke parallel vereinfacht werden (etwa im Batch-Modus).
+     */
+    protected static ConcurrentHashMap<String, Variable> variables = new ConcurrentHashMap<>();
     protected String name;
     private double value;
     private Expression preciseExpression;
@@ -79,20 +83,32 @@ public class Variable extends Expression {
      * auf 0 gesetzt)
      */
     public static Variable create(String name) {
-        if (variables.containsKey(name)) {
-            return variables.get(name);
+        Variable existingVariable = variables.get(name);
+        if (existingVariable != null) {
+            return existingVariable;
         } else if (name.equals("pi")) {
-            Variable result = new Variable("pi", Math.PI);
-            variables.put(name, result);
-            return result;
+            return putIfAbsent(new Variable("pi", Math.PI));
         } else {
-            Variable result = new Variable(name, 0);
-            variables.put(name, result);
+            Variable result = putIfAbsent(new Variable(name, 0));
             setDependenceIfDependenceAlreadyExists(name);
             return result;
         }
     }
 
+    /**
+     * Trägt var in die Variablentabelle ein, falls dort unter diesem Namen
+     * noch keine Variable existiert, und gibt die dort eingetragene Variable
+     * zurück. Ist eine andere Variable mit demselben Namen zuvorgekommen (etwa
+     * durch einen anderen Thread), so wird diese zurückgegeben.
+     */
+    private static Variable putIfAbsent(Variable var) {
+        Variable existingVariable = variables.putIfAbsent(var.name, var);
+        if (existingVariable != null) {
+            return existingVariable;
+        }
+        return var;
+    }
+
     /**
      * Methode create: mit Wertzuweisung
      */
@@ -101,12 +117,9 @@ public class Variable extends Expression {
             variables.get(name).value = value;
             return variables.get(name);
         } else if (name.equals("pi")) {
-            Variable result = new Variable("pi", Math.PI);
-            variables.put(name, result);
-            return result;
+            return putIfAbsent(new Variable("pi", Math.PI));
         } else {
-            Variable result = new Variable(name, value);
-            variables.put(name, result);
+            Variable result = putIfAbsent(new Variable(name, value));
             setDependenceIfDependenceAlreadyExists(name);
             return result;
         }
@@ -120,12 +133,9 @@ public class Variable extends Expression {
             variables.get(name).preciseExpression = preciseExpression;
             return variables.get(name);
         } else if (name.equals("pi")) {
-            Variable result = new Variable("pi", Math.PI);
-            variables.put(name, result);
-            return result;
+            return putIfAbsent(new Variable("pi", Math.PI));
         } else {
-            Variable result = new Variable(name, preciseExpression);
-            variables.put(name, result);
+            Variable result = putIfAbsent(new Variable(name, preciseExpression));
             setDependenceIfDependenceAlreadyExists(name);
             return result;
         }
@@ -249,20 +259,27 @@ public class Variable extends Expression {
     }
 
     @Override
-    public double evaluate() throws EvaluationException {
+    public double evaluate(EvaluationContext context) throws EvaluationException {
 
+        if (context.isBound(this.name)) {
+            double value = context.get(this.name);
+            if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+                return value;
+            }
+            throw new EvaluationException(Translator.deferredMessage("EB_Variable_VARIABLE_HAS_UNDEFINED_VALUE", this.name), false);
+        }
         /* 
          Falls der Variable ein konstanter Wert zugeordnet wurde, dann soll dieser  
          ausgewertet werden. Beispiel: x wurde als 4/3 definiert (durch das Command def()).
          Dann soll x beim Evaluieren 1.33333333333333 zurückgeben.
          */
         if (this.preciseExpression != null) {
-            return this.preciseExpression.evaluate();
+            return this.preciseExpression.evaluate(context);
         }
         if (!Double.isNaN(this.value) && !Double.isInfinite(this.value)) {
             return this.value;
         }
-        throw new EvaluationException(Translator.translateOutputMessage("EB_Variable_VARIABLE_HAS_UNDEFINED_VALUE", this.name));
+        throw new EvaluationException(Translator.deferredMessage("EB_Variable_VARIABLE_HAS_UNDEFINED_VALUE", this.name), false);
     }
 
     @Override
@@ -297,6 +314,19 @@ public class Variable extends Expression {
         return false;
     }
 
+    @Override
+    long[] getVariableBits() {
+        if (this.name.equals("pi")) {
+            return VariableIndices.EMPTY;
+        }
+        return VariableIndices.singleton(this.name);
+    }
+
+    @Override
+    int getStructuralFlags() {
+        return this.name.equals("pi") ? FLAG_PI : 0;
+    }
+
     @Override
     public boolean containsFunction() {
         return false;
@@ -441,6 +471,16 @@ public class Variable extends Expression {
         return false;
     }
 
+    @Override
+    public int getStructuralHash() {
+        return this.getName().hashCode();
+    }
+
+    @Override
+    public int getEquivalenceHash() {
+        return mixEquivalenceHash(this.getName().hashCode());
+    }
+
     @Override
     public boolean equivalent(Expression expr) {
         if (expr instanceof Variable) {
@@ -0,0 +1,148 @@
+package abstractexpressions.expression.classes;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Globale Tabelle, welche jedem Variablennamen einen festen Index zuordnet.
+ * Damit können die in einem Ausdruck vorkommenden Variablen als Bitmenge
+ * (long[], Bit i % 64 von bits[i / 64] für den Index i) gespeichert werden.
+ * Bitmengen enden nie mit einem Wort 0 und werden nach ihrer Erzeugung nicht
+ * mehr verändert, so dass sie von mehreren Ausdrücken gemeinsam benutzt werden
+ * können.
+ */
+final class VariableIndices {
+
+    static final long[] EMPTY = new long[0];
+
+    /*
+     Zu jedem Namen wird die Bitmenge gespeichert, die genau diese Variable
+     enthält; ihr Index ergibt sich aus der Position des gesetzten Bits.
+     */
+    private static final ConcurrentHashMap<String, long[]> SINGLETONS = new ConcurrentHashMap<>();
+    // names[i] ist der Name der Variablen mit Index i. Wird beim Eintragen kopiert.
+    private static volatile String[] names = new String[0];
+
+    private VariableIndices() {
+    }
+
+    private static String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Gibt die Bitmenge zurück, welche genau die Variable name enthält. Beim
+     * ersten Aufruf für name wird der Variablen ein neuer Index zugeordnet.
+     */
+    static long[] singleton(String name) {
+        long[] bits = SINGLETONS.get(name);
+        if (bits != null) {
+            return bits;
+        }
+        synchronized (SINGLETONS) {
+            bits = SINGLETONS.get(name);
+            if (bits == null) {
+                int index = names.length;
+                bits = new long[(index >>> 6) + 1];
+                bits[index >>> 6] = 1L << index;
+                String[] newNames = Arrays.copyOf(names, index + 1);
+                newNames[index] = name;
+                // Erst den Namen veröffentlichen, dann die Bitmenge.
+                names = newNames;
+                SINGLETONS.put(name, bits);
+            }
+            return bits;
+        }
+    }
+
+    /**
+     * Gibt den Index der Variablen name zurück. Beim ersten Aufruf für name
+     * wird der Variablen ein neuer Index zugeordnet.
+     */
+    static int indexOf(String name) {
+        long[] bits = singleton(name);
+        int word = bits.length - 1;
+        return 64 * word + Long.numberOfTrailingZeros(bits[word]);
+    }
+
+    /**
+     * Gibt die Bitmenge der Variablen aus vars zurück.
+     */
+    static long[] of(HashSet<String> vars) {
+        long[] bits = EMPTY;
+        for (String var : vars) {
+            bits = union(bits, singleton(var));
+        }
+        return bits;
+    }
+
+    /**
+     * Gibt die Vereinigung von bits und otherBits zurück. Ist eine der beiden
+     * Mengen in der anderen enthalten, so wird die größere (und keine neue
+     * Menge) zurückgegeben.
+     */
+    static long[] union(long[] bits, long[] otherBits) {
+        if (bits.length < otherBits.length) {
+            long[] swap = bits;
+            bits = otherBits;
+            otherBits = swap;
+        }
+        boolean containsOtherBits = true;
+        for (int i = 0; i < otherBits.length && containsOtherBits; i++) {
+            containsOtherBits = (otherBits[i] & ~bits[i]) == 0;
+        }
+        if (containsOtherBits) {
+            return bits;
+        }
+        long[] union = bits.clone();
+        for (int i = 0; i < otherBits.length; i++) {
+            union[i] |= otherBits[i];
+        }
+        return union;
+    }
+
+    /**
+     * Gibt zurück, ob die Variable name in bits enthalten ist.
+     */
+    static boolean contains(long[] bits, String name) {
+        long[] singleton = SINGLETONS.get(name);
+        if (singleton == null) {
+            return false;
+        }
+        int word = singleton.length - 1;
+        return word < bits.length && (bits[word] & singleton[word]) != 0;
+    }
+
+    /**
+     * Fügt die Namen aller Variablen aus bits zu vars hinzu.
+     */
+    static void addNames(long[] bits, HashSet<String> vars) {
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            while (word != 0) {
+                vars.add(getName(64 * i + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Gibt zurück, ob alle Variablen aus bits konstant sind, d.h. einen
+     * exakten Wert besitzen (siehe Variable.isConstant()).
+     */
+    static boolean areConstant(long[] bits) {
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            while (word != 0) {
+                Variable var = Variable.variables.get(getName(64 * i + Long.numberOfTrailingZeros(word)));
+                if (var == null || !var.isConstant()) {
+                    return false;
+                }
+                word &= word - 1;
+            }
+        }
+        return true;
+    }
+
+}
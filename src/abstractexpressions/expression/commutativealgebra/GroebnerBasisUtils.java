@@ -11,6 +11,7 @@ import exceptions.EvaluationException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import process.CasSession;
 
 public abstract class GroebnerBasisUtils {
 
@@ -36,11 +37,13 @@ public abstract class GroebnerBasisUtils {
         LEX, DEGLEX, REVLEX, DEGREVLEX;
     }
 
-    private static String[] monomialVars;
-    // Default-Einstellung soll GENERAL_CASE sein!
-    private static SimplifyCase simplifyCase = SimplifyCase.GENERAL_CASE;
-    // Default-Einstellung soll LEX sein!
-    private static TermOrderings termOrdering = TermOrderings.LEX;
+    /*
+     Die Monomvariablen, der Vereinfachungsmodus und die Termordnung gehören
+     zur Sitzung des aktuellen Threads (siehe CasSession).
+     */
+    private static SimplifyCase getSimplifyCase() {
+        return CasSession.getCurrent().getSimplifyCase();
+    }
 
     public static class Monomial implements Comparable<Monomial> {
 
@@ -48,6 +51,7 @@ public abstract class GroebnerBasisUtils {
         private int[] term;
 
         public Monomial(Expression coefficient, int[] term) {
+            String[] monomialVars = CasSession.getCurrent().getMonomialVars();
             this.coefficient = coefficient;
             this.term = new int[monomialVars.length];
             /*
@@ -61,6 +65,7 @@ public abstract class GroebnerBasisUtils {
         }
 
         public Monomial(Expression coefficient, Integer... term) {
+            String[] monomialVars = CasSession.getCurrent().getMonomialVars();
             this.coefficient = coefficient;
             this.term = new int[monomialVars.length];
             /*
@@ -100,6 +105,7 @@ public abstract class GroebnerBasisUtils {
         }
 
         public Expression toExpression() {
+            String[] monomialVars = CasSession.getCurrent().getMonomialVars();
             Expression monomialAsExpression = coefficient;
             for (int i = 0; i < this.term.length; i++) {
                 monomialAsExpression = monomialAsExpression.mult(Variable.create(monomialVars[i]).pow(this.term[i]));
@@ -121,7 +127,7 @@ public abstract class GroebnerBasisUtils {
         }
 
         public Monomial multipliWithExpression(Expression expr) throws EvaluationException {
-            if (simplifyCase == SimplifyCase.GENERAL_CASE) {
+            if (getSimplifyCase() == SimplifyCase.GENERAL_CASE) {
                 return new Monomial(this.coefficient.mult(expr).simplify(), this.term);
             }
             return new Monomial(this.coefficient.mult(expr).simplify(simplifyTypesBuchbergerAlgorithmRationalCase), this.term);
@@ -129,7 +135,7 @@ public abstract class GroebnerBasisUtils {
 
         public Monomial multiplyWithMonomial(Monomial m) throws EvaluationException {
             Expression resultCoefficient;
-            if (simplifyCase == SimplifyCase.GENERAL_CASE) {
+            if (getSimplifyCase() == SimplifyCase.GENERAL_CASE) {
                 resultCoefficient = this.coefficient.mult(m.coefficient).simplify();
             } else {
                 resultCoefficient = this.coefficient.mult(m.coefficient).simplify(simplifyTypesBuchbergerAlgorithmRationalCase);
@@ -151,7 +157,7 @@ public abstract class GroebnerBasisUtils {
         }
 
         public Monomial divideByExpression(Expression expr) throws EvaluationException {
-            if (simplifyCase == SimplifyCase.GENERAL_CASE) {
+            if (getSimplifyCase() == SimplifyCase.GENERAL_CASE) {
                 return new Monomial(this.coefficient.div(expr).simplify(), this.term);
             }
             return new Monomial(this.coefficient.div(expr).simplify(simplifyTypesBuchbergerAlgorithmRationalCase), this.term);
@@ -162,7 +168,7 @@ public abstract class GroebnerBasisUtils {
             for (int i = 0; i < this.term.length; i++) {
                 termOfQuotient[i] = this.term[i] - m.term[i];
             }
-            if (simplifyCase == SimplifyCase.GENERAL_CASE) {
+            if (getSimplifyCase() == SimplifyCase.GENERAL_CASE) {
                 return new Monomial(this.coefficient.div(m.coefficient).simplify(), termOfQuotient);
             }
             return new Monomial(this.coefficient.div(m.coefficient).simplify(simplifyTypesBuchbergerAlgorithmRationalCase), termOfQuotient);
@@ -178,6 +184,7 @@ public abstract class GroebnerBasisUtils {
 
         public Monomial replaceVarByExpression(String var, Expression expr) {
 
+            String[] monomialVars = CasSession.getCurrent().getMonomialVars();
             int indexOfVarInMonomials = -1;
             for (int i = 0; i < monomialVars.length; i++) {
                 if (monomialVars[i].equals(var)) {
@@ -230,6 +237,7 @@ public abstract class GroebnerBasisUtils {
 
         @Override
         public int compareTo(Monomial m) {
+            TermOrderings termOrdering = CasSession.getCurrent().getTermOrdering();
             if (termOrdering == TermOrderings.LEX) {
                 return compateToWithRespectToLex(m);
             }
@@ -332,6 +340,7 @@ public abstract class GroebnerBasisUtils {
 
             ExpressionCollection coefficients = new ExpressionCollection();
 
+            String[] monomialVars = CasSession.getCurrent().getMonomialVars();
             int indexOfVar = -1;
             for (int i = 0; i < monomialVars.length; i++) {
                 if (monomialVars[i].equals(var)) {
@@ -449,7 +458,7 @@ public abstract class GroebnerBasisUtils {
             for (int i = 0; i < thisCopy.monomials.size(); i++) {
                 for (int j = 0; j < fCopy.monomials.size(); j++) {
                     if (thisCopy.monomials.get(i).equalsInTerm(fCopy.monomials.get(j))) {
-                        if (simplifyCase == SimplifyCase.GENERAL_CASE) {
+                        if (getSimplifyCase() == SimplifyCase.GENERAL_CASE) {
                             thisCopy.monomials.get(i).setCoefficient(thisCopy.monomials.get(i).getCoefficient().add(fCopy.monomials.get(j).getCoefficient()).simplify());
                         } else {
                             thisCopy.monomials.get(i).setCoefficient(thisCopy.monomials.get(i).getCoefficient().add(fCopy.monomials.get(j).getCoefficient()).simplify());
@@ -474,7 +483,7 @@ public abstract class GroebnerBasisUtils {
             for (int i = 0; i < thisCopy.monomials.size(); i++) {
                 for (int j = 0; j < fCopy.monomials.size(); j++) {
                     if (thisCopy.monomials.get(i).equalsInTerm(fCopy.monomials.get(j))) {
-                        if (simplifyCase == SimplifyCase.GENERAL_CASE) {
+                        if (getSimplifyCase() == SimplifyCase.GENERAL_CASE) {
                             thisCopy.monomials.get(i).setCoefficient(thisCopy.monomials.get(i).getCoefficient().sub(fCopy.monomials.get(j).getCoefficient()).simplify());
                         } else {
                             thisCopy.monomials.get(i).setCoefficient(thisCopy.monomials.get(i).getCoefficient().sub(fCopy.monomials.get(j).getCoefficient()).simplify(simplifyTypesBuchbergerAlgorithmRationalCase));
@@ -570,20 +579,19 @@ public abstract class GroebnerBasisUtils {
     }
 
     public static void setTermOrdering(TermOrderings termOrdering) {
-        GroebnerBasisUtils.termOrdering = termOrdering;
+        CasSession.getCurrent().setTermOrdering(termOrdering);
     }
 
     public String[] getMonomialVars() {
-        return monomialVars;
+        return CasSession.getCurrent().getMonomialVars();
     }
 
     public static void setMonomialVars(String[] monomialVars) {
-        GroebnerBasisUtils.monomialVars = monomialVars;
+        CasSession.getCurrent().setMonomialVars(monomialVars);
     }
 
     public static void setMonomialVars(ArrayList<String> monomialVars) {
-        GroebnerBasisUtils.monomialVars = new String[monomialVars.size()];
-        GroebnerBasisUtils.monomialVars = monomialVars.toArray(GroebnerBasisUtils.monomialVars);
+        CasSession.getCurrent().setMonomialVars(monomialVars.toArray(new String[monomialVars.size()]));
     }
 
     public static boolean isMultiPolynomialFamilyRational(ArrayList<MultiPolynomial> polynomials) {
@@ -653,9 +661,9 @@ public abstract class GroebnerBasisUtils {
 
         // Vereinfachungsmodus setzen.
         if (isMultiPolynomialFamilyRational(polynomials)) {
-            simplifyCase = SimplifyCase.RATIONAL_CASE;
+            CasSession.getCurrent().setSimplifyCase(SimplifyCase.RATIONAL_CASE);
         } else {
-            simplifyCase = SimplifyCase.GENERAL_CASE;
+            CasSession.getCurrent().setSimplifyCase(SimplifyCase.GENERAL_CASE);
         }
 
         ArrayList<MultiPolynomial> groebnerBasis = new ArrayList<>();
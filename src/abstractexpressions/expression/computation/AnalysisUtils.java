@@ -172,7 +172,7 @@ public abstract class AnalysisUtils {
                      angegeben werden (da das Taylorpolynom etwa
                      Integrationskonstanten enthalten kann).
                      */
-                    throw new EvaluationException(Translator.translateOutputMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_DEQ_CANNOT_BE_COMPUTED", functionVar, ord, f));
+                    throw new EvaluationException(Translator.deferredMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_DEQ_CANNOT_BE_COMPUTED", functionVar, ord, f));
                 }
 
             }
@@ -194,7 +194,7 @@ public abstract class AnalysisUtils {
                      angegeben werden (da das Taylorpolynom etwa
                      Integrationskonstanten enthalten kann).
                      */
-                    throw new EvaluationException(Translator.translateOutputMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_DEQ_CANNOT_BE_COMPUTED", functionVar, ord, f));
+                    throw new EvaluationException(Translator.deferredMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_DEQ_CANNOT_BE_COMPUTED", functionVar, ord, f));
                 }
             }
 
@@ -219,7 +219,7 @@ public abstract class AnalysisUtils {
                  das Taylorpolynom etwa Integrationskonstanten enthalten
                  kann).
                  */
-                throw new EvaluationException(Translator.translateOutputMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_DEQ_CANNOT_BE_COMPUTED", functionVar, ord, f));
+                throw new EvaluationException(Translator.deferredMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_DEQ_CANNOT_BE_COMPUTED", functionVar, ord, f));
             }
             for (int j = 0; j < i; j++) {
                 coefficient[i] = coefficient[i].replaceVariable(functionVarWithPrimes, coefficient[j]);
@@ -337,7 +337,7 @@ public abstract class AnalysisUtils {
              Taylorpolynom ebenfalls nicht explizit angegeben werden (da das
              Taylorpolynom etwa Integrationskonstanten enthalten kann).
              */
-            throw new EvaluationException(Translator.translateOutputMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_FUNCTION_CANNOT_BE_COMPUTED", f));
+            throw new EvaluationException(Translator.deferredMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_FUNCTION_CANNOT_BE_COMPUTED", f));
         }
 
         for (int i = 1; i <= degree; i++) {
@@ -354,7 +354,7 @@ public abstract class AnalysisUtils {
                  das Taylorpolynom etwa Integrationskonstanten enthalten
                  kann).
                  */
-                throw new EvaluationException(Translator.translateOutputMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_FUNCTION_CANNOT_BE_COMPUTED", f));
+                throw new EvaluationException(Translator.deferredMessage("CC_AnalysisMethods_TAYLOR_POLYNOMIAL_OF_FUNCTION_CANNOT_BE_COMPUTED", f));
             }
 
         }
@@ -403,7 +403,7 @@ public abstract class AnalysisUtils {
 
             return functionValueAtPoint.add(result).simplify();
         } catch (EvaluationException e) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_AnalysisMethods_TANGENT_SPACE_CANNOT_BE_COMPUTED"));
+            throw new EvaluationException(Translator.deferredMessage("CC_AnalysisMethods_TANGENT_SPACE_CANNOT_BE_COMPUTED"));
         } finally {
             /* 
              Egal, ob die Berechnung des Tangentialraumes erfolgreich war oder nicht,
@@ -458,7 +458,7 @@ public abstract class AnalysisUtils {
 
             return normalLineParametrization;
         } catch (EvaluationException e) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_AnalysisMethods_TANGENT_SPACE_CANNOT_BE_COMPUTED"));
+            throw new EvaluationException(Translator.deferredMessage("CC_AnalysisMethods_TANGENT_SPACE_CANNOT_BE_COMPUTED"));
         } finally {
             /* 
              Egal, ob die Berechnung des Tangentialraumes erfolgreich war oder nicht,
@@ -480,7 +480,7 @@ public abstract class AnalysisUtils {
     public static BigDecimal getDigitsOfE(int n) throws EvaluationException {
 
         if (n > computationbounds.ComputationBounds.getBound("BOUND_COMMAND_MAX_DIGITS_OF_E")) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_AnalysisMethods_ENTER_A_SMALLER_NUMBER_OF_DIGITS"));
+            throw new EvaluationException(Translator.deferredMessage("CC_AnalysisMethods_ENTER_A_SMALLER_NUMBER_OF_DIGITS"));
         }
 
         BigDecimal e = BigDecimal.ONE;
@@ -515,7 +515,7 @@ public abstract class AnalysisUtils {
     public static BigDecimal getDigitsOfPi(int n) throws EvaluationException {
 
         if (n > computationbounds.ComputationBounds.getBound("BOUND_COMMAND_MAX_DIGITS_OF_PI")) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_AnalysisMethods_ENTER_A_SMALLER_NUMBER_OF_DIGITS"));
+            throw new EvaluationException(Translator.deferredMessage("CC_AnalysisMethods_ENTER_A_SMALLER_NUMBER_OF_DIGITS"));
         }
 
         BigDecimal pi = BigDecimal.ONE.divide(BigDecimal.valueOf(2));
@@ -210,17 +210,17 @@ public abstract class ArithmeticUtils {
      */
     public static BigInteger mod(BigInteger a, BigInteger m) throws EvaluationException {
         if (m.compareTo(BigInteger.ZERO) <= 0) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_ArithmeticMethods_SECOND_PARAMETER_IN_MOD_IS_NON_POSITIVE"));
+            throw new EvaluationException(Translator.deferredMessage("CC_ArithmeticMethods_SECOND_PARAMETER_IN_MOD_IS_NON_POSITIVE"));
         }
         return a.mod(m);
     }
 
     public static BigInteger modpow(BigInteger a, BigInteger b, BigInteger m) throws EvaluationException {
         if (b.compareTo(BigInteger.ZERO) <= 0) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_ArithmeticMethods_SECOND_PARAMETER_IN_MODPOW_IS_NON_POSITIVE"));
+            throw new EvaluationException(Translator.deferredMessage("CC_ArithmeticMethods_SECOND_PARAMETER_IN_MODPOW_IS_NON_POSITIVE"));
         }
         if (m.compareTo(BigInteger.ZERO) <= 0) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_ArithmeticMethods_THIRD_PARAMETER_IN_MODPOW_IS_NON_POSITIVE"));
+            throw new EvaluationException(Translator.deferredMessage("CC_ArithmeticMethods_THIRD_PARAMETER_IN_MODPOW_IS_NON_POSITIVE"));
         }
         return a.modPow(b, m);
     }
@@ -264,7 +264,7 @@ public abstract class ArithmeticUtils {
     public static BigInteger root(BigInteger a, int n) throws EvaluationException {
 
         if (a.compareTo(BigInteger.ZERO) < 0 && (n / 2) * 2 == n) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_ArithmeticMethods_ROOTS_OF_EVEN_ORDER_DO_NOT_EXIST", a));
+            throw new EvaluationException(Translator.deferredMessage("CC_ArithmeticMethods_ROOTS_OF_EVEN_ORDER_DO_NOT_EXIST", a));
         }
 
         if (a.compareTo(BigInteger.ZERO) == 0) {
@@ -1,6 +1,7 @@
 package abstractexpressions.expression.computation;
 
 import exceptions.EvaluationException;
+import abstractexpressions.expression.classes.EvaluationContext;
 import abstractexpressions.expression.classes.Expression;
 import abstractexpressions.expression.classes.Variable;
 import graphic.GraphicPanelImplicit2D.MarchingSquare;
@@ -18,7 +19,7 @@ public abstract class NumericalUtils {
     private static double[] add(double[] a, double[] b) throws EvaluationException {
 
         if (a.length != b.length) {
-            throw new EvaluationException(Translator.translateOutputMessage("CC_NumericalMethods_VECTORS_MUST_HAVE_SAME_DIMENSION"));
+            throw new EvaluationException(Translator.deferredMessage("CC_NumericalMethods_VECTORS_MUST_HAVE_SAME_DIMENSION"));
         }
 
         double[] result = new double[a.length];
@@ -221,6 +222,39 @@ public abstract class NumericalUtils {
         return integral * h / 3;
     }
 
+    /**
+     * Wie integrateBySimpson(f, var, x_0, x_1, n), jedoch wird f im Kontext
+     * context ausgewertet, in welchem zusätzlich var belegt wird. Die globale
+     * Variablentabelle und context selbst werden dabei nicht verändert.
+     *
+     * @throws EvaluationException
+     */
+    public static double integrateBySimpson(Expression f, String var, double x_0, double x_1, int n, EvaluationContext context)
+            throws EvaluationException {
+
+        EvaluationContext integrationContext = context.copy();
+        double h = (x_1 - x_0) / (2 * n);
+
+        double weight;
+        double integral = 0;
+
+        for (int i = 0; i <= 2 * n; i++) {
+
+            if ((i == 0) || (i == 2 * n)) {
+                weight = 1;
+            } else if ((i / 2) * 2 == i) {
+                weight = 2;
+            } else {
+                weight = 4;
+            }
+
+            integrationContext.set(var, x_0 + i * h);
+            integral = integral + weight * f.evaluate(integrationContext);
+        }
+
+        return integral * h / 3;
+    }
+
     /**
      * Newton-Verfahren für die Gleichung x_0 mit vorgegebenen Startwert x_0 und
      * einer vorgegebenen Anzahl n von Schritten. Gibt nach n Iterationen des
@@ -241,11 +275,11 @@ public abstract class NumericalUtils {
         for (int i = 0; i < n; i++) {
             Variable.setValue(var, zeroOfEquation);
             if (derivative.evaluate() == 0) {
-                throw new EvaluationException(Translator.translateOutputMessage("CC_NumericalMethods_UNDEFINED_VALUE"));
+                throw new EvaluationException(Translator.deferredMessage("CC_NumericalMethods_UNDEFINED_VALUE"));
             }
             zeroOfEquation = zeroOfEquation - f.evaluate() / derivative.evaluate();
             if (Double.isNaN(zeroOfEquation) || Double.isInfinite(zeroOfEquation)) {
-                throw new EvaluationException(Translator.translateOutputMessage("CC_NumericalMethods_UNDEFINED_VALUE"));
+                throw new EvaluationException(Translator.deferredMessage("CC_NumericalMethods_UNDEFINED_VALUE"));
             }
         }
 
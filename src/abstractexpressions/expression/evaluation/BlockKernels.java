@@ -0,0 +1,215 @@
+package abstractexpressions.expression.evaluation;
+
+import abstractexpressions.expression.classes.TypeFunction;
+
+/**
+ * Schleifen über einen Block von Werten für die Anweisungen eines
+ * PostfixProgram. Die Schleifen sind bewusst einfach gehalten (ein Zähler,
+ * keine Methodenaufrufe über Schnittstellen, keine Fallunterscheidung nach dem
+ * Typ im Schleifenrumpf), so dass der JIT-Compiler sie vektorisieren kann.
+ * <br>
+ * Zur Behandlung undefinierter Werte: Ein Ausdruck ist an einer Stelle genau
+ * dann nicht definiert, wenn einer seiner Teilausdrücke dort einen nicht
+ * endlichen Wert besitzt. Summen, Differenzen und Produkte machen aus einem
+ * nicht endlichen Wert nie wieder einen endlichen. Es genügt daher, die
+ * Operanden von Quotienten, Potenzen und Funktionen sowie das Endergebnis
+ * mittels finiteOrNaN() zu prüfen; die Schleifen für +, - und * bleiben frei
+ * von Prüfungen.
+ */
+final class BlockKernels {
+
+    private BlockKernels() {
+    }
+
+    static double finiteOrNaN(double x) {
+        return x - x == 0 ? x : Double.NaN;
+    }
+
+    static void fill(double[] a, double c, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] = c;
+        }
+    }
+
+    static void copy(double[] source, double[] a, int length) {
+        System.arraycopy(source, 0, a, 0, length);
+    }
+
+    static void finiteOrNaN(double[] a, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] = finiteOrNaN(a[i]);
+        }
+    }
+
+    // a = a op b
+    static void add(double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] += b[i];
+        }
+    }
+
+    static void subtract(double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] -= b[i];
+        }
+    }
+
+    static void multiply(double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] *= b[i];
+        }
+    }
+
+    static void divide(double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] = finiteOrNaN(a[i]) / finiteOrNaN(b[i]);
+        }
+    }
+
+    static void pow(double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            double x = finiteOrNaN(a[i]);
+            double y = finiteOrNaN(b[i]);
+            // Math.pow(NaN, 0) = 1, der Ausdruck ist hier aber nicht definiert.
+            a[i] = Double.isNaN(x) || Double.isNaN(y) ? Double.NaN : Math.pow(x, y);
+        }
+    }
+
+    // a = a op c
+    static void addConstant(double[] a, double c, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] += c;
+        }
+    }
+
+    static void subtractConstant(double[] a, double c, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] -= c;
+        }
+    }
+
+    static void multiplyByConstant(double[] a, double c, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] *= c;
+        }
+    }
+
+    static void divideByConstant(double[] a, double c, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] = finiteOrNaN(a[i]) / c;
+        }
+    }
+
+    static void powConstant(double[] a, double c, int length) {
+        if (Double.isNaN(c)) {
+            fill(a, Double.NaN, length);
+        } else if (c == 2) {
+            for (int i = 0; i < length; i++) {
+                double x = finiteOrNaN(a[i]);
+                a[i] = x * x;
+            }
+        } else if (c == 0.5) {
+            for (int i = 0; i < length; i++) {
+                a[i] = Math.sqrt(finiteOrNaN(a[i]));
+            }
+        } else if (c == 0) {
+            for (int i = 0; i < length; i++) {
+                a[i] = Double.isNaN(finiteOrNaN(a[i])) ? Double.NaN : 1;
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                a[i] = Math.pow(finiteOrNaN(a[i]), c);
+            }
+        }
+    }
+
+    /**
+     * a = a^c, wobei c = p/q mit q ungerade. Für negative Basen wird die
+     * reelle Wurzel verwendet (siehe BinaryOperation.evaluate()).
+     */
+    static void oddRootPowConstant(double[] a, double c, boolean numeratorOdd, int length) {
+        double signOfNegativeBase = numeratorOdd ? -1 : 1;
+        for (int i = 0; i < length; i++) {
+            double x = finiteOrNaN(a[i]);
+            a[i] = x < 0 ? signOfNegativeBase * Math.pow(-x, c) : Math.pow(x, c);
+        }
+    }
+
+    // a = c op a
+    static void subtractFromConstant(double[] a, double c, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] = c - a[i];
+        }
+    }
+
+    static void divideConstant(double[] a, double c, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] = c / finiteOrNaN(a[i]);
+        }
+    }
+
+    static void constantPow(double[] a, double c, int length) {
+        for (int i = 0; i < length; i++) {
+            double x = finiteOrNaN(a[i]);
+            a[i] = Double.isNaN(x) || Double.isNaN(c) ? Double.NaN : Math.pow(c, x);
+        }
+    }
+
+    /**
+     * a = f(a) für die Funktion type. Die häufigsten Funktionen besitzen eine
+     * eigene Schleife, die übrigen werden über
+     * ExpressionCompiler.evaluateFunction() berechnet.
+     */
+    static void function(TypeFunction type, double[] a, int length) {
+        switch (type) {
+            case id:
+                finiteOrNaN(a, length);
+                break;
+            case abs:
+                for (int i = 0; i < length; i++) {
+                    a[i] = Math.abs(finiteOrNaN(a[i]));
+                }
+                break;
+            case sqrt:
+                for (int i = 0; i < length; i++) {
+                    a[i] = Math.sqrt(finiteOrNaN(a[i]));
+                }
+                break;
+            case exp:
+                for (int i = 0; i < length; i++) {
+                    a[i] = Math.exp(finiteOrNaN(a[i]));
+                }
+                break;
+            case ln:
+                for (int i = 0; i < length; i++) {
+                    a[i] = Math.log(finiteOrNaN(a[i]));
+                }
+                break;
+            case lg:
+                for (int i = 0; i < length; i++) {
+                    a[i] = Math.log10(finiteOrNaN(a[i]));
+                }
+                break;
+            case sin:
+                for (int i = 0; i < length; i++) {
+                    a[i] = Math.sin(finiteOrNaN(a[i]));
+                }
+                break;
+            case cos:
+                for (int i = 0; i < length; i++) {
+                    a[i] = Math.cos(finiteOrNaN(a[i]));
+                }
+                break;
+            case tan:
+                for (int i = 0; i < length; i++) {
+                    a[i] = Math.tan(finiteOrNaN(a[i]));
+                }
+                break;
+            default:
+                for (int i = 0; i < length; i++) {
+                    a[i] = ExpressionCompiler.evaluateFunction(type, finiteOrNaN(a[i]));
+                }
+        }
+    }
+
+}
@@ -0,0 +1,364 @@
+package abstractexpressions.expression.evaluation;
+
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.TypeFunction;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Wertet einen Ausdruck spaltenweise an sehr vielen Stellen aus. Für jede
+ * Variable wird eine Spalte (double[] oder, etwa für speicherabgebildete
+ * Dateien, DoubleBuffer) übergeben; das Ergebnis wird in eine
+ * Ergebnisspalte geschrieben.<br>
+ * Intern wird der Ausdruck in ein Postfixprogramm übersetzt, welches jeweils
+ * auf einem Block von BLOCK_SIZE Stellen ausgeführt wird. Dadurch wird pro
+ * Anweisung nur eine einfache Schleife über einen Block durchlaufen. Die
+ * Blöcke können auf mehrere Threads verteilt werden.<br>
+ * Stellen, an denen der Ausdruck nicht definiert ist (dort, wo
+ * Expression.evaluate() eine EvaluationException werfen würde), erhalten den
+ * Wert NaN und werden in einer Bitmaske vermerkt: Bit i % 64 von
+ * undefinedPoints[i / 64] ist genau dann gesetzt, wenn der Ausdruck an der
+ * Stelle i nicht definiert ist.
+ */
+public class ColumnarEvaluator {
+
+    /**
+     * Anzahl der Stellen pro Block. Muss ein Vielfaches von 64 sein, damit
+     * verschiedene Blöcke verschiedene Wörter der Bitmaske beschreiben.
+     */
+    public static final int BLOCK_SIZE = 512;
+
+    /**
+     * Bis zu dieser Anzahl von Blöcken wird eine Teilaufgabe nicht weiter
+     * aufgeteilt.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 8;
+
+    private static final TypeFunction[] TYPE_FUNCTIONS = TypeFunction.values();
+
+    private final PostfixProgram program;
+    private final CompiledExpression[] interpretedExpressions;
+
+    /**
+     * Übersetzt expr. Die Variablen werden alphabetisch angeordnet (siehe
+     * getVariables()).
+     */
+    public ColumnarEvaluator(Expression expr) {
+        this(expr, ExpressionCompiler.getVariableLayout(expr));
+    }
+
+    /**
+     * Übersetzt expr mit der Spaltenreihenfolge variables. Kommt in expr eine
+     * Variable vor, die nicht in variables enthalten ist, so wird eine
+     * IllegalArgumentException geworfen.
+     */
+    public ColumnarEvaluator(Expression expr, String[] variables) {
+        this.program = new PostfixProgram(expr, variables);
+        this.interpretedExpressions = this.program.getInterpretedExpressions();
+    }
+
+    /**
+     * Gibt die Namen der Variablen in der Reihenfolge der Spalten zurück.
+     */
+    public String[] getVariables() {
+        return this.program.getVariables().clone();
+    }
+
+    /**
+     * Gibt die benötigte Länge der Bitmaske für numberOfPoints Stellen
+     * zurück.
+     */
+    public static int getMaskLength(int numberOfPoints) {
+        return (numberOfPoints + 63) >>> 6;
+    }
+
+    /**
+     * Gibt zurück, ob in der Bitmaske undefinedPoints die Stelle i als nicht
+     * definiert vermerkt ist.
+     */
+    public static boolean isUndefined(long[] undefinedPoints, int i) {
+        return (undefinedPoints[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Wertet den Ausdruck an den Stellen 0, ..., result.length - 1 im
+     * aktuellen Thread aus und gibt die Anzahl der Stellen zurück, an denen er
+     * nicht definiert ist.
+     */
+    public int evaluate(double[][] columns, double[] result, long[] undefinedPoints) {
+        return evaluate(new ArrayColumns(columns), result, undefinedPoints, null);
+    }
+
+    /**
+     * Wie evaluate(double[][], double[], long[]), die Blöcke werden jedoch auf
+     * die Threads von pool verteilt.
+     */
+    public int evaluate(double[][] columns, double[] result, long[] undefinedPoints, ForkJoinPool pool) {
+        return evaluate(new ArrayColumns(columns), result, undefinedPoints, pool);
+    }
+
+    /**
+     * Wie evaluate(double[][], double[], long[]), gelesen wird jeweils ab der
+     * aktuellen Position der Spalten.
+     */
+    public int evaluate(DoubleBuffer[] columns, double[] result, long[] undefinedPoints) {
+        return evaluate(new BufferColumns(columns), result, undefinedPoints, null);
+    }
+
+    /**
+     * Wie evaluate(DoubleBuffer[], double[], long[]), die Blöcke werden jedoch
+     * auf die Threads von pool verteilt.
+     */
+    public int evaluate(DoubleBuffer[] columns, double[] result, long[] undefinedPoints, ForkJoinPool pool) {
+        return evaluate(new BufferColumns(columns), result, undefinedPoints, pool);
+    }
+
+    private int evaluate(Columns columns, double[] result, long[] undefinedPoints, ForkJoinPool pool) {
+        if (columns.getNumberOfColumns() != this.program.getVariables().length) {
+            throw new IllegalArgumentException("Expected " + this.program.getVariables().length + " columns, got "
+                    + columns.getNumberOfColumns() + ".");
+        }
+        if (undefinedPoints.length < getMaskLength(result.length)) {
+            throw new IllegalArgumentException("The mask must have at least " + getMaskLength(result.length) + " entries.");
+        }
+        int numberOfBlocks = (result.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        EvaluateBlocksTask task = new EvaluateBlocksTask(columns, result, undefinedPoints, 0, numberOfBlocks);
+        if (pool == null) {
+            return task.compute();
+        }
+        return pool.invoke(task);
+    }
+
+    /**
+     * Zugriff auf die Spalten, unabhängig davon, wie sie gespeichert sind.
+     */
+    private abstract static class Columns {
+
+        abstract int getNumberOfColumns();
+
+        /**
+         * Kopiert die Werte from, ..., from + length - 1 der Spalte column
+         * nach destination.
+         */
+        abstract void copyBlock(int column, int from, int length, double[] destination);
+
+    }
+
+    private static final class ArrayColumns extends Columns {
+
+        private final double[][] columns;
+
+        ArrayColumns(double[][] columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        int getNumberOfColumns() {
+            return this.columns.length;
+        }
+
+        @Override
+        void copyBlock(int column, int from, int length, double[] destination) {
+            System.arraycopy(this.columns[column], from, destination, 0, length);
+        }
+
+    }
+
+    private static final class BufferColumns extends Columns {
+
+        private final DoubleBuffer[] columns;
+
+        BufferColumns(DoubleBuffer[] columns) {
+            this.columns = new DoubleBuffer[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                // Eigene Sicht ab der aktuellen Position, damit die Threads sich keine Position teilen.
+                this.columns[i] = columns[i].slice();
+            }
+        }
+
+        @Override
+        int getNumberOfColumns() {
+            return this.columns.length;
+        }
+
+        @Override
+        void copyBlock(int column, int from, int length, double[] destination) {
+            DoubleBuffer view = this.columns[column].duplicate();
+            view.position(from);
+            view.get(destination, 0, length);
+        }
+
+    }
+
+    /**
+     * Wertet die Blöcke mit Index in [fromBlock, toBlock) aus und gibt die
+     * Anzahl der Stellen zurück, an denen der Ausdruck nicht definiert ist.
+     */
+    private class EvaluateBlocksTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Columns columns;
+        private final double[] result;
+        private final long[] undefinedPoints;
+        private final int fromBlock;
+        private final int toBlock;
+
+        EvaluateBlocksTask(Columns columns, double[] result, long[] undefinedPoints, int fromBlock, int toBlock) {
+            this.columns = columns;
+            this.result = result;
+            this.undefinedPoints = undefinedPoints;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.toBlock - this.fromBlock > SEQUENTIAL_THRESHOLD && getPool() != null) {
+                int middle = (this.fromBlock + this.toBlock) >>> 1;
+                EvaluateBlocksTask left = new EvaluateBlocksTask(this.columns, this.result, this.undefinedPoints, this.fromBlock, middle);
+                EvaluateBlocksTask right = new EvaluateBlocksTask(this.columns, this.result, this.undefinedPoints, middle, this.toBlock);
+                left.fork();
+                return right.compute() + left.join();
+            }
+            BlockMachine machine = new BlockMachine(this.columns);
+            int numberOfUndefinedPoints = 0;
+            for (int block = this.fromBlock; block < this.toBlock; block++) {
+                numberOfUndefinedPoints += machine.evaluateBlock(block, this.result, this.undefinedPoints);
+            }
+            return numberOfUndefinedPoints;
+        }
+
+    }
+
+    /**
+     * Stapelmaschine, welche das Postfixprogramm auf jeweils einem Block
+     * ausführt. Die Arbeitsspeicher werden einmal angelegt und für alle
+     * Blöcke wiederverwendet.
+     */
+    private final class BlockMachine {
+
+        private final Columns columns;
+        private final double[][] variableBlocks;
+        private final double[][] stack;
+        private final double[] point;
+
+        BlockMachine(Columns columns) {
+            this.columns = columns;
+            this.variableBlocks = new double[columns.getNumberOfColumns()][BLOCK_SIZE];
+            this.stack = new double[Math.max(1, program.getMaxStackDepth())][BLOCK_SIZE];
+            this.point = new double[columns.getNumberOfColumns()];
+        }
+
+        int evaluateBlock(int block, double[] result, long[] undefinedPoints) {
+
+            int from = block * BLOCK_SIZE;
+            int length = Math.min(BLOCK_SIZE, result.length - from);
+            for (int j = 0; j < this.variableBlocks.length; j++) {
+                this.columns.copyBlock(j, from, length, this.variableBlocks[j]);
+            }
+
+            int[] opcodes = program.getOpcodes();
+            int[] operands = program.getOperands();
+            double[] constants = program.getConstants();
+            int sp = 0;
+            for (int k = 0; k < opcodes.length; k++) {
+                int operand = operands[k];
+                switch (opcodes[k]) {
+                    case PostfixProgram.CONSTANT:
+                        BlockKernels.fill(this.stack[sp++], constants[operand], length);
+                        break;
+                    case PostfixProgram.VARIABLE:
+                        BlockKernels.copy(this.variableBlocks[operand], this.stack[sp++], length);
+                        break;
+                    case PostfixProgram.INTERPRETED:
+                        evaluateInterpreted(interpretedExpressions[operand], this.stack[sp++], length);
+                        break;
+                    case PostfixProgram.FUNCTION:
+                        BlockKernels.function(TYPE_FUNCTIONS[operand], this.stack[sp - 1], length);
+                        break;
+                    case PostfixProgram.PLUS_CONSTANT:
+                        BlockKernels.addConstant(this.stack[sp - 1], constants[operand], length);
+                        break;
+                    case PostfixProgram.MINUS_CONSTANT:
+                        BlockKernels.subtractConstant(this.stack[sp - 1], constants[operand], length);
+                        break;
+                    case PostfixProgram.TIMES_CONSTANT:
+                        BlockKernels.multiplyByConstant(this.stack[sp - 1], constants[operand], length);
+                        break;
+                    case PostfixProgram.DIV_CONSTANT:
+                        BlockKernels.divideByConstant(this.stack[sp - 1], constants[operand], length);
+                        break;
+                    case PostfixProgram.POW_CONSTANT:
+                        BlockKernels.powConstant(this.stack[sp - 1], constants[operand], length);
+                        break;
+                    case PostfixProgram.ODD_ROOT_POW_CONSTANT:
+                        BlockKernels.oddRootPowConstant(this.stack[sp - 1], constants[operand >>> 1], (operand & 1) == 1, length);
+                        break;
+                    case PostfixProgram.CONSTANT_MINUS:
+                        BlockKernels.subtractFromConstant(this.stack[sp - 1], constants[operand], length);
+                        break;
+                    case PostfixProgram.CONSTANT_DIV:
+                        BlockKernels.divideConstant(this.stack[sp - 1], constants[operand], length);
+                        break;
+                    case PostfixProgram.CONSTANT_POW:
+                        BlockKernels.constantPow(this.stack[sp - 1], constants[operand], length);
+                        break;
+                    default:
+                        sp--;
+                        evaluateBinaryOperation(opcodes[k], this.stack[sp - 1], this.stack[sp], length);
+                }
+            }
+
+            double[] values = this.stack[0];
+            BlockKernels.finiteOrNaN(values, length);
+            int numberOfUndefinedPoints = 0;
+            for (int i = 0; i < length; i++) {
+                int index = from + i;
+                result[index] = values[i];
+                if (Double.isNaN(values[i])) {
+                    undefinedPoints[index >>> 6] |= 1L << index;
+                    numberOfUndefinedPoints++;
+                } else {
+                    undefinedPoints[index >>> 6] &= ~(1L << index);
+                }
+            }
+            return numberOfUndefinedPoints;
+
+        }
+
+        private void evaluateInterpreted(CompiledExpression expr, double[] destination, int length) {
+            for (int i = 0; i < length; i++) {
+                for (int j = 0; j < this.point.length; j++) {
+                    this.point[j] = this.variableBlocks[j][i];
+                }
+                destination[i] = expr.evaluate(this.point);
+            }
+        }
+
+        /**
+         * Berechnet left[i] = left[i] op right[i].
+         */
+        private void evaluateBinaryOperation(int opcode, double[] left, double[] right, int length) {
+            switch (opcode) {
+                case PostfixProgram.PLUS:
+                    BlockKernels.add(left, right, length);
+                    break;
+                case PostfixProgram.MINUS:
+                    BlockKernels.subtract(left, right, length);
+                    break;
+                case PostfixProgram.TIMES:
+                    BlockKernels.multiply(left, right, length);
+                    break;
+                case PostfixProgram.DIV:
+                    BlockKernels.divide(left, right, length);
+                    break;
+                default:
+                    BlockKernels.pow(left, right, length);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package abstractexpressions.expression.evaluation;
+
+import abstractexpressions.expression.classes.Expression;
+
+/**
+ * Ein mittels ExpressionCompiler übersetzter Ausdruck. Die Werte der
+ * Variablen werden nicht aus der globalen Variablentabelle gelesen, sondern
+ * positionsweise übergeben: vars[i] ist der Wert der i-ten Variablen aus
+ * getVariables().
+ */
+public final class CompiledExpression {
+
+    private final Expression expression;
+    private final String[] variables;
+    private final ExpressionCompiler.Node root;
+
+    CompiledExpression(Expression expression, String[] variables, ExpressionCompiler.Node root) {
+        this.expression = expression;
+        this.variables = variables;
+        this.root = root;
+    }
+
+    /**
+     * Gibt den übersetzten Ausdruck zurück.
+     */
+    public Expression getExpression() {
+        return this.expression;
+    }
+
+    /**
+     * Gibt die Namen der Variablen in der Reihenfolge zurück, in welcher
+     * evaluate() ihre Werte erwartet.
+     */
+    public String[] getVariables() {
+        return this.variables.clone();
+    }
+
+    /**
+     * Gibt den Wert des Ausdrucks an der Stelle vars zurück. Ist der Ausdruck
+     * an dieser Stelle nicht definiert (dort, wo Expression.evaluate() eine
+     * EvaluationException werfen würde), so wird Double.NaN zurückgegeben.
+     * Die Methode darf von mehreren Threads gleichzeitig aufgerufen werden.
+     */
+    public double evaluate(double[] vars) {
+        return this.root.evaluate(vars);
+    }
+
+}
@@ -0,0 +1,454 @@
+package abstractexpressions.expression.evaluation;
+
+import abstractexpressions.expression.classes.BinaryOperation;
+import abstractexpressions.expression.classes.EvaluationContext;
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Function;
+import abstractexpressions.expression.classes.MultiIndexVariable;
+import abstractexpressions.expression.classes.TypeFunction;
+import abstractexpressions.expression.classes.Variable;
+import exceptions.EvaluationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Übersetzt einen Ausdruck in einen Baum spezialisierter Auswertungsknoten
+ * (CompiledExpression), welcher für sehr viele Auswertungen (etwa die
+ * Fitnessberechnung über große Datensätze) gedacht ist. Gegenüber
+ * Expression.evaluate() entfallen das Nachschlagen der Variablen in der
+ * globalen Variablentabelle, die Fallunterscheidungen nach dem Typ an jedem
+ * Knoten sowie das Werfen von Exceptions: Undefinierte Werte werden als NaN
+ * weitergereicht.<br>
+ * Teilausdrücke ohne Variablen werden bereits beim Übersetzen ausgewertet.
+ * Operatoren und selbstdefinierte Funktionen werden nicht übersetzt, sondern
+ * weiterhin mittels evaluate() interpretiert.
+ */
+public class ExpressionCompiler {
+
+    private final Map<String, Integer> indicesOfVariables = new HashMap<>();
+
+    private ExpressionCompiler(String[] variables) {
+        for (int i = 0; i < variables.length; i++) {
+            this.indicesOfVariables.put(variables[i], i);
+        }
+    }
+
+    /**
+     * Übersetzt expr. Die Variablen werden alphabetisch angeordnet (siehe
+     * CompiledExpression.getVariables()).
+     */
+    public static CompiledExpression compile(Expression expr) {
+        return compile(expr, getVariableLayout(expr));
+    }
+
+    /**
+     * Übersetzt expr mit der Variablenreihenfolge variables. Kommt in expr
+     * eine Variable vor, die nicht in variables enthalten ist, so wird eine
+     * IllegalArgumentException geworfen.
+     */
+    public static CompiledExpression compile(Expression expr, String[] variables) {
+        String[] layout = variables.clone();
+        return new CompiledExpression(expr, layout, new ExpressionCompiler(layout).compileNode(expr));
+    }
+
+    /**
+     * Gibt die in expr vorkommenden Variablen in alphabetischer Reihenfolge
+     * zurück.
+     */
+    public static String[] getVariableLayout(Expression expr) {
+        List<String> variables = new ArrayList<>(expr.getContainedVars());
+        Collections.sort(variables);
+        return variables.toArray(new String[variables.size()]);
+    }
+
+    private Node compileNode(Expression expr) {
+
+        if (expr.getContainedVars().isEmpty()) {
+            return new ConstantNode(evaluateOrNaN(expr));
+        }
+
+        if (expr instanceof MultiIndexVariable) {
+            return interpret(expr);
+        }
+        if (expr instanceof Variable) {
+            Variable var = (Variable) expr;
+            if (var.getPreciseExpression() != null) {
+                return compileNode(var.getPreciseExpression());
+            }
+            Integer index = this.indicesOfVariables.get(var.getName());
+            if (index == null) {
+                throw new IllegalArgumentException("Variable " + var.getName() + " is not contained in the variable layout.");
+            }
+            return new VariableNode(index);
+        }
+        if (expr instanceof BinaryOperation) {
+            return compileBinaryOperation((BinaryOperation) expr);
+        }
+        if (expr instanceof Function) {
+            Function f = (Function) expr;
+            return new FunctionNode(f.getType(), compileNode(f.getLeft()));
+        }
+        // Operatoren und selbstdefinierte Funktionen.
+        return interpret(expr);
+
+    }
+
+    private Node compileBinaryOperation(BinaryOperation expr) {
+        Node left = compileNode(expr.getLeft());
+        Node right = compileNode(expr.getRight());
+        switch (expr.getType()) {
+            case PLUS:
+                return new SumNode(left, right);
+            case MINUS:
+                return new DifferenceNode(left, right);
+            case TIMES:
+                return new ProductNode(left, right);
+            case DIV:
+                return new QuotientNode(left, right);
+            default:
+                // Wie in BinaryOperation.evaluate(): Wurzeln ungerader Ordnung aus negativen Zahlen.
+                if (expr.getRight().isRationalConstant() && ((BinaryOperation) expr.getRight()).getRight().isOddIntegerConstant()) {
+                    return new OddRootPowerNode(left, right, ((BinaryOperation) expr.getRight()).getLeft().isOddIntegerConstant());
+                }
+                return new PowerNode(left, right);
+        }
+    }
+
+    private Node interpret(Expression expr) {
+        List<String> variables = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (String var : expr.getContainedVars()) {
+            Integer index = this.indicesOfVariables.get(var);
+            if (index == null) {
+                throw new IllegalArgumentException("Variable " + var + " is not contained in the variable layout.");
+            }
+            variables.add(var);
+            indices.add(index);
+        }
+        int[] indexArray = new int[indices.size()];
+        for (int i = 0; i < indexArray.length; i++) {
+            indexArray[i] = indices.get(i);
+        }
+        return new InterpretedNode(expr, variables.toArray(new String[variables.size()]), indexArray);
+    }
+
+    private static double evaluateOrNaN(Expression expr) {
+        try {
+            return expr.evaluate();
+        } catch (EvaluationException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Gibt x zurück, falls x endlich ist, und sonst NaN. Entspricht den
+     * Prüfungen in den evaluate()-Methoden.
+     */
+    static double finiteOrNaN(double x) {
+        return x - x == 0 ? x : Double.NaN;
+    }
+
+    /**
+     * Knoten eines übersetzten Ausdrucks.
+     */
+    abstract static class Node {
+
+        abstract double evaluate(double[] vars);
+
+    }
+
+    private static final class ConstantNode extends Node {
+
+        private final double value;
+
+        ConstantNode(double value) {
+            this.value = finiteOrNaN(value);
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            return this.value;
+        }
+
+    }
+
+    private static final class VariableNode extends Node {
+
+        private final int index;
+
+        VariableNode(int index) {
+            this.index = index;
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            return finiteOrNaN(vars[this.index]);
+        }
+
+    }
+
+    private static final class SumNode extends Node {
+
+        private final Node left, right;
+
+        SumNode(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            return finiteOrNaN(this.left.evaluate(vars) + this.right.evaluate(vars));
+        }
+
+    }
+
+    private static final class DifferenceNode extends Node {
+
+        private final Node left, right;
+
+        DifferenceNode(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            return finiteOrNaN(this.left.evaluate(vars) - this.right.evaluate(vars));
+        }
+
+    }
+
+    private static final class ProductNode extends Node {
+
+        private final Node left, right;
+
+        ProductNode(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            return finiteOrNaN(this.left.evaluate(vars) * this.right.evaluate(vars));
+        }
+
+    }
+
+    private static final class QuotientNode extends Node {
+
+        private final Node left, right;
+
+        QuotientNode(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            return finiteOrNaN(this.left.evaluate(vars) / this.right.evaluate(vars));
+        }
+
+    }
+
+    private static final class PowerNode extends Node {
+
+        private final Node left, right;
+
+        PowerNode(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            double valueLeft = this.left.evaluate(vars);
+            double valueRight = this.right.evaluate(vars);
+            // Math.pow(NaN, 0) = 1, der Ausdruck ist hier aber nicht definiert.
+            if (Double.isNaN(valueLeft) || Double.isNaN(valueRight)) {
+                return Double.NaN;
+            }
+            return finiteOrNaN(Math.pow(valueLeft, valueRight));
+        }
+
+    }
+
+    /**
+     * Potenz mit einem Exponenten p/q, q ungerade. Für negative Basen wird
+     * wie in BinaryOperation.evaluate() die reelle Wurzel verwendet.
+     */
+    private static final class OddRootPowerNode extends Node {
+
+        private final Node left, right;
+        private final boolean numeratorOdd;
+
+        OddRootPowerNode(Node left, Node right, boolean numeratorOdd) {
+            this.left = left;
+            this.right = right;
+            this.numeratorOdd = numeratorOdd;
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            double valueLeft = this.left.evaluate(vars);
+            double valueRight = this.right.evaluate(vars);
+            if (valueLeft < 0) {
+                double result = Math.pow(-valueLeft, valueRight);
+                return finiteOrNaN(this.numeratorOdd ? -result : result);
+            }
+            return finiteOrNaN(Math.pow(valueLeft, valueRight));
+        }
+
+    }
+
+    private static final class FunctionNode extends Node {
+
+        private final TypeFunction type;
+        private final Node left;
+
+        FunctionNode(TypeFunction type, Node left) {
+            this.type = type;
+            this.left = left;
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            return finiteOrNaN(evaluateFunction(this.type, this.left.evaluate(vars)));
+        }
+
+    }
+
+    /**
+     * Wertet die Funktion type an der Stelle x aus (mit denselben Formeln wie
+     * Function.evaluate()). Das Ergebnis kann unendlich oder NaN sein.
+     */
+    static double evaluateFunction(TypeFunction type, double x) {
+        switch (type) {
+            case id:
+                return x;
+            case abs:
+                return Math.abs(x);
+            case sgn:
+                if (x > 0) {
+                    return 1;
+                }
+                if (x == 0) {
+                    return 0;
+                }
+                return x < 0 ? -1 : Double.NaN;
+            case exp:
+                return Math.exp(x);
+            case lg:
+                return Math.log10(x);
+            case ln:
+                return Math.log(x);
+            case sin:
+                return Math.sin(x);
+            case cos:
+                return Math.cos(x);
+            case tan:
+                return Math.tan(x);
+            case cot:
+                return 1 / Math.tan(x);
+            case sec:
+                return 1 / Math.cos(x);
+            case cosec:
+                return 1 / Math.sin(x);
+            case sinh:
+                return Math.sinh(x);
+            case cosh:
+                return Math.cosh(x);
+            case tanh:
+                return Math.tanh(x);
+            case coth:
+                return 1 / Math.tanh(x);
+            case sech:
+                return 1 / Math.cosh(x);
+            case cosech:
+                return 1 / Math.sinh(x);
+            case arcsin:
+                return Math.asin(x);
+            case arccos:
+                return Math.acos(x);
+            case arctan:
+                return Math.atan(x);
+            case arccot:
+                return Math.atan(1 / x);
+            case arcsec:
+                return Math.acos(1 / x);
+            case arccosec:
+                return Math.asin(1 / x);
+            case arsinh:
+                return Math.log(x + Math.sqrt(Math.pow(x, 2) + 1));
+            case arcosh:
+                return Math.log(x + Math.sqrt(Math.pow(x, 2) - 1));
+            case artanh:
+                return Math.log((1 + x) / (1 - x)) / 2;
+            case arcoth:
+                return Math.log((1 + x) / (x - 1)) / 2;
+            case arsech:
+                return Math.log(1 / x + Math.sqrt(Math.pow(1 / x, 2) - 1));
+            case arcosech:
+                return Math.log(1 / x + Math.sqrt(Math.pow(1 / x, 2) + 1));
+            case sqrt:
+                return Math.pow(x, 0.5);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Wertet einen nicht übersetzbaren Teilausdruck mittels
+     * evaluate(EvaluationContext) aus. Die Werte seiner Variablen werden in
+     * einem eigenen Kontext übergeben, so dass mehrere Threads gleichzeitig
+     * auswerten können, ohne die globale Variablentabelle zu verändern. Jeder
+     * Thread besitzt einen eigenen Kontext, in welchem die Variablen bereits
+     * belegt sind; pro Punkt werden nur ihre Werte überschrieben.
+     */
+    private static final class InterpretedNode extends Node {
+
+        private final Expression expr;
+        // indices[i] = Position der i-ten Variablen in vars, contextIndices[i] = ihr Index im Kontext.
+        private final int[] indices;
+        private final int[] contextIndices;
+        private final ThreadLocal<EvaluationContext> contexts = new ThreadLocal<EvaluationContext>() {
+
+            @Override
+            protected EvaluationContext initialValue() {
+                EvaluationContext context = new EvaluationContext();
+                for (int contextIndex : contextIndices) {
+                    context.set(contextIndex, 0);
+                }
+                return context;
+            }
+
+        };
+
+        InterpretedNode(Expression expr, String[] variables, int[] indices) {
+            this.expr = expr;
+            this.indices = indices;
+            this.contextIndices = new int[variables.length];
+            for (int i = 0; i < variables.length; i++) {
+                this.contextIndices[i] = EvaluationContext.indexOf(variables[i]);
+            }
+        }
+
+        @Override
+        double evaluate(double[] vars) {
+            EvaluationContext context = this.contexts.get();
+            for (int i = 0; i < this.indices.length; i++) {
+                context.set(this.contextIndices[i], vars[this.indices[i]]);
+            }
+            try {
+                return finiteOrNaN(this.expr.evaluate(context));
+            } catch (EvaluationException e) {
+                return Double.NaN;
+            }
+        }
+
+    }
+
+}
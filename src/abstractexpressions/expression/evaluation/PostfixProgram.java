@@ -0,0 +1,243 @@
+package abstractexpressions.expression.evaluation;
+
+import abstractexpressions.expression.classes.BinaryOperation;
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Function;
+import abstractexpressions.expression.classes.MultiIndexVariable;
+import abstractexpressions.expression.classes.Variable;
+import exceptions.EvaluationException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ein Ausdruck als Programm in Postfixnotation für eine Stapelmaschine. Jede
+ * Anweisung besteht aus einem Opcode und einem Operanden (Index einer
+ * Konstanten, einer Variablen, einer Funktion usw.).
+ */
+class PostfixProgram {
+
+    static final int CONSTANT = 0;
+    static final int VARIABLE = 1;
+    static final int PLUS = 2;
+    static final int MINUS = 3;
+    static final int TIMES = 4;
+    static final int DIV = 5;
+    static final int POW = 6;
+    /**
+     * Potenz mit konstantem Exponenten p/q, q ungerade. Operand: 2 * (Index
+     * der Konstanten) + 1, falls p ungerade ist, sonst 2 * (Index der
+     * Konstanten).
+     */
+    static final int ODD_ROOT_POW_CONSTANT = 7;
+    /**
+     * Operand: TypeFunction.ordinal().
+     */
+    static final int FUNCTION = 8;
+    /**
+     * Operand: Index in getInterpretedExpressions().
+     */
+    static final int INTERPRETED = 9;
+    /**
+     * Binäre Operation mit konstantem rechten Operanden: a op c. Operand:
+     * Index der Konstanten.
+     */
+    static final int PLUS_CONSTANT = 10;
+    static final int MINUS_CONSTANT = 11;
+    static final int TIMES_CONSTANT = 12;
+    static final int DIV_CONSTANT = 13;
+    static final int POW_CONSTANT = 14;
+    /**
+     * Binäre Operation mit konstantem linken Operanden: c op a. Operand: Index
+     * der Konstanten. Für + und * wird PLUS_CONSTANT bzw. TIMES_CONSTANT
+     * verwendet.
+     */
+    static final int CONSTANT_MINUS = 15;
+    static final int CONSTANT_DIV = 16;
+    static final int CONSTANT_POW = 17;
+
+    private final String[] variables;
+    private final Map<String, Integer> indicesOfVariables = new HashMap<>();
+
+    private final List<Integer> opcodes = new ArrayList<>();
+    private final List<Integer> operands = new ArrayList<>();
+    private final List<Double> constants = new ArrayList<>();
+    private final List<CompiledExpression> interpretedExpressions = new ArrayList<>();
+    private int stackDepth = 0;
+    private int maxStackDepth = 0;
+
+    private int[] opcodeArray;
+    private int[] operandArray;
+    private double[] constantArray;
+
+    PostfixProgram(Expression expr, String[] variables) {
+        this.variables = variables.clone();
+        for (int i = 0; i < variables.length; i++) {
+            this.indicesOfVariables.put(variables[i], i);
+        }
+        compile(expr);
+
+        this.opcodeArray = toIntArray(this.opcodes);
+        this.operandArray = toIntArray(this.operands);
+        this.constantArray = new double[this.constants.size()];
+        for (int i = 0; i < this.constantArray.length; i++) {
+            this.constantArray[i] = this.constants.get(i);
+        }
+    }
+
+    String[] getVariables() {
+        return this.variables;
+    }
+
+    int[] getOpcodes() {
+        return this.opcodeArray;
+    }
+
+    int[] getOperands() {
+        return this.operandArray;
+    }
+
+    double[] getConstants() {
+        return this.constantArray;
+    }
+
+    CompiledExpression[] getInterpretedExpressions() {
+        return this.interpretedExpressions.toArray(new CompiledExpression[this.interpretedExpressions.size()]);
+    }
+
+    int getMaxStackDepth() {
+        return this.maxStackDepth;
+    }
+
+    private void compile(Expression expr) {
+
+        if (expr.getContainedVars().isEmpty()) {
+            emit(CONSTANT, addConstant(expr), 1);
+            return;
+        }
+
+        if (expr instanceof Variable && !(expr instanceof MultiIndexVariable)) {
+            Variable var = (Variable) expr;
+            if (var.getPreciseExpression() != null) {
+                compile(var.getPreciseExpression());
+                return;
+            }
+            Integer index = this.indicesOfVariables.get(var.getName());
+            if (index == null) {
+                throw new IllegalArgumentException("Variable " + var.getName() + " is not contained in the variable layout.");
+            }
+            emit(VARIABLE, index, 1);
+            return;
+        }
+
+        if (expr instanceof BinaryOperation) {
+            BinaryOperation binary = (BinaryOperation) expr;
+            // Konstante Operanden werden nicht auf den Stapel gelegt, sondern
+            // direkt von der Anweisung gelesen.
+            if (binary.getRight().getContainedVars().isEmpty()) {
+                compile(binary.getLeft());
+                int constant = addConstant(binary.getRight());
+                switch (binary.getType()) {
+                    case PLUS:
+                        emit(PLUS_CONSTANT, constant, 0);
+                        break;
+                    case MINUS:
+                        emit(MINUS_CONSTANT, constant, 0);
+                        break;
+                    case TIMES:
+                        emit(TIMES_CONSTANT, constant, 0);
+                        break;
+                    case DIV:
+                        emit(DIV_CONSTANT, constant, 0);
+                        break;
+                    default:
+                        if (binary.getRight().isRationalConstant() && ((BinaryOperation) binary.getRight()).getRight().isOddIntegerConstant()) {
+                            emit(ODD_ROOT_POW_CONSTANT, 2 * constant + (((BinaryOperation) binary.getRight()).getLeft().isOddIntegerConstant() ? 1 : 0), 0);
+                        } else {
+                            emit(POW_CONSTANT, constant, 0);
+                        }
+                }
+                return;
+            }
+            if (binary.getLeft().getContainedVars().isEmpty()) {
+                compile(binary.getRight());
+                int constant = addConstant(binary.getLeft());
+                switch (binary.getType()) {
+                    case PLUS:
+                        emit(PLUS_CONSTANT, constant, 0);
+                        break;
+                    case MINUS:
+                        emit(CONSTANT_MINUS, constant, 0);
+                        break;
+                    case TIMES:
+                        emit(TIMES_CONSTANT, constant, 0);
+                        break;
+                    case DIV:
+                        emit(CONSTANT_DIV, constant, 0);
+                        break;
+                    default:
+                        emit(CONSTANT_POW, constant, 0);
+                }
+                return;
+            }
+            compile(binary.getLeft());
+            compile(binary.getRight());
+            switch (binary.getType()) {
+                case PLUS:
+                    emit(PLUS, 0, -1);
+                    break;
+                case MINUS:
+                    emit(MINUS, 0, -1);
+                    break;
+                case TIMES:
+                    emit(TIMES, 0, -1);
+                    break;
+                case DIV:
+                    emit(DIV, 0, -1);
+                    break;
+                default:
+                    emit(POW, 0, -1);
+            }
+            return;
+        }
+
+        if (expr instanceof Function) {
+            compile(((Function) expr).getLeft());
+            emit(FUNCTION, ((Function) expr).getType().ordinal(), 0);
+            return;
+        }
+
+        // Operatoren, selbstdefinierte Funktionen und Variablen mit Indizes.
+        this.interpretedExpressions.add(ExpressionCompiler.compile(expr, this.variables));
+        emit(INTERPRETED, this.interpretedExpressions.size() - 1, 1);
+
+    }
+
+    private int addConstant(Expression constant) {
+        double value;
+        try {
+            value = constant.evaluate();
+        } catch (EvaluationException e) {
+            value = Double.NaN;
+        }
+        this.constants.add(value);
+        return this.constants.size() - 1;
+    }
+
+    private void emit(int opcode, int operand, int stackDelta) {
+        this.opcodes.add(opcode);
+        this.operands.add(operand);
+        this.stackDepth += stackDelta;
+        this.maxStackDepth = Math.max(this.maxStackDepth, this.stackDepth);
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+}
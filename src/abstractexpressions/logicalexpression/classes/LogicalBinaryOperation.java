@@ -176,7 +176,7 @@ public class LogicalBinaryOperation extends LogicalExpression {
 
         // Zur Kontrolle, ob zwischendurch die Berechnung unterbrochen wurde.
         if (Thread.interrupted()) {
-            throw new EvaluationException(Translator.translateOutputMessage("LEB_LogicalBinaryOperation_COMPUTATION_ABORTED"));
+            throw new EvaluationException(Translator.deferredMessage("LEB_LogicalBinaryOperation_COMPUTATION_ABORTED"));
         }
 
         //Konstante Ausdrücke direkt auswerten.
@@ -305,7 +305,7 @@ public class LogicalBinaryOperation extends LogicalExpression {
 
                     // Zur Kontrolle, ob zwischendurch die Berechnung unterbrochen wurde.
                     if (Thread.interrupted()) {
-                        throw new EvaluationException(Translator.translateOutputMessage("LEB_LogicalBinaryOperation_COMPUTATION_ABORTED"));
+                        throw new EvaluationException(Translator.deferredMessage("LEB_LogicalBinaryOperation_COMPUTATION_ABORTED"));
                     }
 
                 }
@@ -397,7 +397,7 @@ public class LogicalBinaryOperation extends LogicalExpression {
 
                     // Zur Kontrolle, ob zwischendurch die Berechnung unterbrochen wurde.
                     if (Thread.interrupted()) {
-                        throw new EvaluationException(Translator.translateOutputMessage("LEB_LogicalBinaryOperation_COMPUTATION_ABORTED"));
+                        throw new EvaluationException(Translator.deferredMessage("LEB_LogicalBinaryOperation_COMPUTATION_ABORTED"));
                     }
 
                 }
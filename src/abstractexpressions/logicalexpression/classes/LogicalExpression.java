@@ -690,7 +690,7 @@ public abstract class LogicalExpression implements AbstractExpression {
             } while (!logExpr.equals(logExprSimplified));
             return logExprSimplified;
         } catch (java.lang.StackOverflowError e) {
-            throw new EvaluationException(Translator.translateOutputMessage(LEB_LogicalExpression_STACK_OVERFLOW));
+            throw new EvaluationException(Translator.deferredMessage(LEB_LogicalExpression_STACK_OVERFLOW));
         }
 
     }
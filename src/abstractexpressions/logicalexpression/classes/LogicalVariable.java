@@ -2,10 +2,10 @@ package abstractexpressions.logicalexpression.classes;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import process.CasSession;
 
 public class LogicalVariable extends LogicalExpression {
 
-    private static HashMap<String, LogicalVariable> logicalVariables = new HashMap<>();
     private final String name;
     private boolean value;
 
@@ -24,6 +24,14 @@ public class LogicalVariable extends LogicalExpression {
         this.value = value != 0;
     }
 
+    /**
+     * Gibt die Tabelle der logischen Variablen der aktuellen Sitzung zurück
+     * (siehe CasSession).
+     */
+    private static HashMap<String, LogicalVariable> getLogicalVariables() {
+        return CasSession.getCurrent().getLogicalVariables();
+    }
+
     public String getName() {
         return this.name;
     }
@@ -33,49 +41,49 @@ public class LogicalVariable extends LogicalExpression {
     }
 
     public static void setValue(String name, boolean value) {
-        if (logicalVariables.containsKey(name)) {
-            logicalVariables.get(name).value = value;
+        if (getLogicalVariables().containsKey(name)) {
+            getLogicalVariables().get(name).value = value;
         } else {
             LogicalVariable.create(name, value);
         }
     }
 
     public static void setValue(String name, int value) {
-        if (logicalVariables.containsKey(name)) {
-            logicalVariables.get(name).value = value != 0;
+        if (getLogicalVariables().containsKey(name)) {
+            getLogicalVariables().get(name).value = value != 0;
         } else {
             LogicalVariable.create(name, value);
         }
     }
 
     public static LogicalVariable create(String name) {
-        if (logicalVariables.containsKey(name)) {
-            return logicalVariables.get(name);
+        if (getLogicalVariables().containsKey(name)) {
+            return getLogicalVariables().get(name);
         } else {
             LogicalVariable result = new LogicalVariable(name, 0);
-            logicalVariables.put(name, result);
+            getLogicalVariables().put(name, result);
             return result;
         }
     }
 
     public static LogicalVariable create(String name, boolean value) {
-        if (logicalVariables.containsKey(name)) {
-            logicalVariables.get(name).value = value;
-            return logicalVariables.get(name);
+        if (getLogicalVariables().containsKey(name)) {
+            getLogicalVariables().get(name).value = value;
+            return getLogicalVariables().get(name);
         } else {
             LogicalVariable result = new LogicalVariable(name, value);
-            logicalVariables.put(name, result);
+            getLogicalVariables().put(name, result);
             return result;
         }
     }
 
     public static LogicalVariable create(String name, int value) {
-        if (logicalVariables.containsKey(name)) {
-            logicalVariables.get(name).value = value != 0;
-            return logicalVariables.get(name);
+        if (getLogicalVariables().containsKey(name)) {
+            getLogicalVariables().get(name).value = value != 0;
+            return getLogicalVariables().get(name);
         } else {
             LogicalVariable result = new LogicalVariable(name, value);
-            logicalVariables.put(name, result);
+            getLogicalVariables().put(name, result);
             return result;
         }
     }
@@ -975,7 +975,7 @@ public abstract class MatrixExpression implements AbstractExpression {
             return matExprSimplified;
 
         } catch (java.lang.StackOverflowError e) {
-            throw new EvaluationException(Translator.translateOutputMessage(MEB_MatrixExpression_STACK_OVERFLOW));
+            throw new EvaluationException(Translator.deferredMessage(MEB_MatrixExpression_STACK_OVERFLOW));
         }
 
     }
@@ -1037,7 +1037,7 @@ public abstract class MatrixExpression implements AbstractExpression {
             return matExprSimplified;
 
         } catch (java.lang.StackOverflowError e) {
-            throw new EvaluationException(Translator.translateOutputMessage(MEB_MatrixExpression_STACK_OVERFLOW));
+            throw new EvaluationException(Translator.deferredMessage(MEB_MatrixExpression_STACK_OVERFLOW));
         }
 
     }
@@ -208,7 +208,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.height != dim.width) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixFunction_DET_NOT_DEFINED"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixFunction_DET_NOT_DEFINED"));
         }
 
         if (dim.height == 0) {
@@ -291,7 +291,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.width != 1) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixFunction_ABS_NOT_DEFINED"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixFunction_ABS_NOT_DEFINED"));
         }
 
         if (this.left instanceof Matrix) {
@@ -316,7 +316,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.height != dim.width) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixFunction_COS_NOT_DEFINED"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixFunction_COS_NOT_DEFINED"));
         }
 
         if (dim.height == 0) {
@@ -357,7 +357,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.height != dim.width) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixFunction_COSH_NOT_DEFINED"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixFunction_COSH_NOT_DEFINED"));
         }
 
         if (dim.height == 0) {
@@ -397,7 +397,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.height != dim.width) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixFunction_EXP_NOT_DEFINED"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixFunction_EXP_NOT_DEFINED"));
         }
 
         if (dim.height == 0) {
@@ -437,7 +437,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.height != dim.width) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixFunction_LN_NOT_DEFINED"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixFunction_LN_NOT_DEFINED"));
         }
 
         if (dim.height == 0) {
@@ -481,7 +481,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.height != dim.width) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixFunction_SIN_NOT_DEFINED"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixFunction_SIN_NOT_DEFINED"));
         }
 
         if (dim.height == 0) {
@@ -521,7 +521,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.height != dim.width) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixFunction_SINH_NOT_DEFINED"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixFunction_SINH_NOT_DEFINED"));
         }
 
         if (dim.height == 0) {
@@ -561,7 +561,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.height == 0 || dim.width == 0) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixExpression_NO_ROWS"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixExpression_NO_ROWS"));
         }
 
         if (this.left.isMatrix()) {
@@ -594,7 +594,7 @@ public class MatrixFunction extends MatrixExpression {
 
         Dimension dim = this.left.getDimension();
         if (dim.height != dim.width) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixFunction_TR_NOT_DEFINED"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixFunction_TR_NOT_DEFINED"));
         }
 
         if (this.left.isNotMatrix()) {
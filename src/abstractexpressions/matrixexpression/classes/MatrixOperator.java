@@ -14,12 +14,14 @@ import abstractexpressions.expression.classes.TypeOperator;
 import java.awt.Dimension;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import abstractexpressions.matrixexpression.basic.SimplifyMatrixOperatorUtils;
 import exceptions.CancellationException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import operationparser.OperationParser;
@@ -45,6 +47,28 @@ public class MatrixOperator extends MatrixExpression {
     public static final String PATTERN_ROT = "rot(matexpr,uniqueindet,uniqueindet,uniqueindet)";
     public static final String PATTERN_SUM = "sum(matexpr,indet(!2,!3),expr,expr)";
 
+    /*
+     Ausführmethoden für die einzelnen Matrizenoperatoren (mit @SimplifyMatrixOperator
+     annotiert). Sie werden einmal beim Laden der Klasse ermittelt, damit in
+     simplifyBasic() nicht jedes Mal per Reflection gesucht werden muss.
+     */
+    private static final EnumMap<TypeMatrixOperator, MethodHandle> SIMPLIFY_METHODS = new EnumMap<>(TypeMatrixOperator.class);
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        SimplifyMatrixOperator annotation;
+        for (Method method : MatrixOperator.class.getDeclaredMethods()) {
+            annotation = method.getAnnotation(SimplifyMatrixOperator.class);
+            if (annotation != null && !SIMPLIFY_METHODS.containsKey(annotation.type())) {
+                try {
+                    SIMPLIFY_METHODS.put(annotation.type(), lookup.unreflect(method));
+                } catch (IllegalAccessException e) {
+                    // Kann nicht eintreten, da lookup auf alle Methoden von MatrixOperator zugreifen darf.
+                }
+            }
+        }
+    }
+
     public MatrixOperator() {
     }
 
@@ -596,23 +620,15 @@ public class MatrixOperator extends MatrixExpression {
         }
         MatrixOperator operator = new MatrixOperator(this.type, resultParams, this.precise);
 
-        // Mittels Reflection die passende Ausführmethode ermittln (durch Vergleich der Annotation).
-        Method[] methods = MatrixOperator.class.getDeclaredMethods();
-        SimplifyMatrixOperator annotation;
-        for (Method method : methods) {
-            annotation = method.getAnnotation(SimplifyMatrixOperator.class);
-            if (annotation != null && annotation.type().equals(this.type)) {
-                try {
-                    return (MatrixExpression) method.invoke(operator);
-                } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                    if (e.getCause() instanceof EvaluationException) {
-                        throw (EvaluationException) e.getCause();
-                    }
-                    if (e.getCause() instanceof CancellationException) {
-                        throw (CancellationException) e.getCause();
-                    }
-                    throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixOperator_INVALID_MATRIX_OPERATOR"));
-                }
+        // Die passende Ausführmethode aus der beim Laden der Klasse erstellten Tabelle holen.
+        MethodHandle simplifyMethod = SIMPLIFY_METHODS.get(this.type);
+        if (simplifyMethod != null) {
+            try {
+                return (MatrixExpression) simplifyMethod.invokeExact(operator);
+            } catch (EvaluationException | CancellationException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new EvaluationException(Translator.deferredMessage("MEB_MatrixOperator_INVALID_MATRIX_OPERATOR"));
             }
         }
 
@@ -693,7 +709,7 @@ public class MatrixOperator extends MatrixExpression {
             points[i] = ((MatrixExpression) params[i]).simplify();
             dim = points[i].getDimension();
             if (!points[i].isMatrix() || dim.width != 1 || dim.height != 2) {
-                throw new EvaluationException(Translator.translateOutputMessage("MEB_Operator_COV_PARAMETERS_ARE_NOT_POINTS"));
+                throw new EvaluationException(Translator.deferredMessage("MEB_Operator_COV_PARAMETERS_ARE_NOT_POINTS"));
             }
         }
 
@@ -738,7 +754,7 @@ public class MatrixOperator extends MatrixExpression {
             vectors[i] = ((MatrixExpression) params[i]).simplify();
             dim = vectors[i].getDimension();
             if (!vectors[i].isMatrix() || dim.width != 1 || dim.height != params.length + 1) {
-                throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixOperator_WRONG_FORM_OF_PARAMETERS_IN_OPERATOR_CROSS", i + 1, params.length + 1));
+                throw new EvaluationException(Translator.deferredMessage("MEB_MatrixOperator_WRONG_FORM_OF_PARAMETERS_IN_OPERATOR_CROSS", i + 1, params.length + 1));
             }
         }
 
@@ -957,7 +973,7 @@ public class MatrixOperator extends MatrixExpression {
 
         Dimension dim = factor.getDimension();
         if (dim.width != dim.height) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_MatrixOperator_FIRST_PARAMETER_IN_PROD_NOT_SQUARE_MATRIX"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_MatrixOperator_FIRST_PARAMETER_IN_PROD_NOT_SQUARE_MATRIX"));
         }
 
         if (((Expression) this.params[2]).isIntegerConstant() && ((Expression) this.params[3]).isIntegerConstant()) {
@@ -1004,7 +1020,7 @@ public class MatrixOperator extends MatrixExpression {
         Dimension dim = ((Matrix) matExpr).getDimension();
 
         if (dim.height != 3 || dim.width != 1) {
-            throw new EvaluationException(Translator.translateOutputMessage("MEB_Operator_WRONG_FORM_OF_PARAMETER_IN_OPERATOR_ROT"));
+            throw new EvaluationException(Translator.deferredMessage("MEB_Operator_WRONG_FORM_OF_PARAMETER_IN_OPERATOR_ROT"));
         }
 
         Expression matExprX = ((Matrix) this.params[0]).getEntry(0, 0);
@@ -0,0 +1,413 @@
+package batch;
+
+import abstractexpressions.expression.classes.Expression;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import process.CasSession;
+import process.SimplificationBudget;
+
+/**
+ * Vereinfacht die GP-Bäume simpleGPTree_[run].txt mehrerer Ergebnisordner und
+ * Läufe innerhalb einer einzigen JVM. Die einzelnen Dateien werden auf einem
+ * ForkJoinPool verteilt, so dass freie Threads Arbeit von ausgelasteten
+ * Threads übernehmen können.
+ */
+public class BatchSimplifier {
+
+    private static final String RAW_GP_TREE_FILE_PREFIX = "simpleGPTree_";
+    private static final String SIMPLIFIED_GP_TREE_DIR_SUFFIX = "_simplifiedGP";
+    private static final String SIMPLIFIED_GP_TREE_FILE_PREFIX = "bestGPTree_";
+    private static final String GP_TREE_FILE_EXTENSION = ".txt";
+
+    /**
+     * Bis zu dieser Anzahl von Dateien wird eine Teilaufgabe nicht weiter
+     * aufgeteilt.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1;
+
+    private final ForkJoinPool pool;
+    private final SimplificationWatchdog watchdog;
+    private SimplificationCache cache;
+
+    public BatchSimplifier() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchSimplifier(int parallelism) {
+        this(parallelism, new SimplificationWatchdog(0, 0));
+    }
+
+    /**
+     * Jeder GP-Baum wird unter dem Budget von watchdog vereinfacht.
+     */
+    public BatchSimplifier(int parallelism, SimplificationWatchdog watchdog) {
+        // Jeder Worker rechnet mit einer eigenen Sitzung (benutzerdefinierte Funktionen, Buchberger-Einstellungen, ...).
+        this.pool = new ForkJoinPool(parallelism, CasSession.newForkJoinWorkerThreadFactory(), null, false);
+        this.watchdog = watchdog;
+    }
+
+    public int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    /**
+     * Setzt den Cache, in welchem bereits vereinfachte GP-Bäume nachgeschlagen
+     * und neu vereinfachte abgelegt werden (null = kein Cache).
+     */
+    public void setCache(SimplificationCache cache) {
+        this.cache = cache;
+    }
+
+    public void shutdown() {
+        this.pool.shutdown();
+        this.watchdog.shutdown();
+    }
+
+    /**
+     * Gibt die Datei zurück, aus welcher der GP-Baum des Laufes run im
+     * Ergebnisordner directory gelesen wird.
+     */
+    public static File getRawGPTreeFile(File directory, int run) {
+        return new File(directory, RAW_GP_TREE_FILE_PREFIX + run + GP_TREE_FILE_EXTENSION);
+    }
+
+    /**
+     * Gibt den Ordner zurück, in welchen die vereinfachten GP-Bäume des
+     * Ergebnisordners directory geschrieben werden (wie bisher neben
+     * directory mit dem Suffix _simplifiedGP).
+     */
+    public static File getSimplifiedGPTreeDirectory(File directory) {
+        return new File(directory.getPath() + SIMPLIFIED_GP_TREE_DIR_SUFFIX);
+    }
+
+    /**
+     * Gibt die Datei zurück, in welche der vereinfachte GP-Baum des Laufes run
+     * des Ergebnisordners directory geschrieben wird.
+     */
+    public static File getSimplifiedGPTreeFile(File directory, int run) {
+        return new File(getSimplifiedGPTreeDirectory(directory), SIMPLIFIED_GP_TREE_FILE_PREFIX + run + GP_TREE_FILE_EXTENSION);
+    }
+
+    /**
+     * Liest den GP-Baum aus file. Wie in ReadExpression werden alle Zeilen
+     * ohne Trennzeichen aneinandergehängt.
+     *
+     * @throws IOException
+     */
+    public static String readExpression(File file) throws IOException {
+        StringBuilder contentBuilder = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                contentBuilder.append(line);
+            }
+        }
+        return contentBuilder.toString();
+    }
+
+    /**
+     * Schreibt expression in die Datei file.
+     *
+     * @throws IOException
+     */
+    public static void writeExpression(File file, String expression) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write(expression);
+        }
+    }
+
+    /**
+     * Parst rawExpression, vereinfacht den Ausdruck und gibt das Ergebnis als
+     * String zurück.
+     *
+     * @throws ExpressionException
+     * @throws EvaluationException
+     */
+    public static String simplifyExpression(String rawExpression) throws ExpressionException, EvaluationException {
+        return Expression.build(rawExpression).simplify().toString();
+    }
+
+    /**
+     * Vereinfacht für jeden Ordner aus directories die GP-Bäume der Läufe
+     * firstRun, ..., lastRun. Die Ergebnisse werden in der Reihenfolge
+     * (Ordner, Lauf) zurückgegeben.
+     */
+    public List<SimplificationResult> simplifyRuns(List<File> directories, int firstRun, int lastRun) {
+
+        List<File> directoriesOfJobs = new ArrayList<>();
+        List<Integer> runsOfJobs = new ArrayList<>();
+        for (File directory : directories) {
+            for (int run = firstRun; run <= lastRun; run++) {
+                directoriesOfJobs.add(directory);
+                runsOfJobs.add(run);
+            }
+        }
+
+        SimplificationResult[] results = new SimplificationResult[directoriesOfJobs.size()];
+        this.pool.invoke(new SimplifyRunsAction(directoriesOfJobs, runsOfJobs, results, 0, results.length));
+
+        List<SimplificationResult> resultList = new ArrayList<>(results.length);
+        Collections.addAll(resultList, results);
+        return resultList;
+
+    }
+
+    /**
+     * Vereinfacht den GP-Baum des Laufes run im Ergebnisordner directory und
+     * schreibt das Ergebnis in die entsprechende Datei bestGPTree_[run].txt.
+     * Fehler werden nicht geworfen, sondern im Ergebnis vermerkt. Wird das
+     * Budget überschritten, so wird der kürzeste bis dahin erreichte
+     * Zwischenstand geschrieben.
+     */
+    public SimplificationResult simplifyRun(File directory, int run) {
+
+        long start = System.nanoTime();
+        File rawGPTreeFile = getRawGPTreeFile(directory, run);
+        if (!rawGPTreeFile.isFile()) {
+            return new SimplificationResult(directory, run, SimplificationResult.Status.MISSING_INPUT,
+                    System.nanoTime() - start, rawGPTreeFile.getPath());
+        }
+
+        try {
+            Expression expr = Expression.build(readExpression(rawGPTreeFile));
+            SimplificationCache.Fingerprint fingerprint = null;
+            if (this.cache != null) {
+                fingerprint = SimplificationCache.getFingerprint(expr);
+                String cachedExpression = this.cache.get(fingerprint);
+                if (cachedExpression != null) {
+                    writeSimplifiedExpression(directory, run, cachedExpression);
+                    return new SimplificationResult(directory, run, SimplificationResult.Status.CACHED,
+                            System.nanoTime() - start, null);
+                }
+            }
+
+            SimplificationBudget budget = this.watchdog.simplify(expr);
+            String simplifiedExpression = budget.getResult().toString();
+            writeSimplifiedExpression(directory, run, simplifiedExpression);
+            if (this.cache != null && !budget.isExhausted()) {
+                this.cache.put(fingerprint, simplifiedExpression);
+            }
+            if (budget.isExhausted()) {
+                return new SimplificationResult(directory, run, SimplificationResult.Status.BUDGET_EXHAUSTED,
+                        System.nanoTime() - start, SimplificationWatchdog.describeExhaustion(budget));
+            }
+            return new SimplificationResult(directory, run, SimplificationResult.Status.SIMPLIFIED,
+                    System.nanoTime() - start, null);
+        } catch (ExpressionException | EvaluationException | IOException | RuntimeException e) {
+            return new SimplificationResult(directory, run, SimplificationResult.Status.FAILED,
+                    System.nanoTime() - start, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+
+    }
+
+    private static void writeSimplifiedExpression(File directory, int run, String simplifiedExpression) throws IOException {
+        File simplifiedGPTreeDirectory = getSimplifiedGPTreeDirectory(directory);
+        if (!simplifiedGPTreeDirectory.exists()) {
+            // mkdirs() kann scheitern, wenn ein anderer Thread den Ordner gerade anlegt.
+            simplifiedGPTreeDirectory.mkdirs();
+        }
+        writeExpression(getSimplifiedGPTreeFile(directory, run), simplifiedExpression);
+    }
+
+    /**
+     * Teilt die Jobs mit Index in [from, to) rekursiv auf, bis einzelne
+     * Dateien übrig sind.
+     */
+    private class SimplifyRunsAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<File> directories;
+        private final List<Integer> runs;
+        private final SimplificationResult[] results;
+        private final int from;
+        private final int to;
+
+        SimplifyRunsAction(List<File> directories, List<Integer> runs, SimplificationResult[] results, int from, int to) {
+            this.directories = directories;
+            this.runs = runs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.results[i] = simplifyRun(this.directories.get(i), this.runs.get(i));
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new SimplifyRunsAction(this.directories, this.runs, this.results, this.from, middle),
+                    new SimplifyRunsAction(this.directories, this.runs, this.results, middle, this.to));
+        }
+
+    }
+
+    /**
+     * Parst einen Bereich von Läufen der Form FIRST-LAST (oder nur RUN für
+     * einen einzelnen Lauf) und gibt {FIRST, LAST} zurück.
+     *
+     * @throws IllegalArgumentException falls runRange keinen gültigen Bereich
+     * beschreibt.
+     */
+    public static int[] parseRunRange(String runRange) {
+        String[] bounds = runRange.split("-", -1);
+        if (bounds.length > 2) {
+            throw new IllegalArgumentException("Invalid run range: " + runRange);
+        }
+        int firstRun = Integer.parseInt(bounds[0].trim());
+        int lastRun = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : firstRun;
+        if (firstRun < 0 || lastRun < firstRun) {
+            throw new IllegalArgumentException("Invalid run range: " + runRange);
+        }
+        return new int[]{firstRun, lastRun};
+    }
+
+    /**
+     * Löst die angegebenen Ordner bzw. Glob-Muster (etwa
+     * /results/Container*_OS2) zu einer sortierten Liste von existierenden
+     * Ordnern auf.
+     *
+     * @throws IOException
+     */
+    public static List<File> resolveDirectories(List<String> directoriesOrGlobs) throws IOException {
+        List<File> directories = new ArrayList<>();
+        for (String directoryOrGlob : directoriesOrGlobs) {
+            if (!isGlob(directoryOrGlob)) {
+                directories.add(new File(removeTrailingSeparator(directoryOrGlob)));
+                continue;
+            }
+            List<File> matchingDirectories = getDirectoriesMatchingGlob(directoryOrGlob);
+            Collections.sort(matchingDirectories);
+            directories.addAll(matchingDirectories);
+        }
+        return directories;
+    }
+
+    private static boolean isGlob(String path) {
+        return path.contains("*") || path.contains("?") || path.contains("[") || path.contains("{");
+    }
+
+    private static String removeTrailingSeparator(String path) {
+        while (path.length() > 1 && (path.endsWith("/") || path.endsWith(File.separator))) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
+    private static List<File> getDirectoriesMatchingGlob(String glob) throws IOException {
+
+        Path globPath = Paths.get(removeTrailingSeparator(glob)).toAbsolutePath().normalize();
+
+        // Basisordner = längster Präfix ohne Glob-Zeichen.
+        Path base = globPath.getRoot();
+        int depth = globPath.getNameCount();
+        for (int i = 0; i < globPath.getNameCount(); i++) {
+            if (isGlob(globPath.getName(i).toString())) {
+                break;
+            }
+            base = base.resolve(globPath.getName(i));
+            depth--;
+        }
+
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + globPath.toString());
+        final List<File> matchingDirectories = new ArrayList<>();
+        if (!Files.isDirectory(base)) {
+            return matchingDirectories;
+        }
+        Files.walkFileTree(base, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (matcher.matches(dir)) {
+                    matchingDirectories.add(dir.toFile());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                // Bei maximaler Tiefe werden auch Ordner als Datei besucht.
+                if (attrs.isDirectory() && matcher.matches(file)) {
+                    matchingDirectories.add(file.toFile());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        return matchingDirectories;
+
+    }
+
+    /**
+     * Gibt für jede Datei die Latenz sowie am Ende die Gesamtstatistik aus.
+     */
+    public static void printReport(List<SimplificationResult> results, long wallTimeNanos, PrintStream out) {
+
+        int numberOfSimplifiedTrees = 0, numberOfCachedTrees = 0, numberOfMissingTrees = 0, numberOfExhaustedTrees = 0, numberOfFailedTrees = 0;
+        long totalLatencyNanos = 0, maxLatencyNanos = 0;
+        for (SimplificationResult result : results) {
+            out.println(result);
+            switch (result.getStatus()) {
+                case SIMPLIFIED:
+                    numberOfSimplifiedTrees++;
+                    break;
+                case CACHED:
+                    numberOfCachedTrees++;
+                    break;
+                case MISSING_INPUT:
+                    numberOfMissingTrees++;
+                    break;
+                case BUDGET_EXHAUSTED:
+                    numberOfExhaustedTrees++;
+                    break;
+                default:
+                    numberOfFailedTrees++;
+                    break;
+            }
+            totalLatencyNanos += result.getLatencyNanos();
+            maxLatencyNanos = Math.max(maxLatencyNanos, result.getLatencyNanos());
+        }
+
+        out.println("Files: " + results.size() + ", simplified: " + numberOfSimplifiedTrees + ", from cache: " + numberOfCachedTrees
+                + ", missing: " + numberOfMissingTrees + ", budget exhausted: " + numberOfExhaustedTrees
+                + ", failed: " + numberOfFailedTrees);
+        if (!results.isEmpty()) {
+            out.println(String.format("Latency per file: mean %.1f ms, max %.1f ms, sum %.1f ms",
+                    totalLatencyNanos / 1e6 / results.size(), maxLatencyNanos / 1e6, totalLatencyNanos / 1e6));
+        }
+        out.println(String.format("Wall time: %.1f ms", wallTimeNanos / 1e6));
+
+    }
+
+}
@@ -0,0 +1,487 @@
+package batch;
+
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.evaluation.ColumnarEvaluator;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Prüft numerisch, ob ein vereinfachter Baum mit dem ursprünglichen Baum
+ * übereinstimmt. Beide Bäume werden an zufälligen Stellen oder an den Zeilen
+ * eines Datensatzes (etwa der echten Merkmalsvektoren) mit dem
+ * ColumnarEvaluator auf allen Kernen ausgewertet und verglichen.
+ * <br>
+ * Eine Stelle ist ein Gegenbeispiel, wenn dort beide Bäume definiert sind und
+ * ihre Werte sich sowohl absolut als auch relativ um mehr als die jeweilige
+ * Toleranz unterscheiden, oder wenn dort genau einer der beiden Bäume nicht
+ * definiert ist. Sobald getMaxCounterexamples() Gegenbeispiele gefunden
+ * wurden, wird die Prüfung abgebrochen.
+ */
+public class EquivalenceVerifier {
+
+    /**
+     * Anzahl der Stellen, die jeweils gemeinsam ausgewertet werden, bevor
+     * geprüft wird, ob genug Gegenbeispiele gefunden wurden.
+     */
+    private static final int POINTS_PER_CHUNK = 64 * ColumnarEvaluator.BLOCK_SIZE;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ForkJoinPool pool;
+    private int maxCounterexamples = 10;
+    private double absoluteTolerance = 1e-9;
+    private double relativeTolerance = 1e-9;
+
+    public EquivalenceVerifier() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public EquivalenceVerifier(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int getMaxCounterexamples() {
+        return this.maxCounterexamples;
+    }
+
+    /**
+     * Setzt die Anzahl der Gegenbeispiele, nach welcher die Prüfung
+     * abgebrochen wird. Bei 0 werden stets alle Stellen geprüft.
+     */
+    public void setMaxCounterexamples(int maxCounterexamples) {
+        if (maxCounterexamples < 0) {
+            throw new IllegalArgumentException("The number of counterexamples must not be negative.");
+        }
+        this.maxCounterexamples = maxCounterexamples;
+    }
+
+    /**
+     * Setzt die Toleranzen: Zwei Werte a, b gelten als gleich, wenn |a - b| <=
+     * absoluteTolerance oder |a - b| <= relativeTolerance * max(|a|, |b|)
+     * gilt.
+     */
+    public void setTolerances(double absoluteTolerance, double relativeTolerance) {
+        if (!(absoluteTolerance >= 0) || !(relativeTolerance >= 0)) {
+            throw new IllegalArgumentException("The tolerances must not be negative.");
+        }
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+    }
+
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Gibt die in raw oder simplified vorkommenden Variablen in
+     * alphabetischer Reihenfolge zurück.
+     */
+    public static String[] getVariables(Expression raw, Expression simplified) {
+        TreeSet<String> variables = new TreeSet<>(raw.getContainedVars());
+        variables.addAll(simplified.getContainedVars());
+        return variables.toArray(new String[variables.size()]);
+    }
+
+    /**
+     * Ein Datensatz aus benannten Spalten gleicher Länge.
+     */
+    public static class Dataset {
+
+        private final Map<String, double[]> columns = new HashMap<>();
+        private final int numberOfPoints;
+
+        /**
+         * columnNames[i] ist der Name der Spalte columns[i].
+         */
+        public Dataset(String[] columnNames, double[][] columns) {
+            if (columnNames.length != columns.length) {
+                throw new IllegalArgumentException("Expected " + columns.length + " column names, got " + columnNames.length + ".");
+            }
+            int length = columns.length == 0 ? 0 : columns[0].length;
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].length != length) {
+                    throw new IllegalArgumentException("All columns must have the same length.");
+                }
+                this.columns.put(columnNames[i], columns[i]);
+            }
+            this.numberOfPoints = length;
+        }
+
+        /**
+         * Liest eine CSV-Datei. Die erste Zeile enthält die Namen der Spalten,
+         * jede weitere Zeile eine Stelle. Trennzeichen ist das Komma, leere
+         * Zeilen werden übersprungen.
+         *
+         * @throws IOException
+         */
+        public static Dataset readCsv(File file) throws IOException {
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+                String header = reader.readLine();
+                if (header == null) {
+                    throw new IOException(file + " is empty.");
+                }
+                String[] columnNames = header.split(",");
+                for (int i = 0; i < columnNames.length; i++) {
+                    columnNames[i] = columnNames[i].trim();
+                }
+
+                double[][] columns = new double[columnNames.length][1024];
+                int numberOfPoints = 0;
+                int lineNumber = 1;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    String[] values = line.split(",");
+                    if (values.length != columnNames.length) {
+                        throw new IOException(file + ", line " + lineNumber + ": expected " + columnNames.length
+                                + " values, got " + values.length + ".");
+                    }
+                    if (numberOfPoints == columns[0].length) {
+                        for (int i = 0; i < columns.length; i++) {
+                            columns[i] = Arrays.copyOf(columns[i], 2 * numberOfPoints);
+                        }
+                    }
+                    for (int i = 0; i < values.length; i++) {
+                        try {
+                            columns[i][numberOfPoints] = Double.parseDouble(values[i].trim());
+                        } catch (NumberFormatException e) {
+                            throw new IOException(file + ", line " + lineNumber + ": " + values[i].trim() + " is not a number.");
+                        }
+                    }
+                    numberOfPoints++;
+                }
+
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = Arrays.copyOf(columns[i], numberOfPoints);
+                }
+                return new Dataset(columnNames, columns);
+            }
+        }
+
+        public int getNumberOfPoints() {
+            return this.numberOfPoints;
+        }
+
+        /**
+         * Gibt die Spalte mit dem Namen name oder null zurück.
+         */
+        public double[] getColumn(String name) {
+            return this.columns.get(name);
+        }
+
+    }
+
+    /**
+     * Ein Gegenbeispiel: Stelle, an der die Bäume nicht übereinstimmen. Nicht
+     * definierte Werte sind NaN.
+     */
+    public static class Counterexample {
+
+        private final String[] variables;
+        private final double[] point;
+        private final double rawValue;
+        private final double simplifiedValue;
+
+        Counterexample(String[] variables, double[] point, double rawValue, double simplifiedValue) {
+            this.variables = variables;
+            this.point = point;
+            this.rawValue = rawValue;
+            this.simplifiedValue = simplifiedValue;
+        }
+
+        /**
+         * Gibt die Werte der Variablen (in der Reihenfolge von
+         * VerificationResult.getVariables()) zurück.
+         */
+        public double[] getPoint() {
+            return this.point.clone();
+        }
+
+        public double getRawValue() {
+            return this.rawValue;
+        }
+
+        public double getSimplifiedValue() {
+            return this.simplifiedValue;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder point = new StringBuilder();
+            for (int i = 0; i < this.variables.length; i++) {
+                if (i > 0) {
+                    point.append(", ");
+                }
+                point.append(this.variables[i]).append(" = ").append(this.point[i]);
+            }
+            return "(" + point + "): raw " + (Double.isNaN(this.rawValue) ? "undefined" : this.rawValue)
+                    + ", simplified " + (Double.isNaN(this.simplifiedValue) ? "undefined" : this.simplifiedValue);
+        }
+
+    }
+
+    /**
+     * Ergebnis der Prüfung eines Paares von Bäumen.
+     */
+    public static class VerificationResult {
+
+        private final String[] variables;
+        private long numberOfPoints;
+        private long numberOfDisagreements;
+        private long numberOfPointsUndefinedOnlyInRaw;
+        private long numberOfPointsUndefinedOnlyInSimplified;
+        private long numberOfPointsUndefinedInBoth;
+        private double maxAbsoluteError;
+        private double maxRelativeError;
+        private boolean shortCircuited;
+        private final List<Counterexample> counterexamples = new ArrayList<>();
+
+        VerificationResult(String[] variables) {
+            this.variables = variables;
+        }
+
+        public String[] getVariables() {
+            return this.variables.clone();
+        }
+
+        /**
+         * Gibt die Anzahl der geprüften Stellen zurück.
+         */
+        public long getNumberOfPoints() {
+            return this.numberOfPoints;
+        }
+
+        /**
+         * Gibt die Anzahl der Stellen zurück, an denen beide Bäume definiert
+         * sind, aber nicht übereinstimmen.
+         */
+        public long getNumberOfDisagreements() {
+            return this.numberOfDisagreements;
+        }
+
+        public long getNumberOfPointsUndefinedOnlyInRaw() {
+            return this.numberOfPointsUndefinedOnlyInRaw;
+        }
+
+        public long getNumberOfPointsUndefinedOnlyInSimplified() {
+            return this.numberOfPointsUndefinedOnlyInSimplified;
+        }
+
+        public long getNumberOfPointsUndefinedInBoth() {
+            return this.numberOfPointsUndefinedInBoth;
+        }
+
+        /**
+         * Gibt die größte absolute Abweichung über alle Stellen zurück, an
+         * denen beide Bäume definiert sind.
+         */
+        public double getMaxAbsoluteError() {
+            return this.maxAbsoluteError;
+        }
+
+        /**
+         * Gibt die größte relative Abweichung |a - b| / max(|a|, |b|) über
+         * alle Stellen zurück, an denen beide Bäume definiert sind.
+         */
+        public double getMaxRelativeError() {
+            return this.maxRelativeError;
+        }
+
+        /**
+         * Gibt zurück, ob die Prüfung abgebrochen wurde, weil
+         * getMaxCounterexamples() Gegenbeispiele gefunden wurden.
+         */
+        public boolean isShortCircuited() {
+            return this.shortCircuited;
+        }
+
+        public List<Counterexample> getCounterexamples() {
+            return Collections.unmodifiableList(this.counterexamples);
+        }
+
+        /**
+         * Gibt zurück, ob an keiner geprüften Stelle ein Gegenbeispiel
+         * gefunden wurde.
+         */
+        public boolean isEquivalent() {
+            return this.numberOfDisagreements == 0 && this.numberOfPointsUndefinedOnlyInRaw == 0
+                    && this.numberOfPointsUndefinedOnlyInSimplified == 0;
+        }
+
+        @Override
+        public String toString() {
+            String result = (isEquivalent() ? "EQUIVALENT" : "NOT EQUIVALENT") + " on " + this.numberOfPoints + " points"
+                    + (this.shortCircuited ? " (stopped early)" : "") + ": "
+                    + this.numberOfDisagreements + " disagreements, "
+                    + this.numberOfPointsUndefinedOnlyInRaw + " undefined only in raw tree, "
+                    + this.numberOfPointsUndefinedOnlyInSimplified + " undefined only in simplified tree, "
+                    + this.numberOfPointsUndefinedInBoth + " undefined in both, max absolute error "
+                    + this.maxAbsoluteError + ", max relative error " + this.maxRelativeError;
+            if (!this.counterexamples.isEmpty()) {
+                result += ", first counterexample " + this.counterexamples.get(0);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Liefert die zu prüfenden Stellen abschnittsweise.
+     */
+    private abstract static class PointSource {
+
+        /**
+         * Schreibt die nächsten (höchstens chunk[j].length) Stellen nach
+         * chunk und gibt ihre Anzahl zurück (0, falls es keine weiteren
+         * Stellen gibt).
+         */
+        abstract int nextChunk(double[][] chunk);
+
+    }
+
+    /**
+     * Prüft raw und simplified an numberOfPoints Stellen, deren Koordinaten
+     * gleichverteilt in [min, max) gewählt werden. Bei gleichem seed werden
+     * dieselben Stellen geprüft.
+     */
+    public VerificationResult verifyAtRandomPoints(Expression raw, Expression simplified, final long numberOfPoints,
+            final double min, final double max, long seed) {
+        if (numberOfPoints < 0 || !(min <= max)) {
+            throw new IllegalArgumentException("Invalid number of points or range.");
+        }
+        final Random random = new Random(seed);
+        return verify(raw, simplified, getVariables(raw, simplified), new PointSource() {
+
+            private long remainingPoints = numberOfPoints;
+
+            @Override
+            int nextChunk(double[][] chunk) {
+                int length = (int) Math.min(this.remainingPoints, POINTS_PER_CHUNK);
+                for (double[] column : chunk) {
+                    for (int i = 0; i < length; i++) {
+                        column[i] = min + (max - min) * random.nextDouble();
+                    }
+                }
+                this.remainingPoints -= length;
+                return length;
+            }
+
+        });
+    }
+
+    /**
+     * Prüft raw und simplified an allen Stellen von dataset. Jede Variable
+     * der beiden Bäume muss eine Spalte von dataset sein, andernfalls wird
+     * eine IllegalArgumentException geworfen.
+     */
+    public VerificationResult verifyAtPoints(Expression raw, Expression simplified, final Dataset dataset) {
+        String[] variables = getVariables(raw, simplified);
+        final double[][] columns = new double[variables.length][];
+        for (int j = 0; j < variables.length; j++) {
+            columns[j] = dataset.getColumn(variables[j]);
+            if (columns[j] == null) {
+                throw new IllegalArgumentException("Variable " + variables[j] + " is not a column of the dataset.");
+            }
+        }
+        return verify(raw, simplified, variables, new PointSource() {
+
+            private int from = 0;
+
+            @Override
+            int nextChunk(double[][] chunk) {
+                int length = Math.min(dataset.getNumberOfPoints() - this.from, POINTS_PER_CHUNK);
+                for (int j = 0; j < columns.length; j++) {
+                    System.arraycopy(columns[j], this.from, chunk[j], 0, length);
+                }
+                this.from += length;
+                return length;
+            }
+
+        });
+    }
+
+    private VerificationResult verify(Expression raw, Expression simplified, String[] variables, PointSource source) {
+
+        ColumnarEvaluator rawEvaluator = new ColumnarEvaluator(raw, variables);
+        ColumnarEvaluator simplifiedEvaluator = new ColumnarEvaluator(simplified, variables);
+        VerificationResult result = new VerificationResult(variables);
+
+        double[][] chunk = new double[variables.length][POINTS_PER_CHUNK];
+        double[] rawValues = new double[POINTS_PER_CHUNK];
+        double[] simplifiedValues = new double[POINTS_PER_CHUNK];
+        long[] rawUndefinedPoints = new long[ColumnarEvaluator.getMaskLength(POINTS_PER_CHUNK)];
+        long[] simplifiedUndefinedPoints = new long[ColumnarEvaluator.getMaskLength(POINTS_PER_CHUNK)];
+
+        int length;
+        while (!result.shortCircuited && (length = source.nextChunk(chunk)) > 0) {
+            if (length < rawValues.length) {
+                // Letzter Abschnitt: Die Auswertung richtet sich nach der Länge des Ergebnisses.
+                rawValues = new double[length];
+                simplifiedValues = new double[length];
+            }
+            rawEvaluator.evaluate(chunk, rawValues, rawUndefinedPoints, this.pool);
+            simplifiedEvaluator.evaluate(chunk, simplifiedValues, simplifiedUndefinedPoints, this.pool);
+            compare(chunk, rawValues, simplifiedValues, length, result);
+        }
+        return result;
+
+    }
+
+    private void compare(double[][] chunk, double[] rawValues, double[] simplifiedValues, int length, VerificationResult result) {
+        for (int i = 0; i < length; i++) {
+            double rawValue = rawValues[i];
+            double simplifiedValue = simplifiedValues[i];
+            result.numberOfPoints++;
+
+            boolean counterexample;
+            if (Double.isNaN(rawValue) || Double.isNaN(simplifiedValue)) {
+                if (!Double.isNaN(simplifiedValue)) {
+                    result.numberOfPointsUndefinedOnlyInRaw++;
+                } else if (!Double.isNaN(rawValue)) {
+                    result.numberOfPointsUndefinedOnlyInSimplified++;
+                } else {
+                    result.numberOfPointsUndefinedInBoth++;
+                }
+                counterexample = Double.isNaN(rawValue) != Double.isNaN(simplifiedValue);
+            } else {
+                double absoluteError = Math.abs(rawValue - simplifiedValue);
+                double magnitude = Math.max(Math.abs(rawValue), Math.abs(simplifiedValue));
+                double relativeError = magnitude == 0 ? 0 : absoluteError / magnitude;
+                result.maxAbsoluteError = Math.max(result.maxAbsoluteError, absoluteError);
+                result.maxRelativeError = Math.max(result.maxRelativeError, relativeError);
+                counterexample = absoluteError > this.absoluteTolerance && relativeError > this.relativeTolerance;
+                if (counterexample) {
+                    result.numberOfDisagreements++;
+                }
+            }
+
+            if (counterexample) {
+                double[] point = new double[chunk.length];
+                for (int j = 0; j < chunk.length; j++) {
+                    point[j] = chunk[j][i];
+                }
+                result.counterexamples.add(new Counterexample(result.variables, point, rawValue, simplifiedValue));
+                if (result.counterexamples.size() == this.maxCounterexamples) {
+                    result.shortCircuited = true;
+                    return;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package batch;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Liest eine Datei mit einem Ausdruck pro Zeile (etwa den Dump einer ganzen
+ * GP-Population) Datensatz für Datensatz. Die Datei wird blockweise über
+ * einen FileChannel gelesen, so dass der Speicherbedarf nicht von der
+ * Dateigröße, sondern nur von der Länge der längsten Zeile abhängt.
+ */
+public class ExpressionRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] record = new byte[256];
+    private int recordLength = 0;
+    private long numberOfRecordsRead = 0;
+    private boolean endOfFileReached = false;
+
+    public ExpressionRecordReader(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        // Der Puffer ist zunächst leer.
+        this.buffer.flip();
+    }
+
+    /**
+     * Gibt die Anzahl der bisher gelesenen Datensätze zurück.
+     */
+    public long getNumberOfRecordsRead() {
+        return this.numberOfRecordsRead;
+    }
+
+    /**
+     * Gibt den nächsten Datensatz (ohne Zeilenende) oder null am Dateiende
+     * zurück. Leere Zeilen werden als leere Datensätze zurückgegeben, damit
+     * die Zeilen der Ausgabe denen der Eingabe entsprechen.
+     *
+     * @throws IOException
+     */
+    public String readRecord() throws IOException {
+
+        this.recordLength = 0;
+        while (true) {
+            if (!this.buffer.hasRemaining()) {
+                if (this.endOfFileReached || !fillBuffer()) {
+                    if (this.recordLength == 0) {
+                        return null;
+                    }
+                    return finishRecord();
+                }
+            }
+            byte b = this.buffer.get();
+            if (b == '\n') {
+                return finishRecord();
+            }
+            appendToRecord(b);
+        }
+
+    }
+
+    private boolean fillBuffer() throws IOException {
+        this.buffer.clear();
+        int numberOfBytesRead;
+        do {
+            numberOfBytesRead = this.channel.read(this.buffer);
+        } while (numberOfBytesRead == 0);
+        this.buffer.flip();
+        if (numberOfBytesRead < 0) {
+            this.endOfFileReached = true;
+            return false;
+        }
+        return true;
+    }
+
+    private void appendToRecord(byte b) {
+        if (this.recordLength == this.record.length) {
+            this.record = Arrays.copyOf(this.record, 2 * this.record.length);
+        }
+        this.record[this.recordLength++] = b;
+    }
+
+    private String finishRecord() {
+        int length = this.recordLength;
+        // Windows-Zeilenenden.
+        if (length > 0 && this.record[length - 1] == '\r') {
+            length--;
+        }
+        this.numberOfRecordsRead++;
+        return new String(this.record, 0, length, UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+}
@@ -0,0 +1,53 @@
+package batch;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+/**
+ * Schreibt Ausdrücke Datensatz für Datensatz (ein Ausdruck pro Zeile) in eine
+ * Datei. Im Gegensatz zu WriteExpression bleibt die Datei für alle
+ * Datensätze geöffnet.
+ */
+public class ExpressionRecordWriter implements Closeable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final BufferedWriter writer;
+    private long numberOfRecordsWritten = 0;
+
+    public ExpressionRecordWriter(File file) throws IOException {
+        this.writer = Files.newBufferedWriter(file.toPath(), UTF_8);
+    }
+
+    /**
+     * Gibt die Anzahl der bisher geschriebenen Datensätze zurück.
+     */
+    public long getNumberOfRecordsWritten() {
+        return this.numberOfRecordsWritten;
+    }
+
+    /**
+     * Schreibt record als eigene Zeile.
+     *
+     * @throws IOException
+     */
+    public void writeRecord(String record) throws IOException {
+        this.writer.write(record);
+        this.writer.write('\n');
+        this.numberOfRecordsWritten++;
+    }
+
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+
+}
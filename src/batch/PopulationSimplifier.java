@@ -0,0 +1,363 @@
+package batch;
+
+import abstractexpressions.expression.classes.Expression;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import process.CasSession;
+import process.SimplificationBudget;
+
+/**
+ * Schnittstelle für GP-Frameworks, welche diese Bibliothek einbinden und in
+ * jeder Generation die gesamte Population vereinfachen. Identische Bäume
+ * werden nur einmal vereinfacht, die verschiedenen Bäume parallel. Die
+ * Ergebnisse werden in der Reihenfolge der Eingabe zurückgegeben.
+ * <br>
+ * Eine Instanz ist für die gesamte Laufzeit des GP-Laufes gedacht und kann
+ * von mehreren Threads benutzt werden.
+ */
+public class PopulationSimplifier {
+
+    private final ExecutorService executor;
+    private final SimplificationWatchdog watchdog;
+    private SimplificationCache cache;
+
+    public PopulationSimplifier() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public PopulationSimplifier(int parallelism) {
+        this(parallelism, new SimplificationWatchdog(0, 0));
+    }
+
+    /**
+     * Jeder Baum wird unter dem Budget von watchdog vereinfacht.
+     */
+    public PopulationSimplifier(int parallelism, SimplificationWatchdog watchdog) {
+        this.executor = Executors.newFixedThreadPool(parallelism, CasSession.newWorkerThreadFactory());
+        this.watchdog = watchdog;
+    }
+
+    /**
+     * Setzt den Cache, in welchem bereits vereinfachte Bäume nachgeschlagen
+     * und neu vereinfachte abgelegt werden (null = kein Cache).
+     */
+    public void setCache(SimplificationCache cache) {
+        this.cache = cache;
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+        this.watchdog.shutdown();
+    }
+
+    /**
+     * Ergebnis für einen einzelnen Baum der Population.
+     */
+    public static class SimplifiedTree {
+
+        private final Expression simplifiedExpression;
+        private final SimplificationResult.Status status;
+        private final int lengthBefore;
+        private final int lengthAfter;
+        private final long simplificationNanos;
+        private final String message;
+        private boolean duplicate;
+
+        SimplifiedTree(Expression simplifiedExpression, SimplificationResult.Status status,
+                int lengthBefore, int lengthAfter, long simplificationNanos, String message) {
+            this.simplifiedExpression = simplifiedExpression;
+            this.status = status;
+            this.lengthBefore = lengthBefore;
+            this.lengthAfter = lengthAfter;
+            this.simplificationNanos = simplificationNanos;
+            this.message = message;
+        }
+
+        private SimplifiedTree copyAsDuplicate() {
+            SimplifiedTree copy = new SimplifiedTree(this.simplifiedExpression, this.status,
+                    this.lengthBefore, this.lengthAfter, this.simplificationNanos, this.message);
+            copy.duplicate = true;
+            return copy;
+        }
+
+        /**
+         * Gibt den vereinfachten Baum zurück (bei Budgetüberschreitung den
+         * kürzesten Zwischenstand, bei einem Fehler null).
+         */
+        public Expression getSimplifiedExpression() {
+            return this.simplifiedExpression;
+        }
+
+        /**
+         * Gibt SIMPLIFIED, CACHED, BUDGET_EXHAUSTED oder FAILED zurück.
+         */
+        public SimplificationResult.Status getStatus() {
+            return this.status;
+        }
+
+        /**
+         * Gibt die Länge (Expression.getLength()) vor der Vereinfachung
+         * zurück, bzw. -1, falls der Baum nicht geparst werden konnte.
+         */
+        public int getLengthBefore() {
+            return this.lengthBefore;
+        }
+
+        /**
+         * Gibt die Länge nach der Vereinfachung zurück, bzw. -1 bei einem
+         * Fehler.
+         */
+        public int getLengthAfter() {
+            return this.lengthAfter;
+        }
+
+        /**
+         * Gibt die Zeit zurück, welche die Vereinfachung dieses Baumes (bzw.
+         * seines ersten Vorkommens in der Population) benötigt hat.
+         */
+        public long getSimplificationNanos() {
+            return this.simplificationNanos;
+        }
+
+        public String getMessage() {
+            return this.message;
+        }
+
+        /**
+         * Gibt zurück, ob derselbe Baum bereits weiter vorne in der Population
+         * vorkam und das Ergebnis von dort übernommen wurde.
+         */
+        public boolean isDuplicate() {
+            return this.duplicate;
+        }
+
+    }
+
+    /**
+     * Ergebnis für eine gesamte Population.
+     */
+    public static class PopulationResult {
+
+        private final List<SimplifiedTree> trees;
+        private final int numberOfUniqueTrees;
+        private final long wallTimeNanos;
+
+        PopulationResult(List<SimplifiedTree> trees, int numberOfUniqueTrees, long wallTimeNanos) {
+            this.trees = Collections.unmodifiableList(trees);
+            this.numberOfUniqueTrees = numberOfUniqueTrees;
+            this.wallTimeNanos = wallTimeNanos;
+        }
+
+        /**
+         * Gibt die Ergebnisse in der Reihenfolge der Eingabe zurück.
+         */
+        public List<SimplifiedTree> getTrees() {
+            return this.trees;
+        }
+
+        public SimplifiedTree getTree(int i) {
+            return this.trees.get(i);
+        }
+
+        public int getNumberOfTrees() {
+            return this.trees.size();
+        }
+
+        public int getNumberOfUniqueTrees() {
+            return this.numberOfUniqueTrees;
+        }
+
+        public long getWallTimeNanos() {
+            return this.wallTimeNanos;
+        }
+
+        /**
+         * Gibt die Summe der Längen aller Bäume vor der Vereinfachung zurück
+         * (Bäume, die nicht vereinfacht werden konnten, werden ausgelassen).
+         */
+        public long getTotalLengthBefore() {
+            long totalLength = 0;
+            for (SimplifiedTree tree : this.trees) {
+                if (tree.lengthAfter >= 0) {
+                    totalLength += tree.lengthBefore;
+                }
+            }
+            return totalLength;
+        }
+
+        /**
+         * Gibt die Summe der Längen aller Bäume nach der Vereinfachung zurück
+         * (Bäume, die nicht vereinfacht werden konnten, werden ausgelassen).
+         */
+        public long getTotalLengthAfter() {
+            long totalLength = 0;
+            for (SimplifiedTree tree : this.trees) {
+                if (tree.lengthAfter >= 0) {
+                    totalLength += tree.lengthAfter;
+                }
+            }
+            return totalLength;
+        }
+
+        public int getNumberOfTrees(SimplificationResult.Status status) {
+            int numberOfTrees = 0;
+            for (SimplifiedTree tree : this.trees) {
+                if (tree.status == status) {
+                    numberOfTrees++;
+                }
+            }
+            return numberOfTrees;
+        }
+
+        @Override
+        public String toString() {
+            return "Trees: " + this.trees.size() + ", unique: " + this.numberOfUniqueTrees
+                    + ", failed: " + getNumberOfTrees(SimplificationResult.Status.FAILED)
+                    + ", budget exhausted: " + getNumberOfTrees(SimplificationResult.Status.BUDGET_EXHAUSTED)
+                    + ", total length: " + getTotalLengthBefore() + " -> " + getTotalLengthAfter()
+                    + String.format(", wall time: %.1f ms", this.wallTimeNanos / 1e6);
+        }
+
+    }
+
+    /**
+     * Vereinfacht die als Strings gegebenen Bäume einer Population. Bäume
+     * mit identischem String werden nur einmal vereinfacht. Nicht parsbare
+     * Bäume führen nicht zum Abbruch, sondern erhalten den Status FAILED.
+     */
+    public PopulationResult simplifyPopulation(List<String> trees) {
+        List<String> keys = new ArrayList<>(trees.size());
+        for (String tree : trees) {
+            keys.add(tree.trim());
+        }
+        return simplify(keys, null);
+    }
+
+    /**
+     * Vereinfacht die bereits gebauten Bäume einer Population. Bäume mit
+     * identischer Ausgabe toString() werden nur einmal vereinfacht.
+     */
+    public PopulationResult simplifyExpressions(List<Expression> trees) {
+        List<String> keys = new ArrayList<>(trees.size());
+        for (Expression tree : trees) {
+            keys.add(tree.toString());
+        }
+        return simplify(keys, trees);
+    }
+
+    /**
+     * Vereinfacht jeden verschiedenen Schlüssel aus keys einmal. Ist
+     * expressions == null, so werden die Schlüssel selbst geparst, sonst wird
+     * der Baum des ersten Vorkommens verwendet.
+     */
+    private PopulationResult simplify(List<String> keys, List<Expression> expressions) {
+
+        long start = System.nanoTime();
+
+        Map<String, Integer> indicesOfUniqueTrees = new HashMap<>();
+        int[] uniqueTreeOfTree = new int[keys.size()];
+        List<Future<SimplifiedTree>> futures = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Integer indexOfUniqueTree = indicesOfUniqueTrees.get(keys.get(i));
+            if (indexOfUniqueTree == null) {
+                indexOfUniqueTree = futures.size();
+                indicesOfUniqueTrees.put(keys.get(i), indexOfUniqueTree);
+                Expression expr = expressions == null ? null : expressions.get(i);
+                futures.add(this.executor.submit(new SimplifyTreeTask(keys.get(i), expr)));
+            }
+            uniqueTreeOfTree[i] = indexOfUniqueTree;
+        }
+
+        List<SimplifiedTree> uniqueTrees = new ArrayList<>(futures.size());
+        for (Future<SimplifiedTree> future : futures) {
+            uniqueTrees.add(getResult(future));
+        }
+
+        List<SimplifiedTree> trees = new ArrayList<>(keys.size());
+        boolean[] uniqueTreeUsed = new boolean[uniqueTrees.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            SimplifiedTree tree = uniqueTrees.get(uniqueTreeOfTree[i]);
+            if (uniqueTreeUsed[uniqueTreeOfTree[i]]) {
+                tree = tree.copyAsDuplicate();
+            }
+            uniqueTreeUsed[uniqueTreeOfTree[i]] = true;
+            trees.add(tree);
+        }
+
+        return new PopulationResult(trees, uniqueTrees.size(), System.nanoTime() - start);
+
+    }
+
+    private static SimplifiedTree getResult(Future<SimplifiedTree> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new SimplifiedTree(null, SimplificationResult.Status.FAILED, -1, -1, 0, "Interrupted.");
+        } catch (ExecutionException e) {
+            return new SimplifiedTree(null, SimplificationResult.Status.FAILED, -1, -1, 0,
+                    e.getCause().getClass().getSimpleName() + ": " + e.getCause().getMessage());
+        }
+    }
+
+    private class SimplifyTreeTask implements Callable<SimplifiedTree> {
+
+        private final String tree;
+        private final Expression expr;
+
+        SimplifyTreeTask(String tree, Expression expr) {
+            this.tree = tree;
+            this.expr = expr;
+        }
+
+        @Override
+        public SimplifiedTree call() {
+            long start = System.nanoTime();
+            int lengthBefore = -1;
+            try {
+                Expression exprToSimplify = this.expr == null ? Expression.build(this.tree) : this.expr;
+                lengthBefore = exprToSimplify.getLength();
+
+                SimplificationCache.Fingerprint fingerprint = null;
+                if (cache != null) {
+                    fingerprint = SimplificationCache.getFingerprint(exprToSimplify);
+                    String cachedExpression = cache.get(fingerprint);
+                    if (cachedExpression != null) {
+                        Expression simplifiedExpression = Expression.build(cachedExpression);
+                        return new SimplifiedTree(simplifiedExpression, SimplificationResult.Status.CACHED,
+                                lengthBefore, simplifiedExpression.getLength(), System.nanoTime() - start, null);
+                    }
+                }
+
+                SimplificationBudget budget = watchdog.simplify(exprToSimplify);
+                Expression simplifiedExpression = budget.getResult();
+                if (budget.isExhausted()) {
+                    return new SimplifiedTree(simplifiedExpression, SimplificationResult.Status.BUDGET_EXHAUSTED,
+                            lengthBefore, simplifiedExpression.getLength(), System.nanoTime() - start,
+                            SimplificationWatchdog.describeExhaustion(budget));
+                }
+                if (cache != null) {
+                    cache.put(fingerprint, simplifiedExpression.toString());
+                }
+                return new SimplifiedTree(simplifiedExpression, SimplificationResult.Status.SIMPLIFIED,
+                        lengthBefore, simplifiedExpression.getLength(), System.nanoTime() - start, null);
+            } catch (ExpressionException | EvaluationException | IOException | RuntimeException e) {
+                return new SimplifiedTree(null, SimplificationResult.Status.FAILED, lengthBefore, -1,
+                        System.nanoTime() - start, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+
+    }
+
+}
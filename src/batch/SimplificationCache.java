@@ -0,0 +1,416 @@
+package batch;
+
+import abstractexpressions.expression.classes.Expression;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistenter Cache, welcher dem Fingerabdruck eines geparsten Ausdrucks
+ * seine vereinfachte Form zuordnet. Die Einträge werden nur an das Ende der
+ * Cachedatei angehängt und über eine speicherabgebildete (memory-mapped)
+ * Sicht der Datei gelesen. Der Index (Fingerabdruck &#8594; Position in der
+ * Datei) wird beim Öffnen durch einmaliges Durchlaufen der Datei aufgebaut.
+ * <br>
+ * Eine Instanz kann von beliebig vielen Threads gleichzeitig benutzt werden.
+ * Solange sie geöffnet ist, hält sie eine exklusive Sperre auf die Datei.
+ * Ist die Datei bereits von einem anderen Prozess (oder einer anderen Instanz)
+ * gesperrt, so wird sie nur lesend geöffnet: Es stehen dann die Einträge zur
+ * Verfügung, die beim Öffnen vollständig geschrieben waren, und put() legt
+ * keine neuen Einträge ab (siehe isReadOnly()). Mehrere Läufe können sich
+ * dadurch einen Cache teilen, ohne dass einer von ihnen abbricht.
+ * <br>
+ * Überschreitet die Datei maxBytes, so wird sie kompaktiert: Es bleiben nur
+ * die zuletzt benutzten Einträge erhalten (LRU), und zwar so viele, dass die
+ * Datei danach höchstens drei Viertel von maxBytes belegt. Die Einträge
+ * werden dabei nach letzter Benutzung sortiert geschrieben, so dass die
+ * Reihenfolge in der Datei beim nächsten Öffnen wieder als LRU-Reihenfolge
+ * dient.
+ * <br>
+ * Format: Kopf (MAGIC, VERSION), danach Datensätze der Form (Fingerabdruck:
+ * 2 long, Länge: int, vereinfachter Ausdruck: UTF-8).
+ */
+public class SimplificationCache implements Closeable {
+
+    private static final int MAGIC = 0x47505343;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 20;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final ThreadLocal<MessageDigest> DIGEST = new ThreadLocal<MessageDigest>() {
+
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                // SHA-256 muss von jeder JVM unterstützt werden.
+                throw new IllegalStateException(e);
+            }
+        }
+
+    };
+
+    /**
+     * 128-Bit-Fingerabdruck eines Ausdrucks.
+     */
+    public static final class Fingerprint {
+
+        private final long high;
+        private final long low;
+
+        public Fingerprint(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) obj;
+            return this.high == other.high && this.low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (this.low ^ (this.low >>> 32));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", this.high, this.low);
+        }
+
+    }
+
+    /**
+     * Position eines Eintrags in der Cachedatei.
+     */
+    private static class Entry {
+
+        private final long valueOffset;
+        private final int valueLength;
+        private volatile long lastAccess;
+
+        Entry(long valueOffset, int valueLength, long lastAccess) {
+            this.valueOffset = valueOffset;
+            this.valueLength = valueLength;
+            this.lastAccess = lastAccess;
+        }
+
+        long getRecordSize() {
+            return RECORD_HEADER_SIZE + this.valueLength;
+        }
+
+    }
+
+    private final File file;
+    private final long maxBytes;
+
+    private final Map<Fingerprint, Entry> index = new ConcurrentHashMap<>();
+    /*
+     Lesende Zugriffe (get) teilen sich die Lesesperre, Anhängen und
+     Kompaktieren benötigen die Schreibsperre.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong numberOfHits = new AtomicLong();
+    private final AtomicLong numberOfMisses = new AtomicLong();
+
+    private FileChannel channel;
+    private FileLock fileLock;
+    private boolean readOnly;
+    private volatile MappedByteBuffer mappedFile;
+    private long end;
+
+    /**
+     * Öffnet bzw. erzeugt die Cachedatei file, welche höchstens maxBytes
+     * groß werden soll.
+     *
+     * @throws IOException
+     */
+    public SimplificationCache(File file, long maxBytes) throws IOException {
+        if (maxBytes <= HEADER_SIZE || maxBytes > Integer.MAX_VALUE) {
+            // Die Datei muss als Ganzes in einen MappedByteBuffer passen.
+            throw new IllegalArgumentException("maxBytes must be between " + HEADER_SIZE + " and " + Integer.MAX_VALUE + ".");
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+        openChannel();
+        if (this.channel.size() < HEADER_SIZE) {
+            if (this.readOnly) {
+                this.channel.close();
+                throw new IOException(this.file + " is not a simplification cache of version " + VERSION + ".");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            this.channel.truncate(0);
+            writeFully(header, 0);
+        }
+        readIndex();
+    }
+
+    /**
+     * Gibt den Fingerabdruck von expr zurück. Grundlage ist die kanonische
+     * Ausgabe Expression.toString(), so dass etwa unterschiedliche
+     * Klammerung oder Leerzeichen in der Eingabe denselben Fingerabdruck
+     * liefern.
+     */
+    public static Fingerprint getFingerprint(Expression expr) {
+        byte[] digest = DIGEST.get().digest(expr.toString().getBytes(UTF_8));
+        ByteBuffer digestBuffer = ByteBuffer.wrap(digest);
+        return new Fingerprint(digestBuffer.getLong(), digestBuffer.getLong());
+    }
+
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Gibt true zurück, falls die Cachedatei beim Öffnen von einem anderen
+     * Prozess gesperrt war und daher nur gelesen wird.
+     */
+    public boolean isReadOnly() {
+        return this.readOnly;
+    }
+
+    public int getNumberOfEntries() {
+        return this.index.size();
+    }
+
+    public long getNumberOfHits() {
+        return this.numberOfHits.get();
+    }
+
+    public long getNumberOfMisses() {
+        return this.numberOfMisses.get();
+    }
+
+    /**
+     * Gibt die zu fingerprint gespeicherte vereinfachte Form oder null
+     * zurück.
+     *
+     * @throws IOException
+     */
+    public String get(Fingerprint fingerprint) throws IOException {
+        this.lock.readLock().lock();
+        try {
+            Entry entry = this.index.get(fingerprint);
+            if (entry == null) {
+                this.numberOfMisses.incrementAndGet();
+                return null;
+            }
+            entry.lastAccess = this.clock.incrementAndGet();
+            this.numberOfHits.incrementAndGet();
+            return readValue(entry);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Speichert simplifiedExpression unter fingerprint. Ist bereits ein
+     * Eintrag vorhanden, so wird nur dessen Benutzungszeitpunkt
+     * aktualisiert. Bei einem nur lesend geöffneten Cache geschieht nichts.
+     *
+     * @throws IOException
+     */
+    public void put(Fingerprint fingerprint, String simplifiedExpression) throws IOException {
+        if (this.readOnly) {
+            return;
+        }
+        this.lock.writeLock().lock();
+        try {
+            Entry entry = this.index.get(fingerprint);
+            if (entry != null) {
+                entry.lastAccess = this.clock.incrementAndGet();
+                return;
+            }
+            byte[] value = simplifiedExpression.getBytes(UTF_8);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + value.length);
+            record.putLong(fingerprint.high).putLong(fingerprint.low).putInt(value.length).put(value).flip();
+            writeFully(record, this.end);
+            this.index.put(fingerprint, new Entry(this.end + RECORD_HEADER_SIZE, value.length, this.clock.incrementAndGet()));
+            this.end += RECORD_HEADER_SIZE + value.length;
+            if (this.end > this.maxBytes) {
+                compact();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            this.mappedFile = null;
+            this.channel.close();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void openChannel() throws IOException {
+        this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.fileLock = this.channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Die Datei ist bereits von einer anderen Instanz in derselben JVM gesperrt.
+            this.fileLock = null;
+        }
+        if (this.fileLock == null) {
+            // Die Datei wird von einem anderen Prozess beschrieben, daher nur lesen.
+            this.channel.close();
+            this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+            this.readOnly = true;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += this.channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Baut den Index aus der Datei auf. Ein unvollständiger letzter Datensatz
+     * (etwa nach einem Absturz während des Schreibens) wird abgeschnitten bzw.
+     * bei einem nur lesend geöffneten Cache ignoriert, da er gerade von einem
+     * anderen Prozess geschrieben werden kann.
+     */
+    private void readIndex() throws IOException {
+
+        long size = this.channel.size();
+        MappedByteBuffer buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            this.channel.close();
+            throw new IOException(this.file + " is not a simplification cache of version " + VERSION + ".");
+        }
+
+        this.index.clear();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            long recordOffset = buffer.position();
+            Fingerprint fingerprint = new Fingerprint(buffer.getLong(), buffer.getLong());
+            int valueLength = buffer.getInt();
+            if (valueLength < 0 || valueLength > buffer.remaining()) {
+                buffer.position((int) recordOffset);
+                break;
+            }
+            this.index.put(fingerprint, new Entry(recordOffset + RECORD_HEADER_SIZE, valueLength, this.clock.incrementAndGet()));
+            buffer.position(buffer.position() + valueLength);
+        }
+
+        this.end = buffer.position();
+        if (this.end < size && !this.readOnly) {
+            this.channel.truncate(this.end);
+            buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.end);
+        }
+        this.mappedFile = buffer;
+
+    }
+
+    private String readValue(Entry entry) throws IOException {
+        MappedByteBuffer buffer = this.mappedFile;
+        if (buffer == null || entry.valueOffset + entry.valueLength > buffer.capacity()) {
+            buffer = remap();
+        }
+        // Eigene Sicht, damit gleichzeitige Leser sich die Position nicht teilen.
+        ByteBuffer view = buffer.duplicate();
+        view.position((int) entry.valueOffset);
+        byte[] value = new byte[entry.valueLength];
+        view.get(value);
+        return new String(value, UTF_8);
+    }
+
+    /**
+     * Bildet die Datei bis zum aktuellen Ende neu ab, nachdem Einträge
+     * angehängt wurden.
+     */
+    private synchronized MappedByteBuffer remap() throws IOException {
+        MappedByteBuffer buffer = this.mappedFile;
+        if (buffer == null || buffer.capacity() < this.end) {
+            buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.end);
+            this.mappedFile = buffer;
+        }
+        return buffer;
+    }
+
+    /**
+     * Schreibt die zuletzt benutzten Einträge in eine neue Datei und ersetzt
+     * die alte Datei durch diese. Muss unter der Schreibsperre aufgerufen
+     * werden.
+     */
+    private void compact() throws IOException {
+
+        List<Map.Entry<Fingerprint, Entry>> entries = new ArrayList<>(this.index.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<Fingerprint, Entry>>() {
+
+            @Override
+            public int compare(Map.Entry<Fingerprint, Entry> entry1, Map.Entry<Fingerprint, Entry> entry2) {
+                return Long.compare(entry2.getValue().lastAccess, entry1.getValue().lastAccess);
+            }
+
+        });
+
+        long targetSize = this.maxBytes / 4 * 3;
+        long retainedSize = HEADER_SIZE;
+        int numberOfRetainedEntries = 0;
+        while (numberOfRetainedEntries < entries.size()
+                && retainedSize + entries.get(numberOfRetainedEntries).getValue().getRecordSize() <= targetSize) {
+            retainedSize += entries.get(numberOfRetainedEntries).getValue().getRecordSize();
+            numberOfRetainedEntries++;
+        }
+        // Älteste zuerst, damit die Dateireihenfolge der LRU-Reihenfolge entspricht.
+        List<Map.Entry<Fingerprint, Entry>> retainedEntries = entries.subList(0, numberOfRetainedEntries);
+        Collections.reverse(retainedEntries);
+
+        File compactedFile = new File(this.file.getPath() + ".compact");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compactedFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (Map.Entry<Fingerprint, Entry> entry : retainedEntries) {
+                byte[] value = readValue(entry.getValue()).getBytes(UTF_8);
+                out.writeLong(entry.getKey().high);
+                out.writeLong(entry.getKey().low);
+                out.writeInt(value.length);
+                out.write(value);
+            }
+        }
+
+        this.mappedFile = null;
+        this.channel.close();
+        Files.move(compactedFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openChannel();
+        readIndex();
+
+    }
+
+}
@@ -0,0 +1,60 @@
+package batch;
+
+import java.io.File;
+
+/**
+ * Ergebnis der Vereinfachung eines einzelnen GP-Baumes im Batch-Modus.
+ */
+public class SimplificationResult {
+
+    public enum Status {
+
+        SIMPLIFIED, CACHED, MISSING_INPUT, BUDGET_EXHAUSTED, FAILED;
+
+    }
+
+    private final File directory;
+    private final int run;
+    private final Status status;
+    private final long latencyNanos;
+    private final String message;
+
+    public SimplificationResult(File directory, int run, Status status, long latencyNanos, String message) {
+        this.directory = directory;
+        this.run = run;
+        this.status = status;
+        this.latencyNanos = latencyNanos;
+        this.message = message;
+    }
+
+    public File getDirectory() {
+        return this.directory;
+    }
+
+    public int getRun() {
+        return this.run;
+    }
+
+    public Status getStatus() {
+        return this.status;
+    }
+
+    public long getLatencyNanos() {
+        return this.latencyNanos;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    @Override
+    public String toString() {
+        String result = this.directory.getPath() + " run " + this.run + ": " + this.status
+                + " (" + String.format("%.1f", this.latencyNanos / 1e6) + " ms)";
+        if (this.message != null) {
+            result = result + " " + this.message;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,234 @@
+package batch;
+
+import abstractexpressions.expression.classes.Expression;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import process.CasSession;
+import process.SimplificationBudget;
+
+/**
+ * Dauerhaft laufender Vereinfachungsdienst auf einem Socket der
+ * Loopback-Schnittstelle. Dadurch müssen GP-Frameworks nicht für jeden
+ * einzelnen Baum eine neue JVM starten, und JIT-Optimierungen sowie geladene
+ * Ressourcen bleiben zwischen den Anfragen erhalten.
+ * <br>
+ * Protokoll (UTF-8, eine Zeile pro Nachricht): Eine Anfrage hat die Form
+ * "ID AUSDRUCK", wobei ID keine Leerzeichen enthält. Die Antwort hat die Form
+ * "ID OK AUSDRUCK", "ID EXHAUSTED AUSDRUCK" (Budget überschritten, AUSDRUCK
+ * ist der kürzeste erreichte Zwischenstand) oder "ID ERROR MELDUNG".
+ * Clients dürfen beliebig viele Anfragen senden, ohne auf Antworten zu
+ * warten; die Antworten kommen in der Reihenfolge ihrer Fertigstellung.
+ */
+public class SimplificationServer implements Closeable {
+
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_EXHAUSTED = "EXHAUSTED";
+    public static final String STATUS_ERROR = "ERROR";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService workers;
+    private final ExecutorService connections;
+    private final int maxRequestsInFlightPerConnection;
+    private final SimplificationWatchdog watchdog;
+    private SimplificationCache cache;
+
+    /**
+     * Öffnet den Dienst auf port der Loopback-Schnittstelle (port = 0: freier
+     * Port, siehe getPort()). Es werden höchstens parallelism Anfragen
+     * gleichzeitig vereinfacht, jede unter dem Budget von watchdog.
+     *
+     * @throws IOException
+     */
+    public SimplificationServer(int port, int parallelism, SimplificationWatchdog watchdog) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getByName(null), port));
+        this.workers = Executors.newFixedThreadPool(parallelism, CasSession.newWorkerThreadFactory());
+        this.connections = Executors.newCachedThreadPool();
+        this.maxRequestsInFlightPerConnection = 4 * parallelism;
+        this.watchdog = watchdog;
+    }
+
+    /**
+     * Setzt den Cache, in welchem bereits vereinfachte Ausdrücke nachgeschlagen
+     * und neu vereinfachte abgelegt werden (null = kein Cache).
+     */
+    public void setCache(SimplificationCache cache) {
+        this.cache = cache;
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Nimmt Verbindungen an, bis close() aufgerufen wird. Fehler einzelner
+     * Verbindungen werden in log gemeldet.
+     */
+    public void serve(PrintStream log) {
+        while (!this.serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = this.serverSocket.accept();
+            } catch (IOException e) {
+                if (!this.serverSocket.isClosed()) {
+                    log.println("Accept failed: " + e.getMessage());
+                }
+                continue;
+            }
+            this.connections.execute(new Connection(socket, log));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        this.connections.shutdownNow();
+        this.workers.shutdownNow();
+        this.watchdog.shutdown();
+    }
+
+    /**
+     * Liest die Anfragen einer Verbindung und verteilt sie auf die
+     * Worker-Threads. Die Anzahl offener Anfragen pro Verbindung ist
+     * beschränkt, damit ein schneller Client nicht beliebig viel Speicher
+     * belegt.
+     */
+    private class Connection implements Runnable {
+
+        private final Socket socket;
+        private final PrintStream log;
+        private final Semaphore requestsInFlight = new Semaphore(maxRequestsInFlightPerConnection);
+
+        Connection(Socket socket, PrintStream log) {
+            this.socket = socket;
+            this.log = log;
+        }
+
+        @Override
+        public void run() {
+            try (Socket s = this.socket;
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(s.getInputStream(), UTF_8));
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), UTF_8))) {
+                String request;
+                while ((request = reader.readLine()) != null) {
+                    if (request.trim().isEmpty()) {
+                        continue;
+                    }
+                    this.requestsInFlight.acquire();
+                    workers.execute(new Request(request, writer, this.requestsInFlight));
+                }
+                // Alle offenen Antworten abwarten, bevor die Verbindung geschlossen wird.
+                this.requestsInFlight.acquire(maxRequestsInFlightPerConnection);
+            } catch (SocketException e) {
+                // Client hat die Verbindung abgebrochen.
+            } catch (IOException e) {
+                this.log.println("Connection failed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+    private class Request implements Runnable {
+
+        private final String request;
+        private final Writer writer;
+        private final Semaphore requestsInFlight;
+
+        Request(String request, Writer writer, Semaphore requestsInFlight) {
+            this.request = request;
+            this.writer = writer;
+            this.requestsInFlight = requestsInFlight;
+        }
+
+        @Override
+        public void run() {
+            try {
+                String line = this.request.trim();
+                int separator = indexOfWhitespace(line);
+                if (separator < 0) {
+                    respond(line, STATUS_ERROR, "Missing expression.");
+                    return;
+                }
+                String id = line.substring(0, separator);
+                String expression = line.substring(separator + 1).trim();
+                try {
+                    respond(id, simplify(expression));
+                } catch (ExpressionException | EvaluationException | RuntimeException e) {
+                    respond(id, STATUS_ERROR, e.getClass().getSimpleName() + ": " + e.getMessage());
+                }
+            } catch (IOException e) {
+                // Verbindung geschlossen, die Antwort kann nicht mehr zugestellt werden.
+            } finally {
+                this.requestsInFlight.release();
+            }
+        }
+
+        /**
+         * Gibt Status und Ergebnis als "STATUS AUSDRUCK" zurück.
+         */
+        private String simplify(String expression) throws ExpressionException, EvaluationException, IOException {
+            Expression expr = Expression.build(expression);
+            SimplificationCache.Fingerprint fingerprint = null;
+            if (cache != null) {
+                fingerprint = SimplificationCache.getFingerprint(expr);
+                String cachedExpression = cache.get(fingerprint);
+                if (cachedExpression != null) {
+                    return STATUS_OK + " " + cachedExpression;
+                }
+            }
+            SimplificationBudget budget = watchdog.simplify(expr);
+            String simplifiedExpression = budget.getResult().toString();
+            if (budget.isExhausted()) {
+                return STATUS_EXHAUSTED + " " + simplifiedExpression;
+            }
+            if (cache != null) {
+                cache.put(fingerprint, simplifiedExpression);
+            }
+            return STATUS_OK + " " + simplifiedExpression;
+        }
+
+        private void respond(String id, String status, String message) throws IOException {
+            // Meldungen dürfen keinen Zeilenumbruch enthalten.
+            respond(id, status + " " + String.valueOf(message).replace('\n', ' ').replace('\r', ' '));
+        }
+
+        private void respond(String id, String response) throws IOException {
+            synchronized (this.writer) {
+                this.writer.write(id + " " + response + "\n");
+                this.writer.flush();
+            }
+        }
+
+    }
+
+    private static int indexOfWhitespace(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (Character.isWhitespace(line.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
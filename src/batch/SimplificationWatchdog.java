@@ -0,0 +1,136 @@
+package batch;
+
+import abstractexpressions.expression.classes.Expression;
+import exceptions.EvaluationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import process.SimplificationBudget;
+
+/**
+ * Überwacht die Vereinfachung einzelner Ausdrücke im Batch-Modus. Jeder
+ * Ausdruck erhält ein eigenes SimplificationBudget; ist eine Zeitschranke
+ * gesetzt, so unterbricht ein gemeinsamer Watchdog-Thread den rechnenden
+ * Thread nach Ablauf der Zeit, woraufhin simplify() beim nächsten Aufruf von
+ * Canceller.interruptComputationIfNeeded() abbricht.
+ */
+public class SimplificationWatchdog {
+
+    private final long timeoutMillis;
+    private final int maxPasses;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * timeoutMillis &#8804; 0 bzw. maxPasses &#8804; 0 bedeuten jeweils:
+     * keine Schranke.
+     */
+    public SimplificationWatchdog(long timeoutMillis, int maxPasses) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxPasses = maxPasses;
+        if (timeoutMillis > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "SimplificationWatchdog");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+
+            });
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public long getTimeoutMillis() {
+        return this.timeoutMillis;
+    }
+
+    public int getMaxPasses() {
+        return this.maxPasses;
+    }
+
+    public void shutdown() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Unterbricht einen Thread höchstens einmal und nur, solange er noch nicht
+     * als fertig markiert wurde.
+     */
+    private static class Alarm implements Runnable {
+
+        private final Thread worker;
+        private boolean disarmed = false;
+        private boolean fired = false;
+
+        Alarm(Thread worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!this.disarmed) {
+                this.fired = true;
+                this.worker.interrupt();
+            }
+        }
+
+        /**
+         * Verhindert weitere Unterbrechungen und gibt zurück, ob der Alarm
+         * bereits ausgelöst wurde.
+         */
+        synchronized boolean disarm() {
+            this.disarmed = true;
+            return this.fired;
+        }
+
+    }
+
+    /**
+     * Vereinfacht expr im aktuellen Thread unter dem konfigurierten Budget.
+     * Das zurückgegebene Budget enthält das Ergebnis bzw. bei Überschreitung
+     * den kürzesten Zwischenstand und den zuletzt laufenden Schritt.
+     *
+     * @throws EvaluationException
+     */
+    public SimplificationBudget simplify(Expression expr) throws EvaluationException {
+
+        SimplificationBudget budget = new SimplificationBudget(this.timeoutMillis, this.maxPasses);
+        if (this.scheduler == null) {
+            budget.simplify(expr);
+            return budget;
+        }
+
+        Alarm alarm = new Alarm(Thread.currentThread());
+        ScheduledFuture<?> scheduledAlarm = this.scheduler.schedule(alarm, this.timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            budget.simplify(expr);
+        } finally {
+            scheduledAlarm.cancel(false);
+            if (alarm.disarm()) {
+                /*
+                 Falls die Unterbrechung erst nach dem letzten Schritt ankam,
+                 darf sie nicht im nächsten Ausdruck desselben Threads wirken.
+                 */
+                Thread.interrupted();
+            }
+        }
+        return budget;
+
+    }
+
+    /**
+     * Gibt eine kurze Beschreibung des Abbruchs für Berichte zurück.
+     */
+    public static String describeExhaustion(SimplificationBudget budget) {
+        return "budget exhausted in pass " + budget.getCurrentPass() + " after "
+                + budget.getNumberOfCompletedPasses() + " passes";
+    }
+
+}
@@ -0,0 +1,269 @@
+package batch;
+
+import abstractexpressions.expression.classes.Expression;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import process.CasSession;
+import process.SimplificationBudget;
+
+/**
+ * Vereinfacht eine Datei mit einem Ausdruck pro Zeile und schreibt die
+ * vereinfachten Ausdrücke in derselben Reihenfolge (wieder einer pro Zeile)
+ * in eine Ausgabedatei. Es werden höchstens maxRecordsInFlight Datensätze
+ * gleichzeitig im Speicher gehalten: Ist das Fenster voll, so wartet der
+ * Leser, bis der älteste Datensatz fertig vereinfacht und geschrieben ist.
+ */
+public class StreamingSimplifier {
+
+    private final ExecutorService executor;
+    private final int maxRecordsInFlight;
+    private final SimplificationWatchdog watchdog;
+    private SimplificationCache cache;
+
+    public StreamingSimplifier() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public StreamingSimplifier(int parallelism) {
+        this(parallelism, 4 * parallelism);
+    }
+
+    public StreamingSimplifier(int parallelism, int maxRecordsInFlight) {
+        this(parallelism, maxRecordsInFlight, new SimplificationWatchdog(0, 0));
+    }
+
+    /**
+     * Jeder Datensatz wird unter dem Budget von watchdog vereinfacht.
+     */
+    public StreamingSimplifier(int parallelism, int maxRecordsInFlight, SimplificationWatchdog watchdog) {
+        this.executor = Executors.newFixedThreadPool(parallelism, CasSession.newWorkerThreadFactory());
+        this.maxRecordsInFlight = Math.max(1, maxRecordsInFlight);
+        this.watchdog = watchdog;
+    }
+
+    /**
+     * Setzt den Cache, in welchem bereits vereinfachte Ausdrücke nachgeschlagen
+     * und neu vereinfachte abgelegt werden (null = kein Cache).
+     */
+    public void setCache(SimplificationCache cache) {
+        this.cache = cache;
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+        this.watchdog.shutdown();
+    }
+
+    /**
+     * Statistik über einen Durchlauf von simplifyRecords().
+     */
+    public static class Statistics {
+
+        private long numberOfRecords;
+        private long numberOfSimplifiedRecords;
+        private long numberOfBlankRecords;
+        private long numberOfCachedRecords;
+        private long numberOfExhaustedRecords;
+        private long numberOfFailedRecords;
+        private long wallTimeNanos;
+
+        public long getNumberOfRecords() {
+            return this.numberOfRecords;
+        }
+
+        public long getNumberOfSimplifiedRecords() {
+            return this.numberOfSimplifiedRecords;
+        }
+
+        /**
+         * Anzahl der leeren Datensätze (Zeilen ohne Ausdruck). Diese werden
+         * unverändert übernommen und nicht als vereinfacht gezählt.
+         */
+        public long getNumberOfBlankRecords() {
+            return this.numberOfBlankRecords;
+        }
+
+        /**
+         * Anzahl der Datensätze, deren vereinfachte Form aus dem Cache stammt
+         * (diese sind in getNumberOfSimplifiedRecords() enthalten).
+         */
+        public long getNumberOfCachedRecords() {
+            return this.numberOfCachedRecords;
+        }
+
+        /**
+         * Anzahl der Datensätze, deren Budget überschritten wurde und für die
+         * daher nur ein Zwischenstand geschrieben wurde.
+         */
+        public long getNumberOfExhaustedRecords() {
+            return this.numberOfExhaustedRecords;
+        }
+
+        public long getNumberOfFailedRecords() {
+            return this.numberOfFailedRecords;
+        }
+
+        public long getWallTimeNanos() {
+            return this.wallTimeNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Records: " + this.numberOfRecords + ", simplified: " + this.numberOfSimplifiedRecords
+                    + " (from cache: " + this.numberOfCachedRecords + ")"
+                    + ", blank: " + this.numberOfBlankRecords
+                    + ", budget exhausted: " + this.numberOfExhaustedRecords
+                    + ", failed: " + this.numberOfFailedRecords
+                    + String.format(", wall time: %.1f ms", this.wallTimeNanos / 1e6);
+        }
+
+    }
+
+    /**
+     * Ergebnis eines einzelnen Datensatzes. Ist error != null, so konnte der
+     * Datensatz nicht vereinfacht werden und output ist der ursprüngliche
+     * Datensatz. Ist exhausted == true, so ist output der kürzeste
+     * Zwischenstand und error beschreibt den abgebrochenen Schritt. Ist
+     * blank == true, so enthielt der Datensatz keinen Ausdruck.
+     */
+    private static class RecordResult {
+
+        private final String output;
+        private final String error;
+        private final boolean exhausted;
+        private final boolean cached;
+        private final boolean blank;
+
+        RecordResult(String output, String error) {
+            this(output, error, false, false, false);
+        }
+
+        RecordResult(String output, String error, boolean exhausted, boolean cached, boolean blank) {
+            this.output = output;
+            this.error = error;
+            this.exhausted = exhausted;
+            this.cached = cached;
+            this.blank = blank;
+        }
+
+    }
+
+    private class SimplifyRecordTask implements Callable<RecordResult> {
+
+        private final String record;
+
+        SimplifyRecordTask(String record) {
+            this.record = record;
+        }
+
+        @Override
+        public RecordResult call() {
+            if (this.record.trim().isEmpty()) {
+                return new RecordResult(this.record, null, false, false, true);
+            }
+            try {
+                Expression expr = Expression.build(this.record);
+                SimplificationCache.Fingerprint fingerprint = null;
+                if (cache != null) {
+                    fingerprint = SimplificationCache.getFingerprint(expr);
+                    String cachedExpression = cache.get(fingerprint);
+                    if (cachedExpression != null) {
+                        return new RecordResult(cachedExpression, null, false, true, false);
+                    }
+                }
+                SimplificationBudget budget = watchdog.simplify(expr);
+                if (budget.isExhausted()) {
+                    return new RecordResult(budget.getResult().toString(), SimplificationWatchdog.describeExhaustion(budget), true, false, false);
+                }
+                String simplifiedExpression = budget.getResult().toString();
+                if (cache != null) {
+                    cache.put(fingerprint, simplifiedExpression);
+                }
+                return new RecordResult(simplifiedExpression, null);
+            } catch (ExpressionException | EvaluationException | IOException | RuntimeException e) {
+                return new RecordResult(this.record, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+
+    }
+
+    /**
+     * Vereinfacht alle Datensätze aus input und schreibt die Ergebnisse in
+     * output. Nicht vereinfachbare Datensätze werden unverändert übernommen
+     * (damit Zeile i der Ausgabe stets Zeile i der Eingabe entspricht) und
+     * mit ihrer Zeilennummer in log gemeldet.
+     *
+     * @throws IOException
+     */
+    public Statistics simplifyRecords(File input, File output, PrintStream log) throws IOException {
+
+        Statistics statistics = new Statistics();
+        long start = System.nanoTime();
+        ArrayDeque<Future<RecordResult>> recordsInFlight = new ArrayDeque<>();
+
+        try (ExpressionRecordReader reader = new ExpressionRecordReader(input);
+                ExpressionRecordWriter writer = new ExpressionRecordWriter(output)) {
+            String record;
+            while ((record = reader.readRecord()) != null) {
+                if (recordsInFlight.size() >= this.maxRecordsInFlight) {
+                    writeOldestRecord(recordsInFlight, writer, statistics, log);
+                }
+                recordsInFlight.addLast(this.executor.submit(new SimplifyRecordTask(record)));
+            }
+            while (!recordsInFlight.isEmpty()) {
+                writeOldestRecord(recordsInFlight, writer, statistics, log);
+            }
+        } finally {
+            for (Future<RecordResult> recordInFlight : recordsInFlight) {
+                recordInFlight.cancel(true);
+            }
+        }
+
+        statistics.wallTimeNanos = System.nanoTime() - start;
+        return statistics;
+
+    }
+
+    private static void writeOldestRecord(ArrayDeque<Future<RecordResult>> recordsInFlight, ExpressionRecordWriter writer,
+            Statistics statistics, PrintStream log) throws IOException {
+
+        RecordResult result;
+        try {
+            result = recordsInFlight.getFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        recordsInFlight.removeFirst();
+
+        writer.writeRecord(result.output);
+        statistics.numberOfRecords++;
+        if (result.blank) {
+            statistics.numberOfBlankRecords++;
+        } else if (result.error == null) {
+            statistics.numberOfSimplifiedRecords++;
+            if (result.cached) {
+                statistics.numberOfCachedRecords++;
+            }
+        } else if (result.exhausted) {
+            statistics.numberOfExhaustedRecords++;
+            log.println("Record " + statistics.numberOfRecords + ": " + result.error);
+        } else {
+            statistics.numberOfFailedRecords++;
+            log.println("Record " + statistics.numberOfRecords + ": " + result.error);
+        }
+
+    }
+
+}
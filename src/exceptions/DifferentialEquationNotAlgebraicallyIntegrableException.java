@@ -4,8 +4,12 @@ public class DifferentialEquationNotAlgebraicallyIntegrableException extends Mat
     
     private static final String DIFFEQUATION_NOT_SOLVABLE_MESSAGE = "Differential equation is not algebraically integrable.";
     
+    /**
+     * Exception ohne Stacktrace, da sie nur den Übergang zum nächsten
+     * Lösungsansatz für die Differentialgleichung steuert.
+     */
     public DifferentialEquationNotAlgebraicallyIntegrableException() {
-        super(DIFFEQUATION_NOT_SOLVABLE_MESSAGE);
+        super(DIFFEQUATION_NOT_SOLVABLE_MESSAGE, false);
     }
     
     public DifferentialEquationNotAlgebraicallyIntegrableException(String s) {
@@ -1,9 +1,24 @@
 package exceptions;
 
+import lang.translator.DeferredMessage;
+
 public class EvaluationException extends MathToolException{
     
     public EvaluationException(String s){
         super(s);
     }
     
+    public EvaluationException(DeferredMessage message){
+        super(message);
+    }
+    
+    /**
+     * Exception ohne Stacktrace, falls writableStackTrace == false. Für
+     * Auswertungsfehler, die in der Regel sofort wieder gefangen werden (etwa
+     * undefinierte Stellen beim numerischen Abtasten einer Funktion).
+     */
+    public EvaluationException(DeferredMessage message, boolean writableStackTrace){
+        super(message, writableStackTrace);
+    }
+    
 }
@@ -1,9 +1,53 @@
 package exceptions;
 
+import lang.translator.DeferredMessage;
+
 public class MathToolException extends Exception {
 
+    private final DeferredMessage deferredMessage;
+
     public MathToolException(String s){
         super(s);
+        this.deferredMessage = null;
+    }
+
+    /**
+     * Exception, deren Meldung erst bei Bedarf (in getMessage()) übersetzt
+     * wird.
+     */
+    public MathToolException(DeferredMessage message){
+        super();
+        this.deferredMessage = message;
+    }
+
+    /**
+     * Exception, bei der, falls writableStackTrace == false ist, kein
+     * Stacktrace erzeugt wird. Dies ist für Exceptions gedacht, die nur zur
+     * Steuerung des Programmablaufs dienen (etwa wenn eine von mehreren
+     * Methoden zur Integration nicht greift) und daher meist sofort wieder
+     * gefangen werden. Das Erzeugen des Stacktraces ist dann der teuerste Teil
+     * der Exception.
+     */
+    protected MathToolException(String s, boolean writableStackTrace){
+        super(s, null, false, writableStackTrace);
+        this.deferredMessage = null;
+    }
+
+    /**
+     * Wie MathToolException(String, boolean), nur mit erst bei Bedarf
+     * übersetzter Meldung.
+     */
+    protected MathToolException(DeferredMessage message, boolean writableStackTrace){
+        super(null, null, false, writableStackTrace);
+        this.deferredMessage = message;
+    }
+
+    @Override
+    public String getMessage(){
+        if (this.deferredMessage != null) {
+            return this.deferredMessage.toString();
+        }
+        return super.getMessage();
     }
     
 }
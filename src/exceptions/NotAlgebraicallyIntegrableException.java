@@ -4,8 +4,13 @@ public class NotAlgebraicallyIntegrableException extends MathToolException {
 
     private static final String NOT_ALGEBRAICALLY_INTEGRABLE_MESSAGE = "Function is not algebraically integrable.";
     
+    /**
+     * Exception ohne Stacktrace. Wird geworfen, wenn eine Integrationsmethode
+     * nicht greift, und in der Regel sofort gefangen, um die nächste Methode
+     * zu versuchen.
+     */
     public NotAlgebraicallyIntegrableException() {
-        super(NOT_ALGEBRAICALLY_INTEGRABLE_MESSAGE);
+        super(NOT_ALGEBRAICALLY_INTEGRABLE_MESSAGE, false);
     }
     
     public NotAlgebraicallyIntegrableException(String s) {
@@ -4,8 +4,12 @@ public class NotAlgebraicallySolvableException extends MathToolException {
 
     private static final String NOT_ALGEBRAICALLY_SOLVABLE_MESSAGE = "Equation is not algebraically solvable.";
     
+    /**
+     * Exception ohne Stacktrace (dient nur dazu, zum nächsten Lösungsverfahren
+     * für die Gleichung überzugehen).
+     */
     public NotAlgebraicallySolvableException() {
-        super(NOT_ALGEBRAICALLY_SOLVABLE_MESSAGE);
+        super(NOT_ALGEBRAICALLY_SOLVABLE_MESSAGE, false);
     }
     
     public NotAlgebraicallySolvableException(String s) {
@@ -0,0 +1,40 @@
+package lang.translator;
+
+import enums.TypeLanguage;
+
+/**
+ * Meldung, die erst dann übersetzt wird, wenn sie tatsächlich gebraucht wird
+ * (beim ersten Aufruf von toString()). Exceptions, die nur zur Steuerung des
+ * Programmablaufs geworfen und deren Meldungen nie gelesen werden, kosten
+ * dadurch keine Übersetzung. Die Sprache wird bereits bei der Erzeugung
+ * festgehalten, so dass die Meldung in derselben Sprache erscheint wie bei
+ * sofortiger Übersetzung.
+ */
+public final class DeferredMessage {
+
+    private final String messageId;
+    private final Object[] params;
+    private final TypeLanguage language;
+    private volatile String message;
+
+    DeferredMessage(String messageId, Object[] params, TypeLanguage language) {
+        this.messageId = messageId;
+        this.params = params;
+        this.language = language;
+    }
+
+    public String getMessageId() {
+        return this.messageId;
+    }
+
+    @Override
+    public String toString() {
+        String translatedMessage = this.message;
+        if (translatedMessage == null) {
+            translatedMessage = Translator.translateOutputMessage(this.language, this.messageId, this.params);
+            this.message = translatedMessage;
+        }
+        return translatedMessage;
+    }
+
+}
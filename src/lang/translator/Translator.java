@@ -1,7 +1,11 @@
 package lang.translator;
 
 import abstractexpressions.expression.classes.Expression;
+import enums.TypeLanguage;
 import java.net.URL;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import org.w3c.dom.Document;
@@ -11,35 +15,72 @@ import org.w3c.dom.NodeList;
 
 public abstract class Translator {
 
+    /*
+     Bereits geladene Meldungsdateien: Dateiname -> Sprache -> exceptionId ->
+     Meldung. Jede Datei wird beim ersten Zugriff einmal gelesen. Danach
+     werden die Tabellen nicht mehr verändert und können daher von mehreren
+     Threads gleichzeitig gelesen werden.
+     */
+    private static final ConcurrentHashMap<String, EnumMap<TypeLanguage, HashMap<String, String>>> CATALOGS = new ConcurrentHashMap<>();
+
     /**
-     * Gibt eine Meldung entsprechend der exceptionId und der eingestellten
-     * Sprache zurück.
+     * Gibt den Namen der Meldungsdatei zurück, in der die Meldung mit der
+     * exceptionId steht.
      */
-    private static String translateMessage(String exceptionId) {
+    private static String getLangFileName(String exceptionId) {
+        if (exceptionId.substring(0, 2).equals("CC")) {
+            return "lang/messages/LangComputationalClasses.xml";
+        } else if (exceptionId.substring(0, 2).equals("EB")) {
+            return "lang/messages/LangExpressionBuilder.xml";
+        } else if (exceptionId.substring(0, 3).equals("GUI")) {
+            return "lang/messages/LangGUI.xml";
+        } else if (exceptionId.substring(0, 2).equals("GR")) {
+            return "lang/messages/LangGraphic.xml";
+        } else if (exceptionId.substring(0, 3).equals("LEB")) {
+            return "lang/messages/LangLogicalExpressionBuilder.xml";
+        } else if (exceptionId.substring(0, 3).equals("MCC")) {
+            return "lang/messages/LangMathCommandCompiler.xml";
+        } else if (exceptionId.substring(0, 3).equals("MEB")) {
+            return "lang/messages/LangMatrixExpressionBuilder.xml";
+        } else if (exceptionId.substring(0, 2).equals("SM")) {
+            return "lang/messages/LangSimplifyMethods.xml";
+        }
+        // Datei für unbekannten Fehler.
+        return "lang/messages/LangUndefinedError.xml";
+    }
+
+    /**
+     * Gibt die Meldungen aus der Datei langFileName zurück, wobei die Datei
+     * nur beim ersten Aufruf gelesen wird.
+     */
+    private static EnumMap<TypeLanguage, HashMap<String, String>> getCatalog(String langFileName) {
+        EnumMap<TypeLanguage, HashMap<String, String>> catalog = CATALOGS.get(langFileName);
+        if (catalog == null) {
+            // Lesen zwei Threads die Datei gleichzeitig, so wird nur eines der (gleichen) Ergebnisse behalten.
+            catalog = loadCatalog(langFileName);
+            EnumMap<TypeLanguage, HashMap<String, String>> previousCatalog = CATALOGS.putIfAbsent(langFileName, catalog);
+            if (previousCatalog != null) {
+                catalog = previousCatalog;
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Liest alle Meldungen aus der Datei langFileName, getrennt nach Sprachen.
+     * Kommt eine exceptionId mehrfach vor, so gilt (wie beim Durchsuchen der
+     * Datei) das erste Vorkommen.
+     */
+    private static EnumMap<TypeLanguage, HashMap<String, String>> loadCatalog(String langFileName) {
+
+        EnumMap<TypeLanguage, HashMap<String, String>> catalog = new EnumMap<>(TypeLanguage.class);
+        for (TypeLanguage language : TypeLanguage.values()) {
+            catalog.put(language, new HashMap<String, String>());
+        }
 
         // Die entsprechende XML-Datei öffnen.
         try {
-            URL langFile;
-            if (exceptionId.substring(0, 2).equals("CC")) {
-                langFile = ClassLoader.getSystemResource("lang/messages/LangComputationalClasses.xml");
-            } else if (exceptionId.substring(0, 2).equals("EB")) {
-                langFile = ClassLoader.getSystemResource("lang/messages/LangExpressionBuilder.xml");
-            } else if (exceptionId.substring(0, 3).equals("GUI")) {
-                langFile = ClassLoader.getSystemResource("lang/messages/LangGUI.xml");
-            } else if (exceptionId.substring(0, 2).equals("GR")) {
-                langFile = ClassLoader.getSystemResource("lang/messages/LangGraphic.xml");
-            } else if (exceptionId.substring(0, 3).equals("LEB")) {
-                langFile = ClassLoader.getSystemResource("lang/messages/LangLogicalExpressionBuilder.xml");
-            } else if (exceptionId.substring(0, 3).equals("MCC")) {
-                langFile = ClassLoader.getSystemResource("lang/messages/LangMathCommandCompiler.xml");
-            } else if (exceptionId.substring(0, 3).equals("MEB")) {
-                langFile = ClassLoader.getSystemResource("lang/messages/LangMatrixExpressionBuilder.xml");
-            } else if (exceptionId.substring(0, 2).equals("SM")) {
-                langFile = ClassLoader.getSystemResource("lang/messages/LangSimplifyMethods.xml");
-            } else {
-                // Datei für unbekannten Fehler öffnen.
-                langFile = ClassLoader.getSystemResource("lang/messages/LangUndefinedError.xml");
-            }
+            URL langFile = ClassLoader.getSystemResource(langFileName);
 
             DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
             DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
@@ -55,27 +96,41 @@ public abstract class Translator {
                 if (nNode.getNodeType() == Node.ELEMENT_NODE) {
 
                     Element eElement = (Element) nNode;
-
-                    if (eElement.getAttribute("id").equals(exceptionId)) {
-                        switch (Expression.getLanguage()) {
-                            case DE:
-                                return eElement.getElementsByTagName("German").item(0).getTextContent();
-                            case EN:
-                                return eElement.getElementsByTagName("English").item(0).getTextContent();
-                            case RU:
-                                return eElement.getElementsByTagName("Russian").item(0).getTextContent();
-                            case UA:
-                                return eElement.getElementsByTagName("Ukrainian").item(0).getTextContent();
-                            default:
-                                break;
-                        }
-                    }
+                    String exceptionId = eElement.getAttribute("id");
+                    addMessage(catalog.get(TypeLanguage.DE), exceptionId, eElement, "German");
+                    addMessage(catalog.get(TypeLanguage.EN), exceptionId, eElement, "English");
+                    addMessage(catalog.get(TypeLanguage.RU), exceptionId, eElement, "Russian");
+                    addMessage(catalog.get(TypeLanguage.UA), exceptionId, eElement, "Ukrainian");
 
                 }
             }
         } catch (Exception e) {
         }
 
+        return catalog;
+
+    }
+
+    private static void addMessage(HashMap<String, String> messages, String exceptionId, Element eElement, String tagName) {
+        Node message = eElement.getElementsByTagName(tagName).item(0);
+        if (message != null && !messages.containsKey(exceptionId)) {
+            messages.put(exceptionId, message.getTextContent());
+        }
+    }
+
+    /**
+     * Gibt eine Meldung entsprechend der exceptionId und der Sprache language
+     * zurück.
+     */
+    private static String translateMessage(String exceptionId, TypeLanguage language) {
+        try {
+            String message = getCatalog(getLangFileName(exceptionId)).get(language).get(exceptionId);
+            if (message != null) {
+                return message;
+            }
+        } catch (Exception e) {
+        }
+
         // Sollte nie eintreten.
         return "";
 
@@ -87,7 +142,20 @@ public abstract class Translator {
      * durch die Parameter params ersetzt werden.
      */
     public static String translateOutputMessage(String messageId, Object... params) {
-        String message = translateMessage(messageId);
+        return translateOutputMessage(Expression.getLanguage(), messageId, params);
+    }
+
+    /**
+     * Wie translateOutputMessage(), nur wird die Meldung erst dann übersetzt,
+     * wenn sie gebraucht wird (siehe DeferredMessage). Die Sprache ist die
+     * jetzt eingestellte.
+     */
+    public static DeferredMessage deferredMessage(String messageId, Object... params) {
+        return new DeferredMessage(messageId, params, Expression.getLanguage());
+    }
+
+    static String translateOutputMessage(TypeLanguage language, String messageId, Object... params) {
+        String message = translateMessage(messageId, language);
         String token;
         for (int i = 0; i < params.length; i++) {
             token = "[" + i + "]";
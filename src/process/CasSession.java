@@ -0,0 +1,196 @@
+package process;
+
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.commutativealgebra.GroebnerBasisUtils.SimplifyCase;
+import abstractexpressions.expression.commutativealgebra.GroebnerBasisUtils.TermOrderings;
+import abstractexpressions.logicalexpression.classes.LogicalVariable;
+import enums.TypeLanguage;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Zustand des CAS, der früher in statischen Feldern gehalten wurde: Sprache
+ * der Meldungen, benutzerdefinierte Funktionen, logische Variablen und die
+ * Einstellungen des Buchberger-Algorithmus. Jeder Thread arbeitet mit der
+ * Sitzung, die mittels execute() für ihn aktiviert wurde, und ansonsten mit
+ * der globalen Sitzung. Mehrere Threads (etwa Worker eines Dienstes) können
+ * daher mit jeweils eigenen Sitzungen unabhängig voneinander rechnen.<br>
+ * Eine Sitzung selbst ist nicht synchronisiert und darf daher nicht von
+ * mehreren Threads gleichzeitig benutzt werden. Variablenwerte gehören nicht
+ * zur Sitzung; für threadlokale Variablenwerte dient EvaluationContext.
+ */
+public class CasSession {
+
+    private static final ThreadLocal<CasSession> CURRENT_SESSION = new ThreadLocal<>();
+
+    private static final CasSession GLOBAL_SESSION = new CasSession(null);
+
+    private TypeLanguage language;
+
+    private final HashMap<String, Expression> abstractExpressionsForSelfDefinedFunctions = new HashMap<>();
+    private final HashMap<String, Expression[]> innerExpressionsForSelfDefinedFunctions = new HashMap<>();
+    private final HashMap<String, String[]> argumentsForSelfDefinedFunctions = new HashMap<>();
+
+    private final HashMap<String, LogicalVariable> logicalVariables = new HashMap<>();
+
+    private String[] monomialVars;
+    // Default-Einstellung soll GENERAL_CASE sein!
+    private SimplifyCase simplifyCase = SimplifyCase.GENERAL_CASE;
+    // Default-Einstellung soll LEX sein!
+    private TermOrderings termOrdering = TermOrderings.LEX;
+
+    /**
+     * Erzeugt eine leere Sitzung, welche die Sprache der aktuellen Sitzung
+     * übernimmt.
+     */
+    public CasSession() {
+        this(getCurrent().language);
+    }
+
+    private CasSession(TypeLanguage language) {
+        this.language = language;
+    }
+
+    /**
+     * Gibt die Sitzung des aktuellen Threads zurück bzw. die globale Sitzung,
+     * falls für ihn keine Sitzung aktiviert wurde.
+     */
+    public static CasSession getCurrent() {
+        CasSession session = CURRENT_SESSION.get();
+        if (session == null) {
+            return GLOBAL_SESSION;
+        }
+        return session;
+    }
+
+    /**
+     * Führt task im aktuellen Thread mit dieser Sitzung aus. Danach ist
+     * wieder die zuvor aktive Sitzung aktiv.
+     *
+     * @throws Exception
+     */
+    public <T> T execute(Callable<T> task) throws Exception {
+        CasSession previousSession = CURRENT_SESSION.get();
+        CURRENT_SESSION.set(this);
+        try {
+            return task.call();
+        } finally {
+            if (previousSession == null) {
+                CURRENT_SESSION.remove();
+            } else {
+                CURRENT_SESSION.set(previousSession);
+            }
+        }
+    }
+
+    /**
+     * Gibt eine ThreadFactory zurück, deren Threads jeweils mit einer eigenen,
+     * neuen Sitzung laufen. Damit beeinflussen sich die Worker eines Pools
+     * nicht gegenseitig.
+     */
+    public static ThreadFactory newWorkerThreadFactory() {
+        final ThreadFactory defaultThreadFactory = Executors.defaultThreadFactory();
+        return new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final CasSession session = new CasSession();
+                return defaultThreadFactory.newThread(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        CURRENT_SESSION.set(session);
+                        runnable.run();
+                    }
+
+                });
+            }
+
+        };
+    }
+
+    /**
+     * Wie newWorkerThreadFactory(), nur für einen ForkJoinPool: Jeder Worker
+     * des Pools läuft mit einer eigenen, neuen Sitzung.
+     */
+    public static ForkJoinPool.ForkJoinWorkerThreadFactory newForkJoinWorkerThreadFactory() {
+        return new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                return new SessionForkJoinWorkerThread(pool, new CasSession());
+            }
+
+        };
+    }
+
+    private static class SessionForkJoinWorkerThread extends ForkJoinWorkerThread {
+
+        private final CasSession session;
+
+        SessionForkJoinWorkerThread(ForkJoinPool pool, CasSession session) {
+            super(pool);
+            this.session = session;
+        }
+
+        @Override
+        protected void onStart() {
+            super.onStart();
+            CURRENT_SESSION.set(this.session);
+        }
+
+    }
+
+    public TypeLanguage getLanguage() {
+        return this.language;
+    }
+
+    public void setLanguage(TypeLanguage language) {
+        this.language = language;
+    }
+
+    public HashMap<String, Expression> getAbstractExpressionsForSelfDefinedFunctions() {
+        return this.abstractExpressionsForSelfDefinedFunctions;
+    }
+
+    public HashMap<String, Expression[]> getInnerExpressionsForSelfDefinedFunctions() {
+        return this.innerExpressionsForSelfDefinedFunctions;
+    }
+
+    public HashMap<String, String[]> getArgumentsForSelfDefinedFunctions() {
+        return this.argumentsForSelfDefinedFunctions;
+    }
+
+    public HashMap<String, LogicalVariable> getLogicalVariables() {
+        return this.logicalVariables;
+    }
+
+    public String[] getMonomialVars() {
+        return this.monomialVars;
+    }
+
+    public void setMonomialVars(String[] monomialVars) {
+        this.monomialVars = monomialVars;
+    }
+
+    public SimplifyCase getSimplifyCase() {
+        return this.simplifyCase;
+    }
+
+    public void setSimplifyCase(SimplifyCase simplifyCase) {
+        this.simplifyCase = simplifyCase;
+    }
+
+    public TermOrderings getTermOrdering() {
+        return this.termOrdering;
+    }
+
+    public void setTermOrdering(TermOrderings termOrdering) {
+        this.termOrdering = termOrdering;
+    }
+
+}
@@ -0,0 +1,180 @@
+package process;
+
+import abstractexpressions.expression.classes.Expression;
+import enums.TypeSimplify;
+import exceptions.CancellationException;
+import exceptions.EvaluationException;
+import lang.translator.Translator;
+
+/**
+ * Zeit- und Schrittbudget für die Standardvereinfachung eines einzelnen
+ * Ausdrucks. Während Expression.simplify() läuft, meldet jeder
+ * Vereinfachungsschritt über beginPass() / endPass() seinen Fortschritt an
+ * das Budget des aktuellen Threads. Dabei wird der kürzeste bisher erreichte
+ * Zwischenstand festgehalten, damit bei Überschreitung des Budgets dieser
+ * anstelle des fertig vereinfachten Ausdrucks verwendet werden kann.<br>
+ * Die Zeitschranke selbst wird von außen durchgesetzt, indem der rechnende
+ * Thread unterbrochen wird (siehe Canceller).
+ */
+public class SimplificationBudget {
+
+    private static final String MCC_COMPUTATION_ABORTED = "MCC_COMPUTATION_ABORTED";
+
+    private static final ThreadLocal<SimplificationBudget> CURRENT_BUDGET = new ThreadLocal<>();
+
+    private final long timeoutMillis;
+    private final int maxPasses;
+
+    private Expression bestExpression;
+    private int lengthOfBestExpression;
+    private Expression result;
+    private TypeSimplify currentPass;
+    private int numberOfCompletedPasses;
+    /*
+     Verschachtelungstiefe der Aufrufe von simplify(). Viele
+     Vereinfachungsschritte rufen intern wieder simplify() für Teilausdrücke
+     auf; gezählt und protokolliert werden nur die Schritte der äußersten
+     Vereinfachung.
+     */
+    private int simplifyDepth;
+    private boolean exhausted;
+
+    /**
+     * timeoutMillis &#8804; 0 bzw. maxPasses &#8804; 0 bedeuten jeweils:
+     * keine Schranke.
+     */
+    public SimplificationBudget(long timeoutMillis, int maxPasses) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxPasses = maxPasses;
+    }
+
+    public long getTimeoutMillis() {
+        return this.timeoutMillis;
+    }
+
+    public int getMaxPasses() {
+        return this.maxPasses;
+    }
+
+    public boolean isLimited() {
+        return this.timeoutMillis > 0 || this.maxPasses > 0;
+    }
+
+    /**
+     * Gibt zurück, ob die Vereinfachung wegen Überschreitung des Budgets
+     * abgebrochen wurde.
+     */
+    public boolean isExhausted() {
+        return this.exhausted;
+    }
+
+    /**
+     * Gibt den Vereinfachungsschritt zurück, der zuletzt begonnen wurde (bei
+     * Abbruch also derjenige, der gerade lief).
+     */
+    public TypeSimplify getCurrentPass() {
+        return this.currentPass;
+    }
+
+    public int getNumberOfCompletedPasses() {
+        return this.numberOfCompletedPasses;
+    }
+
+    /**
+     * Gibt den vollständig vereinfachten Ausdruck bzw. nach einem Abbruch den
+     * kürzesten bis dahin erreichten Zwischenstand zurück.
+     */
+    public Expression getResult() {
+        if (this.exhausted) {
+            return this.bestExpression;
+        }
+        return this.result;
+    }
+
+    /**
+     * Vereinfacht expr mittels simplify() unter diesem Budget im aktuellen
+     * Thread. Wird das Budget überschritten (Schrittanzahl erreicht oder
+     * Thread wegen Zeitüberschreitung unterbrochen), so wird keine Exception
+     * geworfen, sondern isExhausted() liefert anschließend true.
+     *
+     * @throws EvaluationException
+     */
+    public void simplify(Expression expr) throws EvaluationException {
+        SimplificationBudget previousBudget = CURRENT_BUDGET.get();
+        CURRENT_BUDGET.set(this);
+        this.bestExpression = expr;
+        this.lengthOfBestExpression = this.isLimited() ? expr.getLength() : 0;
+        try {
+            this.result = expr.simplify();
+        } catch (CancellationException e) {
+            this.exhausted = true;
+        } finally {
+            if (previousBudget == null) {
+                CURRENT_BUDGET.remove();
+            } else {
+                CURRENT_BUDGET.set(previousBudget);
+            }
+        }
+    }
+
+    /**
+     * Wird von Expression.simplify() zu Beginn aufgerufen.
+     */
+    public static void enterSimplify() {
+        SimplificationBudget budget = CURRENT_BUDGET.get();
+        if (budget != null) {
+            budget.simplifyDepth++;
+        }
+    }
+
+    /**
+     * Wird von Expression.simplify() am Ende (auch im Fehlerfall)
+     * aufgerufen.
+     */
+    public static void exitSimplify() {
+        SimplificationBudget budget = CURRENT_BUDGET.get();
+        if (budget != null) {
+            budget.simplifyDepth--;
+        }
+    }
+
+    /**
+     * Wird von Expression.simplify() vor jedem Vereinfachungsschritt
+     * aufgerufen. Bricht mit einer CancellationException ab, falls die
+     * maximale Schrittanzahl bereits erreicht ist.
+     *
+     * @throws CancellationException
+     */
+    public static void beginPass(TypeSimplify pass) {
+        SimplificationBudget budget = CURRENT_BUDGET.get();
+        if (budget != null && budget.simplifyDepth == 1) {
+            budget.currentPass = pass;
+            if (budget.maxPasses > 0 && budget.numberOfCompletedPasses >= budget.maxPasses) {
+                throw new CancellationException(Translator.translateOutputMessage(MCC_COMPUTATION_ABORTED));
+            }
+        }
+    }
+
+    /**
+     * Wird von Expression.simplify() nach jedem Vereinfachungsschritt mit dem
+     * Zwischenergebnis aufgerufen. Bricht mit einer CancellationException ab,
+     * falls der Thread unterbrochen wurde.
+     *
+     * @throws CancellationException
+     */
+    public static void endPass(Expression intermediateExpression) {
+        SimplificationBudget budget = CURRENT_BUDGET.get();
+        if (budget != null && budget.simplifyDepth == 1) {
+            budget.numberOfCompletedPasses++;
+        }
+        if (budget != null && budget.simplifyDepth == 1 && budget.isLimited()) {
+            int length = intermediateExpression.getLength();
+            if (length < budget.lengthOfBestExpression) {
+                budget.bestExpression = intermediateExpression;
+                budget.lengthOfBestExpression = length;
+            }
+        }
+        Canceller.interruptComputationIfNeeded();
+    }
+
+}
@@ -0,0 +1,195 @@
+package batchtests;
+
+import abstractexpressions.expression.classes.Expression;
+import basic.MathToolTestBase;
+import batch.BatchSimplifier;
+import batch.SimplificationResult;
+import exceptions.ExpressionException;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchSimplifierTests extends MathToolTestBase {
+
+    File resultsDirectory;
+    BatchSimplifier batchSimplifier;
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void createResultsDirectory() throws IOException {
+        resultsDirectory = Files.createTempDirectory("batchsimplifier").toFile();
+        for (String name : new String[]{"Container1_OS2", "Container2_OS2", "Container10_OS2", "Container1_OS3"}) {
+            assertTrue(new File(resultsDirectory, name).mkdir());
+        }
+        // Eine Datei, deren Name zum Muster passt, ist kein Ergebnisordner.
+        assertTrue(new File(resultsDirectory, "Container3_OS2").createNewFile());
+        batchSimplifier = new BatchSimplifier(2);
+    }
+
+    @After
+    public void deleteResultsDirectory() {
+        batchSimplifier.shutdown();
+        delete(resultsDirectory);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private File getDirectory(String name) {
+        return new File(resultsDirectory, name);
+    }
+
+    @Test
+    public void resolveGlobTest() throws IOException {
+        List<File> directories = BatchSimplifier.resolveDirectories(
+                Collections.singletonList(resultsDirectory.getPath() + File.separator + "Container*_OS2"));
+
+        List<File> expectedDirectories = Arrays.asList(getDirectory("Container10_OS2").getAbsoluteFile(),
+                getDirectory("Container1_OS2").getAbsoluteFile(), getDirectory("Container2_OS2").getAbsoluteFile());
+
+        results = new Object[]{directories};
+        expectedResults = new Object[]{expectedDirectories};
+
+        assertTrue(directories.equals(expectedDirectories));
+    }
+
+    @Test
+    public void resolveGlobWithTrailingSeparatorTest() throws IOException {
+        List<File> directories = BatchSimplifier.resolveDirectories(
+                Collections.singletonList(resultsDirectory.getPath() + File.separator + "Container1_OS?" + File.separator));
+
+        List<File> expectedDirectories = Arrays.asList(getDirectory("Container1_OS2").getAbsoluteFile(),
+                getDirectory("Container1_OS3").getAbsoluteFile());
+
+        results = new Object[]{directories};
+        expectedResults = new Object[]{expectedDirectories};
+
+        assertTrue(directories.equals(expectedDirectories));
+    }
+
+    @Test
+    public void resolveDirectoriesAndGlobsTest() throws IOException {
+        // Ordner ohne Glob-Zeichen werden unverändert (ohne abschließendes Trennzeichen) übernommen.
+        List<File> directories = BatchSimplifier.resolveDirectories(Arrays.asList(
+                getDirectory("Container2_OS2").getPath() + File.separator,
+                resultsDirectory.getPath() + File.separator + "*_OS3",
+                resultsDirectory.getPath() + File.separator + "missing" + File.separator + "*"));
+
+        List<File> expectedDirectories = Arrays.asList(getDirectory("Container2_OS2"),
+                getDirectory("Container1_OS3").getAbsoluteFile());
+
+        results = new Object[]{directories};
+        expectedResults = new Object[]{expectedDirectories};
+
+        assertTrue(directories.equals(expectedDirectories));
+    }
+
+    @Test
+    public void parseRunRangeTest() {
+        assertTrue(Arrays.equals(BatchSimplifier.parseRunRange("0-29"), new int[]{0, 29}));
+        assertTrue(Arrays.equals(BatchSimplifier.parseRunRange("3-7"), new int[]{3, 7}));
+        assertTrue(Arrays.equals(BatchSimplifier.parseRunRange("12"), new int[]{12, 12}));
+        assertTrue(Arrays.equals(BatchSimplifier.parseRunRange("5-5"), new int[]{5, 5}));
+    }
+
+    @Test
+    public void parseInvalidRunRangeTest() {
+        for (String runRange : new String[]{"", "7-3", "-3", "3-", "1-2-3", "a-b", "x"}) {
+            try {
+                BatchSimplifier.parseRunRange(runRange);
+                fail("The run range \"" + runRange + "\" was accepted.");
+            } catch (IllegalArgumentException e) {
+            }
+        }
+    }
+
+    @Test
+    public void simplifyRunsTest() throws IOException, ExpressionException {
+        File directory = getDirectory("Container1_OS2");
+        BatchSimplifier.writeExpression(BatchSimplifier.getRawGPTreeFile(directory, 0), "x+x");
+        BatchSimplifier.writeExpression(BatchSimplifier.getRawGPTreeFile(directory, 1), "(x+");
+        BatchSimplifier.writeExpression(BatchSimplifier.getRawGPTreeFile(directory, 3), "y*y*y");
+
+        List<SimplificationResult> simplificationResults = batchSimplifier.simplifyRuns(
+                Collections.singletonList(directory), 0, 3);
+
+        List<SimplificationResult.Status> statuses = new ArrayList<>();
+        for (SimplificationResult result : simplificationResults) {
+            statuses.add(result.getStatus());
+        }
+
+        results = new Object[]{statuses};
+        expectedResults = new Object[]{Arrays.asList(SimplificationResult.Status.SIMPLIFIED, SimplificationResult.Status.FAILED,
+            SimplificationResult.Status.MISSING_INPUT, SimplificationResult.Status.SIMPLIFIED)};
+
+        assertTrue(statuses.equals(expectedResults[0]));
+        for (int run = 0; run <= 3; run++) {
+            assertTrue(simplificationResults.get(run).getRun() == run);
+            assertTrue(simplificationResults.get(run).getDirectory().equals(directory));
+        }
+        assertTrue(Expression.build(BatchSimplifier.readExpression(BatchSimplifier.getSimplifiedGPTreeFile(directory, 0))).equals(
+                Expression.build("2*x")));
+        assertTrue(Expression.build(BatchSimplifier.readExpression(BatchSimplifier.getSimplifiedGPTreeFile(directory, 3))).equals(
+                Expression.build("y^3")));
+        assertFalse(BatchSimplifier.getSimplifiedGPTreeFile(directory, 1).exists());
+        assertFalse(BatchSimplifier.getSimplifiedGPTreeFile(directory, 2).exists());
+    }
+
+    @Test
+    public void printReportTest() throws IOException {
+        File directory = getDirectory("Container1_OS2");
+        List<SimplificationResult> simplificationResults = Arrays.asList(
+                new SimplificationResult(directory, 0, SimplificationResult.Status.SIMPLIFIED, 1000000, null),
+                new SimplificationResult(directory, 1, SimplificationResult.Status.CACHED, 2000000, null),
+                new SimplificationResult(directory, 2, SimplificationResult.Status.MISSING_INPUT, 0, "simpleGPTree_2.txt"),
+                new SimplificationResult(directory, 3, SimplificationResult.Status.BUDGET_EXHAUSTED, 5000000, "budget exhausted"),
+                new SimplificationResult(directory, 4, SimplificationResult.Status.FAILED, 2000000, "ExpressionException: error"));
+
+        ByteArrayOutputStream reportBytes = new ByteArrayOutputStream();
+        BatchSimplifier.printReport(simplificationResults, 7000000, new PrintStream(reportBytes, true, "UTF-8"));
+        String[] report = reportBytes.toString("UTF-8").split("\\r?\\n");
+
+        results = new Object[]{report.length};
+        expectedResults = new Object[]{8};
+
+        assertTrue(report.length == 8);
+        // Eine Zeile pro Datei in der Reihenfolge der Ergebnisse.
+        for (int i = 0; i < 5; i++) {
+            assertTrue(report[i].equals(simplificationResults.get(i).toString()));
+        }
+        assertTrue(report[0].equals(directory.getPath() + " run 0: SIMPLIFIED (" + String.format("%.1f", 1.0) + " ms)"));
+        assertTrue(report[4].endsWith(" ExpressionException: error"));
+        assertTrue(report[5].equals("Files: 5, simplified: 1, from cache: 1, missing: 1, budget exhausted: 1, failed: 1"));
+        assertTrue(report[6].equals(String.format("Latency per file: mean %.1f ms, max %.1f ms, sum %.1f ms", 2.0, 5.0, 10.0)));
+        assertTrue(report[7].equals(String.format("Wall time: %.1f ms", 7.0)));
+    }
+
+}
@@ -0,0 +1,107 @@
+package batchtests;
+
+import abstractexpressions.expression.classes.Expression;
+import basic.MathToolTestBase;
+import batch.EquivalenceVerifier;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import org.junit.After;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class EquivalenceVerifierTests extends MathToolTestBase {
+
+    EquivalenceVerifier verifier;
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void createVerifier() {
+        verifier = new EquivalenceVerifier(2);
+    }
+
+    @After
+    public void shutdownVerifier() {
+        verifier.shutdown();
+    }
+
+    @Test
+    public void verifyEquivalentTreesTest() throws ExpressionException, EvaluationException {
+        Expression raw = Expression.build("(x+y)^2-2*x*y");
+        EquivalenceVerifier.VerificationResult result = verifier.verifyAtRandomPoints(raw, raw.simplify(), 100000, -10, 10, 1);
+
+        results = new Object[]{result.isEquivalent(), result.getNumberOfPoints()};
+        expectedResults = new Object[]{true, 100000L};
+
+        assertTrue(result.isEquivalent());
+        assertFalse(result.isShortCircuited());
+        assertTrue(result.getNumberOfPoints() == 100000);
+        assertTrue(result.getMaxRelativeError() < 1e-12);
+        assertTrue(result.getCounterexamples().isEmpty());
+    }
+
+    @Test
+    public void verifyStopsAfterMaxCounterexamplesTest() throws ExpressionException {
+        verifier.setMaxCounterexamples(3);
+        EquivalenceVerifier.VerificationResult result = verifier.verifyAtRandomPoints(
+                Expression.build("x+y"), Expression.build("x+y+1"), 100000, -10, 10, 1);
+
+        results = new Object[]{result.getNumberOfPoints(), result.getNumberOfDisagreements()};
+        expectedResults = new Object[]{3L, 3L};
+
+        assertFalse(result.isEquivalent());
+        assertTrue(result.isShortCircuited());
+        assertTrue(result.getNumberOfPoints() == 3);
+        assertTrue(result.getNumberOfDisagreements() == 3);
+        assertTrue(result.getCounterexamples().size() == 3);
+        EquivalenceVerifier.Counterexample counterexample = result.getCounterexamples().get(0);
+        double[] point = counterexample.getPoint();
+        assertTrue(counterexample.getRawValue() == point[0] + point[1]);
+        assertTrue(counterexample.getSimplifiedValue() == point[0] + point[1] + 1);
+    }
+
+    @Test
+    public void verifyAtPointsOfDatasetTest() throws ExpressionException {
+        verifier.setMaxCounterexamples(0);
+        EquivalenceVerifier.Dataset dataset = new EquivalenceVerifier.Dataset(new String[]{"x", "unused"},
+                new double[][]{{-1, 0, 1, 2}, {5, 6, 7, 8}});
+        // x/x ist bei x = 0 nicht definiert, 1 dagegen schon.
+        EquivalenceVerifier.VerificationResult result = verifier.verifyAtPoints(
+                Expression.build("x/x+ln(x)"), Expression.build("1+ln(x)"), dataset);
+
+        results = new Object[]{result.getNumberOfPointsUndefinedInBoth(), result.getNumberOfPointsUndefinedOnlyInRaw()};
+        expectedResults = new Object[]{2L, 0L};
+
+        assertTrue(result.getNumberOfPoints() == 4);
+        assertTrue(result.getNumberOfPointsUndefinedInBoth() == 2);
+        assertTrue(result.getNumberOfPointsUndefinedOnlyInRaw() == 0);
+        assertTrue(result.isEquivalent());
+
+        result = verifier.verifyAtPoints(Expression.build("x/x"), Expression.build("1"), dataset);
+        assertTrue(result.getNumberOfPointsUndefinedOnlyInRaw() == 1);
+        assertTrue(result.getNumberOfPointsUndefinedOnlyInSimplified() == 0);
+        assertFalse(result.isEquivalent());
+    }
+
+    @Test
+    public void verifyWithMissingColumnTest() throws ExpressionException {
+        EquivalenceVerifier.Dataset dataset = new EquivalenceVerifier.Dataset(new String[]{"x"}, new double[][]{{1, 2}});
+        try {
+            verifier.verifyAtPoints(Expression.build("x+y"), Expression.build("y+x"), dataset);
+            fail("y is not a column of the dataset.");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+}
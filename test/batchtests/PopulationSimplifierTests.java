@@ -0,0 +1,109 @@
+package batchtests;
+
+import abstractexpressions.expression.classes.Expression;
+import basic.MathToolTestBase;
+import batch.PopulationSimplifier;
+import batch.SimplificationResult;
+import batch.SimplificationWatchdog;
+import exceptions.ExpressionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PopulationSimplifierTests extends MathToolTestBase {
+
+    PopulationSimplifier populationSimplifier;
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void createPopulationSimplifier() {
+        populationSimplifier = new PopulationSimplifier(2);
+    }
+
+    @After
+    public void shutdownPopulationSimplifier() {
+        populationSimplifier.shutdown();
+    }
+
+    @Test
+    public void simplifyPopulationKeepsOrderTest() throws ExpressionException {
+        List<String> trees = Arrays.asList("x+x", "y*y*y", "x+x", "(x+", "x*1");
+        PopulationSimplifier.PopulationResult result = populationSimplifier.simplifyPopulation(trees);
+
+        results = new Object[]{result.getNumberOfTrees(), result.getNumberOfUniqueTrees()};
+        expectedResults = new Object[]{5, 4};
+
+        assertTrue(result.getNumberOfTrees() == 5);
+        assertTrue(result.getNumberOfUniqueTrees() == 4);
+        assertTrue(result.getTree(0).getSimplifiedExpression().equals(Expression.build("2*x")));
+        assertTrue(result.getTree(1).getSimplifiedExpression().equals(Expression.build("y^3")));
+        assertTrue(result.getTree(2).getSimplifiedExpression().equals(Expression.build("2*x")));
+        assertTrue(result.getTree(4).getSimplifiedExpression().equals(Expression.build("x")));
+        assertFalse(result.getTree(0).isDuplicate());
+        assertTrue(result.getTree(2).isDuplicate());
+        assertTrue(result.getTree(3).getStatus() == SimplificationResult.Status.FAILED);
+        assertTrue(result.getTree(3).getSimplifiedExpression() == null);
+    }
+
+    @Test
+    public void simplifyPopulationStatisticsTest() {
+        List<String> trees = Arrays.asList("x+x", "x*1", "(x+");
+        PopulationSimplifier.PopulationResult result = populationSimplifier.simplifyPopulation(trees);
+
+        // Längen: x+x -> 2*x (2 -> 1), x*1 -> x (1 -> 1), (x+ wird ausgelassen.
+        results = new Object[]{result.getTotalLengthBefore(), result.getTotalLengthAfter()};
+        expectedResults = new Object[]{3L, 2L};
+
+        assertTrue(result.getTree(0).getLengthBefore() == 2);
+        assertTrue(result.getTree(0).getLengthAfter() == 1);
+        assertTrue(result.getTree(2).getLengthAfter() == -1);
+        assertTrue(result.getTotalLengthBefore() == 3);
+        assertTrue(result.getTotalLengthAfter() == 2);
+        assertTrue(result.getNumberOfTrees(SimplificationResult.Status.SIMPLIFIED) == 2);
+    }
+
+    @Test
+    public void simplifyExpressionsTest() throws ExpressionException {
+        List<Expression> trees = new ArrayList<>();
+        trees.add(Expression.build("x+x"));
+        trees.add(Expression.build("x + x"));
+        trees.add(Expression.build("2*y-y"));
+        PopulationSimplifier.PopulationResult result = populationSimplifier.simplifyExpressions(trees);
+
+        results = new Object[]{result.getNumberOfUniqueTrees()};
+        expectedResults = new Object[]{2};
+
+        assertTrue(result.getNumberOfUniqueTrees() == 2);
+        assertTrue(result.getTree(1).isDuplicate());
+        assertTrue(result.getTree(1).getSimplifiedExpression().equals(Expression.build("2*x")));
+        assertTrue(result.getTree(2).getSimplifiedExpression().equals(Expression.build("y")));
+    }
+
+    @Test
+    public void simplifyPopulationWithPassBudgetTest() {
+        PopulationSimplifier limitedSimplifier = new PopulationSimplifier(2, new SimplificationWatchdog(0, 1));
+        try {
+            PopulationSimplifier.PopulationResult result = limitedSimplifier.simplifyPopulation(Arrays.asList("(x+1)^2-x^2-2*x"));
+            assertTrue(result.getTree(0).getStatus() == SimplificationResult.Status.BUDGET_EXHAUSTED);
+            assertTrue(result.getTree(0).getSimplifiedExpression() != null);
+            assertTrue(result.getTree(0).getLengthAfter() <= result.getTree(0).getLengthBefore());
+        } finally {
+            limitedSimplifier.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+package batchtests;
+
+import abstractexpressions.expression.classes.Expression;
+import basic.MathToolTestBase;
+import batch.SimplificationWatchdog;
+import enums.TypeSimplify;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import process.SimplificationBudget;
+
+public class SimplificationBudgetTests extends MathToolTestBase {
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    /**
+     * Summe (x+1)/(x+2) + ... + (x+n)/(x+n+1), deren vollständige
+     * Vereinfachung für n = 60 mehrere Sekunden dauert.
+     */
+    private static Expression getSlowExpression(int n) throws ExpressionException {
+        StringBuilder formula = new StringBuilder();
+        for (int k = 1; k <= n; k++) {
+            if (k > 1) {
+                formula.append("+");
+            }
+            formula.append("(x+").append(k).append(")/(x+").append(k + 1).append(")");
+        }
+        return Expression.build(formula.toString());
+    }
+
+    @Test
+    public void unlimitedBudgetTest() throws ExpressionException, EvaluationException {
+        Expression expr = Expression.build("x+x+0*y+1*z");
+        SimplificationBudget budget = new SimplificationBudget(0, 0);
+        budget.simplify(expr);
+
+        results = new Object[]{budget.getResult()};
+        expectedResults = new Object[]{expr.simplify()};
+
+        assertFalse(budget.isLimited());
+        assertFalse(budget.isExhausted());
+        assertTrue(budget.getResult().equals(expr.simplify()));
+        assertTrue(budget.getNumberOfCompletedPasses() > 0);
+    }
+
+    @Test
+    public void passBudgetRecordsRunningPassTest() throws ExpressionException, EvaluationException {
+        Expression expr = Expression.build("x+x+0*y+1*z");
+
+        SimplificationBudget budget = new SimplificationBudget(0, 1);
+        budget.simplify(expr);
+        results = new Object[]{budget.getCurrentPass(), budget.getNumberOfCompletedPasses()};
+        expectedResults = new Object[]{TypeSimplify.order_sums_and_products, 1};
+        assertTrue(budget.isExhausted());
+        assertTrue(budget.getNumberOfCompletedPasses() == 1);
+        assertTrue(budget.getCurrentPass() == TypeSimplify.order_sums_and_products);
+
+        budget = new SimplificationBudget(0, 3);
+        budget.simplify(expr);
+        assertTrue(budget.isExhausted());
+        assertTrue(budget.getNumberOfCompletedPasses() == 3);
+        assertTrue(budget.getCurrentPass() == TypeSimplify.simplify_by_inserting_defined_vars);
+        assertTrue(SimplificationWatchdog.describeExhaustion(budget).equals(
+                "budget exhausted in pass simplify_by_inserting_defined_vars after 3 passes"));
+    }
+
+    @Test
+    public void passBudgetReturnsShortestFormTest() throws ExpressionException, EvaluationException {
+        Expression expr = Expression.build("x+x+0*y+1*z+(2*y-y)");
+
+        // Die ersten drei Schritte von simplify() von Hand ausführen.
+        Expression[] intermediateExpressions = new Expression[4];
+        intermediateExpressions[0] = expr;
+        intermediateExpressions[1] = intermediateExpressions[0].orderDifferencesAndQuotients();
+        intermediateExpressions[2] = intermediateExpressions[1].orderSumsAndProducts();
+        intermediateExpressions[3] = intermediateExpressions[2].simplifyBasic();
+        assertTrue(intermediateExpressions[3].getLength() < expr.getLength());
+
+        for (int maxPasses = 1; maxPasses <= 3; maxPasses++) {
+            // Erwartet wird der erste der kürzesten bis dahin erreichten Zwischenstände.
+            Expression shortestExpression = intermediateExpressions[0];
+            for (int i = 1; i <= maxPasses; i++) {
+                if (intermediateExpressions[i].getLength() < shortestExpression.getLength()) {
+                    shortestExpression = intermediateExpressions[i];
+                }
+            }
+            SimplificationBudget budget = new SimplificationBudget(0, maxPasses);
+            budget.simplify(expr);
+
+            results = new Object[]{budget.getResult()};
+            expectedResults = new Object[]{shortestExpression};
+
+            assertTrue(budget.isExhausted());
+            assertTrue(budget.getResult().equals(shortestExpression));
+        }
+    }
+
+    @Test
+    public void wallClockBudgetTest() throws ExpressionException, EvaluationException {
+        SimplificationWatchdog watchdog = new SimplificationWatchdog(100, 0);
+        try {
+            Expression expr = getSlowExpression(60);
+            SimplificationBudget budget = watchdog.simplify(expr);
+
+            results = new Object[]{budget.isExhausted(), Thread.currentThread().isInterrupted()};
+            expectedResults = new Object[]{true, false};
+
+            assertTrue(budget.isExhausted());
+            assertTrue(budget.getCurrentPass() != null);
+            assertTrue(budget.getResult() != null);
+            assertTrue(budget.getResult().getLength() <= expr.getLength());
+            // Die Unterbrechung durch den Watchdog darf nicht im Thread zurückbleiben.
+            assertFalse(Thread.currentThread().isInterrupted());
+
+            // Der nächste Ausdruck desselben Threads wird normal vereinfacht.
+            budget = watchdog.simplify(Expression.build("x+x"));
+            assertFalse(budget.isExhausted());
+            assertTrue(budget.getResult().equals(Expression.build("2*x")));
+        } finally {
+            watchdog.shutdown();
+        }
+    }
+
+    @Test
+    public void wallClockBudgetNotReachedTest() throws ExpressionException, EvaluationException {
+        SimplificationWatchdog watchdog = new SimplificationWatchdog(60000, 0);
+        try {
+            Expression expr = Expression.build("x+x+0*y+1*z");
+            SimplificationBudget budget = watchdog.simplify(expr);
+
+            results = new Object[]{budget.getResult()};
+            expectedResults = new Object[]{expr.simplify()};
+
+            assertFalse(budget.isExhausted());
+            assertTrue(budget.getResult().equals(expr.simplify()));
+            assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            watchdog.shutdown();
+        }
+    }
+
+}
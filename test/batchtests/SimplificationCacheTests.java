@@ -0,0 +1,216 @@
+package batchtests;
+
+import abstractexpressions.expression.classes.Expression;
+import basic.MathToolTestBase;
+import batch.SimplificationCache;
+import exceptions.ExpressionException;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SimplificationCacheTests extends MathToolTestBase {
+
+    File cacheFile;
+    SimplificationCache cache;
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void createCacheFile() throws IOException {
+        cacheFile = File.createTempFile("simplificationcache", ".bin");
+        cacheFile.delete();
+    }
+
+    @After
+    public void deleteCacheFile() throws IOException {
+        if (cache != null) {
+            cache.close();
+            cache = null;
+        }
+        cacheFile.delete();
+        new File(cacheFile.getPath() + ".compact").delete();
+    }
+
+    private static SimplificationCache.Fingerprint fingerprint(int i) {
+        return new SimplificationCache.Fingerprint(i, 31 * i + 7);
+    }
+
+    @Test
+    public void putAndGetTest() throws IOException {
+        cache = new SimplificationCache(cacheFile, 1 << 20);
+        cache.put(fingerprint(1), "2*x");
+        cache.put(fingerprint(2), "y^3");
+        // Ein zweites put() mit demselben Fingerabdruck ändert den Eintrag nicht.
+        cache.put(fingerprint(1), "x+x");
+
+        results = new Object[]{cache.get(fingerprint(1)), cache.get(fingerprint(2)), cache.get(fingerprint(3))};
+        expectedResults = new Object[]{"2*x", "y^3", null};
+
+        assertTrue(cache.getNumberOfEntries() == 2);
+        assertTrue(cache.get(fingerprint(3)) == null);
+        assertTrue(cache.getNumberOfHits() == 2);
+        assertTrue(cache.getNumberOfMisses() == 2);
+    }
+
+    @Test
+    public void fingerprintDependsOnlyOnParsedExpressionTest() throws ExpressionException {
+        SimplificationCache.Fingerprint f = SimplificationCache.getFingerprint(Expression.build("x+y*z"));
+        SimplificationCache.Fingerprint g = SimplificationCache.getFingerprint(Expression.build("( x ) + (y*z)"));
+        SimplificationCache.Fingerprint h = SimplificationCache.getFingerprint(Expression.build("x+z*y"));
+
+        results = new Object[]{f.equals(g), f.equals(h)};
+        expectedResults = new Object[]{true, false};
+
+        assertTrue(f.equals(g));
+        assertTrue(f.hashCode() == g.hashCode());
+        assertFalse(f.equals(h));
+    }
+
+    @Test
+    public void reopenTest() throws IOException {
+        cache = new SimplificationCache(cacheFile, 1 << 20);
+        cache.put(fingerprint(1), "2*x");
+        cache.put(fingerprint(2), "sin(x)^2");
+        cache.close();
+
+        cache = new SimplificationCache(cacheFile, 1 << 20);
+
+        results = new Object[]{cache.getNumberOfEntries(), cache.get(fingerprint(2))};
+        expectedResults = new Object[]{2, "sin(x)^2"};
+
+        assertTrue(cache.getNumberOfEntries() == 2);
+        assertTrue(cache.get(fingerprint(1)).equals("2*x"));
+        assertTrue(cache.get(fingerprint(2)).equals("sin(x)^2"));
+    }
+
+    @Test
+    public void truncateTornRecordOnReopenTest() throws IOException {
+        cache = new SimplificationCache(cacheFile, 1 << 20);
+        cache.put(fingerprint(1), "2*x");
+        cache.close();
+        cache = null;
+        long lengthOfCompleteRecords = cacheFile.length();
+
+        // Unvollständigen Datensatz anhängen (wie nach einem Absturz während des Schreibens).
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(cacheFile, true))) {
+            out.writeLong(2);
+            out.writeLong(3);
+            out.writeInt(100);
+            out.writeBytes("y^");
+        }
+
+        cache = new SimplificationCache(cacheFile, 1 << 20);
+
+        results = new Object[]{cache.getNumberOfEntries(), cacheFile.length()};
+        expectedResults = new Object[]{1, lengthOfCompleteRecords};
+
+        assertTrue(cache.getNumberOfEntries() == 1);
+        assertTrue(cacheFile.length() == lengthOfCompleteRecords);
+        assertTrue(cache.get(fingerprint(1)).equals("2*x"));
+        // Neue Einträge werden hinter dem letzten vollständigen Datensatz angehängt.
+        cache.put(fingerprint(2), "y^3");
+        cache.close();
+        cache = new SimplificationCache(cacheFile, 1 << 20);
+        assertTrue(cache.getNumberOfEntries() == 2);
+        assertTrue(cache.get(fingerprint(2)).equals("y^3"));
+    }
+
+    @Test
+    public void rejectFileWithWrongHeaderTest() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(cacheFile)) {
+            out.write("not a cache file".getBytes("UTF-8"));
+        }
+        try {
+            cache = new SimplificationCache(cacheFile, 1 << 20);
+            fail(cacheFile + " was accepted as cache file.");
+        } catch (IOException e) {
+        }
+        // Die Sperre muss wieder freigegeben sein.
+        assertTrue(cacheFile.delete());
+    }
+
+    @Test
+    public void compactLeastRecentlyUsedEntriesTest() throws IOException {
+        // Datensatz = 20 Byte Kopf + 7 Byte Wert; ab dem 8. Eintrag wird die Grenze von 200 Byte überschritten.
+        cache = new SimplificationCache(cacheFile, 200);
+        for (int i = 0; i < 7; i++) {
+            cache.put(fingerprint(i), "value_" + i);
+        }
+        assertTrue(cache.getNumberOfEntries() == 7);
+        // Eintrag 0 wird wieder benutzt und ist damit nach Eintrag 6 der zuletzt benutzte.
+        cache.get(fingerprint(0));
+        cache.put(fingerprint(7), "value_7");
+
+        // Nach dem Kompaktieren bleiben höchstens 3/4 * 200 = 150 Byte, also 5 Einträge.
+        results = new Object[]{cache.getNumberOfEntries(), cacheFile.length()};
+        expectedResults = new Object[]{5, 8L + 5 * 27};
+
+        assertTrue(cache.getNumberOfEntries() == 5);
+        assertTrue(cacheFile.length() == 8 + 5 * 27);
+        assertFalse(new File(cacheFile.getPath() + ".compact").exists());
+        assertTrue(cache.get(fingerprint(0)).equals("value_0"));
+        assertTrue(cache.get(fingerprint(7)).equals("value_7"));
+        for (int i = 4; i <= 6; i++) {
+            assertTrue(cache.get(fingerprint(i)).equals("value_" + i));
+        }
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(cache.get(fingerprint(i)) == null);
+        }
+
+        // Auch die kompaktierte Datei kann wieder geöffnet werden.
+        cache.close();
+        cache = new SimplificationCache(cacheFile, 200);
+        assertTrue(cache.getNumberOfEntries() == 5);
+        assertTrue(cache.get(fingerprint(0)).equals("value_0"));
+    }
+
+    @Test
+    public void cacheFileInUseIsOpenedReadOnlyTest() throws IOException {
+        cache = new SimplificationCache(cacheFile, 1 << 20);
+        cache.put(fingerprint(1), "2*x");
+        assertFalse(cache.isReadOnly());
+
+        // Eine zweite Instanz (etwa ein zweiter Lauf auf demselben Cache) darf nur lesen.
+        SimplificationCache sharedCache = new SimplificationCache(cacheFile, 1 << 20);
+        try {
+            results = new Object[]{sharedCache.isReadOnly(), sharedCache.get(fingerprint(1))};
+            expectedResults = new Object[]{true, "2*x"};
+
+            assertTrue(sharedCache.isReadOnly());
+            assertTrue(sharedCache.get(fingerprint(1)).equals("2*x"));
+            sharedCache.put(fingerprint(2), "y^3");
+            assertTrue(sharedCache.get(fingerprint(2)) == null);
+            long length = cacheFile.length();
+            // Die erste Instanz bleibt benutzbar und schreibt weiterhin.
+            cache.put(fingerprint(3), "sin(x)");
+            assertTrue(cache.get(fingerprint(3)).equals("sin(x)"));
+            assertTrue(cacheFile.length() > length);
+            assertTrue(sharedCache.get(fingerprint(1)).equals("2*x"));
+        } finally {
+            sharedCache.close();
+        }
+
+        // Nach dem Schließen kann die Datei wieder schreibend geöffnet werden.
+        cache.close();
+        cache = new SimplificationCache(cacheFile, 1 << 20);
+        assertFalse(cache.isReadOnly());
+        assertTrue(cache.getNumberOfEntries() == 2);
+        assertTrue(cache.get(fingerprint(2)) == null);
+    }
+
+}
@@ -0,0 +1,175 @@
+package batchtests;
+
+import abstractexpressions.expression.classes.Expression;
+import basic.MathToolTestBase;
+import batch.SimplificationServer;
+import batch.SimplificationWatchdog;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SimplificationServerTests extends MathToolTestBase {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    SimplificationServer server;
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @After
+    public void closeServer() throws IOException {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+
+    private void startServer(SimplificationWatchdog watchdog) throws IOException {
+        server = new SimplificationServer(0, 2, watchdog);
+        Thread serverThread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                server.serve(System.err);
+            }
+
+        }, "simplification-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+    }
+
+    /**
+     * Sendet alle Anfragen auf einmal (ohne auf Antworten zu warten) und gibt
+     * die Antworten, nach ID geordnet, als {STATUS, AUSDRUCK} zurück.
+     */
+    private Map<String, String[]> sendRequests(List<String> requests) throws IOException {
+        Map<String, String[]> responses = new HashMap<>();
+        try (Socket socket = new Socket(InetAddress.getByName(null), server.getPort())) {
+            socket.setSoTimeout(60000);
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), UTF_8);
+            for (String request : requests) {
+                writer.write(request + "\n");
+            }
+            writer.flush();
+            socket.shutdownOutput();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+            String response;
+            while ((response = reader.readLine()) != null) {
+                String[] idAndRest = response.split(" ", 2);
+                String[] statusAndResult = idAndRest[1].split(" ", 2);
+                // Jede ID darf nur einmal beantwortet werden.
+                assertTrue(responses.put(idAndRest[0], statusAndResult) == null);
+            }
+        }
+        return responses;
+    }
+
+    @Test
+    public void pipelinedRequestsTest() throws IOException, ExpressionException, EvaluationException {
+        startServer(new SimplificationWatchdog(0, 0));
+
+        List<String> requests = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            requests.add("tree-" + i + " " + i + "*x+x");
+        }
+        // Leere Zeilen werden übergangen und nicht beantwortet.
+        requests.add("");
+        requests.add("  run:7/a  y*y*y  ");
+        Map<String, String[]> responses = sendRequests(requests);
+
+        results = new Object[]{responses.size()};
+        expectedResults = new Object[]{31};
+
+        assertTrue(responses.size() == 31);
+        for (int i = 0; i < 30; i++) {
+            String[] response = responses.get("tree-" + i);
+            assertTrue(response[0].equals(SimplificationServer.STATUS_OK));
+            assertTrue(Expression.build(response[1]).equals(Expression.build(i + "*x+x").simplify()));
+        }
+        assertTrue(responses.get("run:7/a")[0].equals(SimplificationServer.STATUS_OK));
+        assertTrue(Expression.build(responses.get("run:7/a")[1]).equals(Expression.build("y^3")));
+    }
+
+    @Test
+    public void errorResponsesKeepRequestIdTest() throws IOException {
+        startServer(new SimplificationWatchdog(0, 0));
+
+        List<String> requests = new ArrayList<>();
+        requests.add("a x+x");
+        requests.add("b (x+");
+        requests.add("c");
+        requests.add("d sin(x,y)");
+        Map<String, String[]> responses = sendRequests(requests);
+
+        results = new Object[]{responses.get("a")[0], responses.get("b")[0], responses.get("c")[0], responses.get("d")[0]};
+        expectedResults = new Object[]{SimplificationServer.STATUS_OK, SimplificationServer.STATUS_ERROR,
+            SimplificationServer.STATUS_ERROR, SimplificationServer.STATUS_ERROR};
+
+        assertTrue(responses.size() == 4);
+        assertTrue(responses.get("a")[0].equals(SimplificationServer.STATUS_OK));
+        assertTrue(responses.get("b")[0].equals(SimplificationServer.STATUS_ERROR));
+        assertTrue(responses.get("c")[0].equals(SimplificationServer.STATUS_ERROR));
+        assertTrue(responses.get("c")[1].equals("Missing expression."));
+        assertTrue(responses.get("d")[0].equals(SimplificationServer.STATUS_ERROR));
+    }
+
+    @Test
+    public void budgetIsEnforcedPerRequestTest() throws IOException, ExpressionException {
+        startServer(new SimplificationWatchdog(100, 0));
+
+        // Summe von 60 Brüchen, deren vollständige Vereinfachung mehrere Sekunden dauert.
+        StringBuilder slowExpression = new StringBuilder();
+        for (int k = 1; k <= 60; k++) {
+            if (k > 1) {
+                slowExpression.append("+");
+            }
+            slowExpression.append("(x+").append(k).append(")/(x+").append(k + 1).append(")");
+        }
+        List<String> requests = new ArrayList<>();
+        requests.add("slow1 " + slowExpression);
+        requests.add("fast1 x+x");
+        requests.add("slow2 " + slowExpression);
+        requests.add("fast2 y*y");
+        Map<String, String[]> responses = sendRequests(requests);
+
+        results = new Object[]{responses.get("slow1")[0], responses.get("fast1")[0]};
+        expectedResults = new Object[]{SimplificationServer.STATUS_EXHAUSTED, SimplificationServer.STATUS_OK};
+
+        assertTrue(responses.size() == 4);
+        Expression slowExpr = Expression.build(slowExpression.toString());
+        for (String id : new String[]{"slow1", "slow2"}) {
+            // Zurückgegeben wird der kürzeste erreichte Zwischenstand.
+            assertTrue(responses.get(id)[0].equals(SimplificationServer.STATUS_EXHAUSTED));
+            assertTrue(Expression.build(responses.get(id)[1]).getLength() <= slowExpr.getLength());
+        }
+        // Das Budget einer Anfrage wirkt sich nicht auf die übrigen Anfragen aus.
+        assertTrue(responses.get("fast1")[0].equals(SimplificationServer.STATUS_OK));
+        assertTrue(Expression.build(responses.get("fast1")[1]).equals(Expression.build("2*x")));
+        assertTrue(responses.get("fast2")[0].equals(SimplificationServer.STATUS_OK));
+        assertTrue(Expression.build(responses.get("fast2")[1]).equals(Expression.build("y^2")));
+    }
+
+}
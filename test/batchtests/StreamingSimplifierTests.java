@@ -0,0 +1,184 @@
+package batchtests;
+
+import abstractexpressions.expression.classes.Expression;
+import basic.MathToolTestBase;
+import batch.SimplificationWatchdog;
+import batch.StreamingSimplifier;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class StreamingSimplifierTests extends MathToolTestBase {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    File input;
+    File output;
+    ByteArrayOutputStream logBytes;
+    PrintStream log;
+    StreamingSimplifier streamingSimplifier;
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void createFiles() throws IOException {
+        input = File.createTempFile("streamingsimplifier", ".in");
+        output = File.createTempFile("streamingsimplifier", ".out");
+        logBytes = new ByteArrayOutputStream();
+        log = new PrintStream(logBytes, true, "UTF-8");
+    }
+
+    @After
+    public void deleteFiles() {
+        if (streamingSimplifier != null) {
+            streamingSimplifier.shutdown();
+            streamingSimplifier = null;
+        }
+        input.delete();
+        output.delete();
+    }
+
+    private void writeInput(List<String> records) throws IOException {
+        Files.write(input.toPath(), records, UTF_8);
+    }
+
+    private List<String> readOutput() throws IOException {
+        return Files.readAllLines(output.toPath(), UTF_8);
+    }
+
+    private List<String> readLog() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String line : logBytes.toString("UTF-8").split("\\r?\\n")) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void keepInputOrderUnderBoundedWindowTest() throws IOException, ExpressionException, EvaluationException {
+        // Langsame und schnelle Datensätze wechseln sich ab, so dass die Worker
+        // ihre Datensätze nicht in der Reihenfolge der Eingabe beenden.
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            if (i % 4 == 0) {
+                records.add("(x+" + i + ")/(x+1)+(x+2)/(x+3)+(x+4)/(x+5)+(x+6)/(x+7)");
+            } else {
+                records.add(i + "*x+x");
+            }
+        }
+        writeInput(records);
+
+        streamingSimplifier = new StreamingSimplifier(4, 3);
+        StreamingSimplifier.Statistics statistics = streamingSimplifier.simplifyRecords(input, output, log);
+        List<String> outputRecords = readOutput();
+
+        results = new Object[]{statistics.getNumberOfRecords(), outputRecords.size()};
+        expectedResults = new Object[]{40L, 40};
+
+        assertTrue(statistics.getNumberOfRecords() == 40);
+        assertTrue(statistics.getNumberOfSimplifiedRecords() == 40);
+        assertTrue(outputRecords.size() == 40);
+        for (int i = 0; i < 40; i++) {
+            assertTrue(outputRecords.get(i).equals(Expression.build(records.get(i)).simplify().toString()));
+        }
+        assertTrue(readLog().isEmpty());
+    }
+
+    @Test
+    public void copyFailedRecordsUnchangedTest() throws IOException, ExpressionException, EvaluationException {
+        List<String> records = Arrays.asList("x+x", "(x+", "y*y*y", "sin(x,y)", "x*1");
+        writeInput(records);
+
+        streamingSimplifier = new StreamingSimplifier(2, 2);
+        StreamingSimplifier.Statistics statistics = streamingSimplifier.simplifyRecords(input, output, log);
+        List<String> outputRecords = readOutput();
+
+        results = new Object[]{statistics.getNumberOfSimplifiedRecords(), statistics.getNumberOfFailedRecords()};
+        expectedResults = new Object[]{3L, 2L};
+
+        assertTrue(statistics.getNumberOfSimplifiedRecords() == 3);
+        assertTrue(statistics.getNumberOfFailedRecords() == 2);
+        assertTrue(outputRecords.size() == 5);
+        assertTrue(Expression.build(outputRecords.get(0)).equals(Expression.build("2*x")));
+        assertTrue(outputRecords.get(1).equals("(x+"));
+        assertTrue(Expression.build(outputRecords.get(2)).equals(Expression.build("y^3")));
+        assertTrue(outputRecords.get(3).equals("sin(x,y)"));
+        assertTrue(Expression.build(outputRecords.get(4)).equals(Expression.build("x")));
+    }
+
+    @Test
+    public void logLineNumbersOfFailedAndExhaustedRecordsTest() throws IOException {
+        // Leere Zeilen zählen bei der Zeilennummer mit.
+        List<String> records = Arrays.asList("x+x", "", "(x+", "y*y", "", "x+*y");
+        writeInput(records);
+
+        streamingSimplifier = new StreamingSimplifier(2, 2);
+        streamingSimplifier.simplifyRecords(input, output, log);
+        List<String> logLines = readLog();
+
+        results = new Object[]{logLines.size()};
+        expectedResults = new Object[]{2};
+
+        assertTrue(logLines.size() == 2);
+        assertTrue(logLines.get(0).startsWith("Record 3: "));
+        assertTrue(logLines.get(1).startsWith("Record 6: "));
+
+        // Datensätze mit überschrittenem Budget werden ebenfalls mit Zeilennummer gemeldet.
+        streamingSimplifier.shutdown();
+        streamingSimplifier = new StreamingSimplifier(2, 2, new SimplificationWatchdog(0, 1));
+        logBytes.reset();
+        writeInput(Arrays.asList("", "x+x"));
+        StreamingSimplifier.Statistics statistics = streamingSimplifier.simplifyRecords(input, output, log);
+        logLines = readLog();
+
+        assertTrue(statistics.getNumberOfExhaustedRecords() == 1);
+        assertTrue(logLines.size() == 1);
+        assertTrue(logLines.get(0).startsWith("Record 2: budget exhausted in pass "));
+    }
+
+    @Test
+    public void countBlankRecordsSeparatelyTest() throws IOException {
+        List<String> records = Arrays.asList("x+x", "", "   ", "y*y", "(x+");
+        writeInput(records);
+
+        streamingSimplifier = new StreamingSimplifier(2, 2);
+        StreamingSimplifier.Statistics statistics = streamingSimplifier.simplifyRecords(input, output, log);
+        List<String> outputRecords = readOutput();
+
+        results = new Object[]{statistics.getNumberOfRecords(), statistics.getNumberOfSimplifiedRecords(),
+            statistics.getNumberOfBlankRecords(), statistics.getNumberOfFailedRecords()};
+        expectedResults = new Object[]{5L, 2L, 2L, 1L};
+
+        assertTrue(statistics.getNumberOfRecords() == 5);
+        assertTrue(statistics.getNumberOfSimplifiedRecords() == 2);
+        assertTrue(statistics.getNumberOfBlankRecords() == 2);
+        assertTrue(statistics.getNumberOfFailedRecords() == 1);
+        // Leere Datensätze werden unverändert übernommen.
+        assertTrue(outputRecords.size() == 5);
+        assertTrue(outputRecords.get(1).isEmpty());
+        assertTrue(outputRecords.get(2).equals("   "));
+    }
+
+}
@@ -0,0 +1,168 @@
+package expression.generaltests;
+
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.SelfDefinedFunction;
+import abstractexpressions.expression.classes.Variable;
+import abstractexpressions.expression.commutativealgebra.GroebnerBasisUtils;
+import abstractexpressions.expression.commutativealgebra.GroebnerBasisUtils.TermOrderings;
+import abstractexpressions.logicalexpression.classes.LogicalVariable;
+import basic.MathToolTestBase;
+import enums.TypeLanguage;
+import exceptions.EvaluationException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import lang.translator.Translator;
+import org.junit.After;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import process.CasSession;
+
+public class CasSessionTests extends MathToolTestBase {
+
+    TypeLanguage previousLanguage;
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setGlobalLanguage() {
+        // Die globale Sitzung startet ohne Sprache; für die Ausgabe der Ergebnisse wird eine benötigt.
+        previousLanguage = Expression.getLanguage();
+        Expression.setLanguage(TypeLanguage.DE);
+    }
+
+    @After
+    public void restoreGlobalLanguage() {
+        Expression.setLanguage(previousLanguage);
+    }
+
+    @Test
+    public void selfDefinedFunctionsAreSessionLocalTest() {
+        try {
+            final Expression x = Expression.build("x");
+            final Expression abstractExpression = Variable.create("U_1").pow(2);
+            boolean definedInSession = new CasSession().execute(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    SelfDefinedFunction.createSelfDefinedFunction(new SelfDefinedFunction("sessionf", new String[]{"U_1"},
+                            abstractExpression, new Expression[]{x}));
+                    return SelfDefinedFunction.getAbstractExpressionsForSelfDefinedFunctions().containsKey("sessionf");
+                }
+            });
+            boolean definedGlobally = SelfDefinedFunction.getAbstractExpressionsForSelfDefinedFunctions().containsKey("sessionf");
+
+            results = new Object[]{definedInSession, definedGlobally};
+            expectedResults = new Object[]{true, false};
+
+            assertTrue(definedInSession);
+            assertFalse(definedGlobally);
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void settingsAreSessionLocalTest() {
+        try {
+            TypeLanguage globalLanguage = Expression.getLanguage();
+            TermOrderings globalTermOrdering = CasSession.getCurrent().getTermOrdering();
+            final TermOrderings otherTermOrdering = globalTermOrdering == TermOrderings.LEX ? TermOrderings.DEGREVLEX : TermOrderings.LEX;
+            final TypeLanguage otherLanguage = globalLanguage == TypeLanguage.DE ? TypeLanguage.EN : TypeLanguage.DE;
+            TypeLanguage languageInSession = new CasSession().execute(new Callable<TypeLanguage>() {
+                @Override
+                public TypeLanguage call() {
+                    Expression.setLanguage(otherLanguage);
+                    GroebnerBasisUtils.setTermOrdering(otherTermOrdering);
+                    LogicalVariable.create("sessionlogicalvar", true);
+                    return Expression.getLanguage();
+                }
+            });
+
+            results = new Object[]{languageInSession, Expression.getLanguage()};
+            expectedResults = new Object[]{otherLanguage, globalLanguage};
+
+            assertTrue(languageInSession == otherLanguage);
+            assertTrue(Expression.getLanguage() == globalLanguage);
+            assertTrue(CasSession.getCurrent().getTermOrdering() == globalTermOrdering);
+            assertFalse(LogicalVariable.create("sessionlogicalvar").getValue());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void newSessionInheritsLanguageTest() {
+        TypeLanguage globalLanguage = Expression.getLanguage();
+        CasSession session = new CasSession();
+
+        results = new Object[]{session.getLanguage()};
+        expectedResults = new Object[]{globalLanguage};
+
+        assertTrue(session.getLanguage() == globalLanguage);
+        assertTrue(session.getAbstractExpressionsForSelfDefinedFunctions().isEmpty());
+    }
+
+    @Test
+    public void deferredMessagesKeepSessionLanguageTest() {
+        try {
+            TypeLanguage globalLanguage = Expression.getLanguage();
+            final TypeLanguage otherLanguage = globalLanguage == TypeLanguage.DE ? TypeLanguage.EN : TypeLanguage.DE;
+            CasSession session = new CasSession();
+            session.setLanguage(otherLanguage);
+            final String[] messageInSession = new String[1];
+            EvaluationException e = session.execute(new Callable<EvaluationException>() {
+                @Override
+                public EvaluationException call() {
+                    messageInSession[0] = Translator.translateOutputMessage("EB_Variable_VARIABLE_HAS_UNDEFINED_VALUE", "x");
+                    return new EvaluationException(Translator.deferredMessage("EB_Variable_VARIABLE_HAS_UNDEFINED_VALUE", "x"));
+                }
+            });
+
+            results = new Object[]{e.getMessage()};
+            expectedResults = new Object[]{messageInSession[0]};
+
+            // Die Meldung wird erst außerhalb der Session übersetzt, aber in der Sprache der Session.
+            assertTrue(e.getMessage().equals(messageInSession[0]));
+            assertTrue(e.getMessage() == e.getMessage());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void forkJoinWorkersHaveOwnSessionsTest() {
+        ForkJoinPool pool = new ForkJoinPool(2, CasSession.newForkJoinWorkerThreadFactory(), null, false);
+        try {
+            CasSession sessionOfWorker = pool.invoke(new RecursiveTask<CasSession>() {
+                @Override
+                protected CasSession compute() {
+                    SelfDefinedFunction.createSelfDefinedFunction(new SelfDefinedFunction("workerf", new String[]{"U_1"},
+                            Variable.create("U_1"), new Expression[]{Variable.create("x")}));
+                    return CasSession.getCurrent();
+                }
+            });
+            boolean definedGlobally = SelfDefinedFunction.getAbstractExpressionsForSelfDefinedFunctions().containsKey("workerf");
+
+            results = new Object[]{sessionOfWorker != CasSession.getCurrent(), definedGlobally};
+            expectedResults = new Object[]{true, false};
+
+            assertTrue(sessionOfWorker != CasSession.getCurrent());
+            assertTrue(sessionOfWorker.getAbstractExpressionsForSelfDefinedFunctions().containsKey("workerf"));
+            assertFalse(definedGlobally);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package expression.generaltests;
+
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.evaluation.ColumnarEvaluator;
+import abstractexpressions.expression.evaluation.CompiledExpression;
+import abstractexpressions.expression.evaluation.ExpressionCompiler;
+import basic.MathToolTestBase;
+import exceptions.ExpressionException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ColumnarEvaluatorTests extends MathToolTestBase {
+
+    private static final int NUMBER_OF_POINTS = 5000;
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void setUpClass() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        pool.shutdown();
+    }
+
+    private static double[][] createRandomColumns(int numberOfColumns, int numberOfPoints) {
+        Random random = new Random(42);
+        double[][] columns = new double[numberOfColumns][numberOfPoints];
+        for (double[] column : columns) {
+            for (int i = 0; i < numberOfPoints; i++) {
+                // Auch ganze Zahlen und 0, damit Pole und Definitionslücken getroffen werden.
+                column[i] = random.nextBoolean() ? random.nextInt(7) - 3 : 10 * random.nextDouble() - 5;
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Vergleicht die spaltenweise Auswertung an zufälligen Stellen mit der
+     * punktweisen Auswertung durch CompiledExpression.
+     */
+    private static void assertColumnarAgreesWithCompiled(String exprAsString, ForkJoinPool pool) throws ExpressionException {
+        Expression expr = Expression.build(exprAsString);
+        ColumnarEvaluator evaluator = new ColumnarEvaluator(expr);
+        CompiledExpression compiledExpr = ExpressionCompiler.compile(expr);
+        double[][] columns = createRandomColumns(evaluator.getVariables().length, NUMBER_OF_POINTS);
+        double[] result = new double[NUMBER_OF_POINTS];
+        long[] undefinedPoints = new long[ColumnarEvaluator.getMaskLength(NUMBER_OF_POINTS)];
+
+        int numberOfUndefinedPoints = pool == null ? evaluator.evaluate(columns, result, undefinedPoints)
+                : evaluator.evaluate(columns, result, undefinedPoints, pool);
+
+        int expectedNumberOfUndefinedPoints = 0;
+        double[] point = new double[columns.length];
+        for (int i = 0; i < NUMBER_OF_POINTS; i++) {
+            for (int j = 0; j < columns.length; j++) {
+                point[j] = columns[j][i];
+            }
+            double expectedValue = compiledExpr.evaluate(point);
+            if (Double.isNaN(expectedValue)) {
+                expectedNumberOfUndefinedPoints++;
+                if (!Double.isNaN(result[i]) || !ColumnarEvaluator.isUndefined(undefinedPoints, i)) {
+                    fail(exprAsString + " at point " + i + ": expected undefined value, got " + result[i]);
+                }
+            } else if (Math.abs(result[i] - expectedValue) > 1e-12 * Math.max(1, Math.abs(expectedValue))
+                    || ColumnarEvaluator.isUndefined(undefinedPoints, i)) {
+                fail(exprAsString + " at point " + i + ": expected " + expectedValue + ", got " + result[i]);
+            }
+        }
+        assertTrue(numberOfUndefinedPoints == expectedNumberOfUndefinedPoints);
+    }
+
+    @Test
+    public void evaluateColumnsTest() {
+        try {
+            assertColumnarAgreesWithCompiled("x+2*y-x*y/3", null);
+            assertColumnarAgreesWithCompiled("(x-y)/(x+y)+x^y+x^(1/3)", null);
+            assertColumnarAgreesWithCompiled("sin(x)*exp(y)-ln(x)+sqrt(y)+abs(x)*sgn(y)", null);
+            assertColumnarAgreesWithCompiled("ln(x)^(y-y)+arccot(x)*artanh(y)", null);
+            assertColumnarAgreesWithCompiled("diff(x^3,x)+y", null);
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void evaluateColumnsInParallelTest() {
+        try {
+            assertColumnarAgreesWithCompiled("(x-y)/(x+y)+x^y+x^(1/3)", pool);
+            assertColumnarAgreesWithCompiled("sin(x)*exp(y)-ln(x)+sqrt(y)+abs(x)*sgn(y)", pool);
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void evaluateBufferColumnsTest() {
+        try {
+            ColumnarEvaluator evaluator = new ColumnarEvaluator(Expression.build("x/y"), new String[]{"x", "y"});
+            DoubleBuffer x = ByteBuffer.allocateDirect(8 * 4).asDoubleBuffer();
+            DoubleBuffer y = DoubleBuffer.wrap(new double[]{99, 1, 2, 0, 4});
+            x.put(new double[]{1, 2, 3, 4}).flip();
+            // Gelesen wird ab der aktuellen Position.
+            y.position(1);
+            double[] result = new double[4];
+            long[] undefinedPoints = new long[1];
+            int numberOfUndefinedPoints = evaluator.evaluate(new DoubleBuffer[]{x, y}, result, undefinedPoints, pool);
+
+            results = new Object[]{result[0], result[1], result[3], numberOfUndefinedPoints};
+            expectedResults = new Object[]{1.0, 1.0, 1.0, 1};
+
+            assertTrue(result[0] == 1 && result[1] == 1 && result[3] == 1);
+            assertTrue(Double.isNaN(result[2]));
+            assertTrue(numberOfUndefinedPoints == 1);
+            assertTrue(undefinedPoints[0] == 4L);
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package expression.generaltests;
+
+import abstractexpressions.expression.classes.BinaryOperation;
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Function;
+import abstractexpressions.expression.classes.TypeBinary;
+import abstractexpressions.expression.classes.TypeFunction;
+import abstractexpressions.expression.classes.Variable;
+import abstractexpressions.expression.evaluation.ColumnarEvaluator;
+import basic.MathToolTestBase;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import org.junit.AfterClass;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ColumnarKernelTests extends MathToolTestBase {
+
+    private static final double[] SAMPLE_VALUES = {-800, -20, -3.5, -2, -1, -0.5, -1e-300, -0.0, 0, 1e-300,
+        0.25, 0.5, 1, 2, Math.PI / 2, 7.5, 20, 800, 1e300};
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    /**
+     * Wertet expr mit dem ColumnarEvaluator an allen Paaren von Werten aus
+     * SAMPLE_VALUES aus (in einer Spalte, die mehrere Blöcke umfasst) und
+     * vergleicht mit Expression.evaluate(). Wo evaluate() eine Exception
+     * wirft, muss NaN geliefert werden.
+     */
+    private static void assertKernelAgreesWithEvaluate(Expression expr) {
+        int n = SAMPLE_VALUES.length;
+        int numberOfPoints = Math.max(n * n, 3 * ColumnarEvaluator.BLOCK_SIZE + 17);
+        double[][] columns = new double[2][numberOfPoints];
+        for (int i = 0; i < numberOfPoints; i++) {
+            columns[0][i] = SAMPLE_VALUES[i % n];
+            columns[1][i] = SAMPLE_VALUES[(i / n) % n];
+        }
+        ColumnarEvaluator evaluator = new ColumnarEvaluator(expr, new String[]{"x", "y"});
+        double[] result = new double[numberOfPoints];
+        evaluator.evaluate(columns, result, new long[ColumnarEvaluator.getMaskLength(numberOfPoints)]);
+
+        for (int i = 0; i < numberOfPoints; i++) {
+            Variable.setValue("x", columns[0][i]);
+            Variable.setValue("y", columns[1][i]);
+            double expectedValue;
+            try {
+                expectedValue = expr.evaluate();
+            } catch (EvaluationException e) {
+                expectedValue = Double.NaN;
+            }
+            if (Double.isNaN(expectedValue) ? !Double.isNaN(result[i])
+                    : Math.abs(result[i] - expectedValue) > 1e-14 * Math.max(1, Math.abs(expectedValue))) {
+                fail(expr + " at x = " + columns[0][i] + ", y = " + columns[1][i] + ": expected " + expectedValue + ", got " + result[i]);
+            }
+        }
+    }
+
+    @Test
+    public void functionKernelsTest() {
+        for (TypeFunction type : TypeFunction.values()) {
+            assertKernelAgreesWithEvaluate(new Function(Variable.create("x"), type));
+            // Argument, das selbst schon undefiniert sein kann.
+            assertKernelAgreesWithEvaluate(new Function(Variable.create("x").div(Variable.create("y")), type));
+        }
+    }
+
+    @Test
+    public void binaryOperationKernelsTest() {
+        for (TypeBinary type : TypeBinary.values()) {
+            assertKernelAgreesWithEvaluate(new BinaryOperation(Variable.create("x"), Variable.create("y"), type));
+            assertKernelAgreesWithEvaluate(new BinaryOperation(new Function(Variable.create("x"), TypeFunction.exp), Variable.create("y"), type));
+        }
+    }
+
+    @Test
+    public void binaryOperationsWithConstantOperandTest() {
+        try {
+            for (String exprAsString : new String[]{"x+3", "3+x", "x-3", "3-x", "x*3", "3*x", "x/3", "3/x", "x^2", "x^3",
+                "x^(1/2)", "x^0", "x^(-1)", "x^(1/3)", "x^(2/3)", "x^(-5/3)", "2^x", "(1/2)^x", "0^x", "exp(x)^2",
+                "x^ln(-1)", "ln(-1)*x"}) {
+                assertKernelAgreesWithEvaluate(Expression.build(exprAsString));
+            }
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+package expression.generaltests;
+
+import abstractexpressions.expression.classes.EvaluationContext;
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Variable;
+import basic.MathToolTestBase;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import java.util.ArrayList;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class EvaluationContextTests extends MathToolTestBase {
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Test
+    public void evaluateWithContextTest() {
+        try {
+            Expression f = Expression.build("x^2+y+pi");
+            Variable.setValue("x", 5);
+            EvaluationContext context = new EvaluationContext().set("x", 3).set("y", 1);
+            double value = f.evaluate(context);
+
+            results = new Object[]{value, Variable.create("x").getValue()};
+            expectedResults = new Object[]{10 + Math.PI, 5.0};
+
+            assertTrue(Math.abs(value - 10 - Math.PI) < 1E-12);
+            // Die globale Variablentabelle bleibt unverändert.
+            assertTrue(Variable.create("x").getValue() == 5);
+            // Nicht belegte Variablen werden global ausgewertet.
+            Variable.setValue("y", 2);
+            assertTrue(Expression.build("x+y").evaluate(new EvaluationContext().set("x", 1)) == 3);
+            assertTrue(Expression.build("x+y").evaluate() == 7);
+        } catch (ExpressionException | EvaluationException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void operatorWithContextTest() {
+        try {
+            Expression f = Expression.build("int(a*t^2,t,0,1)");
+            Variable.setValue("t", 7);
+            double value = f.evaluate(new EvaluationContext().set("a", 2));
+            double expectedValue = 2.0 / 3;
+
+            results = new Object[]{value};
+            expectedResults = new Object[]{expectedValue};
+
+            assertTrue(Math.abs(value - expectedValue) < 1E-12);
+            assertTrue(Variable.create("t").getValue() == 7);
+        } catch (ExpressionException | EvaluationException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void concurrentEvaluationTest() {
+        try {
+            final Expression f = Expression.build("sin(x)+x*y");
+            final boolean[] correct = new boolean[4];
+            ArrayList<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < correct.length; i++) {
+                final int threadIndex = i;
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        EvaluationContext context = new EvaluationContext().set("y", threadIndex);
+                        boolean allCorrect = true;
+                        try {
+                            for (int j = 0; j < 10000; j++) {
+                                double x = j / 1000.0;
+                                context.set("x", x);
+                                allCorrect = allCorrect && f.evaluate(context) == Math.sin(x) + x * threadIndex;
+                            }
+                        } catch (EvaluationException e) {
+                            allCorrect = false;
+                        }
+                        correct[threadIndex] = allCorrect;
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            results = new Object[]{correct[0], correct[1], correct[2], correct[3]};
+            expectedResults = new Object[]{true, true, true, true};
+
+            for (boolean c : correct) {
+                assertTrue(c);
+            }
+        } catch (ExpressionException | InterruptedException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void overwriteValuesByIndexTest() {
+        try {
+            Expression f = Expression.build("x*y+z");
+            Variable.setValue("z", 4);
+            int indexOfX = EvaluationContext.indexOf("x");
+            int indexOfY = EvaluationContext.indexOf("y");
+            EvaluationContext context = new EvaluationContext().set(indexOfX, 0).set(indexOfY, 0);
+            double[] values = new double[3];
+            for (int i = 0; i < values.length; i++) {
+                // Bereits belegte Variablen werden nur überschrieben.
+                context.set(indexOfX, i).set(indexOfY, 2);
+                values[i] = f.evaluate(context);
+            }
+
+            results = new Object[]{values[2]};
+            expectedResults = new Object[]{8.0};
+
+            assertTrue(values[0] == 4 && values[1] == 6 && values[2] == 8);
+            assertTrue(context.isBound("x") && context.isBound("y") && !context.isBound("z"));
+            assertTrue(context.get("x") == 2);
+            assertTrue(indexOfX == EvaluationContext.indexOf("x"));
+        } catch (ExpressionException | EvaluationException e) {
+            fail(e.getMessage());
+        }
+    }
+
+}
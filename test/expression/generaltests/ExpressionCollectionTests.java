@@ -10,6 +10,7 @@ import abstractexpressions.expression.classes.Variable;
 import abstractexpressions.expression.basic.ExpressionCollection;
 import basic.MathToolTestBase;
 import java.util.HashSet;
+import java.util.Iterator;
 import org.junit.AfterClass;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -297,4 +298,90 @@ public class ExpressionCollectionTests extends MathToolTestBase {
         assertTrue(i == 0);
     }
 
+    @Test
+    public void iteratorSkipsGapsTest() {
+        ExpressionCollection terms = new ExpressionCollection();
+        terms.put(0, ONE);
+        terms.put(2, TWO);
+        terms.put(3, null);
+        Expression[] expected = new Expression[]{ONE, TWO};
+
+        int i = 0;
+        for (Expression term : terms) {
+            assertTrue(term == expected[i]);
+            i++;
+        }
+
+        assertTrue(i == 2);
+        assertTrue(terms.getBound() == 4);
+        assertTrue(terms.getSize() == 2);
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        ExpressionCollection terms = new ExpressionCollection();
+        terms.add(ONE);
+        terms.add(TWO);
+        terms.add(THREE);
+        for (Iterator<Expression> iter = terms.iterator(); iter.hasNext();) {
+            if (iter.next().equals(THREE)) {
+                iter.remove();
+            }
+        }
+        assertTrue(terms.getBound() == 2);
+        assertTrue(terms.getSize() == 2);
+        assertTrue(terms.get(2) == null);
+    }
+
+    @Test
+    public void compactTest() {
+        ExpressionCollection terms = new ExpressionCollection();
+        terms.put(1, ONE);
+        terms.put(4, TWO);
+        terms.put(9, THREE);
+        terms.compact();
+        assertTrue(terms.getBound() == 3);
+        assertTrue(terms.getSize() == 3);
+        assertTrue(terms.get(0).equals(ONE));
+        assertTrue(terms.get(1).equals(TWO));
+        assertTrue(terms.get(2).equals(THREE));
+    }
+
+    @Test
+    public void addAllTest() {
+        ExpressionCollection terms = new ExpressionCollection();
+        terms.add(ONE);
+        ExpressionCollection newTerms = new ExpressionCollection();
+        newTerms.put(2, TWO);
+        newTerms.put(5, THREE);
+        terms.addAll(newTerms);
+        terms.addAll(terms);
+        assertTrue(terms.getBound() == 6);
+        assertTrue(terms.getSize() == 6);
+        assertTrue(terms.toString().equals("[1, 2, 3, 1, 2, 3]"));
+        assertTrue(terms.toArray().length == 6);
+    }
+
+    @Test
+    public void largeCollectionTest() {
+        ExpressionCollection terms = new ExpressionCollection();
+        int n = 10000;
+        for (int i = 0; i < n; i++) {
+            terms.add(new Constant(i));
+        }
+        // Jeden zweiten Term entfernen.
+        for (int i = 0; i < n; i += 2) {
+            terms.remove(i);
+        }
+        assertTrue(terms.getBound() == n);
+        assertTrue(terms.getSize() == n / 2);
+        terms.insert(1, Variable.create("x"));
+        assertTrue(terms.get(1).equals(Variable.create("x")));
+        assertTrue(terms.get(2).equals(new Constant(1)));
+        assertTrue(terms.getBound() == n + 1);
+        terms.compact();
+        assertTrue(terms.getBound() == n / 2 + 1);
+        assertTrue(terms.get(n / 2).equals(new Constant(n - 1)));
+    }
+
 }
@@ -0,0 +1,175 @@
+package expression.generaltests;
+
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Variable;
+import abstractexpressions.expression.evaluation.CompiledExpression;
+import abstractexpressions.expression.evaluation.ExpressionCompiler;
+import basic.MathToolTestBase;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ExpressionCompilerTests extends MathToolTestBase {
+
+    private static final double[] SAMPLE_VALUES = {-3.5, -2, -1, -0.5, 0, 0.25, 1, 2, 7.5};
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    /**
+     * Vergleicht den übersetzten Ausdruck an allen Stellen aus SAMPLE_VALUES
+     * mit Expression.evaluate(). Wo evaluate() eine Exception wirft, muss der
+     * übersetzte Ausdruck NaN liefern.
+     */
+    private static void assertCompiledAgreesWithEvaluate(String exprAsString) throws ExpressionException {
+        Expression expr = Expression.build(exprAsString);
+        CompiledExpression compiledExpr = ExpressionCompiler.compile(expr);
+        String[] vars = compiledExpr.getVariables();
+        double[] values = new double[vars.length];
+        int[] sampleIndices = new int[vars.length];
+        while (true) {
+            for (int i = 0; i < vars.length; i++) {
+                values[i] = SAMPLE_VALUES[sampleIndices[i]];
+                Variable.setValue(vars[i], values[i]);
+            }
+            double expectedValue;
+            try {
+                expectedValue = expr.evaluate();
+            } catch (EvaluationException e) {
+                expectedValue = Double.NaN;
+            }
+            double value = compiledExpr.evaluate(values);
+            if (Double.isNaN(expectedValue) ? !Double.isNaN(value) : Math.abs(value - expectedValue) > 1e-12 * Math.max(1, Math.abs(expectedValue))) {
+                fail(exprAsString + " at " + Arrays.toString(values) + ": expected " + expectedValue + ", got " + value);
+            }
+            // Nächste Stelle.
+            int i = 0;
+            while (i < vars.length && ++sampleIndices[i] == SAMPLE_VALUES.length) {
+                sampleIndices[i] = 0;
+                i++;
+            }
+            if (i == vars.length) {
+                return;
+            }
+        }
+    }
+
+    @Test
+    public void compileArithmeticTest() {
+        try {
+            assertCompiledAgreesWithEvaluate("x+2*y-x*y/3");
+            assertCompiledAgreesWithEvaluate("(x-y)/(x+y)");
+            assertCompiledAgreesWithEvaluate("x^2+y^3-x^y");
+            assertCompiledAgreesWithEvaluate("x^(1/3)+y^(2/3)+x^(1/2)");
+            assertCompiledAgreesWithEvaluate("2^10*x+pi/2");
+            assertCompiledAgreesWithEvaluate("ln(x)^(y-y)");
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void compileFunctionsTest() {
+        try {
+            assertCompiledAgreesWithEvaluate("sin(x)*cos(y)+tan(x)-cot(y)");
+            assertCompiledAgreesWithEvaluate("exp(x)+ln(x)+lg(y)+sqrt(x*y)");
+            assertCompiledAgreesWithEvaluate("abs(x)+sgn(y)+sec(x)+cosec(y)");
+            assertCompiledAgreesWithEvaluate("sinh(x)+cosh(y)+tanh(x)+coth(y)+sech(x)+cosech(y)");
+            assertCompiledAgreesWithEvaluate("arcsin(x)+arccos(y)+arctan(x)+arccot(y)+arcsec(x)+arccosec(y)");
+            assertCompiledAgreesWithEvaluate("arsinh(x)+arcosh(y)+artanh(x)+arcoth(y)+arsech(x)+arcosech(y)");
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void compileWithInterpretedOperatorTest() {
+        try {
+            assertCompiledAgreesWithEvaluate("diff(x^3,x)+y");
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void evaluateInterpretedOperatorConcurrentlyTest() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        double previousValueOfX = Variable.create("x").getValue();
+        try {
+            // Der Operator wird interpretiert; die globale Variablentabelle darf dabei nicht verändert werden.
+            Variable.setValue("x", 42);
+            final CompiledExpression compiledExpr = ExpressionCompiler.compile(Expression.build("diff(x^3,x)+y"), new String[]{"x", "y"});
+            List<Future<Boolean>> agreements = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t;
+                agreements.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        boolean agree = true;
+                        for (int i = 0; i < 2000; i++) {
+                            double x = offset + i % 10;
+                            agree &= compiledExpr.evaluate(new double[]{x, offset}) == 3 * x * x + offset;
+                        }
+                        return agree;
+                    }
+                }));
+            }
+            boolean allAgree = true;
+            for (Future<Boolean> agreement : agreements) {
+                allAgree &= agreement.get();
+            }
+
+            results = new Object[]{allAgree, Variable.create("x").getValue()};
+            expectedResults = new Object[]{true, 42.0};
+
+            assertTrue(allAgree);
+            assertTrue(Variable.create("x").getValue() == 42);
+        } catch (Exception e) {
+            fail(e.getMessage());
+        } finally {
+            Variable.setValue("x", previousValueOfX);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void compileWithGivenVariableLayoutTest() {
+        try {
+            Expression expr = Expression.build("x-2*y");
+            CompiledExpression compiledExpr = ExpressionCompiler.compile(expr, new String[]{"y", "z", "x"});
+            results = new Object[]{compiledExpr.evaluate(new double[]{1, 100, 5})};
+            expectedResults = new Object[]{3.0};
+            assertTrue(compiledExpr.evaluate(new double[]{1, 100, 5}) == 3);
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void compileWithMissingVariableTest() {
+        try {
+            ExpressionCompiler.compile(Expression.build("x-2*y"), new String[]{"x"});
+            fail("y is not contained in the variable layout.");
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package expression.generaltests;
+
+import abstractexpressions.expression.classes.BinaryOperation;
+import abstractexpressions.expression.classes.Constant;
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.ExpressionInterner;
+import abstractexpressions.expression.classes.Function;
+import abstractexpressions.expression.classes.TypeBinary;
+import abstractexpressions.expression.classes.TypeFunction;
+import basic.MathToolTestBase;
+import exceptions.ExpressionException;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ExpressionInternerTests extends MathToolTestBase {
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Test
+    public void internEqualTreesTest() {
+        try {
+            Expression f = ExpressionInterner.intern(Expression.build("x*sin(x+1)+(x+1)"));
+            Expression g = ExpressionInterner.intern(Expression.build("x*sin(x+1)+(x+1)"));
+
+            results = new Object[]{f == g};
+            expectedResults = new Object[]{true};
+
+            assertTrue(f == g);
+            assertTrue(f.isInterned());
+            // Gleiche Teilbäume werden gemeinsam benutzt.
+            Expression argumentOfSin = ((Function) ((BinaryOperation) ((BinaryOperation) f).getLeft()).getRight()).getLeft();
+            assertTrue(argumentOfSin == ((BinaryOperation) f).getRight());
+            assertTrue(argumentOfSin.isInterned());
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void equalsOfInternedTreesTest() {
+        try {
+            Expression f = Expression.build("exp(x)^2-y/3");
+            Expression internedF = ExpressionInterner.intern(f);
+            Expression internedG = ExpressionInterner.intern(Expression.build("exp(x)^2-y/4"));
+
+            results = new Object[]{internedF.equals(f), internedF.equals(internedG)};
+            expectedResults = new Object[]{true, false};
+
+            assertTrue(internedF.equals(f));
+            assertTrue(f.equals(internedF));
+            assertFalse(internedF.equals(internedG));
+            assertTrue(f.getStructuralHash() == Expression.build("exp(x)^2-y/3").getStructuralHash());
+            assertTrue(f.getStructuralHash() == internedF.getStructuralHash());
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void internConstantsTest() {
+        Constant constant = new Constant(5);
+        Expression internedConstant = ExpressionInterner.intern(constant);
+
+        results = new Object[]{internedConstant == ExpressionInterner.constant(5)};
+        expectedResults = new Object[]{true};
+
+        // Konstanten sind veränderbar und werden daher kopiert.
+        assertTrue(internedConstant != constant);
+        assertFalse(constant.isInterned());
+        assertTrue(internedConstant == ExpressionInterner.constant(5));
+        assertTrue(internedConstant.equals(constant));
+    }
+
+    @Test
+    public void factoryMethodsTest() {
+        try {
+            Expression f = ExpressionInterner.function(ExpressionInterner.binaryOperation(
+                    ExpressionInterner.constant(2), ExpressionInterner.variable("x"), TypeBinary.TIMES), TypeFunction.cos);
+
+            results = new Object[]{f == ExpressionInterner.intern(Expression.build("cos(2*x)"))};
+            expectedResults = new Object[]{true};
+
+            assertTrue(f == ExpressionInterner.intern(Expression.build("cos(2*x)")));
+            assertTrue(ExpressionInterner.getNumberOfInternedExpressions() >= 4);
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package expression.generaltests;
+
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Variable;
+import basic.MathToolTestBase;
+import exceptions.ExpressionException;
+import java.util.HashSet;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ExpressionMetadataTests extends MathToolTestBase {
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Test
+    public void containedVarsTest() {
+        try {
+            Expression f = Expression.build("x*sin(y+pi)+exp(z_1)/2");
+            HashSet<String> vars = f.getContainedVars();
+            HashSet<String> expectedVars = new HashSet<>();
+            expectedVars.add("x");
+            expectedVars.add("y");
+            expectedVars.add("z_1");
+
+            results = new Object[]{vars};
+            expectedResults = new Object[]{expectedVars};
+
+            assertTrue(vars.equals(expectedVars));
+            assertTrue(f.contains("y"));
+            assertTrue(f.contains("pi"));
+            assertFalse(f.contains("z"));
+            assertFalse(f.contains("w"));
+            assertFalse(Expression.build("x+2").contains("pi"));
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void structuralPropertiesTest() {
+        try {
+            Expression f = Expression.build("2*x^2+y");
+            Expression g = Expression.build("x+2^x");
+            Expression h = Expression.build("3+x^(2/3)");
+
+            results = new Object[]{f.containsFunction(), g.containsFunction(), g.containsExponentialFunction(), h.containsAlgebraicOperation()};
+            expectedResults = new Object[]{false, true, true, true};
+
+            assertFalse(f.containsFunction());
+            assertFalse(f.containsAlgebraicOperation());
+            assertTrue(g.containsFunction());
+            assertTrue(g.containsExponentialFunction());
+            assertFalse(g.containsTrigonometricalFunction());
+            assertTrue(Expression.build("x+cos(x)").containsTrigonometricalFunction());
+            assertTrue(h.containsAlgebraicOperation());
+            assertTrue(Expression.build("x+sin(1/2)").turnToApproximate().containsApproximates());
+            assertFalse(f.containsApproximates());
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void lengthAndDepthTest() {
+        try {
+            Expression f = Expression.build("2*x*(3*y)*sin(x+y)");
+            Expression g = Expression.build("x^2+exp(z)/y");
+
+            results = new Object[]{f.getLength(), f.getDepth(), g.getLength(), g.getDepth()};
+            expectedResults = new Object[]{5, 4, 2, 4};
+
+            // Konstante Faktoren zählen nicht mit.
+            assertTrue(f.getLength() == 5);
+            assertTrue(f.getDepth() == 4);
+            assertTrue(g.getLength() == 2);
+            assertTrue(g.getDepth() == 4);
+            assertTrue(Expression.build("2*3").getLength() == 1);
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void isConstantFollowsPreciseVariablesTest() {
+        try {
+            Expression f = Expression.build("2*m_1+sin(pi)");
+            assertFalse(f.isConstant());
+            Variable.setPreciseExpression("m_1", Expression.build("3"));
+            boolean isConstantWithPreciseValue = f.isConstant();
+            Variable.setPreciseExpression("m_1", null);
+
+            results = new Object[]{isConstantWithPreciseValue, f.isConstant()};
+            expectedResults = new Object[]{true, false};
+
+            assertTrue(isConstantWithPreciseValue);
+            assertFalse(f.isConstant());
+        } catch (ExpressionException e) {
+            fail(e.getMessage());
+        }
+    }
+
+}
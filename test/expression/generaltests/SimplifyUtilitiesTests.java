@@ -1,13 +1,19 @@
 package expression.generaltests;
 
+import abstractexpressions.expression.classes.BinaryOperation;
 import abstractexpressions.expression.classes.Constant;
 import abstractexpressions.expression.classes.Expression;
+import static abstractexpressions.expression.classes.Expression.MINUS_ONE;
 import static abstractexpressions.expression.classes.Expression.ONE;
+import static abstractexpressions.expression.classes.Expression.ZERO;
+import abstractexpressions.expression.classes.Product;
+import abstractexpressions.expression.classes.Sum;
 import abstractexpressions.expression.classes.Variable;
 import abstractexpressions.expression.basic.ExpressionCollection;
 import abstractexpressions.expression.basic.SimplifyUtilities;
 import basic.MathToolTestBase;
 import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -153,4 +159,134 @@ public class SimplifyUtilitiesTests extends MathToolTestBase {
         assertTrue(factors.getBound() == 1);
     }
 
+    @Test
+    public void equivalenceHashTest() throws Exception {
+        String[][] equivalentPairs = new String[][]{{"a+b+c", "c+a+b"}, {"x*y*z", "z*(y*x)"}, {"a-(-2)*b", "a-(-2)*b"},
+            {"(x-y)^2", "(y-x)^2"}, {"cos(a-b)", "cos(b-a)"}, {"(a-b)*(c-d)", "(b-a)*(d-c)"}, {"(a-b)/(c-d)", "(b-a)/(d-c)"}};
+        for (String[] pair : equivalentPairs) {
+            Expression exprLeft = Expression.build(pair[0]);
+            Expression exprRight = Expression.build(pair[1]);
+            assertTrue(exprLeft.equivalent(exprRight));
+            assertTrue(exprLeft.getEquivalenceHash() == exprRight.getEquivalenceHash());
+        }
+    }
+
+    @Test
+    public void differenceIntersectionUnionTest() throws Exception {
+        ExpressionCollection termsLeft = new ExpressionCollection("x", "y", "x", "2*z");
+        ExpressionCollection termsRight = new ExpressionCollection("x", "z*2", "w");
+        ExpressionCollection difference = SimplifyUtilities.difference(termsLeft, termsRight);
+        ExpressionCollection intersection = SimplifyUtilities.intersection(termsLeft, termsRight);
+        ExpressionCollection union = SimplifyUtilities.union(termsLeft, termsRight);
+
+        results = new Object[]{difference.toString(), intersection.toString(), union.toString()};
+        expectedResults = new Object[]{"[y, x]", "[x, 2*z]", "[x, y, x, 2*z, w]"};
+
+        assertTrue(difference.toString().equals("[y, x]"));
+        assertTrue(intersection.toString().equals("[x, 2*z]"));
+        assertTrue(union.toString().equals("[x, y, x, 2*z, w]"));
+        // Die Argumente dürfen nicht verändert werden.
+        assertTrue(termsLeft.getSize() == 4 && termsRight.getSize() == 3);
+    }
+
+    @Test
+    public void equivalentLargeSumsTest() throws Exception {
+        // Summen mit vielen Summanden in entgegengesetzter Reihenfolge.
+        Variable x = Variable.create("x");
+        int n = 1000;
+        ExpressionCollection summands = new ExpressionCollection();
+        ExpressionCollection summandsInReverseOrder = new ExpressionCollection();
+        for (int i = 1; i <= n; i++) {
+            summands.add(new Constant(i).mult(x.pow(i)));
+            summandsInReverseOrder.add(x.pow(n + 1 - i).mult(n + 1 - i));
+        }
+        Expression sum = SimplifyUtilities.produceSum(summands);
+        Expression sumInReverseOrder = SimplifyUtilities.produceSum(summandsInReverseOrder);
+        assertTrue(sum.equivalent(sumInReverseOrder));
+        summandsInReverseOrder.put(0, x.pow(n + 1).mult(n));
+        assertFalse(sum.equivalent(SimplifyUtilities.produceSum(summandsInReverseOrder)));
+    }
+
+    @Test
+    public void getSummandsWithPositiveSignTest() throws Exception {
+        // f = (x + (-y)) - (z + (-w)).
+        Expression x = Variable.create("x");
+        Expression y = Variable.create("y");
+        Expression z = Variable.create("z");
+        Expression w = Variable.create("w");
+        Expression f = x.add(Expression.MINUS_ONE.mult(y)).sub(z.add(Expression.MINUS_ONE.mult(w)));
+        ExpressionCollection summandsLeft = new ExpressionCollection();
+        ExpressionCollection summandsRight = new ExpressionCollection();
+        SimplifyUtilities.getSummandsWithPositiveSign(f, summandsLeft, summandsRight);
+        assertTrue(SimplifyUtilities.equivalentUpToOrder(summandsLeft, SimplifyUtilities.getSummands(w.add(x))));
+        assertTrue(SimplifyUtilities.equivalentUpToOrder(summandsRight, SimplifyUtilities.getSummands(y.add(z))));
+        assertFalse(SimplifyUtilities.equivalentUpToOrder(summandsLeft, summandsRight));
+    }
+
+    @Test
+    public void antiEquivalentLargeProductsTest() throws Exception {
+        // Produkte mit vielen Faktoren, die sich in genau einem Vorzeichen unterscheiden.
+        Variable x = Variable.create("x");
+        Variable y = Variable.create("y");
+        int n = 200;
+        ExpressionCollection factors = new ExpressionCollection();
+        ExpressionCollection factorsInReverseOrder = new ExpressionCollection();
+        for (int i = 1; i <= n; i++) {
+            factors.add(x.sub(new Constant(i)));
+            factorsInReverseOrder.add(x.sub(new Constant(n + 1 - i)));
+        }
+        factors.add(x.sub(y));
+        factorsInReverseOrder.add(y.sub(x));
+        Expression product = SimplifyUtilities.produceProduct(factors);
+        Expression productInReverseOrder = SimplifyUtilities.produceProduct(factorsInReverseOrder);
+        assertTrue(product.antiEquivalent(productInReverseOrder));
+        assertFalse(product.equivalent(productInReverseOrder));
+        assertFalse(product.antiEquivalent(product));
+    }
+
+    @Test
+    public void getSummandsOfDeeplyNestedSumTest() throws Exception {
+        // Tief verschachtelte Summen und Produkte dürfen nicht zu einem StackOverflowError führen.
+        Variable x = Variable.create("x");
+        int n = 100000;
+        Expression sum = x;
+        Expression product = x;
+        for (int i = 2; i <= n; i++) {
+            sum = sum.add(x.pow(i));
+            product = product.mult(x.pow(i));
+        }
+        assertTrue(SimplifyUtilities.getSummands(sum).getBound() == n);
+        assertTrue(SimplifyUtilities.getFactors(product).getBound() == n);
+        assertTrue(SimplifyUtilities.getSummandsLeftInExpression(sum).get(n - 1).equals(x.pow(n)));
+        assertTrue(sum.getEquivalenceHash() != product.getEquivalenceHash());
+    }
+
+    @Test
+    public void produceSumAndProductTest() throws Exception {
+        // Summen und Produkte werden als Sum bzw. Product gebildet, die sich wie x+(y+z) bzw. x*(y*z) verhalten.
+        Variable x = Variable.create("x");
+        Variable y = Variable.create("y");
+        Variable z = Variable.create("z");
+        Expression sum = SimplifyUtilities.produceSum(new ExpressionCollection(x, ZERO, y, z));
+        Expression product = SimplifyUtilities.produceProduct(new ExpressionCollection(MINUS_ONE, x, ONE, y.sub(z)));
+        Expression binarySum = x.add(y.add(z));
+        Expression binaryProduct = MINUS_ONE.mult(x.mult(y.sub(z)));
+
+        results = new Object[]{sum.toString(), product.toString()};
+        expectedResults = new Object[]{binarySum.toString(), binaryProduct.toString()};
+
+        assertTrue(sum instanceof Sum && product instanceof Product);
+        assertTrue(sum.toString().equals(binarySum.toString()) && product.toString().equals(binaryProduct.toString()));
+        assertTrue(sum.expressionToLatex().equals(binarySum.expressionToLatex()));
+        assertTrue(product.expressionToLatex().equals(binaryProduct.expressionToLatex()));
+        assertTrue(sum.equals(binarySum) && binarySum.equals(sum) && product.equals(binaryProduct) && binaryProduct.equals(product));
+        assertTrue(sum.getStructuralHash() == binarySum.getStructuralHash());
+        assertTrue(product.getStructuralHash() == binaryProduct.getStructuralHash());
+        assertTrue(sum.getLength() == binarySum.getLength() && product.getLength() == binaryProduct.getLength());
+        assertTrue(((BinaryOperation) sum).getLeft().equals(x) && ((BinaryOperation) sum).getRight().equals(y.add(z)));
+        assertFalse(sum.equals(x.add(y).add(z)));
+        assertTrue(SimplifyUtilities.produceProduct(new ExpressionCollection(x, ZERO, y)).equals(ZERO));
+        assertTrue(SimplifyUtilities.produceSum(new ExpressionCollection(ZERO, x)) == x);
+    }
+
 }
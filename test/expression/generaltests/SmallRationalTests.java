@@ -0,0 +1,90 @@
+package expression.generaltests;
+
+import abstractexpressions.expression.basic.SmallRational;
+import abstractexpressions.expression.classes.Constant;
+import abstractexpressions.expression.classes.Expression;
+import basic.MathToolTestBase;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import java.math.BigDecimal;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SmallRationalTests extends MathToolTestBase {
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Test
+    public void longValueOfConstantsTest() {
+        Constant small = new Constant(new BigDecimal("123456789012345678"));
+        Constant large = new Constant(new BigDecimal("1234567890123456789"));
+        Constant decimal = new Constant(new BigDecimal("2.0"));
+
+        results = new Object[]{small.isLongValue(), large.isLongValue(), decimal.isLongValue()};
+        expectedResults = new Object[]{true, false, false};
+
+        assertTrue(small.isLongValue() && small.getLongValue() == 123456789012345678L);
+        assertFalse(large.isLongValue());
+        assertFalse(decimal.isLongValue());
+        assertTrue(decimal.isIntegerConstant());
+        assertTrue(Constant.valueOf(7) == Constant.valueOf(7));
+        assertTrue(Constant.valueOf(7).equals(new Constant(new BigDecimal("7"))));
+        assertFalse(Constant.valueOf(2).equals(decimal));
+    }
+
+    @Test
+    public void arithmeticWithOverflowTest() {
+        SmallRational r = SmallRational.valueOf(-4, -6).reduce();
+
+        results = new Object[]{r.getNumerator(), r.getDenominator()};
+        expectedResults = new Object[]{2L, 3L};
+
+        assertTrue(r.getNumerator() == 2 && r.getDenominator() == 3);
+        assertTrue(SmallRational.pow(3, 39) == 4052555153018976267L);
+        try {
+            SmallRational.pow(3, 40);
+            fail("3^40 does not fit into a long.");
+        } catch (ArithmeticException e) {
+        }
+        try {
+            SmallRational.valueOf(Long.MAX_VALUE, 1).add(SmallRational.valueOf(1, 1));
+            fail("Long.MAX_VALUE + 1 does not fit into a long.");
+        } catch (ArithmeticException e) {
+        }
+    }
+
+    @Test
+    public void simplifyRationalsBeyondLongTest() {
+        try {
+            Expression f = Expression.build("999999999999999999*999999999999999999+1/3-1/3");
+            Expression g = Expression.build("4052555153018976267+4052555153018976267");
+            Expression h = Expression.build("(10/4)*(10/4)+1/(-8)");
+            Expression fSimplified = f.simplify();
+            Expression gSimplified = g.simplify();
+            Expression hSimplified = h.simplify();
+            Expression expectedF = new Constant(new BigDecimal("999999999999999998000000000000000001"));
+            Expression expectedG = new Constant(new BigDecimal("8105110306037952534"));
+            Expression expectedH = new Constant(49).div(8);
+
+            results = new Object[]{fSimplified, gSimplified, hSimplified};
+            expectedResults = new Object[]{expectedF, expectedG, expectedH};
+
+            assertTrue(fSimplified.equals(expectedF));
+            assertTrue(gSimplified.equals(expectedG));
+            assertTrue(hSimplified.equals(expectedH));
+        } catch (ExpressionException | EvaluationException e) {
+            fail(e.getMessage());
+        }
+    }
+
+}
@@ -1,11 +1,22 @@
 package parsetests;
 
+import exceptions.EvaluationException;
 import exceptions.ExpressionException;
+import abstractexpressions.expression.basic.SimplifyUtilities;
+import abstractexpressions.expression.classes.BinaryOperation;
+import abstractexpressions.expression.classes.Constant;
 import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Function;
 import abstractexpressions.expression.classes.Operator;
+import abstractexpressions.expression.classes.Product;
+import abstractexpressions.expression.classes.Sum;
+import abstractexpressions.expression.classes.TypeBinary;
+import abstractexpressions.expression.classes.TypeFunction;
 import abstractexpressions.expression.classes.TypeOperator;
+import abstractexpressions.expression.classes.Variable;
 import basic.MathToolTestBase;
 import java.util.ArrayList;
+import java.util.HashSet;
 import operationparser.OperationParser;
 import operationparser.ParameterPattern;
 import operationparser.ParameterPattern.Multiplicity;
@@ -521,4 +532,92 @@ public class ParseTests extends MathToolTestBase {
         }
     }
 
+    // Teil 3: Tests für das Einlesen von Ausdrücken.
+    @Test
+    public void buildBinaryOperationsTest() throws ExpressionException {
+        // Es wird am rechtesten Operator niedrigster Priorität aufgeteilt: a+b-c = a+(b-c), a*b/c = a*(b/c), a^b^c = (a^b)^c.
+        Expression a = Variable.create("a");
+        Expression b = Variable.create("b");
+        Expression c = Variable.create("c");
+        Assert.assertTrue(Expression.build("a+b-c").equals(new BinaryOperation(a, new BinaryOperation(b, c, TypeBinary.MINUS), TypeBinary.PLUS)));
+        Assert.assertTrue(Expression.build("a-b+c").equals(new BinaryOperation(new BinaryOperation(a, b, TypeBinary.MINUS), c, TypeBinary.PLUS)));
+        Assert.assertTrue(Expression.build("a-b-c").equals(new BinaryOperation(new BinaryOperation(a, b, TypeBinary.MINUS), c, TypeBinary.MINUS)));
+        Assert.assertTrue(Expression.build("a*b/c").equals(new BinaryOperation(a, new BinaryOperation(b, c, TypeBinary.DIV), TypeBinary.TIMES)));
+        Assert.assertTrue(Expression.build("a^b^c").equals(new BinaryOperation(new BinaryOperation(a, b, TypeBinary.POW), c, TypeBinary.POW)));
+        Assert.assertTrue(Expression.build("A * (B+C)").equals(new BinaryOperation(a, new BinaryOperation(b, c, TypeBinary.PLUS), TypeBinary.TIMES)));
+    }
+
+    @Test
+    public void buildLeadingSignTest() throws ExpressionException {
+        Expression x = Variable.create("x");
+        Expression y = Variable.create("y");
+        Assert.assertTrue(Expression.build("-2").equals(new Constant(-2)));
+        Assert.assertTrue(Expression.build("-2/3").equals(new BinaryOperation(new Constant(-2), new Constant(3), TypeBinary.DIV)));
+        Assert.assertTrue(Expression.build("-x*y").equals(new BinaryOperation(Expression.MINUS_ONE, new BinaryOperation(x, y, TypeBinary.TIMES), TypeBinary.TIMES)));
+        Assert.assertTrue(Expression.build("-x-y").equals(new BinaryOperation(new BinaryOperation(Expression.MINUS_ONE, x, TypeBinary.TIMES), y, TypeBinary.MINUS)));
+        Assert.assertTrue(Expression.build("+x").equals(x));
+    }
+
+    @Test
+    public void buildFunctionsAndOperatorsTest() throws ExpressionException {
+        Expression x = Variable.create("x");
+        Assert.assertTrue(Expression.build("sin(x)^2").equals(new BinaryOperation(new Function(x, TypeFunction.sin), Expression.TWO, TypeBinary.POW)));
+        Assert.assertTrue(Expression.build("sqrt(x)").equals(x.pow(Expression.ONE.div(Expression.TWO))));
+        Assert.assertTrue(Expression.build("|x|+1").equals(new BinaryOperation(new Function(x, TypeFunction.abs), Expression.ONE, TypeBinary.PLUS)));
+        Assert.assertTrue(Expression.build("x!").equals(new Operator(TypeOperator.fac, new Object[]{x})));
+        Assert.assertTrue(Expression.build("2*diff(x^2,x)").isProduct());
+    }
+
+    @Test
+    public void buildLargeSumTest() throws ExpressionException {
+        // Lange Formeln werden in linearer Zeit eingelesen.
+        int n = 5000;
+        StringBuilder formula = new StringBuilder("x_1");
+        for (int i = 2; i <= n; i++) {
+            formula.append("+x_").append(i);
+        }
+        HashSet<String> vars = new HashSet<>();
+        Expression sum = Expression.build(formula.toString(), vars);
+        Assert.assertTrue(vars.size() == n);
+        Assert.assertTrue(SimplifyUtilities.getSummands(sum).getBound() == n);
+    }
+
+    @Test
+    public void buildAndSimplifyVeryLargeSumsAndProductsTest() throws ExpressionException, EvaluationException {
+        // Summen und Produkte mit sehr vielen Operanden bleiben flach und führen nicht zu einem StackOverflowError.
+        int n = 20000;
+        StringBuilder sumOfVariables = new StringBuilder("x_1");
+        StringBuilder productOfVariables = new StringBuilder("x_1");
+        StringBuilder sumOfConstants = new StringBuilder("1");
+        for (int i = 2; i <= n; i++) {
+            sumOfVariables.append("+x_").append(i % 50 + 1);
+            productOfVariables.append("*x_").append(i % 50 + 1);
+            sumOfConstants.append("+").append(i);
+        }
+        Expression sum = Expression.build(sumOfVariables.toString());
+        Expression product = Expression.build(productOfVariables.toString());
+
+        results = new Object[]{sum.getDepth(), product.getDepth()};
+        expectedResults = new Object[]{2, 2};
+
+        Assert.assertTrue(sum instanceof Sum && sum.getDepth() == 2);
+        Assert.assertTrue(product instanceof Product && product.getDepth() == 2);
+        Assert.assertTrue(Expression.build(sum.toString()).equals(sum));
+        Assert.assertTrue(Expression.build(product.toString()).equals(product));
+        Assert.assertTrue(sum.orderDifferencesAndQuotients().orderSumsAndProducts().simplifyBasic().getDepth() <= 3);
+        Assert.assertTrue(Expression.build(sumOfConstants.toString()).simplify().equals(new Constant(n * (n + 1) / 2)));
+    }
+
+    @Test
+    public void buildInvalidFormulasTest() {
+        String[] invalidFormulas = {"", "x+", "*x", "x+*y", "(x", "x)", "sin(x,y)", "2x", "xy", "|x", "f(x)"};
+        for (String formula : invalidFormulas) {
+            try {
+                Expression.build(formula);
+                fail(formula + " wurde eingelesen.");
+            } catch (ExpressionException e) {
+            }
+        }
+    }
+
 }
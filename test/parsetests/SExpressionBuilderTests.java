@@ -0,0 +1,134 @@
+package parsetests;
+
+import abstractexpressions.expression.basic.SimplifyUtilities;
+import abstractexpressions.expression.classes.BinaryOperation;
+import abstractexpressions.expression.classes.Constant;
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Function;
+import abstractexpressions.expression.classes.SExpressionBuilder;
+import abstractexpressions.expression.classes.TypeBinary;
+import abstractexpressions.expression.classes.TypeFunction;
+import abstractexpressions.expression.classes.Variable;
+import basic.MathToolTestBase;
+import exceptions.ExpressionException;
+import java.math.BigDecimal;
+import org.junit.Assert;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SExpressionBuilderTests extends MathToolTestBase {
+
+    private SExpressionBuilder builder;
+
+    @Before
+    public void defineBuilder() {
+        builder = new SExpressionBuilder();
+    }
+
+    @Test
+    public void buildFromSExpressionTest() throws ExpressionException {
+        Expression expr = builder.buildFromSExpression("(+ (* a b) (/ c d))");
+        Assert.assertTrue(expr.equals(Expression.build("a*b+c/d")));
+        expr = builder.buildFromSExpression(" ( sin\n(- x 1) ) ");
+        Assert.assertTrue(expr.equals(Expression.build("sin(x-1)")));
+        // Mehrstellige Operationen werden von links nach rechts zusammengefasst.
+        expr = builder.buildFromSExpression("(- a b c)");
+        Assert.assertTrue(expr.equals(Expression.build("a-b").sub(Variable.create("c"))));
+        Assert.assertTrue(builder.buildFromSExpression("(x)").equals(Variable.create("x")));
+        Assert.assertTrue(builder.buildFromSExpression("(- 3)").equals(new Constant(-3)));
+        Assert.assertTrue(builder.buildFromSExpression("(neg x)").equals(Expression.build("-x")));
+    }
+
+    @Test
+    public void buildFromPrefixAndPostfixTest() throws ExpressionException {
+        Expression expected = Expression.build("a*b+c/d");
+        Assert.assertTrue(builder.buildFromPrefix("+ * a b / c d".split(" ")).equals(expected));
+        Assert.assertTrue(builder.buildFromPostfix("a b * c d / +".split(" ")).equals(expected));
+        Assert.assertTrue(builder.buildFromPostfix("x exp sqrt".split(" ")).equals(Expression.build("sqrt(exp(x))")));
+    }
+
+    @Test
+    public void constantsArePreciseTest() throws ExpressionException {
+        // Zufällige Konstanten aus der genetischen Programmierung dürfen nicht gerundet werden.
+        String value = "0.31830988618379067153776752674502872406891929148091";
+        Expression expr = builder.buildFromSExpression("(* x " + value + ")");
+        Assert.assertTrue(((BinaryOperation) expr).getRight().equals(new Constant(new BigDecimal(value))));
+        expr = builder.buildFromPrefix(new String[]{"-", "x", "-1.5e-3"});
+        Assert.assertTrue(((BinaryOperation) expr).getRight().equals(new Constant(new BigDecimal("-1.5e-3"))));
+    }
+
+    @Test
+    public void protectedOperatorsAndMappingsTest() throws ExpressionException {
+        Expression x = Variable.create("x");
+        Expression y = Variable.create("y");
+        // Geschützte Operationen behalten ihre Bedeutung: plog(y) = ln(|y|), psqrt(y) = sqrt(|y|).
+        Expression absOfY = new Function(y, TypeFunction.abs);
+        Assert.assertTrue(builder.buildFromSExpression("(plog y)").equals(new Function(absOfY, TypeFunction.ln)));
+        Assert.assertTrue(builder.buildFromPostfix(new String[]{"y", "psqrt"}).equals(Expression.build("sqrt(abs(y))")));
+        // Für pdiv gibt es keine Voreinstellung.
+        try {
+            builder.buildFromSExpression("(pdiv x y)");
+            fail("pdiv wurde ohne Zuordnung eingelesen.");
+        } catch (ExpressionException e) {
+        }
+        builder.mapNode("pdiv", 2, new SExpressionBuilder.NodeFactory() {
+
+            @Override
+            public Expression build(Expression[] arguments) {
+                return new BinaryOperation(arguments[0], arguments[1], TypeBinary.DIV);
+            }
+
+        });
+        Expression expr = builder.buildFromSExpression("(pdiv x (plog y))");
+        Assert.assertTrue(expr.equals(new BinaryOperation(x, new Function(absOfY, TypeFunction.ln), TypeBinary.DIV)));
+        Assert.assertTrue(builder.buildFromPrefix("pdiv x y".split(" ")).equals(x.div(y)));
+        builder.mapTerminal("x0", Variable.create("x_0")).mapBinaryOperation("aq", TypeBinary.DIV).mapFunction("log", TypeFunction.lg);
+        expr = builder.buildFromSExpression("(aq (log x0) 2)");
+        Assert.assertTrue(expr.equals(new BinaryOperation(new Function(Variable.create("x_0"), TypeFunction.lg), Expression.TWO, TypeBinary.DIV)));
+        // Ein neu zugeordnetes Symbol verliert seine bisherige Bedeutung.
+        builder.mapTerminal("pdiv", Expression.ONE);
+        Assert.assertTrue(builder.buildFromPostfix(new String[]{"x", "pdiv", "*"}).equals(new BinaryOperation(x, Expression.ONE, TypeBinary.TIMES)));
+    }
+
+    @Test
+    public void buildDeepTreesTest() throws ExpressionException {
+        // Tief verschachtelte Bäume dürfen nicht zu einem StackOverflowError führen.
+        int n = 100000;
+        StringBuilder sExpression = new StringBuilder();
+        String[] postfix = new String[2 * n - 1];
+        postfix[0] = "x";
+        for (int i = 1; i < n; i++) {
+            sExpression.append("(+ x ");
+            postfix[2 * i - 1] = "x";
+            postfix[2 * i] = "+";
+        }
+        sExpression.append("x");
+        for (int i = 1; i < n; i++) {
+            sExpression.append(")");
+        }
+        Assert.assertTrue(SimplifyUtilities.getSummands(builder.buildFromSExpression(sExpression.toString())).getBound() == n);
+        Assert.assertTrue(SimplifyUtilities.getSummands(builder.buildFromPostfix(postfix)).getBound() == n);
+    }
+
+    @Test
+    public void buildInvalidTreesTest() {
+        String[] invalidSExpressions = {"", "(+ a", "+ a)", "()", "((+) a b)", "(foo a)", "(sin a b)", "(* a)", "a b", "(+ a b) c", "$", "(plog a b)"};
+        for (String sExpression : invalidSExpressions) {
+            try {
+                builder.buildFromSExpression(sExpression);
+                fail(sExpression + " wurde eingelesen.");
+            } catch (ExpressionException e) {
+            }
+        }
+        String[][] invalidPostfix = {{}, {"a", "+"}, {"a", "b"}, {"a", "sin", "sin", "b"}};
+        for (String[] postfix : invalidPostfix) {
+            try {
+                builder.buildFromPostfix(postfix);
+                fail();
+            } catch (ExpressionException e) {
+            }
+        }
+    }
+
+}
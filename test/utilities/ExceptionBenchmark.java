@@ -0,0 +1,138 @@
+package utilities;
+
+import abstractexpressions.expression.computation.NumericalUtils;
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Operator;
+import abstractexpressions.expression.equation.SolveGeneralEquationUtils;
+import abstractexpressions.expression.integration.GeneralIntegralUtils;
+import exceptions.EvaluationException;
+import exceptions.ExpressionException;
+import exceptions.NotAlgebraicallyIntegrableException;
+
+/**
+ * Laufzeitvergleich für Exceptions, die nur zur Steuerung des Programmablaufs
+ * dienen (Integration, Lösen von Gleichungen, numerisches Abtasten von
+ * Funktionen mit Definitionslücken). Kein Test, sondern ein Programm, welches
+ * mit unterschiedlichen Ständen der Klassen ausgeführt werden kann. Aufruf:
+ * java utilities.ExceptionBenchmark [Anzahl der Wiederholungen]
+ */
+public class ExceptionBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static final String[] INTEGRALS = {"int(x^3/7+x^2-5,x)", "int(x*exp(x),x)", "int(x^2*sin(x),x)",
+        "int(1/(x^2+1),x)", "int((x+1)/(x^2-4),x)", "int(sin(x)^3,x)", "int(ln(x)^2,x)", "int(exp(x)/(exp(2*x)+1),x)",
+        "int(x/sqrt(x^2+2*x+5),x)", "int(exp(x^2),x)"};
+
+    private static final String[] EQUATIONS = {"x^3-6*x^2+11*x-6", "exp(2*x)-3*exp(x)+2", "sin(x)^2-sin(x)",
+        "ln(x)^2-1", "x^4-5*x^2+4", "2^x-3^(x+1)", "x*exp(x)-1"};
+
+    public static void main(final String[] args) throws InterruptedException {
+        Thread thread = new Thread(null, new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    runBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : 5);
+                } catch (ExpressionException | EvaluationException e) {
+                    System.out.println("Benchmark failed: " + e.getMessage());
+                }
+            }
+
+        }, "benchmark", 1L << 28);
+        thread.start();
+        thread.join();
+    }
+
+    private static void runBenchmark(int n) throws ExpressionException, EvaluationException {
+
+        Expression[] integrals = new Expression[INTEGRALS.length];
+        for (int i = 0; i < INTEGRALS.length; i++) {
+            integrals[i] = Expression.build(INTEGRALS[i]);
+        }
+        Expression[] equations = new Expression[EQUATIONS.length];
+        for (int i = 0; i < EQUATIONS.length; i++) {
+            equations[i] = Expression.build(EQUATIONS[i]);
+        }
+        // Funktion mit vielen Definitionslücken: ln(sin(x)) ist auf der Hälfte der Stützstellen undefiniert.
+        Expression undefinedOnHalf = Expression.build("ln(sin(x))-1/2");
+
+        for (int round = 0; round < ROUNDS; round++) {
+
+            System.out.println("Round " + (round + 1) + ", " + n + " repetitions:");
+
+            long start = System.nanoTime();
+            int count = 0;
+            for (int k = 0; k < n; k++) {
+                for (Expression integral : integrals) {
+                    try {
+                        if (GeneralIntegralUtils.integrateIndefinite((Operator) integral) != null) {
+                            count++;
+                        }
+                    } catch (EvaluationException e) {
+                    }
+                }
+            }
+            print("integrateIndefinite", start);
+
+            start = System.nanoTime();
+            for (int k = 0; k < n; k++) {
+                for (Expression equation : equations) {
+                    try {
+                        count += SolveGeneralEquationUtils.solveEquation(equation, Expression.ZERO, "x").getBound();
+                    } catch (EvaluationException e) {
+                    }
+                }
+            }
+            print("solveEquation", start);
+
+            start = System.nanoTime();
+            for (int k = 0; k < n; k++) {
+                count += NumericalUtils.solveEquation(undefinedOnHalf, "x", -50, 50, 20000).size();
+            }
+            print("NumericalUtils.solveEquation, 20000 points", start);
+
+            start = System.nanoTime();
+            for (int k = 0; k < 100000; k++) {
+                count += throwAndCatch(20, true);
+            }
+            print("throw with stack trace, depth 20 (100000x)", start);
+
+            start = System.nanoTime();
+            for (int k = 0; k < 100000; k++) {
+                count += throwAndCatch(20, false);
+            }
+            print("throw without stack trace, depth 20 (100000x)", start);
+
+            if (count == 0) {
+                System.out.println("Unexpected result.");
+            }
+
+        }
+
+    }
+
+    private static int throwAndCatch(int depth, boolean withStackTrace) {
+        try {
+            throwAtDepth(depth, withStackTrace);
+            return 0;
+        } catch (NotAlgebraicallyIntegrableException e) {
+            return 1;
+        }
+    }
+
+    private static void throwAtDepth(int depth, boolean withStackTrace) throws NotAlgebraicallyIntegrableException {
+        if (depth > 0) {
+            throwAtDepth(depth - 1, withStackTrace);
+        } else if (withStackTrace) {
+            throw new NotAlgebraicallyIntegrableException("Function is not algebraically integrable.");
+        } else {
+            throw new NotAlgebraicallyIntegrableException();
+        }
+    }
+
+    private static void print(String operation, long start) {
+        System.out.println("  " + operation + ": " + (System.nanoTime() - start) / 1000 + " us");
+    }
+
+}
@@ -0,0 +1,112 @@
+package utilities;
+
+import abstractexpressions.expression.basic.ExpressionCollection;
+import abstractexpressions.expression.basic.SimplifyUtilities;
+import abstractexpressions.expression.classes.Constant;
+import abstractexpressions.expression.classes.Expression;
+import abstractexpressions.expression.classes.Variable;
+import exceptions.EvaluationException;
+
+/**
+ * Einfacher Laufzeitvergleich für ExpressionCollection auf großen Summen. Kein
+ * Test, sondern ein Programm, welches mit unterschiedlichen Ständen der Klassen
+ * ausgeführt werden kann. Aufruf:
+ * java utilities.ExpressionCollectionBenchmark [Anzahl der Summanden]
+ */
+public class ExpressionCollectionBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(final String[] args) throws InterruptedException {
+        // Summen werden rekursiv zerlegt, daher wird ein großer Stack benötigt.
+        Thread thread = new Thread(null, new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    runBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : 2000);
+                } catch (EvaluationException e) {
+                    System.out.println("Simplification failed: " + e.getMessage());
+                }
+            }
+
+        }, "benchmark", 1L << 30);
+        thread.start();
+        thread.join();
+    }
+
+    private static void runBenchmark(int n) throws EvaluationException {
+
+        // Zuerst Expression initialisieren (statische Felder).
+        Expression x = Expression.ONE.mult(Variable.create("x"));
+        Expression[] summands = new Expression[n];
+        for (int i = 0; i < n; i++) {
+            summands[i] = new Constant(i + 1).mult(x.pow(i + 1));
+        }
+        Expression sum = SimplifyUtilities.produceSum(new ExpressionCollection(summands));
+
+        for (int round = 0; round < ROUNDS; round++) {
+
+            System.out.println("Round " + (round + 1) + ", " + n + " summands:");
+
+            long start = System.nanoTime();
+            ExpressionCollection terms = null;
+            for (int k = 0; k < 10; k++) {
+                terms = SimplifyUtilities.getSummands(sum);
+            }
+            print("getSummands (10x)", start);
+
+            start = System.nanoTime();
+            Expression result = null;
+            for (int k = 0; k < 10; k++) {
+                result = SimplifyUtilities.produceSum(terms);
+            }
+            print("produceSum (10x)", start);
+
+            start = System.nanoTime();
+            int count = 0;
+            for (int k = 0; k < 10; k++) {
+                for (int i = 0; i < terms.getBound(); i++) {
+                    if (terms.get(i) != null) {
+                        count++;
+                    }
+                }
+                for (Expression term : terms) {
+                    count++;
+                }
+            }
+            print("get(i) and iterator (10x)", start);
+
+            start = System.nanoTime();
+            ExpressionCollection copy = new ExpressionCollection(terms);
+            for (int i = 0; i < 1000; i++) {
+                copy.insert(0, copy.get(copy.getBound() - 1));
+                copy.remove(copy.getBound() - 1);
+            }
+            print("insert at front/remove last (1000x)", start);
+
+            start = System.nanoTime();
+            copy = new ExpressionCollection(terms);
+            for (int i = 0; i < copy.getBound(); i += 2) {
+                copy.remove(i);
+            }
+            copy = new ExpressionCollection(copy);
+            print("remove every second summand", start);
+
+            start = System.nanoTime();
+            result = sum.simplify();
+            print("simplify()", start);
+
+            if (count != 20 * n || copy.getSize() != n / 2 || result == null) {
+                System.out.println("Unexpected result.");
+            }
+
+        }
+
+    }
+
+    private static void print(String operation, long start) {
+        System.out.println("  " + operation + ": " + (System.nanoTime() - start) / 1000 + " us");
+    }
+
+}
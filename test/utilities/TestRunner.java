@@ -1,6 +1,13 @@
 package utilities;
 
 import basic.MathToolTestBase;
+import batchtests.BatchSimplifierTests;
+import batchtests.EquivalenceVerifierTests;
+import batchtests.PopulationSimplifierTests;
+import batchtests.SimplificationBudgetTests;
+import batchtests.SimplificationCacheTests;
+import batchtests.SimplificationServerTests;
+import batchtests.StreamingSimplifierTests;
 import expression.computationtests.*;
 import expression.generaltests.*;
 import logicalexpression.computationtests.*;
@@ -47,6 +54,14 @@ public class TestRunner {
         TEST_CLASSES.add(SolveGeneralDifferentialEquationTests.class);
         TEST_CLASSES.add(SolveSpecialEquationTests.class);
         TEST_CLASSES.add(ExpressionCollectionTests.class);
+        TEST_CLASSES.add(ExpressionInternerTests.class);
+        TEST_CLASSES.add(ExpressionMetadataTests.class);
+        TEST_CLASSES.add(EvaluationContextTests.class);
+        TEST_CLASSES.add(CasSessionTests.class);
+        TEST_CLASSES.add(SmallRationalTests.class);
+        TEST_CLASSES.add(ExpressionCompilerTests.class);
+        TEST_CLASSES.add(ColumnarEvaluatorTests.class);
+        TEST_CLASSES.add(ColumnarKernelTests.class);
         TEST_CLASSES.add(GeneralSimplifyExpressionTests.class);
         TEST_CLASSES.add(SimplifyUtilitiesTests.class);
         TEST_CLASSES.add(GeneralLogicalTests.class);
@@ -55,7 +70,15 @@ public class TestRunner {
         TEST_CLASSES.add(MatrixFunctionTests.class);
         TEST_CLASSES.add(GeneralMatrixTests.class);
         TEST_CLASSES.add(ParseTests.class);
+        TEST_CLASSES.add(SExpressionBuilderTests.class);
         TEST_CLASSES.add(SubstitutionTests.class);
+        TEST_CLASSES.add(PopulationSimplifierTests.class);
+        TEST_CLASSES.add(EquivalenceVerifierTests.class);
+        TEST_CLASSES.add(SimplificationCacheTests.class);
+        TEST_CLASSES.add(SimplificationBudgetTests.class);
+        TEST_CLASSES.add(StreamingSimplifierTests.class);
+        TEST_CLASSES.add(BatchSimplifierTests.class);
+        TEST_CLASSES.add(SimplificationServerTests.class);
     }
 
     @Test